@@ -55,4 +55,29 @@ export const getHistoricalFullPriceChart = (symbol: string): Promise<HistoricalC
   const stock = fetchRDS<HistoricalChart[]>(`/historical-price-full/${symbol}`);
   console.log(stock)
   return stock
-};
\ No newline at end of file
+};
+
+// Batch versions: one request (and one SQL query) for many tickers.
+// Response is grouped by ticker: { "AAPL": [...], "MSFT": [...] }
+export const fetchMlSignalsBatch = (
+  symbols: string[],
+  limit: number = 180,
+  from?: string,
+  to?: string
+): Promise<Record<string, MlSignal[]>> => {
+  const params = new URLSearchParams({ tickers: symbols.map((s) => s.toUpperCase()).join(","), limit: String(limit) });
+  if (from) params.set("from", from);
+  if (to) params.set("to", to);
+  return fetchRDS<Record<string, MlSignal[]>>(`/signals?${params.toString()}`);
+};
+
+export const getHistoricalFullPriceCharts = (
+  symbols: string[],
+  from?: string,
+  to?: string
+): Promise<Record<string, HistoricalChart[]>> => {
+  const params = new URLSearchParams({ symbols: symbols.map((s) => s.toUpperCase()).join(",") });
+  if (from) params.set("from", from);
+  if (to) params.set("to", to);
+  return fetchRDS<Record<string, HistoricalChart[]>>(`/historical-price-full?${params.toString()}`);
+};
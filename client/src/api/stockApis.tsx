@@ -73,6 +73,11 @@ export const getFinnhubQuote = async (symbol: string): Promise<MappedFinnhubQuot
   };
 };
 
+// server-side ranked autocomplete over the same listing
+export const searchSymbols = (query: string, limit: number = 10): Promise<UniversalStockList[]> => {
+  return fetchAPI<UniversalStockList[]>(`/search?q=${encodeURIComponent(query)}&limit=${limit}`);
+};
+
 export const getAllUsSymbols = (): Promise<UniversalStockList[]> => {
   const stocks = fetchAPI<UniversalStockList[]>("/all-us-symbols");
   console.log(stocks)
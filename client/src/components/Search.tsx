@@ -1,15 +1,15 @@
 'use client';
 
-import { useState, useMemo } from 'react';
+import { useState } from 'react';
 import useSWR from 'swr';
 import Link from 'next/link';
 import { MagnifyingGlassIcon } from '@heroicons/react/24/outline';
-import { getAllUsSymbols } from '@/api/stockApis';
+import { searchSymbols } from '@/api/stockApis';
 import { UniversalStockList } from '@/types/stock';
 import { useDebounce } from "use-debounce";
 
-// The fetcher for our SWR hook
-const symbolsFetcher = () => getAllUsSymbols();
+// The fetcher for our SWR hook; the key carries the search term
+const suggestionsFetcher = ([, term]: [string, string]) => searchSymbols(term, 20);
 
 export default function Search() {
   const [searchTerm, setSearchTerm] = useState('');
@@ -17,33 +17,20 @@ export default function Search() {
 
   const [debouncedValue] = useDebounce(searchTerm, 300);
 
-  // Fetch all symbols once and cache globally with SWR
-  const { data: allStocks, error } = useSWR<UniversalStockList[]>(
-    'all-us-symbols', // Unique key for the global cache
-    symbolsFetcher,
+  // Suggestions are ranked on the server, so only the matches come over the wire.
+  // SWR caches each term, so backspacing to a previous term is instant.
+  const { data: filteredStocks = [], error, isLoading } = useSWR<UniversalStockList[]>(
+    debouncedValue ? ['symbol-search', debouncedValue] : null,
+    suggestionsFetcher,
     {
-      revalidateOnFocus: false, // No need to re-fetch this list on focus
+      revalidateOnFocus: false,
       revalidateOnReconnect: false,
+      keepPreviousData: true,
     }
   );
 
-  // Filter the list based on the search term.
-  // useMemo prevents re-filtering on every render, only when searchTerm or allStocks changes.
-  const filteredStocks = useMemo(() => {
-    if (!debouncedValue || !allStocks) {
-      return [];
-    }
-    const term = debouncedValue.toLowerCase();
-    return allStocks
-      .filter(
-        (stock) =>
-          stock.symbol.toLowerCase().startsWith(term) ||
-          stock.description.toLowerCase().includes(term)
-      )
-  }, [debouncedValue, allStocks]);
-
   if (error) {
-    console.error("Failed to load stock list for search.");
+    console.error("Failed to load search suggestions.");
     // Render a disabled input or nothing if the master list fails to load
     return <div></div>;
   }
@@ -66,7 +53,7 @@ export default function Search() {
       {/* --- Autocomplete Dropdown --- */}
       {isActive && searchTerm && (
         <div className="absolute z-10 w-full mt-1 bg-white border border-gray-300 rounded-lg shadow-lg">
-          {!allStocks && <div className="p-2 text-gray-500">Loading stock list...</div>}
+          {isLoading && <div className="p-2 text-gray-500">Searching...</div>}
           <ul className="max-h-80 overflow-y-auto">
             {filteredStocks.length > 0 ? (
               filteredStocks.map((stock) => (
@@ -0,0 +1,99 @@
+"""
+Portable IsolationForest format for the JVM scorer (server: analytics/IsolationForestModel).
+
+The pickle only loads in Python with the same scikit-learn version, so every trained
+model is also written to `iso_forest_models` as a flat little-endian binary:
+
+  header : magic "ISOF", version u16, n_features u16, feature names (u16 len + utf-8),
+           max_samples u32, offset_ f64, n_trees u32
+  tree   : n_nodes u32, left i16[n], right i16[n], feature i8[n],
+           threshold f32[n], n_node_samples u16[n]
+
+Feature indices are already mapped through estimators_features_ to the original column
+order. Thresholds are rounded DOWN to float32: sklearn compares float32 inputs, so
+x <= t and x <= floor32(t) agree for every float32 x and scores stay identical.
+"""
+
+import struct
+
+import numpy as np
+from sqlalchemy import text
+
+MAGIC = b"ISOF"
+VERSION = 1
+
+UPSERT_MODEL_SQL = """
+INSERT INTO iso_forest_models (ticker, trained_at, model_bytes)
+VALUES (:t, now(), :b)
+ON CONFLICT (ticker)
+DO UPDATE SET
+  trained_at = EXCLUDED.trained_at,
+  model_bytes = EXCLUDED.model_bytes;
+"""
+
+
+def _floor_float32(values: np.ndarray) -> np.ndarray:
+    f32 = values.astype(np.float32)
+    too_high = f32.astype(np.float64) > values
+    f32[too_high] = np.nextafter(f32[too_high], np.float32(-np.inf))
+    return f32
+
+
+def to_portable_bytes(iso, risk_features: list[str]) -> bytes:
+    out = bytearray()
+    out += MAGIC
+    out += struct.pack("<HH", VERSION, len(risk_features))
+    for name in risk_features:
+        encoded = name.encode("utf-8")
+        out += struct.pack("<H", len(encoded)) + encoded
+
+    out += struct.pack("<IdI", int(iso.max_samples_), float(iso.offset_), len(iso.estimators_))
+
+    for est, features in zip(iso.estimators_, iso.estimators_features_):
+        tree = est.tree_
+        n = tree.node_count
+        is_leaf = tree.children_left < 0
+
+        # tree-local feature index -> column in risk_features
+        feature = np.where(is_leaf, -1, np.asarray(features)[np.maximum(tree.feature, 0)])
+
+        out += struct.pack("<I", n)
+        out += tree.children_left.astype("<i2").tobytes()
+        out += tree.children_right.astype("<i2").tobytes()
+        out += feature.astype("<i1").tobytes()
+        out += _floor_float32(np.where(is_leaf, 0.0, tree.threshold)).astype("<f4").tobytes()
+        out += tree.n_node_samples.astype("<u2").tobytes()
+
+    return bytes(out)
+
+
+def save_portable_model(symbol: str, iso, risk_features: list[str]) -> None:
+    from db_utils import get_engine
+
+    payload = to_portable_bytes(iso, risk_features)
+    with get_engine().begin() as conn:
+        conn.execute(text(UPSERT_MODEL_SQL), {"t": symbol.upper(), "b": payload})
+
+
+if __name__ == "__main__":
+    # one-off backfill: convert every pickle already on S3
+    from pathlib import Path
+
+    import joblib
+
+    from build_signals import RISK_FEATURES
+    from db_utils import get_universe
+    from model_store import download_model
+
+    exported = 0
+    for t in get_universe():
+        local_path = Path("/tmp/models") / t / f"{t.lower()}_iso_forest.pkl"
+        local_path.parent.mkdir(parents=True, exist_ok=True)
+        try:
+            download_model(t, local_path)
+            save_portable_model(t, joblib.load(local_path), RISK_FEATURES)
+            exported += 1
+        except Exception as e:
+            print(f"[SKIP] {t}: {e}")
+
+    print(f"[DONE] exported={exported}")
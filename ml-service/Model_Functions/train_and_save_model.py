@@ -5,6 +5,7 @@ from pathlib import Path
 from sklearn.ensemble import IsolationForest
 
 from model_store import upload_model
+from Model_Functions.export_iso_forest import save_portable_model
 
 def train_and_save_model(df: pd.DataFrame, symbol: str, risk_features: list[str]):
     """
@@ -32,4 +33,6 @@ def train_and_save_model(df: pd.DataFrame, symbol: str, risk_features: list[str]
     joblib.dump(iso, local_path)
 
     upload_model(symbol, local_path)
+    # same model in the portable format, for on-demand scoring in the server
+    save_portable_model(symbol, iso, risk_features)
     return iso
@@ -0,0 +1,118 @@
+package com.obinna.StockAnalysis.Service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.obinna.StockAnalysis.Repository.PriceIngestionRepository;
+import com.obinna.StockAnalysis.dto.financial_modeling_prep.HistoricalChart;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// One symbol of historical-price-eod/full (5 years of daily bars) on its way into the prices table:
+// the databind decode the service does today, a streaming decode straight into rows for comparison,
+// and the HistoricalChart -> PriceRow mapping that saveToDatabase runs before the batch insert.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoricalChartIngestBenchmark {
+
+    private static final int BARS = 5 * 252;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private byte[] json;
+    private HistoricalChart[] charts;
+
+    @Setup
+    public void setUp() throws IOException {
+        // same shape and field order as FMP's answer, newest first
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder("[");
+        LocalDate date = LocalDate.of(2025, 6, 30);
+        double close = 150;
+        for (int i = 0; i < BARS; i++) {
+            double open = close * (1 + random.nextGaussian() * 0.01);
+            double high = Math.max(open, close) * (1 + random.nextDouble() * 0.01);
+            double low = Math.min(open, close) * (1 - random.nextDouble() * 0.01);
+            long volume = 20_000_000 + random.nextInt(40_000_000);
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(String.format(Locale.ROOT,
+                    "{\"symbol\":\"AAPL\",\"date\":\"%s\",\"open\":%.2f,\"high\":%.2f,\"low\":%.2f,\"close\":%.2f,"
+                            + "\"volume\":%d,\"change\":%.2f,\"changePercent\":%.5f,\"vwap\":%.4f}",
+                    date, open, high, low, close, volume, close - open, (close - open) / open * 100,
+                    (open + high + low + close) / 4));
+            date = date.minusDays(date.getDayOfWeek().getValue() == 1 ? 3 : 1);
+            close = open;
+        }
+        json = sb.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        charts = decodeDatabind();
+    }
+
+    @Benchmark
+    public HistoricalChart[] decodeDatabind() throws IOException {
+        return mapper.readValue(json, HistoricalChart[].class);
+    }
+
+    @Benchmark
+    public List<PriceIngestionRepository.PriceRow> decodeAndMap() throws IOException {
+        return FinancialModelingPrepService.toPriceRows("AAPL", mapper.readValue(json, HistoricalChart[].class));
+    }
+
+    // rows built while parsing, skipping the String-typed DTO entirely
+    @Benchmark
+    public List<PriceIngestionRepository.PriceRow> decodeStreaming() throws IOException {
+        List<PriceIngestionRepository.PriceRow> rows = new ArrayList<>(BARS);
+        try (JsonParser parser = mapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return rows;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                LocalDate date = null;
+                double open = 0, high = 0, low = 0, close = 0;
+                long volume = 0;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "date" -> date = LocalDate.parse(parser.getText());
+                        case "open" -> open = parser.getDoubleValue();
+                        case "high" -> high = parser.getDoubleValue();
+                        case "low" -> low = parser.getDoubleValue();
+                        case "close" -> close = parser.getDoubleValue();
+                        case "volume" -> volume = parser.getLongValue();
+                        default -> parser.skipChildren();
+                    }
+                }
+                rows.add(new PriceIngestionRepository.PriceRow("AAPL", date, open, high, low, close, volume));
+            }
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public List<PriceIngestionRepository.PriceRow> mapRows() {
+        return FinancialModelingPrepService.toPriceRows("AAPL", charts);
+    }
+}
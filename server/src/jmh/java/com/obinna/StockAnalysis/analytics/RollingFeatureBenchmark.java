@@ -0,0 +1,68 @@
+package com.obinna.StockAnalysis.analytics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The per-ticker kernels of a full feature rebuild: stepping 5 years of bars through
+// RollingFeatureCalculator, then ranking the drivers of every row with SignalCalculator.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RollingFeatureBenchmark {
+
+    private static final int BARS = 5 * 252;
+
+    private double[] closes;
+    private double[] volumes;
+    private double[] spyLogReturns;
+    private List<double[]> rows;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        closes = new double[BARS];
+        volumes = new double[BARS];
+        spyLogReturns = new double[BARS];
+        double close = 150;
+        for (int i = 0; i < BARS; i++) {
+            spyLogReturns[i] = random.nextGaussian() * 0.01;
+            close *= Math.exp(1.2 * spyLogReturns[i] + random.nextGaussian() * 0.015);
+            closes[i] = close;
+            volumes[i] = 20_000_000 + random.nextInt(40_000_000);
+        }
+        rows = features();
+    }
+
+    @Benchmark
+    public List<double[]> features() {
+        RollingFeatureCalculator calc = new RollingFeatureCalculator();
+        List<double[]> out = new ArrayList<>(BARS);
+        for (int i = 0; i < BARS; i++) {
+            double[] row = new double[RollingFeatureCalculator.FEATURE_COUNT];
+            calc.step(closes[i], volumes[i], spyLogReturns[i], row);
+            out.add(row);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public List<List<SignalCalculator.Driver>> drivers() {
+        return SignalCalculator.drivers(rows, 0);
+    }
+}
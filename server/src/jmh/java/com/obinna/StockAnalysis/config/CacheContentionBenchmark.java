@@ -0,0 +1,71 @@
+package com.obinna.StockAnalysis.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// The caches CacheConfig hands to @Cacheable (Caffeine + stats + metrics + the JFR decorator), read by many
+// request threads while a few refresh entries: the per-symbol profile and priceChanges caches, and
+// marketLeaders, whose handful of keys every dashboard load reads.
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheContentionBenchmark {
+
+    @Param({ "profile", "priceChanges", "marketLeaders" })
+    public String cacheName;
+
+    // roughly the tracked universe, for the per-symbol caches
+    @Param({ "5000" })
+    public int symbolKeys;
+
+    private int keys;
+
+    private Cache cache;
+    private String[] symbols;
+
+    @Setup
+    public void setUp() {
+        cache = new CacheConfig().cacheManager(new SimpleMeterRegistry()).getCache(cacheName);
+        // keyed by leader type: gainers, losers, actives
+        keys = cacheName.equals("marketLeaders") ? 3 : symbolKeys;
+        symbols = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            symbols[i] = "KEY" + i;
+            cache.put(symbols[i], Integer.valueOf(i));
+        }
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(7)
+    public Object get() {
+        return cache.get(symbols[ThreadLocalRandom.current().nextInt(keys)]);
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(1)
+    public void put() {
+        int i = ThreadLocalRandom.current().nextInt(keys);
+        cache.put(symbols[i], Integer.valueOf(i));
+    }
+}
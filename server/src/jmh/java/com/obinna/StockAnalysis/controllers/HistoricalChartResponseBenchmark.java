@@ -0,0 +1,76 @@
+package com.obinna.StockAnalysis.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.obinna.StockAnalysis.dto.financial_modeling_prep.HistoricalChartDTO;
+import com.obinna.StockAnalysis.models.Price;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// GET /api/rds/historical-price-full/{symbol} for the default 5 year range: Price entities -> HistoricalChartDTOs -> JSON body.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoricalChartResponseBenchmark {
+
+    private static final int BARS = 5 * 252;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private List<Price> prices;
+    private List<HistoricalChartDTO> dtos;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        prices = new ArrayList<>(BARS);
+        LocalDate date = LocalDate.of(2020, 7, 1);
+        double close = 150;
+        for (int i = 0; i < BARS; i++) {
+            Price p = new Price();
+            p.setTicker("AAPL");
+            p.setPriceDate(date);
+            p.setOpenPrice(close * (1 + random.nextGaussian() * 0.01));
+            p.setHighPrice(Math.max(p.getOpenPrice(), close) * 1.005);
+            p.setLowPrice(Math.min(p.getOpenPrice(), close) * 0.995);
+            p.setClosePrice(close);
+            p.setVolume(20_000_000L + random.nextInt(40_000_000));
+            prices.add(p);
+            date = date.plusDays(date.getDayOfWeek().getValue() == 5 ? 3 : 1);
+            close = p.getOpenPrice();
+        }
+        dtos = RDSController.toChartDtos(prices);
+    }
+
+    @Benchmark
+    public List<HistoricalChartDTO> mapDtos() {
+        return RDSController.toChartDtos(prices);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws IOException {
+        return mapper.writeValueAsBytes(RDSController.toChartDtos(prices));
+    }
+}
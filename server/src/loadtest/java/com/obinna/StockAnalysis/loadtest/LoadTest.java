@@ -0,0 +1,238 @@
+package com.obinna.StockAnalysis.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+// End-to-end load test against a running server, normally one started with the loadtest profile
+// (replayed providers, the docker-compose Postgres):
+//   1. a full ingestAll over the symbol list through POST /api/stock/ingest-batch, timed as one run
+//   2. a closed-loop request mix over the REST endpoints from `concurrency` clients for `duration`,
+//      after a warmup that is not counted
+// Throughput and p50/p90/p99/max per endpoint are printed and written as JSON to loadtest.report.
+// With loadtest.replay=true the ReplayServer is started in this JVM first (replay.* properties).
+//
+// Recording tapes: run this once, with a short symbol list, against a server started with real keys and
+// providers.record.dir set; every provider answer the run needs is then on disk.
+public final class LoadTest {
+
+    private static final Logger LOGGER = Logger.getLogger(LoadTest.class.getName());
+
+    private static final List<String> DEFAULT_SYMBOLS = List.of(
+            "AAPL", "MSFT", "NVDA", "AMZN", "GOOGL", "META", "TSLA", "JPM", "V", "XOM",
+            "UNH", "JNJ", "WMT", "PG", "MA", "HD", "COST", "AVGO", "KO", "PEP");
+
+    // {symbol} is replaced per request
+    private static final List<String> ENDPOINTS = List.of(
+            "/api/stock/quote/{symbol}",
+            "/api/stock/finnhub/quote/{symbol}",
+            "/api/stock/company-profile/{symbol}",
+            "/api/stock/stock-price-change/{symbol}",
+            "/api/stock/historical-price-full/{symbol}",
+            "/api/stock/historical-chart/{symbol}",
+            "/api/stock/sectors-performance",
+            "/api/stock/market-leaders/biggest-gainers",
+            "/api/stock/search?q={symbol}",
+            "/api/news/company-news/{symbol}",
+            "/api/rds/historical-price-full/{symbol}",
+            "/api/rds/signals/{symbol}",
+            "/api/rds/risk/{symbol}");
+
+    public record Stats(long requests, long errors, double throughputPerSecond,
+            double p50Ms, double p90Ms, double p99Ms, double maxMs) {
+    }
+
+    public record Ingest(int symbols, int status, double seconds, double symbolsPerSecond) {
+    }
+
+    public record Report(String baseUrl, int concurrency, long durationSeconds, Ingest ingest,
+            Stats overall, Map<String, Stats> endpoints, Map<String, Long> replay) {
+    }
+
+    private final String baseUrl;
+    private final List<String> symbols;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    LoadTest(String baseUrl, List<String> symbols, int concurrency, Duration warmup, Duration duration) {
+        this.baseUrl = baseUrl;
+        this.symbols = symbols;
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    Ingest ingest() throws IOException, InterruptedException {
+        String body = symbols.stream().map(s -> "\"" + s + "\"").collect(Collectors.joining(",", "[", "]"));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/stock/ingest-batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        LOGGER.info("Ingesting " + symbols.size() + " symbols");
+        long start = System.nanoTime();
+        // ingestAll returns once every symbol is written
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new Ingest(symbols.size(), response.statusCode(), seconds, symbols.size() / seconds);
+    }
+
+    Map<String, Recorder> requestMix() throws InterruptedException {
+        Map<String, Recorder> recorders = new LinkedHashMap<>();
+        ENDPOINTS.forEach(e -> recorders.put(e, new Recorder()));
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long until = measureFrom + duration.toNanos();
+        LOGGER.info(concurrency + " clients, " + warmup.toSeconds() + "s warmup, " + duration.toSeconds() + "s measured");
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                clients.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < until && !Thread.currentThread().isInterrupted()) {
+                        String endpoint = ENDPOINTS.get(random.nextInt(ENDPOINTS.size()));
+                        String symbol = symbols.get(random.nextInt(symbols.size()));
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + endpoint.replace("{symbol}", symbol)))
+                                .timeout(Duration.ofSeconds(30))
+                                .GET()
+                                .build();
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            // 404 is a valid answer for symbols without signals or risk scores
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            ok = status < 400 || status == 404;
+                        } catch (IOException e) {
+                            ok = false;
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        long end = System.nanoTime();
+                        if (start >= measureFrom && end <= until) {
+                            recorders.get(endpoint).record(end - start, ok);
+                        }
+                    }
+                });
+            }
+        }
+        return recorders;
+    }
+
+    // latencies of one endpoint; nearest-rank percentiles over every sample
+    static final class Recorder {
+        private long[] samples = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void record(long nanos, boolean ok) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        synchronized void addTo(Recorder other) {
+            for (int i = 0; i < count; i++) {
+                other.record(samples[i], true);
+            }
+            other.errors += errors;
+        }
+
+        synchronized Stats stats(Duration window) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return new Stats(count, errors, count / (window.toNanos() / 1e9),
+                    millis(sorted, 0.50), millis(sorted, 0.90), millis(sorted, 0.99), millis(sorted, 1.0));
+        }
+
+        private static double millis(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.max(0, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("loadtest.base-url", "http://localhost:8080");
+        String symbolList = System.getProperty("loadtest.symbols", "");
+        List<String> symbols = symbolList.isBlank() ? DEFAULT_SYMBOLS
+                : Arrays.stream(symbolList.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+        int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 15));
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60));
+        boolean runIngest = Boolean.parseBoolean(System.getProperty("loadtest.ingest", "true"));
+        Path reportFile = Path.of(System.getProperty("loadtest.report", "target/loadtest-result.json"));
+
+        ReplayServer replay = Boolean.getBoolean("loadtest.replay")
+                ? ReplayServer.start(ReplayServer.Options.fromSystemProperties())
+                : null;
+        try {
+            LoadTest test = new LoadTest(baseUrl, symbols, concurrency, warmup, duration);
+            Ingest ingest = runIngest ? test.ingest() : null;
+            Map<String, Recorder> recorders = test.requestMix();
+
+            Recorder all = new Recorder();
+            Map<String, Stats> endpoints = new LinkedHashMap<>();
+            recorders.forEach((endpoint, r) -> {
+                r.addTo(all);
+                endpoints.put(endpoint, r.stats(duration));
+            });
+            Map<String, Long> replayCounts = replay == null ? null
+                    : Map.of("served", replay.served(), "missing", replay.missing(), "injected", replay.injected());
+            Report report = new Report(baseUrl, concurrency, duration.toSeconds(), ingest, all.stats(duration),
+                    endpoints, replayCounts);
+
+            print(report);
+            Files.createDirectories(reportFile.toAbsolutePath().getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile.toFile(), report);
+            LOGGER.info("Report written to " + reportFile.toAbsolutePath());
+        } finally {
+            if (replay != null) {
+                replay.close();
+            }
+        }
+    }
+
+    private static void print(Report report) {
+        if (report.ingest() != null) {
+            Ingest i = report.ingest();
+            System.out.printf(Locale.ROOT, "ingestAll: %d symbols in %.1fs (%.2f symbols/s, HTTP %d)%n",
+                    i.symbols(), i.seconds(), i.symbolsPerSecond(), i.status());
+        }
+        System.out.printf(Locale.ROOT, "%-45s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        List<Map.Entry<String, Stats>> rows = new ArrayList<>(report.endpoints().entrySet());
+        rows.add(Map.entry("all", report.overall()));
+        for (Map.Entry<String, Stats> row : rows) {
+            Stats s = row.getValue();
+            System.out.printf(Locale.ROOT, "%-45s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    row.getKey(), s.requests(), s.errors(), s.throughputPerSecond(),
+                    s.p50Ms(), s.p90Ms(), s.p99Ms(), s.maxMs());
+        }
+    }
+}
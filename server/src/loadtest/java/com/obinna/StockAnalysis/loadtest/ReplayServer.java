@@ -0,0 +1,132 @@
+package com.obinna.StockAnalysis.loadtest;
+
+import com.obinna.StockAnalysis.config.ProviderTape;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+// Stands in for FMP, Finnhub and Alpha Vantage by serving the tapes ProviderTrafficInterceptor recorded.
+// Requests arrive as /<host>/<path>?<query> (providers.replay.url on the app side). Each answer is delayed
+// by latency-ms plus an exponential tail with mean jitter-ms, and error-rate of them fail with error-status
+// instead, so timeouts, hedging, retries and key benching can be exercised on purpose.
+// Requests with no tape get a 404 and are counted as misses.
+public final class ReplayServer implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ReplayServer.class.getName());
+
+    public record Options(Path tapes, int port, long latencyMs, long jitterMs, double errorRate, int errorStatus) {
+
+        // -Dreplay.tapes=recordings -Dreplay.port=8089 -Dreplay.latency-ms=80 -Dreplay.jitter-ms=40
+        // -Dreplay.error-rate=0.0 -Dreplay.error-status=503
+        public static Options fromSystemProperties() {
+            return new Options(
+                    Path.of(System.getProperty("replay.tapes", "recordings")),
+                    Integer.getInteger("replay.port", 8089),
+                    Long.getLong("replay.latency-ms", 80),
+                    Long.getLong("replay.jitter-ms", 40),
+                    Double.parseDouble(System.getProperty("replay.error-rate", "0")),
+                    Integer.getInteger("replay.error-status", 503));
+        }
+    }
+
+    private final Options options;
+    private final HttpServer server;
+    private final LongAdder served = new LongAdder();
+    private final LongAdder missing = new LongAdder();
+    private final LongAdder injected = new LongAdder();
+
+    private ReplayServer(Options options) throws IOException {
+        this.options = options;
+        this.server = HttpServer.create(new InetSocketAddress(options.port()), 512);
+        server.createContext("/", this::handle);
+        // sleeping out the latency must not hold up other requests
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    public static ReplayServer start(Options options) throws IOException {
+        if (!Files.isDirectory(options.tapes())) {
+            throw new IllegalArgumentException("No tapes at " + options.tapes().toAbsolutePath());
+        }
+        ReplayServer replay = new ReplayServer(options);
+        replay.server.start();
+        LOGGER.info("Replaying " + options.tapes().toAbsolutePath() + " on port " + options.port());
+        return replay;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String raw = exchange.getRequestURI().getRawPath();
+            int slash = raw.indexOf('/', 1);
+            String host = raw.substring(1, slash < 0 ? raw.length() : slash);
+            String path = slash < 0 ? "/" : raw.substring(slash);
+            String query = exchange.getRequestURI().getRawQuery();
+            URI original = URI.create("https://" + host + path + (query == null ? "" : "?" + query));
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delay = options.latencyMs() + (long) (-options.jitterMs() * Math.log(1 - random.nextDouble()));
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+            if (random.nextDouble() < options.errorRate()) {
+                injected.increment();
+                send(exchange, options.errorStatus(), "{\"error\":\"injected by replay server\"}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            Path tape = ProviderTape.fileFor(options.tapes(), original);
+            if (!Files.isRegularFile(tape)) {
+                missing.increment();
+                LOGGER.fine("No tape for " + original);
+                send(exchange, 404, "{\"error\":\"no tape\"}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            served.increment();
+            send(exchange, 200, Files.readAllBytes(tape));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    public long served() {
+        return served.sum();
+    }
+
+    public long missing() {
+        return missing.sum();
+    }
+
+    public long injected() {
+        return injected.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        LOGGER.info("Replay server stopped: " + served() + " served, " + missing() + " without a tape, "
+                + injected() + " injected errors");
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        ReplayServer replay = start(Options.fromSystemProperties());
+        Runtime.getRuntime().addShutdownHook(new Thread(replay::close));
+        Thread.currentThread().join();
+    }
+}
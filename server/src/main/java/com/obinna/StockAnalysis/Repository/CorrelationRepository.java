@@ -0,0 +1,65 @@
+package com.obinna.StockAnalysis.Repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public class CorrelationRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CorrelationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record PeerRow(
+            String ticker,
+            int rank,
+            String peer,
+            float correlation) {
+    }
+
+    public List<PeerRow> findPeers(String ticker, int windowDays) {
+        String sql = """
+                    SELECT ticker, peer_rank, peer, correlation
+                    FROM correlation_peers
+                    WHERE ticker = ? AND window_days = ?
+                    ORDER BY peer_rank
+                """;
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new PeerRow(
+                rs.getString("ticker"),
+                rs.getInt("peer_rank"),
+                rs.getString("peer"),
+                rs.getFloat("correlation")), ticker, windowDays);
+    }
+
+    // swaps in a whole run for one window; readers see either the old or the new set
+    @Transactional
+    public void replaceWindow(int windowDays, LocalDate asOf, List<PeerRow> rows) {
+        jdbcTemplate.update("DELETE FROM correlation_peers WHERE window_days = ?", windowDays);
+
+        String sql = """
+                    INSERT INTO correlation_peers (ticker, window_days, peer_rank, peer, correlation, as_of_date)
+                    VALUES (?, ?, ?, ?, ?, ?)
+                """;
+
+        jdbcTemplate.batchUpdate(
+                sql,
+                rows,
+                1000, // batch size
+                (ps, row) -> {
+                    ps.setString(1, row.ticker());
+                    ps.setInt(2, windowDays);
+                    ps.setInt(3, row.rank());
+                    ps.setString(4, row.peer());
+                    ps.setFloat(5, row.correlation());
+                    ps.setDate(6, Date.valueOf(asOf));
+                });
+    }
+}
@@ -0,0 +1,141 @@
+package com.obinna.StockAnalysis.Repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.obinna.StockAnalysis.analytics.RollingFeatureCalculator.*;
+
+@Repository
+public class FeatureRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FeatureRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // values are indexed by the RollingFeatureCalculator column constants
+    public record FeatureRow(
+            String ticker,
+            LocalDate date,
+            double[] values) {
+    }
+
+    public Map<String, LocalDate> findLastFeatureDates(List<String> tickers) {
+        String sql = """
+                    SELECT ticker, max(feature_date) AS last_date
+                    FROM features
+                    WHERE ticker = ANY(?)
+                    GROUP BY ticker
+                """;
+
+        Map<String, LocalDate> out = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("varchar", tickers.toArray()));
+            return ps;
+        }, rs -> {
+            out.put(rs.getString("ticker"), rs.getDate("last_date").toLocalDate());
+        });
+        return out;
+    }
+
+    // feature rows per ticker, oldest first
+    public Map<String, List<FeatureRow>> loadFeatures(List<String> tickers, LocalDate from) {
+        String sql = """
+                    SELECT ticker, feature_date,
+                           log_return_1d, log_return_7d, log_return_14d,
+                           vol_14d, vol_30d,
+                           drawdown_30d, rsi_14, volume_z_30d,
+                           corr_60d, beta_60d
+                    FROM features
+                    WHERE ticker = ANY(?)
+                      AND feature_date >= ?
+                    ORDER BY ticker, feature_date ASC
+                """;
+
+        Map<String, List<FeatureRow>> out = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(sql);
+            ps.setFetchSize(2000);
+            ps.setArray(1, con.createArrayOf("varchar", tickers.toArray()));
+            ps.setDate(2, Date.valueOf(from));
+            return ps;
+        }, rs -> {
+            double[] v = new double[FEATURE_COUNT];
+            v[LOG_RETURN_1D] = getDouble(rs, "log_return_1d");
+            v[LOG_RETURN_7D] = getDouble(rs, "log_return_7d");
+            v[LOG_RETURN_14D] = getDouble(rs, "log_return_14d");
+            v[VOL_14D] = getDouble(rs, "vol_14d");
+            v[VOL_30D] = getDouble(rs, "vol_30d");
+            v[DRAWDOWN_30D] = getDouble(rs, "drawdown_30d");
+            v[RSI_14] = getDouble(rs, "rsi_14");
+            v[VOLUME_Z_30D] = getDouble(rs, "volume_z_30d");
+            v[CORR_60D] = getDouble(rs, "corr_60d");
+            v[BETA_60D] = getDouble(rs, "beta_60d");
+            String ticker = rs.getString("ticker");
+            out.computeIfAbsent(ticker, t -> new ArrayList<>())
+                    .add(new FeatureRow(ticker, rs.getDate("feature_date").toLocalDate(), v));
+        });
+        return out;
+    }
+
+    // SQL NULL -> NaN, the way pandas reads it
+    private static double getDouble(ResultSet rs, String column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? Double.NaN : value;
+    }
+
+    public void batchUpsert(List<FeatureRow> rows) {
+        String sql = """
+                    INSERT INTO features (
+                        ticker, feature_date,
+                        log_return_1d, log_return_7d, log_return_14d,
+                        vol_14d, vol_30d,
+                        drawdown_30d, rsi_14, volume_z_30d,
+                        corr_60d, beta_60d
+                    )
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                    ON CONFLICT (ticker, feature_date) DO UPDATE SET
+                        log_return_1d = EXCLUDED.log_return_1d,
+                        log_return_7d = EXCLUDED.log_return_7d,
+                        log_return_14d = EXCLUDED.log_return_14d,
+                        vol_14d = EXCLUDED.vol_14d,
+                        vol_30d = EXCLUDED.vol_30d,
+                        drawdown_30d = EXCLUDED.drawdown_30d,
+                        rsi_14 = EXCLUDED.rsi_14,
+                        volume_z_30d = EXCLUDED.volume_z_30d,
+                        corr_60d = EXCLUDED.corr_60d,
+                        beta_60d = EXCLUDED.beta_60d
+                """;
+
+        jdbcTemplate.batchUpdate(
+                sql,
+                rows,
+                1000, // batch size
+                (ps, row) -> {
+                    double[] v = row.values();
+                    ps.setString(1, row.ticker());
+                    ps.setDate(2, Date.valueOf(row.date()));
+                    ps.setDouble(3, v[LOG_RETURN_1D]);
+                    ps.setDouble(4, v[LOG_RETURN_7D]);
+                    ps.setDouble(5, v[LOG_RETURN_14D]);
+                    ps.setDouble(6, v[VOL_14D]);
+                    ps.setDouble(7, v[VOL_30D]);
+                    ps.setDouble(8, v[DRAWDOWN_30D]);
+                    ps.setDouble(9, v[RSI_14]);
+                    ps.setDouble(10, v[VOLUME_Z_30D]);
+                    ps.setDouble(11, v[CORR_60D]);
+                    ps.setDouble(12, v[BETA_60D]);
+                });
+    }
+}
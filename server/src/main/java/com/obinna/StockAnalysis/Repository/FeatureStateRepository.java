@@ -0,0 +1,97 @@
+package com.obinna.StockAnalysis.Repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Checkpoints of the per-ticker rolling feature state (see RollingFeatureCalculator.toBytes).
+@Repository
+public class FeatureStateRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FeatureStateRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // asOfDate is the last bar that was stepped into the state
+    public record FeatureState(
+            String ticker,
+            LocalDate asOfDate,
+            byte[] state) {
+    }
+
+    public Map<String, FeatureState> findByTickers(List<String> tickers) {
+        String sql = """
+                    SELECT ticker, as_of_date, state
+                    FROM feature_state
+                    WHERE ticker = ANY(?)
+                """;
+
+        Map<String, FeatureState> out = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("varchar", tickers.toArray()));
+            return ps;
+        }, rs -> {
+            String ticker = rs.getString("ticker");
+            out.put(ticker, new FeatureState(ticker, rs.getDate("as_of_date").toLocalDate(), rs.getBytes("state")));
+        });
+        return out;
+    }
+
+    // tickers whose checkpoint is missing a bar: a price of theirs, or of `marketTicker`, dated at or before
+    // as_of_date but stored after the checkpoint was written (repair syncs, backfills)
+    public Set<String> findBackfilled(List<String> tickers, String marketTicker) {
+        String sql = """
+                    SELECT s.ticker
+                    FROM feature_state s
+                    WHERE s.ticker = ANY(?)
+                      AND EXISTS (
+                          SELECT 1
+                          FROM prices p
+                          WHERE p.ticker IN (s.ticker, ?)
+                            AND p.ingested_at > s.updated_at
+                            AND p.price_date <= s.as_of_date)
+                """;
+
+        Set<String> out = new HashSet<>();
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("varchar", tickers.toArray()));
+            ps.setString(2, marketTicker);
+            return ps;
+        }, rs -> {
+            out.add(rs.getString("ticker"));
+        });
+        return out;
+    }
+
+    public void batchUpsert(List<FeatureState> states) {
+        String sql = """
+                    INSERT INTO feature_state (ticker, as_of_date, state, updated_at)
+                    VALUES (?, ?, ?, now())
+                    ON CONFLICT (ticker) DO UPDATE SET
+                        as_of_date = EXCLUDED.as_of_date,
+                        state = EXCLUDED.state,
+                        updated_at = now()
+                """;
+
+        jdbcTemplate.batchUpdate(
+                sql,
+                states,
+                1000, // batch size
+                (ps, row) -> {
+                    ps.setString(1, row.ticker());
+                    ps.setDate(2, Date.valueOf(row.asOfDate()));
+                    ps.setBytes(3, row.state());
+                });
+    }
+}
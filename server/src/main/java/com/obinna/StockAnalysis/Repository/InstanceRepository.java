@@ -0,0 +1,39 @@
+package com.obinna.StockAnalysis.Repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+
+// app_instances: one heartbeat row per running instance, behind InstanceRegistry.
+@Repository
+public class InstanceRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InstanceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void heartbeat(String instanceId) {
+        String sql = """
+                    INSERT INTO app_instances (instance_id, seen_at)
+                    VALUES (?, now())
+                    ON CONFLICT (instance_id) DO UPDATE SET seen_at = now()
+                """;
+
+        jdbcTemplate.update(sql, instanceId);
+    }
+
+    // instances seen within `ttl`; rows older than that are purged on the way
+    public int countLive(Duration ttl) {
+        jdbcTemplate.update("DELETE FROM app_instances WHERE seen_at < now() - make_interval(secs => ?)",
+                (double) ttl.toSeconds());
+        Integer live = jdbcTemplate.queryForObject("SELECT count(*) FROM app_instances", Integer.class);
+        return live == null ? 0 : live;
+    }
+
+    public void remove(String instanceId) {
+        jdbcTemplate.update("DELETE FROM app_instances WHERE instance_id = ?", instanceId);
+    }
+}
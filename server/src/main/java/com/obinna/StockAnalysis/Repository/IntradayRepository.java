@@ -0,0 +1,177 @@
+package com.obinna.StockAnalysis.Repository;
+
+import com.obinna.StockAnalysis.profiling.BatchWriteEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public class IntradayRepository {
+
+    // 15m and 1h buckets line up with the 09:30 open
+    private static final String BUCKET_ORIGIN = "TIMESTAMP '2000-01-03 09:30:00'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer batchTimer;
+    private final Counter ingestedRows;
+
+    public IntradayRepository(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchTimer = Timer.builder("db.batch.insert").tag("table", "intraday_prices").register(meterRegistry);
+        this.ingestedRows = Counter.builder("ingestion.rows").tag("table", "intraday_prices").register(meterRegistry);
+    }
+
+    public record BarRow(
+            String ticker,
+            int intervalMinutes,
+            LocalDateTime barTime,
+            double open,
+            double high,
+            double low,
+            double close,
+            long volume) {
+    }
+
+    // null when nothing is stored for the ticker at that interval
+    public LocalDateTime findLastBarTime(String ticker, int intervalMinutes) {
+        String sql = """
+                    SELECT max(bar_time)
+                    FROM intraday_prices
+                    WHERE ticker = ? AND interval_minutes = ?
+                """;
+
+        Timestamp last = jdbcTemplate.queryForObject(sql, Timestamp.class, ticker, intervalMinutes);
+        return last == null ? null : last.toLocalDateTime();
+    }
+
+    // same, counting only pre-market and after-hours bars, which only Alpha Vantage supplies
+    public LocalDateTime findLastExtendedBarTime(String ticker, int intervalMinutes) {
+        String sql = """
+                    SELECT max(bar_time)
+                    FROM intraday_prices
+                    WHERE ticker = ? AND interval_minutes = ?
+                      AND (bar_time::time < TIME '09:30' OR bar_time::time >= TIME '16:00')
+                """;
+
+        Timestamp last = jdbcTemplate.queryForObject(sql, Timestamp.class, ticker, intervalMinutes);
+        return last == null ? null : last.toLocalDateTime();
+    }
+
+    // the newest bar of a fetch may still have been forming, so re-fetched bars overwrite
+    public void upsertBars(List<BarRow> rows) {
+        String sql = """
+                    INSERT INTO intraday_prices (
+                        ticker,
+                        interval_minutes,
+                        bar_time,
+                        open_price,
+                        high_price,
+                        low_price,
+                        close_price,
+                        volume
+                    )
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                    ON CONFLICT (ticker, interval_minutes, bar_time) DO UPDATE SET
+                        open_price = EXCLUDED.open_price,
+                        high_price = EXCLUDED.high_price,
+                        low_price = EXCLUDED.low_price,
+                        close_price = EXCLUDED.close_price,
+                        volume = EXCLUDED.volume
+                """;
+
+        BatchWriteEvent event = new BatchWriteEvent("intraday_prices");
+        event.begin();
+        batchTimer.record(() -> jdbcTemplate.batchUpdate(
+                sql,
+                rows,
+                1000, // batch size
+                (ps, row) -> {
+                    ps.setString(1, row.ticker());
+                    ps.setInt(2, row.intervalMinutes());
+                    ps.setTimestamp(3, Timestamp.valueOf(row.barTime()));
+                    ps.setDouble(4, row.open());
+                    ps.setDouble(5, row.high());
+                    ps.setDouble(6, row.low());
+                    ps.setDouble(7, row.close());
+                    ps.setLong(8, row.volume());
+                }));
+        event.rows = rows.size();
+        event.commit();
+        ingestedRows.increment(rows.size());
+    }
+
+    // bars of the last `tradingDays` days that have any bar at this interval, newest first
+    public List<BarRow> findRecentBars(String ticker, int intervalMinutes, int tradingDays) {
+        String sql = """
+                    WITH days AS (
+                        SELECT DISTINCT bar_time::date AS day
+                        FROM intraday_prices
+                        WHERE ticker = ? AND interval_minutes = ?
+                        ORDER BY day DESC
+                        LIMIT ?
+                    )
+                    SELECT bar_time, open_price, high_price, low_price, close_price, volume
+                    FROM intraday_prices
+                    WHERE ticker = ? AND interval_minutes = ?
+                      AND bar_time >= (SELECT min(day) FROM days)
+                    ORDER BY bar_time DESC
+                """;
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new BarRow(
+                ticker,
+                intervalMinutes,
+                rs.getTimestamp("bar_time").toLocalDateTime(),
+                rs.getDouble("open_price"),
+                rs.getDouble("high_price"),
+                rs.getDouble("low_price"),
+                rs.getDouble("close_price"),
+                rs.getLong("volume")), ticker, intervalMinutes, tradingDays, ticker, intervalMinutes);
+    }
+
+    // rebuilds every `toMinutes` bucket of the ticker from its 5m bars, starting with the bucket holding `since`
+    public int rollup(String ticker, int toMinutes, LocalDateTime since) {
+        String sql = """
+                    INSERT INTO intraday_prices (
+                        ticker, interval_minutes, bar_time,
+                        open_price, high_price, low_price, close_price, volume
+                    )
+                    SELECT ticker, ?, bucket,
+                           (array_agg(open_price ORDER BY bar_time))[1],
+                           max(high_price),
+                           min(low_price),
+                           (array_agg(close_price ORDER BY bar_time DESC))[1],
+                           sum(volume)
+                    FROM (
+                        SELECT ticker, bar_time, open_price, high_price, low_price, close_price, volume,
+                               date_bin(make_interval(mins => ?), bar_time, %1$s) AS bucket
+                        FROM intraday_prices
+                        WHERE ticker = ? AND interval_minutes = 5
+                          AND bar_time >= date_bin(make_interval(mins => ?), ?, %1$s)
+                    ) b
+                    GROUP BY ticker, bucket
+                    ON CONFLICT (ticker, interval_minutes, bar_time) DO UPDATE SET
+                        open_price = EXCLUDED.open_price,
+                        high_price = EXCLUDED.high_price,
+                        low_price = EXCLUDED.low_price,
+                        close_price = EXCLUDED.close_price,
+                        volume = EXCLUDED.volume
+                """.formatted(BUCKET_ORIGIN);
+
+        return jdbcTemplate.update(sql, toMinutes, toMinutes, ticker, toMinutes, Timestamp.valueOf(since));
+    }
+
+    public int deleteOlderThan(int intervalMinutes, LocalDateTime cutoff) {
+        String sql = """
+                    DELETE FROM intraday_prices
+                    WHERE interval_minutes = ? AND bar_time < ?
+                """;
+
+        return jdbcTemplate.update(sql, intervalMinutes, Timestamp.valueOf(cutoff));
+    }
+}
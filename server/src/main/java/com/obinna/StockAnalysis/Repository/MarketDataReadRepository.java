@@ -0,0 +1,124 @@
+package com.obinna.StockAnalysis.Repository;
+
+import com.obinna.StockAnalysis.analytics.PriceSeries;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Multi-ticker reads: one `ticker = ANY(?)` query instead of one query per symbol.
+// Rows are handed to the callback as they come off the cursor so callers can stream.
+@Repository
+public class MarketDataReadRepository {
+
+    private static final int FETCH_SIZE = 2000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MarketDataReadRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // rows come back grouped by ticker, newest first (same order as the single-ticker endpoint)
+    public void streamPrices(List<String> tickers, LocalDate from, LocalDate to, RowCallbackHandler handler) {
+        streamPrices(tickers, from, to, false, handler);
+    }
+
+    // same as streamPrices but oldest first, which is what the rolling computations want
+    public void streamPricesAscending(List<String> tickers, LocalDate from, LocalDate to, RowCallbackHandler handler) {
+        streamPrices(tickers, from, to, true, handler);
+    }
+
+    private void streamPrices(List<String> tickers, LocalDate from, LocalDate to, boolean ascending,
+            RowCallbackHandler handler) {
+        String sql = """
+                    SELECT ticker, price_date, open_price, high_price, low_price, close_price, volume
+                    FROM prices
+                    WHERE ticker = ANY(?)
+                      AND price_date BETWEEN ? AND ?
+                    ORDER BY ticker, price_date %s
+                """.formatted(ascending ? "ASC" : "DESC");
+
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(sql);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setArray(1, con.createArrayOf("varchar", tickers.toArray()));
+            ps.setDate(2, Date.valueOf(from));
+            ps.setDate(3, Date.valueOf(to));
+            return ps;
+        }, handler);
+    }
+
+    // daily bars for many tickers as primitive series, oldest first; tickers without rows are absent
+    public Map<String, PriceSeries> loadSeries(List<String> tickers, LocalDate from, LocalDate to) {
+        Map<String, PriceSeries> out = new HashMap<>();
+        streamPricesAscending(tickers, from, to, rs -> {
+            String ticker = rs.getString("ticker");
+            double close = rs.getDouble("close_price");
+            if (rs.wasNull()) {
+                return;
+            }
+            out.computeIfAbsent(ticker, PriceSeries::new).add(
+                    rs.getDate("price_date").toLocalDate(),
+                    rs.getDouble("open_price"),
+                    rs.getDouble("high_price"),
+                    rs.getDouble("low_price"),
+                    close,
+                    rs.getDouble("volume"));
+        });
+        return out;
+    }
+
+    // latest `limitPerTicker` signals per ticker inside the range, grouped by ticker, newest first
+    public void streamSignals(List<String> tickers, LocalDate from, LocalDate to, int limitPerTicker,
+            RowCallbackHandler handler) {
+        String sql = """
+                    SELECT ticker, signal_date, regime_label, risk_score, drivers_json
+                    FROM (
+                        SELECT s.*,
+                               ROW_NUMBER() OVER (PARTITION BY s.ticker ORDER BY s.signal_date DESC) AS rn
+                        FROM ml_signals s
+                        WHERE s.ticker = ANY(?)
+                          AND s.signal_date BETWEEN ? AND ?
+                    ) ranked
+                    WHERE rn <= ?
+                    ORDER BY ticker, signal_date DESC
+                """;
+
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(sql);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setArray(1, con.createArrayOf("varchar", tickers.toArray()));
+            ps.setDate(2, Date.valueOf(from));
+            ps.setDate(3, Date.valueOf(to));
+            ps.setInt(4, limitPerTicker);
+            return ps;
+        }, handler);
+    }
+
+    // every signal in the range, grouped by ticker, oldest first
+    public void streamSignalsAscending(List<String> tickers, LocalDate from, LocalDate to,
+            RowCallbackHandler handler) {
+        String sql = """
+                    SELECT ticker, signal_date, regime_label, risk_score
+                    FROM ml_signals
+                    WHERE ticker = ANY(?)
+                      AND signal_date BETWEEN ? AND ?
+                    ORDER BY ticker, signal_date ASC
+                """;
+
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(sql);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setArray(1, con.createArrayOf("varchar", tickers.toArray()));
+            ps.setDate(2, Date.valueOf(from));
+            ps.setDate(3, Date.valueOf(to));
+            return ps;
+        }, handler);
+    }
+}
@@ -1,19 +1,36 @@
 package com.obinna.StockAnalysis.Repository;
 
+import com.obinna.StockAnalysis.events.PricesIngestedEvent;
+import com.obinna.StockAnalysis.events.StockMetadataUpdatedEvent;
+import com.obinna.StockAnalysis.profiling.BatchWriteEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import java.sql.Date;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 public class PriceIngestionRepository {
 
     private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    // rows/sec is rate(ingestion_rows_total); rows per batch is that over the timer's count
+    private final Timer batchTimer;
+    private final Counter ingestedRows;
 
-    public PriceIngestionRepository(JdbcTemplate jdbcTemplate) {
+    public PriceIngestionRepository(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry) {
         this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchTimer = Timer.builder("db.batch.insert").tag("table", "prices").register(meterRegistry);
+        this.ingestedRows = Counter.builder("ingestion.rows").tag("table", "prices").register(meterRegistry);
     }
 
     public void batchInsertIgnore(List<PriceRow> rows) {
@@ -32,7 +49,9 @@ public class PriceIngestionRepository {
                     ON CONFLICT (ticker, price_date) DO NOTHING
                 """;
 
-        jdbcTemplate.batchUpdate(
+        BatchWriteEvent event = new BatchWriteEvent("prices");
+        event.begin();
+        batchTimer.record(() -> jdbcTemplate.batchUpdate(
                 sql,
                 rows,
                 1000, // batch size
@@ -44,7 +63,17 @@ public class PriceIngestionRepository {
                     ps.setDouble(5, row.low());
                     ps.setDouble(6, row.close());
                     ps.setLong(7, row.volume());
-                });
+                }));
+        event.rows = rows.size();
+        event.commit();
+        ingestedRows.increment(rows.size());
+
+        // one event per ticker with the newest bar of the batch
+        Map<String, LocalDate> latest = new HashMap<>();
+        for (PriceRow row : rows) {
+            latest.merge(row.ticker(), row.date(), (a, b) -> a.isAfter(b) ? a : b);
+        }
+        latest.forEach((ticker, date) -> eventPublisher.publishEvent(new PricesIngestedEvent(ticker, date)));
     }
 
     public void upsertStock(String ticker, String name, String sector, String industry, Long mktCap) {
@@ -64,6 +93,8 @@ public class PriceIngestionRepository {
                 """;
 
         jdbcTemplate.update(sql, ticker, name, sector, industry, mktCap);
+        // keeps the in-memory screener index in sync without re-reading the table
+        eventPublisher.publishEvent(new StockMetadataUpdatedEvent(ticker, name, sector, industry, mktCap));
     }
 
     // Lightweight DTO for ingestion (NOT an entity)
@@ -0,0 +1,62 @@
+package com.obinna.StockAnalysis.Repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Reads the exported isolation forests written by the monthly training job.
+@Repository
+public class RiskModelRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RiskModelRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record StoredModel(
+            String ticker,
+            LocalDateTime trainedAt,
+            byte[] bytes) {
+    }
+
+    // cheap version check so cached models are only re-read after a retrain
+    public Map<String, LocalDateTime> findTrainedAt(List<String> tickers) {
+        String sql = """
+                    SELECT ticker, trained_at
+                    FROM iso_forest_models
+                    WHERE ticker = ANY(?)
+                """;
+
+        Map<String, LocalDateTime> out = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("varchar", tickers.toArray()));
+            return ps;
+        }, rs -> {
+            out.put(rs.getString("ticker"), rs.getTimestamp("trained_at").toLocalDateTime());
+        });
+        return out;
+    }
+
+    public List<StoredModel> findModels(List<String> tickers) {
+        String sql = """
+                    SELECT ticker, trained_at, model_bytes
+                    FROM iso_forest_models
+                    WHERE ticker = ANY(?)
+                """;
+
+        return jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("varchar", tickers.toArray()));
+            return ps;
+        }, (rs, rowNum) -> new StoredModel(
+                rs.getString("ticker"),
+                rs.getTimestamp("trained_at").toLocalDateTime(),
+                rs.getBytes("model_bytes")));
+    }
+}
@@ -11,7 +11,7 @@ import java.util.List;
 
 public interface SignalRepository extends JpaRepository<Signal, MlSignalId> {
     @Query("SELECT s FROM Signal s WHERE s.ticker = :ticker ORDER BY s.signalDate DESC")
-    List<Signal> findTopByTickerOrderBySignalDateDesc(String ticker, Pageable pageable);
+    List<Signal> findByTickerOrderBySignalDateDesc(String ticker, Pageable pageable);
 
     List<Signal> findTop365ByTickerOrderBySignalDateDesc(String ticker);
 
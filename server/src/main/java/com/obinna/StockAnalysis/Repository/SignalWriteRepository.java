@@ -0,0 +1,77 @@
+package com.obinna.StockAnalysis.Repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Bulk writes to ml_signals (same upsert as build_signals.upsert_signals_fast).
+@Repository
+public class SignalWriteRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SignalWriteRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record SignalRow(
+            String ticker,
+            LocalDate date,
+            String regimeLabel,
+            Integer riskScore,
+            String driversJson) {
+    }
+
+    // last date with a risk score: unscored rows left by older runs are picked up again once a model exists
+    public Map<String, LocalDate> findLastSignalDates(List<String> tickers) {
+        String sql = """
+                    SELECT ticker, max(signal_date) AS last_date
+                    FROM ml_signals
+                    WHERE ticker = ANY(?) AND risk_score IS NOT NULL
+                    GROUP BY ticker
+                """;
+
+        Map<String, LocalDate> out = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("varchar", tickers.toArray()));
+            return ps;
+        }, rs -> {
+            out.put(rs.getString("ticker"), rs.getDate("last_date").toLocalDate());
+        });
+        return out;
+    }
+
+    public void batchUpsert(List<SignalRow> rows) {
+        String sql = """
+                    INSERT INTO ml_signals (ticker, signal_date, regime_label, risk_score, drivers_json)
+                    VALUES (?, ?, ?, ?, CAST(? AS jsonb))
+                    ON CONFLICT (ticker, signal_date) DO UPDATE SET
+                        regime_label = EXCLUDED.regime_label,
+                        risk_score = COALESCE(EXCLUDED.risk_score, ml_signals.risk_score),
+                        drivers_json = EXCLUDED.drivers_json
+                """;
+
+        jdbcTemplate.batchUpdate(
+                sql,
+                rows,
+                1000, // batch size
+                (ps, row) -> {
+                    ps.setString(1, row.ticker());
+                    ps.setDate(2, Date.valueOf(row.date()));
+                    ps.setString(3, row.regimeLabel());
+                    if (row.riskScore() == null) {
+                        ps.setNull(4, Types.INTEGER);
+                    } else {
+                        ps.setInt(4, row.riskScore());
+                    }
+                    ps.setString(5, row.driversJson());
+                });
+    }
+}
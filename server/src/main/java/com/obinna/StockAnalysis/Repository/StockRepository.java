@@ -1,5 +1,6 @@
 package com.obinna.StockAnalysis.Repository;
 
+import java.time.Instant;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -13,6 +14,15 @@ public interface StockRepository extends JpaRepository<Stock, String> {
     @Query("SELECT s.ticker FROM Stock s")
     List<String> findAllTickers();
 
+    // change marker for in-memory copies of the table (upsertStock stamps every write)
+    @Query("SELECT max(s.lastMetadataRefresh) FROM Stock s")
+    Instant findLastMetadataRefresh();
+
+    List<Stock> findByLastMetadataRefreshAfter(Instant since);
+
+    @Query("SELECT s.ticker FROM Stock s WHERE s.sector = :sector")
+    List<String> findTickersBySector(@Param("sector") String sector);
+
     @Query("SELECT s FROM Stock s WHERE " +
            "s.marketCap >= :minCap AND " +
            "(:ticker IS NULL OR s.ticker ILIKE %:ticker%) AND " +
@@ -0,0 +1,182 @@
+package com.obinna.StockAnalysis.Repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// The sync_tasks work queue behind SyncQueue.
+@Repository
+public class SyncTaskRepository {
+
+    // pg advisory lock held while a run is enqueued or its derived stages taken; any bigint no other code locks on
+    private static final long ENQUEUE_LOCK = 0x73796e635f7461L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SyncTaskRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public enum Status {
+        PENDING, RUNNING, DONE, FAILED
+    }
+
+    // leader election: instances take the lock in turn, and only the first to find no rows for runDate
+    // enqueues (and returns true); the lock goes with the transaction
+    @Transactional
+    public boolean enqueueRun(LocalDate runDate, List<String> tickers, LocalDate purgeBefore) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, ENQUEUE_LOCK);
+
+        Boolean enqueued = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM sync_tasks WHERE run_date = ?)", Boolean.class, Date.valueOf(runDate));
+        if (Boolean.TRUE.equals(enqueued)) {
+            return false;
+        }
+        jdbcTemplate.update("DELETE FROM sync_tasks WHERE run_date < ?", Date.valueOf(purgeBefore));
+        jdbcTemplate.update("DELETE FROM sync_runs WHERE run_date < ?", Date.valueOf(purgeBefore));
+
+        String sql = """
+                    INSERT INTO sync_tasks (run_date, ticker)
+                    SELECT ?, unnest(?)
+                    ON CONFLICT DO NOTHING
+                """;
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement(sql);
+            ps.setDate(1, Date.valueOf(runDate));
+            ps.setArray(2, con.createArrayOf("varchar", tickers.toArray()));
+            return ps;
+        });
+        return true;
+    }
+
+    // leases one claimable ticker to owner, or null when none is left (or all that are left are backing
+    // off); concurrent claimers skip each other's locked rows instead of waiting on them
+    public String claim(LocalDate runDate, String owner, Duration lease, int maxAttempts) {
+        String sql = """
+                    UPDATE sync_tasks
+                    SET status = 'RUNNING',
+                        lease_owner = ?,
+                        lease_until = now() + make_interval(secs => ?),
+                        attempts = attempts + 1,
+                        updated_at = now()
+                    WHERE (run_date, ticker) = (
+                        SELECT run_date, ticker
+                        FROM sync_tasks
+                        WHERE run_date = ?
+                          AND attempts < ?
+                          AND ((status = 'PENDING' AND not_before <= now())
+                               OR (status = 'RUNNING' AND lease_until < now()))
+                        ORDER BY ticker
+                        LIMIT 1
+                        FOR UPDATE SKIP LOCKED)
+                    RETURNING ticker
+                """;
+
+        return jdbcTemplate.query(sql, rs -> rs.next() ? rs.getString(1) : null,
+                owner, (double) lease.toSeconds(), Date.valueOf(runDate), maxAttempts);
+    }
+
+    // pushes the leases owner still holds on `tickers` out by `lease`; returns how many it still held
+    public int renew(LocalDate runDate, List<String> tickers, String owner, Duration lease) {
+        String sql = """
+                    UPDATE sync_tasks
+                    SET lease_until = now() + make_interval(secs => ?), updated_at = now()
+                    WHERE run_date = ? AND ticker = ANY(?) AND lease_owner = ? AND status = 'RUNNING'
+                """;
+
+        return jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement(sql);
+            ps.setDouble(1, lease.toSeconds());
+            ps.setDate(2, Date.valueOf(runDate));
+            ps.setArray(3, con.createArrayOf("varchar", tickers.toArray()));
+            ps.setString(4, owner);
+            return ps;
+        });
+    }
+
+    // false when the lease was lost (expired and re-claimed) in the meantime
+    public boolean complete(LocalDate runDate, String ticker, String owner) {
+        String sql = """
+                    UPDATE sync_tasks
+                    SET status = 'DONE', lease_owner = NULL, lease_until = NULL, last_error = NULL, updated_at = now()
+                    WHERE run_date = ? AND ticker = ? AND lease_owner = ? AND status = 'RUNNING'
+                """;
+
+        return jdbcTemplate.update(sql, Date.valueOf(runDate), ticker, owner) == 1;
+    }
+
+    // back to PENDING for another attempt once backoff (doubled per attempt spent) has passed, or FAILED
+    // once maxAttempts were spent
+    public boolean fail(LocalDate runDate, String ticker, String owner, String error, int maxAttempts,
+            Duration backoff) {
+        String sql = """
+                    UPDATE sync_tasks
+                    SET status = CASE WHEN attempts >= ? THEN 'FAILED' ELSE 'PENDING' END,
+                        not_before = now() + make_interval(secs => ? * power(2, attempts - 1)),
+                        lease_owner = NULL, lease_until = NULL, last_error = ?, updated_at = now()
+                    WHERE run_date = ? AND ticker = ? AND lease_owner = ? AND status = 'RUNNING'
+                """;
+
+        return jdbcTemplate.update(sql, maxAttempts, (double) backoff.toSeconds(), error, Date.valueOf(runDate),
+                ticker, owner) == 1;
+    }
+
+    // RUNNING rows whose lease expired with no attempts left: nobody may claim them again, so FAILED
+    public int failExpired(LocalDate runDate, int maxAttempts) {
+        String sql = """
+                    UPDATE sync_tasks
+                    SET status = 'FAILED', lease_owner = NULL, lease_until = NULL,
+                        last_error = COALESCE(last_error, 'lease expired'), updated_at = now()
+                    WHERE run_date = ? AND status = 'RUNNING' AND lease_until < now() AND attempts >= ?
+                """;
+
+        return jdbcTemplate.update(sql, Date.valueOf(runDate), maxAttempts);
+    }
+
+    // tasks some instance may still work on: pending, leased, or with an expired lease and attempts left
+    public int countOpen(LocalDate runDate, int maxAttempts) {
+        String sql = """
+                    SELECT count(*)
+                    FROM sync_tasks
+                    WHERE run_date = ?
+                      AND (status = 'PENDING' OR (status = 'RUNNING' AND (lease_until >= now() OR attempts < ?)))
+                """;
+
+        Integer open = jdbcTemplate.queryForObject(sql, Integer.class, Date.valueOf(runDate), maxAttempts);
+        return open == null ? 0 : open;
+    }
+
+    // true on the one instance that finds runDate drained and takes its derived stages first; under the
+    // enqueue lock so the check and the marker cannot interleave with another instance's
+    @Transactional
+    public boolean claimDerivedStages(LocalDate runDate, String owner, int maxAttempts) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, ENQUEUE_LOCK);
+
+        if (countOpen(runDate, maxAttempts) > 0) {
+            return false;
+        }
+        String sql = """
+                    INSERT INTO sync_runs (run_date, derived_by)
+                    VALUES (?, ?)
+                    ON CONFLICT DO NOTHING
+                """;
+
+        return jdbcTemplate.update(sql, Date.valueOf(runDate), owner) == 1;
+    }
+
+    public Map<Status, Integer> countByStatus(LocalDate runDate) {
+        Map<Status, Integer> counts = new EnumMap<>(Status.class);
+        jdbcTemplate.query("SELECT status, count(*) AS n FROM sync_tasks WHERE run_date = ? GROUP BY status",
+                rs -> {
+                    counts.put(Status.valueOf(rs.getString("status")), rs.getInt("n"));
+                }, Date.valueOf(runDate));
+        return counts;
+    }
+}
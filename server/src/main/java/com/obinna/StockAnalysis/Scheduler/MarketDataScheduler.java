@@ -1,37 +1,87 @@
 package com.obinna.StockAnalysis.Scheduler;
 
 import com.obinna.StockAnalysis.Repository.StockRepository;
+import com.obinna.StockAnalysis.Service.CorrelationService;
+import com.obinna.StockAnalysis.Service.FeatureEngine;
 import com.obinna.StockAnalysis.Service.StockBatchRunner;
+import com.obinna.StockAnalysis.Service.SyncQueue;
+import com.obinna.StockAnalysis.profiling.IngestionStageEvent;
 
 
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.logging.Logger;
 
 @Component
 public class MarketDataScheduler {
 
+    private static final Logger LOGGER = Logger.getLogger(MarketDataScheduler.class.getName());
+
+    private static final ZoneId EXCHANGE_ZONE = ZoneId.of("America/New_York");
+    // how often an instance looks for tickers back from backoff, or dropped by another instance, before the
+    // derived stages
+    private static final long QUEUE_POLL_MS = 10_000;
 
     private final StockRepository stockRepository;
     private final StockBatchRunner batchRunner;
+    private final FeatureEngine featureEngine;
+    private final CorrelationService correlationService;
+    private final SyncQueue syncQueue;
 
-    public MarketDataScheduler(StockRepository stockRepository, StockBatchRunner batchRunner) {
+    public MarketDataScheduler(StockRepository stockRepository, StockBatchRunner batchRunner,
+            FeatureEngine featureEngine, CorrelationService correlationService, SyncQueue syncQueue) {
         this.stockRepository = stockRepository;
         this.batchRunner = batchRunner;
+        this.featureEngine = featureEngine;
+        this.correlationService = correlationService;
+        this.syncQueue = syncQueue;
     }
 
+    // Runs on every instance. The first to get here enqueues the day's tickers and leads; every instance
+    // then works the shared queue, so more instances finish sooner instead of repeating the same calls.
+    // The derived stages run once no ticker is left open, on whichever instance finds that first, so the
+    // run still completes when the leader dies.
     @Scheduled(cron = "0 30 18 * * MON-FRI", zone = "America/New_York")
     public void scheduleDailySync() {
+        LocalDate runDate = LocalDate.now(EXCHANGE_ZONE);
         List<String> allTickers = stockRepository.findAllTickers();
-        System.out.println("Starting Daily Automated Sync for " + allTickers.size() + " tickers...");
-        
+        boolean leader = syncQueue.enqueue(runDate, allTickers);
+        LOGGER.info(leader
+                ? "Starting Daily Automated Sync for " + allTickers.size() + " tickers..."
+                : "Joining the Daily Automated Sync enqueued by another instance...");
+
         try {
-            // One call to rule them all. The batchRunner handles the threads.
-            batchRunner.ingestAll(allTickers);
-            System.out.println("Daily Automated Sync Completed successfully.");
+            IngestionStageEvent ingest = new IngestionStageEvent("batch-ingest", null);
+            ingest.begin();
+            int synced = batchRunner.drainQueue(runDate);
+            // failed tickers come back after their backoff, and another instance may still hold leases or die
+            // holding them: keep claiming until they are done or expire back into the queue
+            while (!syncQueue.isDrained(runDate)) {
+                Thread.sleep(QUEUE_POLL_MS);
+                synced += batchRunner.drainQueue(runDate);
+            }
+            ingest.rows = synced;
+            ingest.commit();
+            LOGGER.info("Synced " + synced + " tickers on this instance; run status " + syncQueue.status(runDate));
+            if (!syncQueue.claimDerivedStages(runDate)) {
+                return;
+            }
+            // features only depend on prices; only today's bars are stepped from the checkpoints
+            IngestionStageEvent features = new IngestionStageEvent("features", null);
+            features.begin();
+            features.rows = featureEngine.updateFeatures(allTickers);
+            features.commit();
+            IngestionStageEvent correlations = new IngestionStageEvent("correlations", null);
+            correlations.begin();
+            correlations.rows = correlationService.rebuildPeers(CorrelationService.DEFAULT_WINDOW);
+            correlations.commit();
+            LOGGER.info("Daily Automated Sync Completed successfully.");
         } catch (InterruptedException e) {
-            System.err.println("Batch sync was interrupted: " + e.getMessage());
+            LOGGER.warning("Batch sync was interrupted: " + e.getMessage());
             Thread.currentThread().interrupt(); 
         }
     }
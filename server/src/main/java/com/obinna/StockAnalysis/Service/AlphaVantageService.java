@@ -1,7 +1,9 @@
 package com.obinna.StockAnalysis.Service;
 
 import com.obinna.StockAnalysis.StockInfo;
+import com.obinna.StockAnalysis.Service.ProviderGuard.Provider;
 import com.obinna.StockAnalysis.dto.alpha_vantage.*;
+import com.obinna.StockAnalysis.realtime.QuoteBoard;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
@@ -10,6 +12,10 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Locale;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -19,22 +25,35 @@ public class AlphaVantageService {
     private static final Logger LOGGER = Logger.getLogger(AlphaVantageService.class.getName());
 
     private final RestTemplate restTemplate;
+    private final SymbolSearchIndex symbolSearchIndex;
+    private final QuoteBoard quoteBoard;
+    private final ProviderGuard providerGuard;
 
     @Value("${alphavantage.api.key}")
     private final String apiKey;
 
     private final String ALPHA_VANTAGE_BASE_URL = "https://www.alphavantage.co/query";
 
-    public AlphaVantageService(RestTemplate restTemplate, @Value("${alphavantage.api.key}") String apiKey) {
+    public AlphaVantageService(RestTemplate restTemplate, @Value("${alphavantage.api.key}") String apiKey,
+            SymbolSearchIndex symbolSearchIndex, QuoteBoard quoteBoard, ProviderGuard providerGuard) {
         this.restTemplate = restTemplate;
         this.apiKey = apiKey;
+        this.symbolSearchIndex = symbolSearchIndex;
+        this.quoteBoard = quoteBoard;
+        this.providerGuard = providerGuard;
 
     }
     @Cacheable("afterHours")
     private boolean isApiKeyInvalid() {
         return apiKey == null || apiKey.isEmpty() || "YOUR_ALPHA_VANTAGE_API_KEY".equals(apiKey);
     }
-    public IntradayApiResponse getAfterHours(String symbol){
+
+    // the request sent with whichever pooled key ProviderGuard picked
+    private static String withKey(UriComponentsBuilder uriBuilder, String key) {
+        return uriBuilder.replaceQueryParam("apikey", key).toUriString();
+    }
+    // compact = the latest 100 bars, full = the whole month
+    public IntradayApiResponse getAfterHours(String symbol, boolean compact){
         if (isApiKeyInvalid()) {
             return new IntradayApiResponse();
         }
@@ -42,11 +61,13 @@ public class AlphaVantageService {
                 .queryParam("function", "TIME_SERIES_INTRADAY")
                 .queryParam("symbol", symbol)
                 .queryParam("interval", "5min")
-                .queryParam("outputsize", "full")
+                .queryParam("outputsize", compact ? "compact" : "full")
                 .queryParam("apikey", apiKey);
         try {
             IntradayApiResponse response;
-            response = restTemplate.getForObject(uriBuilder.toUriString(), IntradayApiResponse.class);
+            // unavailable: IntradayService answers from the stored bars
+            response = providerGuard.call(Provider.ALPHA_VANTAGE, "TIME_SERIES_INTRADAY", symbol,
+                    key -> restTemplate.getForObject(withKey(uriBuilder, key), IntradayApiResponse.class), () -> null);
             return response;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error fetching after hours data for " + symbol, e);
@@ -69,7 +90,8 @@ public class AlphaVantageService {
 
         try {
             MarketMoversApiResponse response;
-            response = restTemplate.getForObject(uriBuilder.toUriString(), MarketMoversApiResponse.class);
+            response = providerGuard.callOrLastGood(Provider.ALPHA_VANTAGE, "TOP_GAINERS_LOSERS",
+                    key -> restTemplate.getForObject(withKey(uriBuilder, key), MarketMoversApiResponse.class));
             return response;
         } catch (HttpClientErrorException e) {
             LOGGER.log(Level.SEVERE, "HTTP Client Error while fetching market movers: " + e.getStatusCode() + " " + e.getResponseBodyAsString(), e);
@@ -95,7 +117,13 @@ public class AlphaVantageService {
         stockInfo.setName(fetchCompanyName(symbol));
 
         // Fetch quote data (price, changes, volume etc.) and populate the stockInfo object
-        fetchQuoteData(symbol, stockInfo);
+        // GLOBAL_QUOTE is only spent when no provider has a fresh price on the quote board
+        QuoteBoard.Entry live = quoteBoard.fresh(symbol);
+        if (live != null) {
+            fillQuoteData(live, stockInfo);
+        } else {
+            fetchQuoteData(symbol, stockInfo);
+        }
 
         if (stockInfo.getName() == null && stockInfo.getPrice() == null) {
             return new StockInfo("Could not fetch data for symbol: " + symbol);
@@ -114,8 +142,16 @@ public class AlphaVantageService {
                 .queryParam("apikey", apiKey);
 
         try {
-            AlphaVantageQuoteApiResponse response = restTemplate.getForObject(uriBuilder.toUriString(), AlphaVantageQuoteApiResponse.class);
-            if (response != null && response.getGlobalQuote() != null && response.getGlobalQuote().getSymbol() != null) {
+            AlphaVantageQuoteApiResponse response = providerGuard.call(Provider.ALPHA_VANTAGE, "GLOBAL_QUOTE", symbol,
+                    key -> restTemplate.getForObject(withKey(uriBuilder, key), AlphaVantageQuoteApiResponse.class),
+                    () -> null);
+            if (response == null) {
+                // provider unavailable: the last quote any provider gave, however old
+                QuoteBoard.Entry last = quoteBoard.latest(symbol);
+                if (last != null) {
+                    fillQuoteData(last, stockInfo);
+                }
+            } else if (response.getGlobalQuote() != null && response.getGlobalQuote().getSymbol() != null) {
                 AlphaVantageGlobalQuote quote = response.getGlobalQuote();
                 stockInfo.setOpen(quote.getOpen());
                 stockInfo.setHigh(quote.getHigh());
@@ -126,21 +162,51 @@ public class AlphaVantageService {
                 stockInfo.setPreviousClose(quote.getPreviousClose());
                 stockInfo.setChange(quote.getChange());
                 stockInfo.setChangePercentage(quote.getChangePercentage());
+                quoteBoard.publish(symbol, quote);
             }
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error fetching quote data for " + symbol, e);
         }
     }
 
+    private static void fillQuoteData(QuoteBoard.Entry live, StockInfo stockInfo) {
+        stockInfo.setOpen(text(live.open()));
+        stockInfo.setHigh(text(live.high()));
+        stockInfo.setLow(text(live.low()));
+        stockInfo.setPrice(text(live.price()));
+        stockInfo.setVolume(Double.isFinite(live.volume()) ? Long.toString((long) live.volume()) : null);
+        stockInfo.setLatestTradingDay(
+                LocalDate.ofInstant(Instant.ofEpochMilli(live.updatedAt()), ZoneId.of("America/New_York")).toString());
+        stockInfo.setPreviousClose(text(live.previousClose()));
+        stockInfo.setChange(text(live.change()));
+        stockInfo.setChangePercentage(Double.isFinite(live.changePercent()) ? text(live.changePercent()) + "%" : null);
+    }
+
+    private static String text(double value) {
+        return Double.isFinite(value) ? String.format(Locale.ROOT, "%.4f", value) : null;
+    }
+
 
     // only gets company name
+    // resolved from the local Finnhub listing first; SYMBOL_SEARCH for symbols it doesn't know, or when the
+    // listing itself could not be fetched
     private String fetchCompanyName(String symbol) {
+        try {
+            String localName = symbolSearchIndex.findName(symbol);
+            if (localName != null && !localName.isBlank()) {
+                return localName;
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Finnhub listing unavailable, searching Alpha Vantage for " + symbol, e);
+        }
         UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString(ALPHA_VANTAGE_BASE_URL)
                 .queryParam("function", "SYMBOL_SEARCH")
                 .queryParam("keywords", symbol)
                 .queryParam("apikey", apiKey);
         try {
-            AlphaVantageSearchApiResponse response = restTemplate.getForObject(uriBuilder.toUriString(), AlphaVantageSearchApiResponse.class);
+            AlphaVantageSearchApiResponse response = providerGuard.call(Provider.ALPHA_VANTAGE, "SYMBOL_SEARCH", symbol,
+                    key -> restTemplate.getForObject(withKey(uriBuilder, key), AlphaVantageSearchApiResponse.class),
+                    () -> null);
             if (response != null && response.getBestMatches() != null && !response.getBestMatches().isEmpty()) {
                 // Find an exact match for the symbol if possible
                 for (AlphaVantageSymbolMatch match : response.getBestMatches()) {
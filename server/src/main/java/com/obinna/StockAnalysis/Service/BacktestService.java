@@ -0,0 +1,176 @@
+package com.obinna.StockAnalysis.Service;
+
+import com.obinna.StockAnalysis.Repository.MarketDataReadRepository;
+import com.obinna.StockAnalysis.Repository.StockRepository;
+import com.obinna.StockAnalysis.analytics.BacktestSeries;
+import com.obinna.StockAnalysis.analytics.BacktestStrategy;
+import com.obinna.StockAnalysis.analytics.Backtester;
+import com.obinna.StockAnalysis.analytics.Backtester.Stats;
+import com.obinna.StockAnalysis.analytics.Backtester.SweepResult;
+import com.obinna.StockAnalysis.analytics.PriceSeries;
+import com.obinna.StockAnalysis.dto.analytics.BacktestResultDTO;
+import com.obinna.StockAnalysis.dto.analytics.BacktestStatsDTO;
+import com.obinna.StockAnalysis.dto.analytics.BacktestSweepDTO;
+import com.obinna.StockAnalysis.dto.analytics.BacktestSweepRequest;
+import com.obinna.StockAnalysis.dto.analytics.BacktestSweepRowDTO;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Logger;
+
+// Strategy backtests over stored prices and ml_signals.
+// Data is loaded once per request into BacktestSeries arrays; sweeps then run every parameter combination
+// over every ticker on the analytics pool without touching the database again.
+@Service
+public class BacktestService {
+
+    private static final Logger LOGGER = Logger.getLogger(BacktestService.class.getName());
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int DEFAULT_YEARS = 5;
+    public static final int MAX_COMBINATIONS = 5000;
+    public static final double DEFAULT_COST_BPS = 5.0;
+    private static final int DEFAULT_TOP = 50;
+
+    private final MarketDataReadRepository readRepository;
+    private final StockRepository stockRepository;
+    private final ForkJoinPool analyticsPool;
+
+    public BacktestService(MarketDataReadRepository readRepository, StockRepository stockRepository,
+            ForkJoinPool analyticsPool) {
+        this.readRepository = readRepository;
+        this.stockRepository = stockRepository;
+        this.analyticsPool = analyticsPool;
+    }
+
+    // null when the ticker has fewer than two bars in range
+    public BacktestResultDTO run(String ticker, BacktestStrategy strategy, LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(DEFAULT_YEARS);
+        List<BacktestSeries> loaded = load(List.of(ticker), start, end);
+        if (loaded.isEmpty() || loaded.get(0).size() < 2) {
+            return null;
+        }
+        BacktestSeries series = loaded.get(0);
+
+        int n = series.size();
+        double[] equity = new double[n];
+        double[] benchmarkEquity = new double[n];
+        Stats stats = Backtester.run(series, strategy, equity);
+        Stats benchmark = Backtester.run(series, BacktestStrategy.buyAndHold(strategy.costBps()), benchmarkEquity);
+
+        List<String> dates = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            dates.add(series.date(i).toString());
+        }
+        return new BacktestResultDTO(ticker, strategy.regimes(), strategy.riskThreshold(),
+                strategy.reducedExposure(), strategy.costBps(), dates, boxed(equity), boxed(benchmarkEquity),
+                toDTO(stats), toDTO(benchmark));
+    }
+
+    public BacktestSweepDTO sweep(BacktestSweepRequest request) {
+        long startNanos = System.nanoTime();
+        LocalDate end = request.getTo() != null ? request.getTo() : LocalDate.now();
+        LocalDate start = request.getFrom() != null ? request.getFrom() : end.minusYears(DEFAULT_YEARS);
+        double costBps = request.getCostBps() != null ? request.getCostBps() : DEFAULT_COST_BPS;
+        BacktestStrategy[] strategies = grid(request, costBps);
+
+        List<String> tickers = request.getTickers() == null || request.getTickers().isEmpty()
+                ? stockRepository.findAllTickers()
+                : BatchMarketDataService.normalizeTickers(request.getTickers());
+        List<BacktestSeries> series = load(tickers, start, end);
+        long loaded = System.nanoTime();
+
+        SweepResult[] results = Backtester.sweep(series, strategies, costBps, analyticsPool);
+        long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+        LOGGER.info("Backtest sweep: " + strategies.length + " combinations x " + series.size() + " tickers, load "
+                + (loaded - startNanos) / 1_000_000 + " ms, total " + elapsedMs + " ms");
+
+        int top = request.getTop() != null ? Math.max(1, request.getTop()) : DEFAULT_TOP;
+        List<BacktestSweepRowDTO> rows = Arrays.stream(results)
+                .sorted(Comparator.comparingDouble(SweepResult::meanSharpe).reversed())
+                .limit(top)
+                .map(r -> new BacktestSweepRowDTO(r.strategy().regimes(), r.strategy().riskThreshold(),
+                        r.strategy().reducedExposure(), r.meanTotalReturn(), r.meanCagr(), r.meanSharpe(),
+                        r.meanMaxDrawdown(), r.meanExposure(), r.beatRate()))
+                .toList();
+        int used = results.length > 0 ? results[0].tickers() : 0;
+        return new BacktestSweepDTO(start.toString(), end.toString(), used, strategies.length, elapsedMs, rows);
+    }
+
+    // cartesian product of the request's lists; throws IllegalArgumentException for bad or oversized grids
+    static BacktestStrategy[] grid(BacktestSweepRequest request, double costBps) {
+        List<List<String>> regimeSets = request.getDeriskRegimes() == null || request.getDeriskRegimes().isEmpty()
+                ? List.of(List.of("HIGH_VOLATILITY"))
+                : request.getDeriskRegimes();
+        List<Integer> thresholds = request.getRiskThresholds() == null || request.getRiskThresholds().isEmpty()
+                ? List.of(BacktestStrategy.RISK_OFF)
+                : request.getRiskThresholds();
+        List<Double> exposures = request.getReducedExposures() == null || request.getReducedExposures().isEmpty()
+                ? List.of(0.0)
+                : request.getReducedExposures();
+
+        long combinations = (long) regimeSets.size() * thresholds.size() * exposures.size();
+        if (combinations > MAX_COMBINATIONS) {
+            throw new IllegalArgumentException("At most " + MAX_COMBINATIONS + " combinations per sweep");
+        }
+
+        BacktestStrategy[] out = new BacktestStrategy[(int) combinations];
+        int k = 0;
+        for (List<String> regimes : regimeSets) {
+            int mask = BacktestStrategy.regimeMask(regimes);
+            for (Integer threshold : thresholds) {
+                for (Double exposure : exposures) {
+                    out[k++] = new BacktestStrategy(mask, threshold, exposure, costBps);
+                }
+            }
+        }
+        return out;
+    }
+
+    private List<BacktestSeries> load(List<String> tickers, LocalDate from, LocalDate to) {
+        List<BacktestSeries> out = new ArrayList<>(tickers.size());
+        for (int i = 0; i < tickers.size(); i += CHUNK_SIZE) {
+            List<String> chunk = tickers.subList(i, Math.min(i + CHUNK_SIZE, tickers.size()));
+            Map<String, PriceSeries> prices = readRepository.loadSeries(chunk, from, to);
+            Map<String, BacktestSeries> series = new HashMap<>(prices.size() * 2);
+            prices.forEach((ticker, p) -> series.put(ticker, new BacktestSeries(p)));
+
+            readRepository.streamSignalsAscending(chunk, from, to, rs -> {
+                BacktestSeries s = series.get(rs.getString("ticker"));
+                if (s != null) {
+                    Integer risk = rs.getObject("risk_score", Integer.class);
+                    s.setSignal(rs.getDate("signal_date").toLocalDate(), rs.getString("regime_label"), risk);
+                }
+            });
+            for (String ticker : chunk) {
+                BacktestSeries s = series.get(ticker);
+                if (s != null) {
+                    s.carryForward();
+                    out.add(s);
+                }
+            }
+        }
+        return out;
+    }
+
+    private static List<Double> boxed(double[] values) {
+        List<Double> out = new ArrayList<>(values.length);
+        for (double v : values) {
+            out.add(v);
+        }
+        return out;
+    }
+
+    private static BacktestStatsDTO toDTO(Stats s) {
+        return new BacktestStatsDTO(s.bars(), s.totalReturn(), s.cagr(), s.volatility(), s.sharpe(),
+                s.maxDrawdown(), s.exposure(), s.trades());
+    }
+}
@@ -0,0 +1,140 @@
+package com.obinna.StockAnalysis.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.obinna.StockAnalysis.Repository.MarketDataReadRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+// Writes multi-ticker reads straight from the JDBC cursor into the response as
+// {"AAPL": [...], "MSFT": [...]} so nothing is materialized per ticker in between.
+@Service
+public class BatchMarketDataService {
+
+    public static final int MAX_TICKERS = 200;
+
+    private final MarketDataReadRepository readRepository;
+    private final ObjectMapper objectMapper;
+
+    public BatchMarketDataService(MarketDataReadRepository readRepository, ObjectMapper objectMapper) {
+        this.readRepository = readRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public static List<String> normalizeTickers(List<String> tickers) {
+        return tickers.stream()
+                .map(String::trim)
+                .filter(t -> !t.isEmpty())
+                .map(t -> t.toUpperCase(Locale.ROOT))
+                .distinct()
+                .toList();
+    }
+
+    // readOnly transaction so the postgres driver actually uses a cursor for the fetch size
+    @Transactional(readOnly = true)
+    public void writePrices(List<String> tickers, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            GroupedWriter grouped = new GroupedWriter(gen);
+            readRepository.streamPrices(tickers, from, to, rs -> {
+                try {
+                    grouped.startRow(rs.getString("ticker"));
+                    // same shape as HistoricalChartDTO
+                    gen.writeStartObject();
+                    gen.writeStringField("date", rs.getDate("price_date").toLocalDate().toString());
+                    writeNullableDouble(gen, "open", rs.getObject("open_price") == null ? null : rs.getDouble("open_price"));
+                    writeNullableDouble(gen, "low", rs.getObject("low_price") == null ? null : rs.getDouble("low_price"));
+                    writeNullableDouble(gen, "high", rs.getObject("high_price") == null ? null : rs.getDouble("high_price"));
+                    writeNullableDouble(gen, "close", rs.getObject("close_price") == null ? null : rs.getDouble("close_price"));
+                    long volume = rs.getLong("volume");
+                    if (rs.wasNull()) {
+                        gen.writeNullField("volume");
+                    } else {
+                        gen.writeNumberField("volume", volume);
+                    }
+                    gen.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            grouped.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeSignals(List<String> tickers, LocalDate from, LocalDate to, int limitPerTicker, OutputStream out)
+            throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            GroupedWriter grouped = new GroupedWriter(gen);
+            readRepository.streamSignals(tickers, from, to, limitPerTicker, rs -> {
+                try {
+                    String ticker = rs.getString("ticker");
+                    grouped.startRow(ticker);
+                    // same shape as the Signal entity
+                    gen.writeStartObject();
+                    gen.writeStringField("ticker", ticker);
+                    gen.writeStringField("signalDate", rs.getDate("signal_date").toLocalDate().toString());
+                    gen.writeStringField("regimeLabel", rs.getString("regime_label"));
+                    int risk = rs.getInt("risk_score");
+                    if (rs.wasNull()) {
+                        gen.writeNullField("riskScore");
+                    } else {
+                        gen.writeNumberField("riskScore", risk);
+                    }
+                    gen.writeStringField("driversJson", rs.getString("drivers_json"));
+                    gen.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            grouped.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writeNullableDouble(JsonGenerator gen, String field, Double value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(field);
+        } else {
+            gen.writeNumberField(field, value);
+        }
+    }
+
+    // rows arrive ordered by ticker, so a ticker change closes the previous array
+    private static final class GroupedWriter {
+        private final JsonGenerator gen;
+        private String currentTicker;
+
+        GroupedWriter(JsonGenerator gen) throws IOException {
+            this.gen = gen;
+            gen.writeStartObject();
+        }
+
+        void startRow(String ticker) throws IOException {
+            if (ticker.equals(currentTicker)) {
+                return;
+            }
+            if (currentTicker != null) {
+                gen.writeEndArray();
+            }
+            gen.writeArrayFieldStart(ticker);
+            currentTicker = ticker;
+        }
+
+        void finish() throws IOException {
+            if (currentTicker != null) {
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+        }
+    }
+}
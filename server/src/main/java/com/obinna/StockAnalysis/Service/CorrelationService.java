@@ -0,0 +1,91 @@
+package com.obinna.StockAnalysis.Service;
+
+import com.obinna.StockAnalysis.Repository.CorrelationRepository;
+import com.obinna.StockAnalysis.Repository.CorrelationRepository.PeerRow;
+import com.obinna.StockAnalysis.analytics.CorrelationKernel;
+import com.obinna.StockAnalysis.analytics.ReturnMatrix;
+import com.obinna.StockAnalysis.dto.analytics.CorrelationMatrixDTO;
+import com.obinna.StockAnalysis.dto.analytics.CorrelationPeerDTO;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Logger;
+
+// Return correlations across the universe: nightly top-k "moves like" lists, and dense matrices
+// for sector/peer heatmaps computed on request.
+@Service
+public class CorrelationService {
+
+    private static final Logger LOGGER = Logger.getLogger(CorrelationService.class.getName());
+
+    public static final int DEFAULT_WINDOW = 252;
+    public static final int MIN_WINDOW = 20;
+    public static final int MAX_WINDOW = 756;
+    public static final int MAX_MATRIX_TICKERS = 300;
+    static final int TOP_K = 20;
+
+    private final ReturnMatrixService returnMatrixService;
+    private final CorrelationRepository correlationRepository;
+    private final ForkJoinPool analyticsPool;
+
+    public CorrelationService(ReturnMatrixService returnMatrixService, CorrelationRepository correlationRepository,
+            ForkJoinPool analyticsPool) {
+        this.returnMatrixService = returnMatrixService;
+        this.correlationRepository = correlationRepository;
+        this.analyticsPool = analyticsPool;
+    }
+
+    // full N x N pass over the universe, keeping the TOP_K correlates of every ticker
+    public int rebuildPeers(int window) {
+        long start = System.nanoTime();
+        ReturnMatrix m = returnMatrixService.refresh(window);
+        if (m.size() < 2) {
+            return 0;
+        }
+        CorrelationKernel.TopK top = CorrelationKernel.topK(m, TOP_K, analyticsPool);
+        long computed = System.nanoTime();
+
+        List<PeerRow> rows = new ArrayList<>(m.size() * TOP_K);
+        for (int i = 0; i < m.size(); i++) {
+            for (int r = 0; r < top.count(i); r++) {
+                rows.add(new PeerRow(m.ticker(i), r, m.ticker(top.peer(i, r)), top.correlation(i, r)));
+            }
+        }
+        correlationRepository.replaceWindow(window, m.lastDate(), rows);
+
+        LOGGER.info("Correlation peers (" + window + "d) for " + m.size() + " tickers: kernel "
+                + (computed - start) / 1_000_000 + " ms, total " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return rows.size();
+    }
+
+    public List<CorrelationPeerDTO> peers(String ticker, int window, int limit) {
+        return correlationRepository.findPeers(ticker, window).stream()
+                .limit(limit)
+                .map(p -> new CorrelationPeerDTO(p.peer(), p.correlation()))
+                .toList();
+    }
+
+    // null when fewer than two of the tickers have enough history
+    public CorrelationMatrixDTO matrix(List<String> tickers, int window) {
+        ReturnMatrix m = returnMatrixService.build(tickers, window);
+        if (m.size() < 2) {
+            return null;
+        }
+        int n = m.size();
+        int[] rows = new int[n];
+        List<String> names = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            rows[i] = i;
+            names.add(m.ticker(i));
+        }
+        float[] dense = CorrelationKernel.dense(m, rows);
+        float[][] matrix = new float[n][];
+        for (int i = 0; i < n; i++) {
+            matrix[i] = Arrays.copyOfRange(dense, i * n, (i + 1) * n);
+        }
+        return new CorrelationMatrixDTO(window, m.lastDate().toString(), names, matrix);
+    }
+}
@@ -0,0 +1,295 @@
+package com.obinna.StockAnalysis.Service;
+
+import com.obinna.StockAnalysis.Repository.FeatureRepository;
+import com.obinna.StockAnalysis.Repository.FeatureRepository.FeatureRow;
+import com.obinna.StockAnalysis.Repository.FeatureStateRepository;
+import com.obinna.StockAnalysis.Repository.FeatureStateRepository.FeatureState;
+import com.obinna.StockAnalysis.Repository.MarketDataReadRepository;
+import com.obinna.StockAnalysis.analytics.PriceSeries;
+import com.obinna.StockAnalysis.analytics.RollingFeatureCalculator;
+import com.obinna.StockAnalysis.events.FeaturesUpdatedEvent;
+import com.obinna.StockAnalysis.events.PricesIngestedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+// Builds the `features` table in-process (replaces feature_etl.build_all_features).
+// Prices are read in chunks with one ANY(?) query, every ticker in a chunk is computed in parallel
+// on the analytics pool against one shared SPY return series, and the new rows are bulk upserted.
+//
+// After each run the calculator state of every ticker is checkpointed to `feature_state`, so the
+// incremental path (updateFeatures) only reads and steps the bars after the checkpoint.
+@Service
+public class FeatureEngine {
+
+    private static final Logger LOGGER = Logger.getLogger(FeatureEngine.class.getName());
+
+    static final String MARKET_TICKER = "SPY";
+    private static final int CHUNK_SIZE = 250;
+    private static final int HISTORY_YEARS = 5;
+
+    private final MarketDataReadRepository readRepository;
+    private final FeatureRepository featureRepository;
+    private final FeatureStateRepository stateRepository;
+    private final ForkJoinPool analyticsPool;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // full and incremental runs both write states; never let them interleave
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    // tickers with new bars since the last incremental run
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    public FeatureEngine(MarketDataReadRepository readRepository, FeatureRepository featureRepository,
+            FeatureStateRepository stateRepository, ForkJoinPool analyticsPool,
+            ApplicationEventPublisher eventPublisher) {
+        this.readRepository = readRepository;
+        this.featureRepository = featureRepository;
+        this.stateRepository = stateRepository;
+        this.analyticsPool = analyticsPool;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener
+    public void onPricesIngested(PricesIngestedEvent event) {
+        pending.add(event.ticker());
+    }
+
+    // picks up on-demand ingests (chart views, admin syncs) between nightly runs
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public void flushPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<String> tickers = new ArrayList<>(pending);
+        try {
+            updateFeatures(tickers);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // recomputes every ticker from its full price history and rewrites all checkpoints
+    public int buildFeatures(List<String> tickers) throws InterruptedException {
+        int written = rebuild(tickers);
+        // downstream (signals) runs outside the lock
+        eventPublisher.publishEvent(new FeaturesUpdatedEvent(tickers));
+        return written;
+    }
+
+    // steps only the bars after each ticker's checkpoint; tickers without a usable checkpoint, or with bars
+    // stored behind it since it was written, get a full build
+    public int updateFeatures(List<String> tickers) throws InterruptedException {
+        int written = update(tickers);
+        eventPublisher.publishEvent(new FeaturesUpdatedEvent(tickers));
+        return written;
+    }
+
+    private int rebuild(List<String> tickers) throws InterruptedException {
+        buildLock.lockInterruptibly();
+        try {
+            long start = System.nanoTime();
+            pending.removeAll(tickers);
+            LocalDate to = LocalDate.now();
+            LocalDate from = to.minusYears(HISTORY_YEARS);
+
+            MarketReturns market = loadMarketReturns(from, to);
+            if (market == null) {
+                LOGGER.warning("No " + MARKET_TICKER + " prices stored; cannot compute market features.");
+                return 0;
+            }
+
+            int written = 0;
+            for (int i = 0; i < tickers.size(); i += CHUNK_SIZE) {
+                List<String> chunk = tickers.subList(i, Math.min(i + CHUNK_SIZE, tickers.size()));
+                written += fullChunk(chunk, market, from, to, false);
+            }
+
+            LOGGER.info("Feature build done for " + tickers.size() + " tickers: " + written + " rows in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return written;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private int update(List<String> tickers) throws InterruptedException {
+        buildLock.lockInterruptibly();
+        try {
+            long start = System.nanoTime();
+            pending.removeAll(tickers);
+            LocalDate to = LocalDate.now();
+
+            int written = 0;
+            int rebuilt = 0;
+            MarketReturns fullMarket = null;
+            for (int i = 0; i < tickers.size(); i += CHUNK_SIZE) {
+                List<String> chunk = tickers.subList(i, Math.min(i + CHUNK_SIZE, tickers.size()));
+                Map<String, FeatureState> states = stateRepository.findByTickers(chunk);
+                // stepping past a late bar would leave it out of every later row
+                Set<String> backfilled = stateRepository.findBackfilled(chunk, MARKET_TICKER);
+
+                List<Checkpoint> restored = new ArrayList<>();
+                List<String> missing = new ArrayList<>();
+                List<String> redo = new ArrayList<>();
+                for (String ticker : chunk) {
+                    FeatureState state = states.get(ticker);
+                    RollingFeatureCalculator calc = state == null ? null
+                            : RollingFeatureCalculator.fromBytes(state.state());
+                    if (backfilled.contains(ticker)) {
+                        redo.add(ticker);
+                    } else if (calc == null) {
+                        missing.add(ticker);
+                    } else {
+                        restored.add(new Checkpoint(ticker, state.asOfDate(), calc));
+                    }
+                }
+
+                if (!restored.isEmpty()) {
+                    written += incrementalChunk(restored, to);
+                }
+                if (!missing.isEmpty() || !redo.isEmpty()) {
+                    if (fullMarket == null) {
+                        fullMarket = loadMarketReturns(to.minusYears(HISTORY_YEARS), to);
+                    }
+                    if (fullMarket != null) {
+                        if (!missing.isEmpty()) {
+                            written += fullChunk(missing, fullMarket, to.minusYears(HISTORY_YEARS), to, false);
+                        }
+                        if (!redo.isEmpty()) {
+                            // every row after the late bar was computed without it
+                            written += fullChunk(redo, fullMarket, to.minusYears(HISTORY_YEARS), to, true);
+                        }
+                        rebuilt += missing.size() + redo.size();
+                    }
+                }
+            }
+
+            LOGGER.info("Incremental feature update done for " + tickers.size() + " tickers (" + rebuilt
+                    + " rebuilt): " + written + " rows in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return written;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    // `rewrite` replaces stored rows too; otherwise only rows after each ticker's last feature date are written
+    private int fullChunk(List<String> chunk, MarketReturns market, LocalDate from, LocalDate to, boolean rewrite)
+            throws InterruptedException {
+        Map<String, LocalDate> lastDates = rewrite ? Map.of() : featureRepository.findLastFeatureDates(chunk);
+        Map<String, PriceSeries> series = readRepository.loadSeries(chunk, from, to);
+
+        List<Advance> results = runOnPool(() -> series.values().parallelStream()
+                .map(s -> advance(s, market, new RollingFeatureCalculator(), null, lastDates.get(s.ticker())))
+                .toList());
+        return persist(results);
+    }
+
+    private int incrementalChunk(List<Checkpoint> checkpoints, LocalDate to) throws InterruptedException {
+        LocalDate oldest = checkpoints.stream().map(Checkpoint::asOfDate).min(LocalDate::compareTo).orElse(to);
+        if (!oldest.isBefore(to)) {
+            return 0;
+        }
+        // SPY from a bit before the oldest checkpoint, so the first new bar already has a return
+        MarketReturns market = loadMarketReturns(oldest, to);
+        if (market == null) {
+            return 0;
+        }
+        List<String> tickers = checkpoints.stream().map(Checkpoint::ticker).toList();
+        Map<String, PriceSeries> series = readRepository.loadSeries(tickers, oldest.plusDays(1), to);
+
+        List<Advance> results = runOnPool(() -> checkpoints.parallelStream()
+                .filter(c -> series.containsKey(c.ticker()))
+                .map(c -> advance(series.get(c.ticker()), market, c.calc(), c.asOfDate(), c.asOfDate()))
+                .toList());
+        return persist(results);
+    }
+
+    private int persist(List<Advance> results) {
+        List<FeatureRow> rows = results.stream().flatMap(r -> r.rows().stream()).toList();
+        List<FeatureState> states = results.stream().map(Advance::state).filter(Objects::nonNull).toList();
+        if (!rows.isEmpty()) {
+            featureRepository.batchUpsert(rows);
+        }
+        if (!states.isEmpty()) {
+            stateRepository.batchUpsert(states);
+        }
+        return rows.size();
+    }
+
+    MarketReturns loadMarketReturns(LocalDate from, LocalDate to) {
+        // a few extra days so the first in-range bar already has a return
+        PriceSeries spy = readRepository.loadSeries(List.of(MARKET_TICKER), from.minusDays(10), to).get(MARKET_TICKER);
+        return spy == null ? null : new MarketReturns(spy, spy.logReturns());
+    }
+
+    // Inner join on date with SPY, then one step per bar. Bars up to `skipThrough` are already in the
+    // calculator, rows are only emitted after `writeAfter`. Bars newer than SPY's last bar are left
+    // for the next run so the checkpoint never gets ahead of the market series.
+    static Advance advance(PriceSeries series, MarketReturns market, RollingFeatureCalculator calc,
+            LocalDate skipThrough, LocalDate writeAfter) {
+        List<FeatureRow> rows = new ArrayList<>();
+        double[] out = new double[RollingFeatureCalculator.FEATURE_COUNT];
+        int skipDay = skipThrough == null ? Integer.MIN_VALUE : (int) skipThrough.toEpochDay();
+        int writeAfterDay = writeAfter == null ? Integer.MIN_VALUE : (int) writeAfter.toEpochDay();
+
+        PriceSeries spy = market.series();
+        int lastStepped = -1;
+        int j = 0;
+        for (int i = 0; i < series.size(); i++) {
+            int day = series.day(i);
+            if (day <= skipDay) {
+                continue;
+            }
+            while (j < spy.size() && spy.day(j) < day) {
+                j++;
+            }
+            if (j == spy.size()) {
+                break; // SPY not ingested for this date yet
+            }
+            if (spy.day(j) != day) {
+                continue; // date missing from SPY: dropped by the inner merge
+            }
+            boolean complete = calc.step(series.close(i), series.volume(i), market.logReturns()[j], out);
+            lastStepped = i;
+            if (complete && day > writeAfterDay) {
+                rows.add(new FeatureRow(series.ticker(), series.date(i), out.clone()));
+            }
+        }
+
+        FeatureState state = lastStepped < 0 ? null
+                : new FeatureState(series.ticker(), series.date(lastStepped), calc.toBytes());
+        return new Advance(rows, state);
+    }
+
+    private <T> T runOnPool(Callable<T> task) throws InterruptedException {
+        try {
+            return analyticsPool.submit(task).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Feature computation failed", e.getCause());
+        }
+    }
+
+    record MarketReturns(PriceSeries series, double[] logReturns) {
+    }
+
+    record Checkpoint(String ticker, LocalDate asOfDate, RollingFeatureCalculator calc) {
+    }
+
+    record Advance(List<FeatureRow> rows, FeatureState state) {
+    }
+}
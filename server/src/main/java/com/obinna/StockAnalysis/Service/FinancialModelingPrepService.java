@@ -1,7 +1,12 @@
 package com.obinna.StockAnalysis.Service;
 
 import com.obinna.StockAnalysis.Repository.PriceIngestionRepository;
+import com.obinna.StockAnalysis.Repository.PriceRepository;
+import com.obinna.StockAnalysis.Repository.StockRepository;
+import com.obinna.StockAnalysis.Service.ProviderGuard.Provider;
 import com.obinna.StockAnalysis.dto.financial_modeling_prep.*;
+import com.obinna.StockAnalysis.profiling.IngestionStageEvent;
+import com.obinna.StockAnalysis.realtime.QuoteBoard;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
@@ -17,6 +22,7 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -41,18 +47,37 @@ public class FinancialModelingPrepService {
 
     private final String apiKey;
 
+    private final QuoteBoard quoteBoard;
+    private final ProviderGuard providerGuard;
+    private final PriceRepository priceRepository;
+    private final StockRepository stockRepository;
+
+    // fallback marker: FMP could not be asked, as opposed to FMP having no profile
+    private static final CompanyProfile[] PROFILE_UNAVAILABLE = new CompanyProfile[0];
+
     @Autowired
     private PriceIngestionRepository ingestionRepo;
 
-    public FinancialModelingPrepService(RestTemplate restTemplate, @Value("${FMP.api.key}") String apiKey) {
+    public FinancialModelingPrepService(RestTemplate restTemplate, @Value("${FMP.api.key}") String apiKey,
+            QuoteBoard quoteBoard, ProviderGuard providerGuard, PriceRepository priceRepository,
+            StockRepository stockRepository) {
         this.restTemplate = restTemplate;
         this.apiKey = apiKey;
+        this.quoteBoard = quoteBoard;
+        this.providerGuard = providerGuard;
+        this.priceRepository = priceRepository;
+        this.stockRepository = stockRepository;
     }
 
     private boolean isApiKeyInvalid() {
         return apiKey == null || apiKey.isEmpty() || "YOUR_FMP_API_KEY".equals(apiKey);
     }
 
+    // the request sent with whichever pooled key ProviderGuard picked
+    private static String withKey(UriComponentsBuilder uriBuilder, String key) {
+        return uriBuilder.replaceQueryParam("apikey", key).toUriString();
+    }
+
     @Cacheable(value = "sector")
     public SectorPerformance[] getSectorPerformance() {
         List<SectorPerformance> results = new ArrayList<>();
@@ -72,7 +97,8 @@ public class FinancialModelingPrepService {
                     .queryParam("apikey", apiKey);
             try {
                 SectorPerformance[] response;
-                response = restTemplate.getForObject(uriBuilder.toUriString(), SectorPerformance[].class);
+                response = providerGuard.callOrLastGood(Provider.FMP, "historical-sector-performance", sector,
+                        key -> restTemplate.getForObject(withKey(uriBuilder, key), SectorPerformance[].class));
                 if (response != null && response.length > 0) {
                     results.add(response[0]); // one per sector
                 }
@@ -102,7 +128,8 @@ public class FinancialModelingPrepService {
                 .queryParam("apikey", apiKey);
         try {
             Screener[] response;
-            response = restTemplate.getForObject(uriBuilder.toUriString(), Screener[].class);
+            response = providerGuard.callOrLastGood(Provider.FMP, "company-screener",
+                    key -> restTemplate.getForObject(withKey(uriBuilder, key), Screener[].class));
             for (Screener screener : response) {
                 String symbol = screener.getSymbol().toUpperCase();
                 ingestionRepo.upsertStock(
@@ -123,8 +150,14 @@ public class FinancialModelingPrepService {
         return new Screener[0];
     }
 
-    @Cacheable(value = "profile", key = "#symbol")
+    // null when FMP could not answer; not cached then, so the profile is fetched again once FMP recovers.
+    // Callers fall back to getStoredProfile themselves
+    @Cacheable(value = "profile", key = "#symbol", unless = "#result == null")
     public CompanyProfile[] getCompanyProfile(String symbol) {
+        return fetchCompanyProfile(symbol, () -> null);
+    }
+
+    private CompanyProfile[] fetchCompanyProfile(String symbol, Supplier<CompanyProfile[]> whenUnavailable) {
         if (isApiKeyInvalid()) {
             LOGGER.warning("FMP API Key is invalid or not configured.");
             return null;
@@ -133,9 +166,9 @@ public class FinancialModelingPrepService {
         UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString(profilePath)
                 .queryParam("symbol", symbol)
                 .queryParam("apikey", apiKey);
-        System.out.println("url: " + uriBuilder);
         try {
-            CompanyProfile[] response = restTemplate.getForObject(uriBuilder.toUriString(), CompanyProfile[].class);
+            CompanyProfile[] response = providerGuard.call(Provider.FMP, "profile", symbol,
+                    key -> restTemplate.getForObject(withKey(uriBuilder, key), CompanyProfile[].class), whenUnavailable);
             if (response != null) {
                 return response; // <-- This is the successful return
             }
@@ -148,6 +181,19 @@ public class FinancialModelingPrepService {
         return null;
     }
 
+    // name, sector, industry and market cap from the stocks row; null when the ticker is not stored
+    public CompanyProfile[] getStoredProfile(String symbol) {
+        return stockRepository.findById(symbol.toUpperCase()).map(stock -> {
+            CompanyProfile profile = new CompanyProfile();
+            profile.setSymbol(stock.getTicker());
+            profile.setCompanyName(stock.getCompanyName());
+            profile.setSector(stock.getSector());
+            profile.setIndustry(stock.getIndustry());
+            profile.setMarketCap(stock.getMarketCap());
+            return new CompanyProfile[] { profile };
+        }).orElse(null);
+    }
+
     @Cacheable(value = "priceChanges", key = "#symbol")
     public PriceChange getPriceChange(String symbol) {
         if (isApiKeyInvalid()) {
@@ -164,7 +210,8 @@ public class FinancialModelingPrepService {
         try {
             // Make the API call and map the response to your wrapper class
             PriceChange[] response;
-            response = restTemplate.getForObject(uriBuilder.toUriString(), PriceChange[].class);
+            response = providerGuard.callOrLastGood(Provider.FMP, "stock-price-change", symbol,
+                    key -> restTemplate.getForObject(withKey(uriBuilder, key), PriceChange[].class));
             if (response != null && response.length > 0) {
                 return response[0]; // <-- This is the successful return
             }
@@ -181,6 +228,23 @@ public class FinancialModelingPrepService {
 
     // 1M", "6M", "1Y" Chart Views
     public HistoricalChart[] getHistoricalDailyChart(String symbol) {
+        HistoricalChart[] response = fetchHistoricalDailyChart(symbol);
+        // FMP unavailable: what Postgres already has
+        return response != null ? response : storedDailyChart(symbol);
+    }
+
+    // batch ingestion only needs the side effect; false when FMP could not be asked
+    public boolean syncHistoricalDailyChart(String symbol) {
+        IngestionStageEvent event = new IngestionStageEvent("daily-prices", symbol);
+        event.begin();
+        HistoricalChart[] charts = fetchHistoricalDailyChart(symbol);
+        event.rows = charts == null ? 0 : charts.length;
+        event.commit();
+        return charts != null;
+    }
+
+    // null when FMP is unavailable
+    private HistoricalChart[] fetchHistoricalDailyChart(String symbol) {
         // Return null if the API key is missing
         if (isApiKeyInvalid()) {
             LOGGER.warning("FMP API Key is invalid or not configured.");
@@ -202,14 +266,18 @@ public class FinancialModelingPrepService {
         try {
             // Make the API call and map the response to your wrapper class
             HistoricalChart[] response;
-            response = restTemplate.getForObject(uriBuilder.toUriString(), HistoricalChart[].class);
+            response = providerGuard.call(Provider.FMP, "historical-price-eod/full", symbol,
+                    key -> restTemplate.getForObject(withKey(uriBuilder, key), HistoricalChart[].class), () -> null);
+            if (response == null) {
+                return null;
+            }
             // ObjectMapper mapper = new ObjectMapper();
             // System.out.println("EXECUTING FMP API CALL FOR getHistoricalFullChart:\n" +
             // mapper.writerWithDefaultPrettyPrinter().writeValueAsString(response));
-            if (response != null && response.length > 0) {
+            if (response.length > 0) {
                 saveToDatabase(symbol, response);
             }
-            return response != null ? response : new HistoricalChart[0];
+            return response;
 
         } catch (HttpClientErrorException e) {
             LOGGER.log(Level.SEVERE,
@@ -239,7 +307,10 @@ public class FinancialModelingPrepService {
         if (!(missingCore || stale)) {
             return; // ✅ skip API call entirely
         }
-        CompanyProfile[] profile = getCompanyProfile(symbol);
+        CompanyProfile[] profile = fetchCompanyProfile(symbol, () -> PROFILE_UNAVAILABLE);
+        if (profile == PROFILE_UNAVAILABLE) {
+            return; // keep the stored metadata; the next sync asks again
+        }
 
         if (profile != null) {
             // High performance upsert using JdbcTemplate
@@ -256,10 +327,33 @@ public class FinancialModelingPrepService {
         }
     }
 
+    private HistoricalChart[] storedDailyChart(String symbol) {
+        return priceRepository.findByTickerOrderByPriceDateDesc(symbol.toUpperCase()).stream()
+                .map(p -> {
+                    HistoricalChart c = new HistoricalChart();
+                    c.setDate(p.getPriceDate().toString());
+                    c.setOpen(String.valueOf(p.getOpenPrice()));
+                    c.setHigh(String.valueOf(p.getHighPrice()));
+                    c.setLow(String.valueOf(p.getLowPrice()));
+                    c.setClose(String.valueOf(p.getClosePrice()));
+                    c.setVolume(String.valueOf(p.getVolume()));
+                    return c;
+                })
+                .toArray(HistoricalChart[]::new);
+    }
+
     // save to RDS
     private void saveToDatabase(String symbol, HistoricalChart[] charts) {
+        List<PriceIngestionRepository.PriceRow> rows = toPriceRows(symbol, charts);
+        if (!rows.isEmpty()) {
+            ingestionRepo.batchInsertIgnore(rows);
+            LOGGER.info("Saved batch for " + symbol + " (" + rows.size() + " rows)");
+        }
+    }
 
-        List<PriceIngestionRepository.PriceRow> rows = Arrays.stream(charts)
+    // also measured by the JMH ingestion benchmark
+    static List<PriceIngestionRepository.PriceRow> toPriceRows(String symbol, HistoricalChart[] charts) {
+        return Arrays.stream(charts)
                 .map(c -> new PriceIngestionRepository.PriceRow(
                         symbol,
                         LocalDate.parse(c.getDate()),
@@ -269,15 +363,10 @@ public class FinancialModelingPrepService {
                         Double.parseDouble(c.getClose()),
                         Long.parseLong(c.getVolume())))
                 .toList();
-
-        if (!rows.isEmpty()) {
-            ingestionRepo.batchInsertIgnore(rows);
-            LOGGER.info("Saved batch for " + symbol + " (" + rows.size() + " rows)");
-        }
     }
 
-    @Cacheable(value = "historicalChart", key = "#symbol")
-    public HistoricalChart[] getHistoricalChart(String symbol) {
+    // 5 min bars, newest first; `from` (inclusive, may be null) limits the fetch to bars not stored yet
+    public HistoricalChart[] getHistoricalChart(String symbol, LocalDate from) {
         if (isApiKeyInvalid()) {
             return new HistoricalChart[0];
         }
@@ -285,10 +374,14 @@ public class FinancialModelingPrepService {
         UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString(stockSymbol)
                 .queryParam("symbol", symbol)
                 .queryParam("apikey", apiKey);
+        if (from != null) {
+            uriBuilder.queryParam("from", from.toString());
+        }
         try {
             HistoricalChart[] response;
-            response = restTemplate.getForObject(uriBuilder.toUriString(), HistoricalChart[].class);
-            System.out.println("EXECUTING FMP API CALL FOR getHistoricalChart: " + symbol);
+            // unavailable: IntradayService answers from the stored bars
+            response = providerGuard.call(Provider.FMP, "historical-chart/5min", symbol,
+                    key -> restTemplate.getForObject(withKey(uriBuilder, key), HistoricalChart[].class), () -> null);
             return response;
         } catch (HttpClientErrorException e) {
             LOGGER.log(Level.SEVERE, "HTTP Client Error while fetching " + symbol + ": " + e.getStatusCode() + " "
@@ -300,10 +393,11 @@ public class FinancialModelingPrepService {
         return new HistoricalChart[0];
     }
 
-    //@Cacheable(value = "quotes", key = "#symbol")
-    public StockQuote getStockQuote(String symbol) {
+    // always goes upstream and publishes to the quote board; null when FMP did not answer.
+    // QuoteResolver decides when a call is worth making
+    public StockQuote fetchStockQuote(String symbol) {
         if (isApiKeyInvalid()) {
-            return new StockQuote();
+            return null;
         }
         String stockSymbol = FMP_BASE_URL + "quote";
         UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString(stockSymbol)
@@ -311,9 +405,10 @@ public class FinancialModelingPrepService {
                 .queryParam("apikey", apiKey);
         try {
             StockQuote[] response;
-            response = restTemplate.getForObject(uriBuilder.toUriString(), StockQuote[].class);
-            System.out.println("EXECUTING FMP API CALL FOR getStockQuote: " + symbol);
+            response = providerGuard.call(Provider.FMP, "quote", symbol,
+                    key -> restTemplate.getForObject(withKey(uriBuilder, key), StockQuote[].class), () -> null);
             if (response != null && response.length > 0) {
+                quoteBoard.publish(symbol, response[0]);
                 return response[0]; // <-- This is the successful return
             }
         } catch (HttpClientErrorException e) {
@@ -322,7 +417,7 @@ public class FinancialModelingPrepService {
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error fetching " + symbol + " stock from Financial Modeling Prep", e);
         }
-        return new StockQuote();
+        return null;
     }
 
     @Cacheable(value = "marketLeaders", key = "#leaderType")
@@ -336,7 +431,8 @@ public class FinancialModelingPrepService {
         try {
             // The rest of your logic to call the API...
             MarketLeader[] response;
-            response = restTemplate.getForObject(uriBuilder.toUriString(), MarketLeader[].class);
+            response = providerGuard.callOrLastGood(Provider.FMP, "market-leaders", leaderType,
+                    key -> restTemplate.getForObject(withKey(uriBuilder, key), MarketLeader[].class));
             return response;
         } catch (HttpClientErrorException e) {
             LOGGER.log(Level.SEVERE, "HTTP Client Error while fetching top" + leaderType + ": " + e.getStatusCode()
@@ -1,9 +1,11 @@
 package com.obinna.StockAnalysis.Service;
 
+import com.obinna.StockAnalysis.Service.ProviderGuard.Provider;
 import com.obinna.StockAnalysis.dto.financial_modeling_prep.FinnhubQuote;
 import com.obinna.StockAnalysis.dto.finnhub.CompanyNews;
 import com.obinna.StockAnalysis.dto.finnhub.GeneralNews;
 import com.obinna.StockAnalysis.dto.finnhub.UniversalStockList;
+import com.obinna.StockAnalysis.realtime.QuoteBoard;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
@@ -22,18 +24,27 @@ public class FinnhubService {
     private static final Logger LOGGER = Logger.getLogger(FinnhubService.class.getName());
 
     private final String apiKey;
+    private final QuoteBoard quoteBoard;
+    private final ProviderGuard providerGuard;
     private final String FINNHUB_BASE_URL = "https://finnhub.io/api/v1";
 
     public FinnhubService(RestTemplate restTemplate,
-            @Value("${finnhub.api.key}") String apiKey) {
+            @Value("${finnhub.api.key}") String apiKey, QuoteBoard quoteBoard, ProviderGuard providerGuard) {
         this.restTemplate = restTemplate;
         this.apiKey = apiKey;
+        this.quoteBoard = quoteBoard;
+        this.providerGuard = providerGuard;
     }
 
     private boolean isApiKeyInvalid() {
         return apiKey == null || apiKey.isEmpty() || "YOUR_FINNHUB_API_KEY".equals(apiKey);
     }
 
+    // the request sent with whichever pooled key ProviderGuard picked
+    private static String withKey(UriComponentsBuilder uriBuilder, String key) {
+        return uriBuilder.replaceQueryParam("token", key).toUriString();
+    }
+
     @Cacheable(value = "companyNews")
     public CompanyNews [] getCompanyNews(String symbol){
         if (isApiKeyInvalid()) {
@@ -43,18 +54,17 @@ public class FinnhubService {
         LocalDate today = LocalDate.now();
         LocalDate sevenDaysAgo = today.minusDays(7);
 
-        String url = UriComponentsBuilder.fromUriString(FINNHUB_BASE_URL)
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString(FINNHUB_BASE_URL)
                 .path("/company-news")
                 .queryParam("symbol", symbol)
                 // Add the 'from' date, formatted as a string
                 .queryParam("from", sevenDaysAgo.format(formatter))
                 // Add the 'to' date, formatted as a string
                 .queryParam("to", today.format(formatter))
-                .queryParam("token", apiKey)
-                .toUriString();
+                .queryParam("token", apiKey);
         try {
-            CompanyNews [] companyNews = restTemplate.getForObject(url, CompanyNews[].class);            
-            System.out.println("EXECUTING Finnhub API CALL FOR getFinnhubQuote: ");
+            CompanyNews [] companyNews = providerGuard.callOrLastGood(Provider.FINNHUB, "company-news", symbol,
+                    key -> restTemplate.getForObject(withKey(uriBuilder, key), CompanyNews[].class));
             return companyNews;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE,"Error fetching quote from Finnhub for symbol: {}" + e);
@@ -69,14 +79,13 @@ public class FinnhubService {
         if (isApiKeyInvalid()) {
             return new GeneralNews[0];
         }
-        String url = UriComponentsBuilder.fromUriString(FINNHUB_BASE_URL)
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString(FINNHUB_BASE_URL)
                 .path("/news")
                 .queryParam("category", "general")
-                .queryParam("token", apiKey)
-                .toUriString();
+                .queryParam("token", apiKey);
         try {
-            GeneralNews [] generalNews = restTemplate.getForObject(url, GeneralNews[].class);            
-            System.out.println("EXECUTING Finnhub API CALL FOR getFinnhubQuote: ");
+            GeneralNews [] generalNews = providerGuard.callOrLastGood(Provider.FINNHUB, "news",
+                    key -> restTemplate.getForObject(withKey(uriBuilder, key), GeneralNews[].class));
             return generalNews;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE,"Error fetching quote from Finnhub for symbol: {}" + e);
@@ -88,27 +97,30 @@ public class FinnhubService {
 
     // get market summary
     
-    @Cacheable(value = "finnhubQuotes", key = "#symbol")
-    public FinnhubQuote getQuote(String symbol) {
+    // always goes upstream and publishes to the quote board; the live quote hub calls this on its own schedule
+    // and QuoteResolver when a request finds no fresh quote
+    public FinnhubQuote fetchQuote(String symbol) {
         if (isApiKeyInvalid()) {
             return null;
         }
         LOGGER.log(Level.FINEST, "EXECUTING FINNHUB API CALL FOR QUOTE: {}", symbol);
         
-        String url = UriComponentsBuilder.fromUriString(FINNHUB_BASE_URL)
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString(FINNHUB_BASE_URL)
                 .path("/quote")
                 .queryParam("symbol", symbol.toUpperCase())
-                .queryParam("token", apiKey)
-                .toUriString();
+                .queryParam("token", apiKey);
         
         try {
-            FinnhubQuote quote = restTemplate.getForObject(url, FinnhubQuote.class);
+            FinnhubQuote quote = providerGuard.call(Provider.FINNHUB, "quote", symbol,
+                    key -> restTemplate.getForObject(withKey(uriBuilder, key), FinnhubQuote.class), () -> null);
             // Finnhub often returns a valid object with 0s for invalid symbols.
             if (quote != null && quote.getCurrentPrice() == 0 && quote.getPreviousClosePrice() == 0) {
                  LOGGER.log(Level.WARNING,"Finnhub returned a quote with all zero values for symbol: {}. It may be invalid.", symbol);
                  return null;
             }
-            System.out.println("EXECUTING Finnhub API CALL FOR getFinnhubQuote: " + symbol);
+            if (quote != null) {
+                quoteBoard.publish(symbol, quote);
+            }
             return quote;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE,"Error fetching quote from Finnhub for symbol: {}", symbol + e);
@@ -119,8 +131,6 @@ public class FinnhubService {
     // get universal stock listings
     @Cacheable("allUsStocks")
     public UniversalStockList[] getUniversalStockList() {
-        System.out.println(apiKey + "FINNHUB KEY len=" + apiKey.length() + " starts=" + apiKey.substring(0, 6));
-
         if (isApiKeyInvalid()) {
             return new UniversalStockList[0];
         }
@@ -131,7 +141,8 @@ public class FinnhubService {
                 .queryParam("token", apiKey); // <-- Finnhub uses "token"
         try {
             UniversalStockList[] response;
-            response = restTemplate.getForObject(uriBuilder.toUriString(), UniversalStockList[].class);
+            response = providerGuard.callOrLastGood(Provider.FINNHUB, "stock/symbol",
+                    key -> restTemplate.getForObject(withKey(uriBuilder, key), UniversalStockList[].class));
             return response;
         } catch (HttpClientErrorException e) {
             LOGGER.log(Level.SEVERE, "HTTP Client Error while fetching Universal Listing: " + e.getStatusCode() + " "
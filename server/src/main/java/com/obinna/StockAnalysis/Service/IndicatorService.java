@@ -0,0 +1,216 @@
+package com.obinna.StockAnalysis.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.obinna.StockAnalysis.Repository.MarketDataReadRepository;
+import com.obinna.StockAnalysis.analytics.IndicatorSpec;
+import com.obinna.StockAnalysis.analytics.PriceSeries;
+import com.obinna.StockAnalysis.dto.analytics.IndicatorSeriesDTO;
+import com.obinna.StockAnalysis.events.PricesIngestedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.ta4j.core.BarSeries;
+import org.ta4j.core.BaseBarSeriesBuilder;
+import org.ta4j.core.Indicator;
+import org.ta4j.core.indicators.ATRIndicator;
+import org.ta4j.core.indicators.EMAIndicator;
+import org.ta4j.core.indicators.MACDIndicator;
+import org.ta4j.core.indicators.RSIIndicator;
+import org.ta4j.core.indicators.SMAIndicator;
+import org.ta4j.core.indicators.bollinger.BollingerBandsLowerIndicator;
+import org.ta4j.core.indicators.bollinger.BollingerBandsMiddleIndicator;
+import org.ta4j.core.indicators.bollinger.BollingerBandsUpperIndicator;
+import org.ta4j.core.indicators.helpers.ClosePriceIndicator;
+import org.ta4j.core.indicators.statistics.StandardDeviationIndicator;
+import org.ta4j.core.num.DoubleNum;
+import org.ta4j.core.num.Num;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntToDoubleFunction;
+import java.util.logging.Logger;
+
+// Technical indicators over stored daily bars.
+// One ta4j BarSeries per ticker lives in a bounded cache; ingestion appends the new bars to a cached
+// series instead of rebuilding it, and built indicators are kept per (ticker, spec). ta4j indicators
+// cache their own values, so a repeat request only evaluates the bars appended since the last one.
+@Service
+public class IndicatorService {
+
+    private static final Logger LOGGER = Logger.getLogger(IndicatorService.class.getName());
+
+    private static final int HISTORY_YEARS = 5;
+    private static final int MAX_CACHED_SERIES = 200;
+    // distinct parameter sets kept per ticker before the memo is reset
+    private static final int MAX_INDICATORS_PER_SERIES = 32;
+
+    private final MarketDataReadRepository readRepository;
+
+    private final Cache<String, SeriesEntry> series = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_SERIES)
+            .expireAfterAccess(Duration.ofHours(6))
+            .build();
+
+    public IndicatorService(MarketDataReadRepository readRepository) {
+        this.readRepository = readRepository;
+    }
+
+    // null when nothing is stored for the ticker
+    public IndicatorSeriesDTO compute(String ticker, IndicatorSpec spec, LocalDate from) {
+        SeriesEntry entry = series.get(ticker, this::load);
+        if (entry == null) {
+            return null;
+        }
+
+        // ta4j series and cached indicators are not thread safe
+        synchronized (entry) {
+            BarSeries bars = entry.bars;
+            if (bars.isEmpty()) {
+                return null;
+            }
+            List<IntToDoubleFunction> lines = entry.indicators.computeIfAbsent(spec, s -> build(bars, s));
+
+            int begin = bars.getBeginIndex();
+            int end = bars.getEndIndex();
+            int firstStable = begin + spec.unstableBars();
+            int start = begin;
+            if (from != null) {
+                while (start <= end && entry.date(start).isBefore(from)) {
+                    start++;
+                }
+            }
+
+            List<String> dates = new ArrayList<>(end - start + 1);
+            for (int i = start; i <= end; i++) {
+                dates.add(entry.date(i).toString());
+            }
+            Map<String, List<Double>> values = new LinkedHashMap<>();
+            List<String> names = spec.type().lines();
+            for (int l = 0; l < names.size(); l++) {
+                IntToDoubleFunction line = lines.get(l);
+                List<Double> out = new ArrayList<>(dates.size());
+                for (int i = start; i <= end; i++) {
+                    double v = i < firstStable ? Double.NaN : line.applyAsDouble(i);
+                    out.add(Double.isFinite(v) ? v : null);
+                }
+                values.put(names.get(l), out);
+            }
+            return new IndicatorSeriesDTO(ticker, spec.type().name(), spec.params(), dates, values);
+        }
+    }
+
+    @EventListener
+    public void onPricesIngested(PricesIngestedEvent event) {
+        SeriesEntry entry = series.getIfPresent(event.ticker());
+        if (entry == null) {
+            return; // built from the database on the next request
+        }
+        synchronized (entry) {
+            LocalDate last = entry.lastDate();
+            if (last != null && !event.latestDate().isAfter(last)) {
+                return;
+            }
+            LocalDate after = last == null ? LocalDate.now().minusYears(HISTORY_YEARS) : last.plusDays(1);
+            PriceSeries fresh = readRepository.loadSeries(List.of(event.ticker()), after, event.latestDate())
+                    .get(event.ticker());
+            if (fresh != null) {
+                entry.append(fresh);
+            }
+        }
+    }
+
+    private SeriesEntry load(String ticker) {
+        LocalDate to = LocalDate.now();
+        PriceSeries prices = readRepository.loadSeries(List.of(ticker), to.minusYears(HISTORY_YEARS), to).get(ticker);
+        if (prices == null) {
+            return null;
+        }
+        SeriesEntry entry = new SeriesEntry(ticker);
+        entry.append(prices);
+        LOGGER.fine("Indicator series loaded for " + ticker + " (" + prices.size() + " bars)");
+        return entry;
+    }
+
+    // one function per output line of the spec's type, in Type.lines() order
+    private static List<IntToDoubleFunction> build(BarSeries bars, IndicatorSpec spec) {
+        ClosePriceIndicator close = new ClosePriceIndicator(bars);
+        return switch (spec.type()) {
+            case SMA -> lines(new SMAIndicator(close, spec.period()));
+            case EMA -> lines(new EMAIndicator(close, spec.period()));
+            case RSI -> lines(new RSIIndicator(close, spec.period()));
+            case ATR -> lines(new ATRIndicator(bars, spec.period()));
+            case MACD -> {
+                MACDIndicator macd = new MACDIndicator(close, spec.fast(), spec.slow());
+                EMAIndicator signal = new EMAIndicator(macd, spec.signal());
+                yield List.of(
+                        i -> macd.getValue(i).doubleValue(),
+                        i -> signal.getValue(i).doubleValue(),
+                        i -> macd.getValue(i).doubleValue() - signal.getValue(i).doubleValue());
+            }
+            case BOLLINGER -> {
+                BollingerBandsMiddleIndicator middle = new BollingerBandsMiddleIndicator(
+                        new SMAIndicator(close, spec.period()));
+                StandardDeviationIndicator deviation = new StandardDeviationIndicator(close, spec.period());
+                Num k = bars.numOf(spec.k());
+                yield lines(middle,
+                        new BollingerBandsUpperIndicator(middle, deviation, k),
+                        new BollingerBandsLowerIndicator(middle, deviation, k));
+            }
+        };
+    }
+
+    @SafeVarargs
+    private static List<IntToDoubleFunction> lines(Indicator<Num>... indicators) {
+        List<IntToDoubleFunction> out = new ArrayList<>(indicators.length);
+        for (Indicator<Num> indicator : indicators) {
+            out.add(i -> indicator.getValue(i).doubleValue());
+        }
+        return out;
+    }
+
+    private static final class SeriesEntry {
+        final BarSeries bars;
+        // epoch day per bar index, so date lookups don't go through ZonedDateTime
+        final List<Integer> days = new ArrayList<>();
+        final Map<IndicatorSpec, List<IntToDoubleFunction>> indicators = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<IndicatorSpec, List<IntToDoubleFunction>> eldest) {
+                return size() > MAX_INDICATORS_PER_SERIES;
+            }
+        };
+
+        SeriesEntry(String ticker) {
+            this.bars = new BaseBarSeriesBuilder()
+                    .withName(ticker)
+                    .withNumTypeOf(DoubleNum::valueOf)
+                    .build();
+        }
+
+        LocalDate date(int index) {
+            return LocalDate.ofEpochDay(days.get(index - bars.getBeginIndex()));
+        }
+
+        LocalDate lastDate() {
+            return days.isEmpty() ? null : LocalDate.ofEpochDay(days.get(days.size() - 1));
+        }
+
+        // bars at or before the last one are ignored; ta4j series are append-only
+        void append(PriceSeries prices) {
+            int lastDay = days.isEmpty() ? Integer.MIN_VALUE : days.get(days.size() - 1);
+            for (int i = 0; i < prices.size(); i++) {
+                if (prices.day(i) <= lastDay) {
+                    continue;
+                }
+                bars.addBar(Duration.ofDays(1), prices.date(i).plusDays(1).atStartOfDay(ZoneOffset.UTC),
+                        prices.open(i), prices.high(i), prices.low(i), prices.close(i), prices.volume(i));
+                days.add(prices.day(i));
+                lastDay = prices.day(i);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.obinna.StockAnalysis.Service;
+
+import com.obinna.StockAnalysis.Repository.InstanceRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+// Keeps a heartbeat row per instance and divides the provider budgets by the number of live instances.
+// Every instance holds the same API keys and QuotaManager's buckets are per JVM, so without this N instances
+// would each spend a key's whole allowance. The share follows scale-out within a heartbeat or two.
+@Service
+public class InstanceRegistry {
+
+    private static final Logger LOGGER = Logger.getLogger(InstanceRegistry.class.getName());
+
+    private static final long HEARTBEAT_MS = 30_000;
+    // an instance missing this many heartbeats in a row no longer counts
+    private static final Duration TTL = Duration.ofMillis(3 * HEARTBEAT_MS);
+
+    private final InstanceRepository repository;
+    private final QuotaManager quotaManager;
+    private final String instanceId;
+    // only touched by the heartbeat
+    private int instances = 1;
+    // own thread rather than @Scheduled, which the daily sync occupies for its whole run
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "instance-heartbeat");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public InstanceRegistry(InstanceRepository repository, QuotaManager quotaManager) {
+        this.repository = repository;
+        this.quotaManager = quotaManager;
+        // pid@host, as in sync_tasks.lease_owner
+        this.instanceId = ManagementFactory.getRuntimeMXBean().getName();
+        scheduler.scheduleWithFixedDelay(this::heartbeat, 0, HEARTBEAT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void heartbeat() {
+        try {
+            repository.heartbeat(instanceId);
+            int live = Math.max(repository.countLive(TTL), 1);
+            if (live != instances) {
+                LOGGER.info("Live instances " + instances + " -> " + live + ": provider budgets split " + live + " ways");
+                instances = live;
+                quotaManager.shareAmong(live);
+            }
+        } catch (RuntimeException e) {
+            // keep the last known share until the database answers again
+            LOGGER.warning("Instance heartbeat failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        scheduler.shutdownNow();
+        try {
+            repository.remove(instanceId);
+        } catch (DataAccessException e) {
+            LOGGER.fine("Could not remove instance row; it expires after " + TTL.toSeconds() + "s");
+        }
+    }
+}
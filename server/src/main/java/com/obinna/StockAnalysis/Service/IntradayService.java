@@ -0,0 +1,269 @@
+package com.obinna.StockAnalysis.Service;
+
+import com.obinna.StockAnalysis.Repository.IntradayRepository;
+import com.obinna.StockAnalysis.Repository.IntradayRepository.BarRow;
+import com.obinna.StockAnalysis.Repository.PriceIngestionRepository;
+import com.obinna.StockAnalysis.dto.alpha_vantage.IntradayApiResponse;
+import com.obinna.StockAnalysis.dto.alpha_vantage.IntradayDataPoint;
+import com.obinna.StockAnalysis.dto.financial_modeling_prep.HistoricalChart;
+import com.obinna.StockAnalysis.profiling.IngestionStageEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Intraday bars served from intraday_prices instead of refetched on every view.
+// 5 min bars come from FMP (regular session) and Alpha Vantage (extended hours); a sync only asks for
+// what is newer than the last bar stored from that provider's session, at most once per SYNC_INTERVAL per
+// ticker and provider. New 5m
+// bars are rolled up into the 15m / 1h tiers right away, and a nightly job prunes each tier to its retention.
+@Service
+public class IntradayService {
+
+    private static final Logger LOGGER = Logger.getLogger(IntradayService.class.getName());
+
+    public enum Tier {
+        FIVE_MINUTES(5, 10),
+        FIFTEEN_MINUTES(15, 60),
+        ONE_HOUR(60, 730);
+
+        private final int minutes;
+        private final int retentionDays;
+
+        Tier(int minutes, int retentionDays) {
+            this.minutes = minutes;
+            this.retentionDays = retentionDays;
+        }
+
+        public int minutes() {
+            return minutes;
+        }
+
+        // retention is in calendar days, `days` in trading days: the weekdays the retention spans
+        public int maxTradingDays() {
+            return retentionDays * 5 / 7;
+        }
+
+        public static Tier of(int minutes) {
+            for (Tier t : values()) {
+                if (t.minutes == minutes) {
+                    return t;
+                }
+            }
+            throw new IllegalArgumentException("interval must be 5, 15 or 60 minutes");
+        }
+    }
+
+    private static final ZoneId EXCHANGE_ZONE = ZoneId.of("America/New_York");
+    private static final DateTimeFormatter BAR_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // same as the historicalChart cache this replaces
+    private static final long SYNC_INTERVAL_MS = Duration.ofMinutes(5).toMillis();
+    // Alpha Vantage's compact output is the latest 100 bars; keep some slack
+    private static final int COMPACT_BARS = 90;
+    private static final LocalTime EXTENDED_OPEN = LocalTime.of(4, 0);
+    private static final LocalTime EXTENDED_CLOSE = LocalTime.of(20, 0);
+    private static final int AFTER_HOURS_DAYS = 5;
+
+    private final IntradayRepository intradayRepository;
+    private final PriceIngestionRepository ingestionRepo;
+    private final FinancialModelingPrepService financialModelingPrepService;
+    private final AlphaVantageService alphaVantageService;
+
+    private final Map<String, Long> fmpSynced = new ConcurrentHashMap<>();
+    private final Map<String, Long> alphaVantageSynced = new ConcurrentHashMap<>();
+
+    public IntradayService(IntradayRepository intradayRepository, PriceIngestionRepository ingestionRepo,
+            FinancialModelingPrepService financialModelingPrepService, AlphaVantageService alphaVantageService) {
+        this.intradayRepository = intradayRepository;
+        this.ingestionRepo = ingestionRepo;
+        this.financialModelingPrepService = financialModelingPrepService;
+        this.alphaVantageService = alphaVantageService;
+    }
+
+    // 1D / 5D views: bars of the last `days` trading days, newest first, in FMP's shape
+    public List<HistoricalChart> chart(String symbol, int days, int intervalMinutes) {
+        Tier tier = Tier.of(intervalMinutes);
+        if (days < 1 || days > tier.maxTradingDays()) {
+            throw new IllegalArgumentException("days must be between 1 and " + tier.maxTradingDays());
+        }
+        String ticker = symbol.trim().toUpperCase(Locale.ROOT);
+        if (claim(fmpSynced, ticker)) {
+            syncFromFmp(ticker);
+        }
+        return intradayRepository.findRecentBars(ticker, tier.minutes, days).stream()
+                .map(IntradayService::toChart)
+                .toList();
+    }
+
+    // extended-hours bars of the last few trading days, in Alpha Vantage's shape
+    public IntradayApiResponse afterHours(String symbol) {
+        String ticker = symbol.trim().toUpperCase(Locale.ROOT);
+        IntradayApiResponse response = null;
+        if (claim(alphaVantageSynced, ticker)) {
+            response = syncFromAlphaVantage(ticker);
+        }
+        List<BarRow> bars = intradayRepository.findRecentBars(ticker, Tier.FIVE_MINUTES.minutes, AFTER_HOURS_DAYS);
+        if (bars.isEmpty()) {
+            return response;
+        }
+        Map<String, IntradayDataPoint> series = new LinkedHashMap<>();
+        for (BarRow bar : bars) {
+            IntradayDataPoint point = new IntradayDataPoint();
+            point.setOpen(text(bar.open()));
+            point.setHigh(text(bar.high()));
+            point.setLow(text(bar.low()));
+            point.setClose(text(bar.close()));
+            point.setVolume(Long.toString(bar.volume()));
+            series.put(bar.barTime().format(BAR_TIME), point);
+        }
+        IntradayApiResponse out = new IntradayApiResponse();
+        out.setMetaData(response == null ? null : response.getMetaData());
+        out.setTimeSeries(series);
+        return out;
+    }
+
+    private void syncFromFmp(String ticker) {
+        LocalDateTime last = intradayRepository.findLastBarTime(ticker, Tier.FIVE_MINUTES.minutes);
+        // FMP filters by day, so the last stored day comes back again: at most one day of bars
+        HistoricalChart[] charts = financialModelingPrepService.getHistoricalChart(ticker,
+                last == null ? null : last.toLocalDate());
+        List<BarRow> rows = new ArrayList<>();
+        for (HistoricalChart c : charts == null ? new HistoricalChart[0] : charts) {
+            BarRow row = parse(ticker, c.getDate(), c.getOpen(), c.getHigh(), c.getLow(), c.getClose(),
+                    c.getVolume());
+            if (row != null && (last == null || !row.barTime().isBefore(last))) {
+                rows.add(row);
+            }
+        }
+        store(ticker, rows);
+    }
+
+    // the whole response is upserted: FMP's regular-session bars move findLastBarTime past the pre-market
+    // and after-hours slots only this sync fills, so it keys off the last extended-hours bar instead
+    private IntradayApiResponse syncFromAlphaVantage(String ticker) {
+        LocalDateTime last = intradayRepository.findLastExtendedBarTime(ticker, Tier.FIVE_MINUTES.minutes);
+        boolean compact = last != null
+                && sessionBarsBetween(last, LocalDateTime.now(EXCHANGE_ZONE)) < COMPACT_BARS;
+        IntradayApiResponse response = alphaVantageService.getAfterHours(ticker, compact);
+        if (response == null || response.getTimeSeries() == null) {
+            return response;
+        }
+        List<BarRow> rows = new ArrayList<>();
+        for (Map.Entry<String, IntradayDataPoint> e : response.getTimeSeries().entrySet()) {
+            IntradayDataPoint p = e.getValue();
+            BarRow row = parse(ticker, e.getKey(), p.getOpen(), p.getHigh(), p.getLow(), p.getClose(),
+                    p.getVolume());
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        store(ticker, rows);
+        return response;
+    }
+
+    private void store(String ticker, List<BarRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        IngestionStageEvent event = new IngestionStageEvent("intraday-bars", ticker);
+        event.begin();
+        ingestionRepo.ensureStockRowExists(ticker);
+        intradayRepository.upsertBars(rows);
+        LocalDateTime first = rows.stream().map(BarRow::barTime).min(Comparator.naturalOrder()).get();
+        intradayRepository.rollup(ticker, Tier.FIFTEEN_MINUTES.minutes, first);
+        intradayRepository.rollup(ticker, Tier.ONE_HOUR.minutes, first);
+        event.rows = rows.size();
+        event.commit();
+        LOGGER.fine("Stored " + rows.size() + " intraday bars for " + ticker);
+    }
+
+    // after the extended session, once the day's last rollups are in
+    @Scheduled(cron = "0 15 20 * * MON-FRI", zone = "America/New_York")
+    public void pruneTiers() {
+        LocalDateTime now = LocalDateTime.now(EXCHANGE_ZONE);
+        for (Tier tier : Tier.values()) {
+            int deleted = intradayRepository.deleteOlderThan(tier.minutes, now.minusDays(tier.retentionDays));
+            LOGGER.info("Pruned " + deleted + " intraday " + tier.minutes + "m bars");
+        }
+    }
+
+    // true for the caller that gets to sync the ticker now; everyone else reads what is stored
+    private static boolean claim(Map<String, Long> synced, String ticker) {
+        long now = System.currentTimeMillis();
+        Long previous = synced.get(ticker);
+        if (previous != null && now - previous < SYNC_INTERVAL_MS) {
+            return false;
+        }
+        return previous == null ? synced.putIfAbsent(ticker, now) == null : synced.replace(ticker, previous, now);
+    }
+
+    // 5 min slots of the 04:00-20:00 weekday session between two exchange times, counted up to COMPACT_BARS
+    private static long sessionBarsBetween(LocalDateTime from, LocalDateTime to) {
+        long bars = 0;
+        for (LocalDate day = from.toLocalDate(); !day.isAfter(to.toLocalDate()) && bars < COMPACT_BARS;
+                day = day.plusDays(1)) {
+            if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            LocalDateTime open = day.atTime(EXTENDED_OPEN);
+            LocalDateTime close = day.atTime(EXTENDED_CLOSE);
+            LocalDateTime start = from.isAfter(open) ? from : open;
+            LocalDateTime end = to.isBefore(close) ? to : close;
+            if (end.isAfter(start)) {
+                bars += Duration.between(start, end).toMinutes() / 5;
+            }
+        }
+        return bars;
+    }
+
+    // null for bars the provider sent incomplete
+    private static BarRow parse(String ticker, String time, String open, String high, String low, String close,
+            String volume) {
+        try {
+            return new BarRow(
+                    ticker,
+                    Tier.FIVE_MINUTES.minutes,
+                    LocalDateTime.parse(time, BAR_TIME),
+                    Double.parseDouble(open),
+                    Double.parseDouble(high),
+                    Double.parseDouble(low),
+                    Double.parseDouble(close),
+                    (long) Double.parseDouble(volume));
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.FINE, "Skipping unreadable intraday bar for " + ticker + " at " + time, e);
+            return null;
+        }
+    }
+
+    private static HistoricalChart toChart(BarRow bar) {
+        HistoricalChart c = new HistoricalChart();
+        c.setDate(bar.barTime().format(BAR_TIME));
+        c.setOpen(text(bar.open()));
+        c.setHigh(text(bar.high()));
+        c.setLow(text(bar.low()));
+        c.setClose(text(bar.close()));
+        c.setVolume(Long.toString(bar.volume()));
+        return c;
+    }
+
+    private static String text(double value) {
+        return BigDecimal.valueOf(value).toPlainString();
+    }
+}
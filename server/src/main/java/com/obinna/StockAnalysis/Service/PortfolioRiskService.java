@@ -0,0 +1,118 @@
+package com.obinna.StockAnalysis.Service;
+
+import com.obinna.StockAnalysis.analytics.PortfolioRisk;
+import com.obinna.StockAnalysis.analytics.ReturnMatrix;
+import com.obinna.StockAnalysis.dto.analytics.PortfolioHoldingRiskDTO;
+import com.obinna.StockAnalysis.dto.analytics.PortfolioRiskDTO;
+import com.obinna.StockAnalysis.dto.analytics.PortfolioRiskRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Portfolio volatility, beta, VaR/CVaR and risk contributions.
+// Reads the cached universe return matrix (the same one the correlation job uses), so a request does no SQL;
+// shorter windows are the trailing columns of it.
+@Service
+public class PortfolioRiskService {
+
+    public static final int MAX_WINDOW = CorrelationService.DEFAULT_WINDOW;
+    public static final int MIN_WINDOW = 20;
+    public static final int MAX_HOLDINGS = 2000;
+    private static final double DEFAULT_CONFIDENCE = 0.95;
+    private static final double TRADING_DAYS = 252.0;
+
+    private final ReturnMatrixService returnMatrixService;
+
+    public PortfolioRiskService(ReturnMatrixService returnMatrixService) {
+        this.returnMatrixService = returnMatrixService;
+    }
+
+    // false until the universe matrix has been built once after startup
+    public boolean isReady() {
+        return returnMatrixService.isReady(CorrelationService.DEFAULT_WINDOW);
+    }
+
+    // null when none of the holdings has enough history; IllegalArgumentException for bad input,
+    // IllegalStateException before isReady()
+    public PortfolioRiskDTO analyze(PortfolioRiskRequest request) {
+        int window = request.getWindow() != null ? request.getWindow() : MAX_WINDOW;
+        double confidence = request.getConfidence() != null ? request.getConfidence() : DEFAULT_CONFIDENCE;
+        if (window < MIN_WINDOW || window > MAX_WINDOW) {
+            throw new IllegalArgumentException("window must be between " + MIN_WINDOW + " and " + MAX_WINDOW);
+        }
+        if (!(confidence >= 0.5 && confidence < 1.0)) {
+            throw new IllegalArgumentException("confidence must be in [0.5, 1)");
+        }
+        if (request.getHoldings() == null || request.getHoldings().isEmpty()
+                || request.getHoldings().size() > MAX_HOLDINGS) {
+            throw new IllegalArgumentException("1 to " + MAX_HOLDINGS + " holdings required");
+        }
+
+        // duplicate tickers are merged
+        Map<String, Double> byTicker = new LinkedHashMap<>();
+        for (PortfolioRiskRequest.Holding h : request.getHoldings()) {
+            if (h.getTicker() == null || h.getTicker().isBlank() || !Double.isFinite(h.getWeight())) {
+                throw new IllegalArgumentException("Every holding needs a ticker and a finite weight");
+            }
+            byTicker.merge(h.getTicker().trim().toUpperCase(Locale.ROOT), h.getWeight(), Double::sum);
+        }
+
+        ReturnMatrix m = returnMatrixService.universe(CorrelationService.DEFAULT_WINDOW);
+        if (m == null) {
+            throw new IllegalStateException("Return matrix is still being built");
+        }
+        List<String> tickers = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        List<Double> raw = new ArrayList<>();
+        List<Integer> rowList = new ArrayList<>();
+        double gross = 0.0;
+        for (Map.Entry<String, Double> e : byTicker.entrySet()) {
+            int row = m.indexOf(e.getKey());
+            if (row < 0) {
+                missing.add(e.getKey());
+            } else if (e.getValue() != 0.0) {
+                tickers.add(e.getKey());
+                rowList.add(row);
+                raw.add(e.getValue());
+                gross += Math.abs(e.getValue());
+            }
+        }
+        if (tickers.isEmpty() || m.length() < MIN_WINDOW) {
+            return null;
+        }
+
+        int k = tickers.size();
+        int[] rows = new int[k];
+        double[] weights = new double[k];
+        for (int i = 0; i < k; i++) {
+            rows[i] = rowList.get(i);
+            weights[i] = raw.get(i) / gross;
+        }
+
+        int marketRow = m.indexOf(FeatureEngine.MARKET_TICKER);
+        PortfolioRisk.Result r = PortfolioRisk.compute(m, rows, weights, marketRow, window, confidence);
+
+        double annualize = Math.sqrt(TRADING_DAYS);
+        double sigma = r.dailyVolatility();
+        List<PortfolioHoldingRiskDTO> holdings = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            holdings.add(new PortfolioHoldingRiskDTO(tickers.get(i), weights[i],
+                    r.assetVolatility()[i] * annualize,
+                    finiteOrNull(r.assetBeta()[i]),
+                    r.contribution()[i] * annualize,
+                    sigma > 0 ? r.contribution()[i] / sigma : 0.0));
+        }
+
+        return new PortfolioRiskDTO(window, m.lastDate().toString(), r.observations(),
+                sigma * annualize, sigma, finiteOrNull(r.beta()), confidence, r.valueAtRisk(),
+                r.expectedShortfall(), holdings, missing);
+    }
+
+    private static Double finiteOrNull(double v) {
+        return Double.isFinite(v) ? v : null;
+    }
+}
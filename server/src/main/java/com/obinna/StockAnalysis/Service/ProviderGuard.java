@@ -0,0 +1,228 @@
+package com.obinna.StockAnalysis.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.obinna.StockAnalysis.profiling.ProviderCallEvent;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Every upstream HTTP call runs through here so one stalled provider cannot tie up the servlet threads.
+// Each provider has its own bulkhead (bounded concurrency, no queueing), time limiter and circuit breaker,
+// configured in ResilienceConfig, and every call first takes a token (and with it an API key) from QuotaManager.
+// The token is given back when the breaker or bulkhead turns the call away before it reaches the provider.
+// A key the provider refuses is benched and the call retried once per remaining key.
+// When a provider cannot answer (or the budget is spent), whatever the caller passes as fallback answers
+// instead: Postgres, the quote board or the last good response.
+// Every call is timed as provider.requests, tagged with provider, endpoint and status: the HTTP status, or
+// why the fallback answered (quota_exhausted, circuit_open, bulkhead_full, timeout, cancelled, error), and
+// recorded as a ProviderCallEvent for flight recordings.
+@Component
+public class ProviderGuard {
+
+    private static final Logger LOGGER = Logger.getLogger(ProviderGuard.class.getName());
+
+    public enum Provider {
+        // concurrency per pooled key; the nightly batch alone runs 8 FMP calls at a time per key
+        FMP("fmp", 24, Duration.ofSeconds(10)),
+        FINNHUB("finnhub", 16, Duration.ofSeconds(8)),
+        ALPHA_VANTAGE("alphaVantage", 4, Duration.ofSeconds(15));
+
+        private final String id;
+        private final int maxConcurrentCalls;
+        private final Duration timeout;
+
+        Provider(String id, int maxConcurrentCalls, Duration timeout) {
+            this.id = id;
+            this.maxConcurrentCalls = maxConcurrentCalls;
+            this.timeout = timeout;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public int maxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public Duration timeout() {
+            return timeout;
+        }
+    }
+
+    // 429: the key's plan limit, usually per minute; 401/403: revoked or over its daily allowance
+    private static final Duration RATE_LIMITED_BENCH = Duration.ofMinutes(1);
+    private static final Duration REJECTED_BENCH = Duration.ofMinutes(15);
+
+    private final QuotaManager quotaManager;
+    private final MeterRegistry meterRegistry;
+    private final Map<Provider, CircuitBreaker> breakers = new EnumMap<>(Provider.class);
+    private final Cache<String, Object> lastGood = Caffeine.newBuilder()
+            .maximumSize(2_000)
+            .expireAfterWrite(Duration.ofDays(1))
+            .build();
+
+    public ProviderGuard(CircuitBreakerFactory<?, ?> circuitBreakerFactory, QuotaManager quotaManager,
+            MeterRegistry meterRegistry) {
+        this.quotaManager = quotaManager;
+        this.meterRegistry = meterRegistry;
+        for (Provider p : Provider.values()) {
+            breakers.put(p, circuitBreakerFactory.create(p.id()));
+        }
+    }
+
+    // `fallback` answers when the call is rejected (no quota, circuit open, bulkhead full), times out or fails.
+    // Other 4xx responses are about the request itself (bad symbol) and are rethrown unchanged.
+    // `upstream` gets the API key to send the request with; `endpoint` and `symbol` describe the call in
+    // metrics (endpoint only) and recordings.
+    @SuppressWarnings("unchecked")
+    public <T> T call(Provider provider, String endpoint, String symbol, Function<String, T> upstream,
+            Supplier<T> fallback) {
+        int attempts = quotaManager.keyCount(provider);
+        while (true) {
+            long start = System.nanoTime();
+            ProviderCallEvent event = new ProviderCallEvent();
+            event.provider = provider.id();
+            event.endpoint = endpoint;
+            event.symbol = symbol;
+            event.begin();
+            // taken before the breaker so an exhausted budget never counts against the provider's health
+            String key = quotaManager.acquire(provider);
+            if (key == null) {
+                record(provider, endpoint, "quota_exhausted", start, event);
+                LOGGER.fine(provider.id() + " quota exhausted, using fallback");
+                return fallback.get();
+            }
+            try {
+                Object result = breakers.get(provider).run(() -> upstream.apply(key), error -> {
+                    if (error instanceof HttpClientErrorException e) {
+                        throw e;
+                    }
+                    if (rejected(error)) {
+                        quotaManager.release(provider, key);
+                    }
+                    if (abandoned(error)) {
+                        LOGGER.fine(provider.id() + " call abandoned by the caller");
+                        return new Failed("cancelled");
+                    }
+                    if (error instanceof CallNotPermittedException) {
+                        LOGGER.fine(provider.id() + " circuit open, using fallback");
+                    } else {
+                        LOGGER.log(Level.WARNING, provider.id() + " call failed, using fallback: " + error);
+                    }
+                    return new Failed(statusOf(error));
+                });
+                if (result instanceof Failed failed) {
+                    record(provider, endpoint, failed.status(), start, event);
+                    return fallback.get();
+                }
+                record(provider, endpoint, "200", start, event);
+                return (T) result;
+            } catch (HttpClientErrorException e) {
+                record(provider, endpoint, Integer.toString(e.getStatusCode().value()), start, event);
+                Duration bench = benchFor(e);
+                if (bench == null) {
+                    throw e;
+                }
+                quotaManager.bench(provider, key, bench);
+                if (--attempts <= 0) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // marks a call the breaker answered with its fallback
+    private record Failed(String status) {
+    }
+
+    // the caller was interrupted or gave up on the call: not the provider's doing
+    private static boolean abandoned(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof InterruptedException || e instanceof CancellationException) {
+                return true;
+            }
+        }
+        return Thread.currentThread().isInterrupted();
+    }
+
+    // the call never left this instance
+    private static boolean rejected(Throwable error) {
+        return error instanceof CallNotPermittedException || error instanceof BulkheadFullException;
+    }
+
+    private static String statusOf(Throwable error) {
+        if (error instanceof CallNotPermittedException) {
+            return "circuit_open";
+        }
+        if (error instanceof BulkheadFullException) {
+            return "bulkhead_full";
+        }
+        if (error instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (error instanceof HttpStatusCodeException e) {
+            return Integer.toString(e.getStatusCode().value());
+        }
+        return "error";
+    }
+
+    private void record(Provider provider, String endpoint, String status, long startNanos,
+            ProviderCallEvent event) {
+        Timer.builder("provider.requests")
+                .tags("provider", provider.id(), "endpoint", endpoint, "status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        event.status = status;
+        event.commit();
+    }
+
+    // null when the error is not the key's fault
+    private static Duration benchFor(HttpClientErrorException e) {
+        if (e.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+            return RATE_LIMITED_BENCH;
+        }
+        if (e.getStatusCode().isSameCodeAs(HttpStatus.UNAUTHORIZED)
+                || e.getStatusCode().isSameCodeAs(HttpStatus.FORBIDDEN)) {
+            return REJECTED_BENCH;
+        }
+        return null;
+    }
+
+    public <T> T callOrLastGood(Provider provider, String endpoint, Function<String, T> upstream) {
+        return callOrLastGood(provider, endpoint, "", upstream);
+    }
+
+    // same, falling back to the last successful response for `key` (null if there never was one)
+    @SuppressWarnings("unchecked")
+    public <T> T callOrLastGood(Provider provider, String endpoint, String key, Function<String, T> upstream) {
+        String cacheKey = provider.id() + ':' + endpoint + ':' + key;
+        return call(provider, endpoint, key, apiKey -> {
+            T value = upstream.apply(apiKey);
+            if (value != null) {
+                lastGood.put(cacheKey, value);
+            }
+            return value;
+        }, () -> (T) lastGood.getIfPresent(cacheKey));
+    }
+}
@@ -0,0 +1,345 @@
+package com.obinna.StockAnalysis.Service;
+
+import com.obinna.StockAnalysis.Service.ProviderGuard.Provider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+// Request budgets for every provider API key, shared by everything that calls the provider.
+// A provider has a pool of keys: <provider>.api.key plus any comma-separated <provider>.api.keys. Each key
+// has its own per-minute token bucket (refilled continuously) and per-day count (UTC day), and every call
+// goes out on the key with the most headroom. A key the provider refuses (401/403/429) is benched for a while.
+// The limits are the key's plan limits, but the buckets live in this JVM: with several instances sharing the
+// keys, InstanceRegistry calls shareAmong so each one only spends its share of every key's allowance.
+// Calls are INTERACTIVE unless the calling thread runs inside runAs(BATCH, ...):
+//  - interactive calls may use the whole budget and wait briefly for a token;
+//  - batch calls only take tokens above a reserve kept for interactive traffic, never while an interactive
+//    call is waiting, and block until such a token is free.
+// Remaining tokens over all keys are published as the provider.quota.remaining gauge (tags provider, window),
+// and the time callers spend waiting for a token as the provider.quota.wait timer (provider, priority, outcome).
+@Component
+public class QuotaManager {
+
+    private static final Logger LOGGER = Logger.getLogger(QuotaManager.class.getName());
+
+    public enum Priority {
+        INTERACTIVE,
+        BATCH
+    }
+
+    // share of each window batch work must leave untouched
+    private static final double INTERACTIVE_RESERVE = 0.2;
+    private static final long INTERACTIVE_MAX_WAIT_MS = 500;
+    private static final long BATCH_MAX_WAIT_MS = 10 * 60_000;
+
+    private static final ThreadLocal<Priority> LANE = ThreadLocal.withInitial(() -> Priority.INTERACTIVE);
+
+    private final Map<Provider, KeyPool> pools = new EnumMap<>(Provider.class);
+    private final MeterRegistry meterRegistry;
+
+    public QuotaManager(MeterRegistry meterRegistry,
+            @Value("${FMP.api.key}") String fmpKey,
+            @Value("${FMP.api.keys:}") String fmpKeys,
+            @Value("${finnhub.api.key}") String finnhubKey,
+            @Value("${finnhub.api.keys:}") String finnhubKeys,
+            @Value("${alphavantage.api.key}") String alphaVantageKey,
+            @Value("${alphavantage.api.keys:}") String alphaVantageKeys,
+            @Value("${quota.fmp.per-minute:300}") int fmpPerMinute,
+            @Value("${quota.fmp.per-day:100000}") int fmpPerDay,
+            @Value("${quota.finnhub.per-minute:60}") int finnhubPerMinute,
+            @Value("${quota.finnhub.per-day:86400}") int finnhubPerDay,
+            @Value("${quota.alpha-vantage.per-minute:5}") int alphaVantagePerMinute,
+            @Value("${quota.alpha-vantage.per-day:25}") int alphaVantagePerDay) {
+        this.meterRegistry = meterRegistry;
+        pools.put(Provider.FMP, new KeyPool(Provider.FMP, keys(fmpKey, fmpKeys), fmpPerMinute, fmpPerDay));
+        pools.put(Provider.FINNHUB, new KeyPool(Provider.FINNHUB, keys(finnhubKey, finnhubKeys),
+                finnhubPerMinute, finnhubPerDay));
+        pools.put(Provider.ALPHA_VANTAGE, new KeyPool(Provider.ALPHA_VANTAGE,
+                keys(alphaVantageKey, alphaVantageKeys), alphaVantagePerMinute, alphaVantagePerDay));
+        pools.forEach((provider, pool) -> {
+            Gauge.builder("provider.quota.remaining", pool, KeyPool::minuteRemaining)
+                    .tags("provider", provider.id(), "window", "minute")
+                    .register(meterRegistry);
+            Gauge.builder("provider.quota.remaining", pool, KeyPool::dayRemaining)
+                    .tags("provider", provider.id(), "window", "day")
+                    .register(meterRegistry);
+            Gauge.builder("provider.keys.active", pool, KeyPool::activeKeys)
+                    .tags("provider", provider.id())
+                    .register(meterRegistry);
+        });
+    }
+
+    private static String[] keys(String primary, String extra) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(primary == null ? "" : primary.trim());
+        for (String k : extra.split(",")) {
+            if (!k.isBlank()) {
+                keys.add(k.trim());
+            }
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    // runs `work` with every provider call it makes on this thread charged to `priority`
+    public static <T> T runAs(Priority priority, Callable<T> work) throws Exception {
+        Priority previous = LANE.get();
+        LANE.set(priority);
+        try {
+            return work.call();
+        } finally {
+            LANE.set(previous);
+        }
+    }
+
+    // the key to send the call with, or null when no key had a token in time
+    public String acquire(Provider provider) {
+        Priority priority = LANE.get();
+        long maxWait = priority == Priority.BATCH ? BATCH_MAX_WAIT_MS : INTERACTIVE_MAX_WAIT_MS;
+        long start = System.nanoTime();
+        String key = null;
+        try {
+            key = pools.get(provider).acquire(priority, maxWait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Timer.builder("provider.quota.wait")
+                .tags("provider", provider.id(), "priority", priority.name().toLowerCase(),
+                        "outcome", key == null ? "denied" : "acquired")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return key;
+    }
+
+    // takes `key` out of rotation for `duration`
+    public void bench(Provider provider, String key, Duration duration) {
+        pools.get(provider).bench(key, duration);
+    }
+
+    // gives back the token taken for a call that never reached the provider
+    public void release(Provider provider, String key) {
+        pools.get(provider).release(key);
+    }
+
+    public int keyCount(Provider provider) {
+        return pools.get(provider).keys.length;
+    }
+
+    // splits every key's per-minute and per-day allowance evenly over `instances` live instances
+    public void shareAmong(int instances) {
+        pools.values().forEach(pool -> pool.share(Math.max(instances, 1)));
+    }
+
+    // calls per minute the BATCH lane can keep up around the clock over all of the provider's keys:
+    // the per-minute or per-day allowance, whichever is tighter, less the interactive reserve
+    public double batchCallsPerMinute(Provider provider) {
+        KeyPool pool = pools.get(provider);
+        pool.lock.lock();
+        try {
+            double perKey = Math.min(pool.perMinute, pool.perDay / (double) TimeUnit.DAYS.toMinutes(1));
+            return perKey * (1 - INTERACTIVE_RESERVE) * pool.keys.length;
+        } finally {
+            pool.lock.unlock();
+        }
+    }
+
+    private static final class KeyState {
+        final String key;
+        double tokens;
+        long refilledAt = System.nanoTime();
+        int usedToday;
+        long benchedUntil = Long.MIN_VALUE;
+
+        KeyState(String key, int perMinute) {
+            this.key = key;
+            this.tokens = perMinute;
+        }
+    }
+
+    private static final class KeyPool {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition released = lock.newCondition();
+
+        private final Provider provider;
+        private final KeyState[] keys;
+        private final int planPerMinute;
+        private final int planPerDay;
+        // this instance's share of the plan limits; guarded by lock
+        private double perMinute;
+        private int perDay;
+        private double tokensPerNano;
+
+        private LocalDate day = LocalDate.now(ZoneOffset.UTC);
+        private int interactiveWaiting;
+
+        KeyPool(Provider provider, String[] keys, int perMinute, int perDay) {
+            this.provider = provider;
+            this.keys = Arrays.stream(keys).map(k -> new KeyState(k, perMinute)).toArray(KeyState[]::new);
+            this.planPerMinute = perMinute;
+            this.planPerDay = perDay;
+            this.perMinute = perMinute;
+            this.perDay = perDay;
+            this.tokensPerNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        }
+
+        void share(int instances) {
+            lock.lock();
+            try {
+                // tokens earned at the old rate stay earned
+                refill(System.nanoTime());
+                perMinute = planPerMinute / (double) instances;
+                perDay = planPerDay / instances;
+                tokensPerNano = perMinute / TimeUnit.MINUTES.toNanos(1);
+                for (KeyState k : keys) {
+                    k.tokens = Math.min(k.tokens, perMinute);
+                }
+                released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        String acquire(Priority priority, long maxWaitMillis) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+            lock.lock();
+            try {
+                boolean interactive = priority == Priority.INTERACTIVE;
+                double minuteFloor = interactive ? 0 : perMinute * INTERACTIVE_RESERVE;
+                int dayCeiling = interactive ? perDay : (int) (perDay * (1 - INTERACTIVE_RESERVE));
+                if (interactive) {
+                    interactiveWaiting++;
+                }
+                try {
+                    while (true) {
+                        long now = System.nanoTime();
+                        refill(now);
+                        boolean yield = !interactive && interactiveWaiting > 0;
+                        KeyState best = null;
+                        // nanos until some key could serve this caller; MAX_VALUE = not today
+                        long wait = Long.MAX_VALUE;
+                        for (KeyState k : keys) {
+                            if (k.usedToday >= dayCeiling) {
+                                continue;
+                            }
+                            if (k.benchedUntil > now) {
+                                wait = Math.min(wait, k.benchedUntil - now);
+                            } else if (k.tokens - 1 >= minuteFloor) {
+                                if (best == null || k.tokens > best.tokens) {
+                                    best = k;
+                                }
+                            } else {
+                                wait = Math.min(wait, (long) Math.ceil((minuteFloor + 1 - k.tokens) / tokensPerNano));
+                            }
+                        }
+                        if (best != null && !yield) {
+                            best.tokens -= 1;
+                            best.usedToday++;
+                            return best.key;
+                        }
+                        long left = deadline - now;
+                        if (left <= 0 || (best == null && wait == Long.MAX_VALUE)) {
+                            return null;
+                        }
+                        released.awaitNanos(Math.min(left, Math.max(wait, 1_000_000L)));
+                    }
+                } finally {
+                    if (interactive) {
+                        interactiveWaiting--;
+                        // batch callers parked behind us may go again
+                        released.signalAll();
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void bench(String key, Duration duration) {
+            lock.lock();
+            try {
+                for (int i = 0; i < keys.length; i++) {
+                    if (keys[i].key.equals(key)) {
+                        keys[i].benchedUntil = Math.max(keys[i].benchedUntil, System.nanoTime() + duration.toNanos());
+                        LOGGER.warning(provider.id() + " key #" + i + " benched for " + duration.toSeconds() + "s");
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release(String key) {
+            lock.lock();
+            try {
+                refill(System.nanoTime());
+                for (KeyState k : keys) {
+                    if (k.key.equals(key)) {
+                        k.tokens = Math.min(perMinute, k.tokens + 1);
+                        k.usedToday = Math.max(0, k.usedToday - 1);
+                    }
+                }
+                released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void refill(long now) {
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            boolean newDay = !today.equals(day);
+            day = today;
+            for (KeyState k : keys) {
+                k.tokens = Math.min(perMinute, k.tokens + (now - k.refilledAt) * tokensPerNano);
+                k.refilledAt = now;
+                if (newDay) {
+                    k.usedToday = 0;
+                }
+            }
+        }
+
+        double minuteRemaining() {
+            lock.lock();
+            try {
+                refill(System.nanoTime());
+                return Arrays.stream(keys).mapToDouble(k -> k.tokens).sum();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        double dayRemaining() {
+            lock.lock();
+            try {
+                refill(System.nanoTime());
+                return Arrays.stream(keys).mapToInt(k -> perDay - k.usedToday).sum();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        double activeKeys() {
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                return Arrays.stream(keys).filter(k -> k.benchedUntil <= now).count();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.obinna.StockAnalysis.Service;
+
+import com.obinna.StockAnalysis.Service.ProviderGuard.Provider;
+import com.obinna.StockAnalysis.realtime.QuoteBoard;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Answers quote requests from the quote board, going upstream only when it has nothing fresh.
+// The upstream call is hedged: the primary provider is asked first, and if it has not answered by its own
+// rolling p95 (or failed outright) the other provider is asked too. Whichever answers first has already
+// published to the board, which is the normalized model both endpoints read. A leg that has not reached its
+// provider by then is dropped before it takes a token; one already in flight is left to finish (its quota is
+// spent either way) and refreshes the board when it lands.
+// Hedging is between Finnhub and FMP only: Alpha Vantage's daily allowance is too small to spend on races.
+@Service
+public class QuoteResolver {
+
+    private static final Logger LOGGER = Logger.getLogger(QuoteResolver.class.getName());
+
+    // until a provider has this many timed answers it is hedged after DEFAULT_HEDGE_DELAY_MS
+    private static final int MIN_SAMPLES = 20;
+    private static final long DEFAULT_HEDGE_DELAY_MS = 250;
+    private static final long MIN_HEDGE_DELAY_MS = 50;
+
+    private final QuoteBoard quoteBoard;
+    private final FinnhubService finnhubService;
+    private final FinancialModelingPrepService financialModelingPrepService;
+
+    // one thread per call the two providers' bulkheads admit; past that a race is not started at all
+    private static final int MAX_LEGS = Provider.FINNHUB.maxConcurrentCalls() + Provider.FMP.maxConcurrentCalls();
+
+    private final ThreadPoolExecutor pool = new ThreadPoolExecutor(MAX_LEGS, MAX_LEGS, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(MAX_LEGS), r -> {
+                Thread t = new Thread(r, "quote-race");
+                t.setDaemon(true);
+                return t;
+            });
+    private final Map<Provider, LatencyWindow> latencies = new EnumMap<>(Provider.class);
+
+    public QuoteResolver(QuoteBoard quoteBoard, FinnhubService finnhubService,
+            FinancialModelingPrepService financialModelingPrepService) {
+        this.quoteBoard = quoteBoard;
+        this.finnhubService = finnhubService;
+        this.financialModelingPrepService = financialModelingPrepService;
+        latencies.put(Provider.FINNHUB, new LatencyWindow(256));
+        latencies.put(Provider.FMP, new LatencyWindow(256));
+        pool.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // price-only quote; Finnhub first since its answers are small and its budget the larger
+    public QuoteBoard.Entry resolveQuote(String symbol) {
+        QuoteBoard.Entry live = quoteBoard.fresh(symbol);
+        if (live != null) {
+            return live;
+        }
+        race(symbol, Provider.FINNHUB, Provider.FMP);
+        // when neither answered: the last quote any provider gave, however old
+        return quoteBoard.latest(symbol);
+    }
+
+    // full FMP quote (name, market cap, averages...). A Finnhub price only completes it when the board
+    // already holds an FMP payload to lay it over, so FMP is hedged only then
+    public QuoteBoard.Entry resolveDetailedQuote(String symbol) {
+        QuoteBoard.Entry live = quoteBoard.fresh(symbol);
+        if (live != null && live.detail() != null) {
+            return live;
+        }
+        QuoteBoard.Entry last = quoteBoard.latest(symbol);
+        race(symbol, Provider.FMP, last != null && last.detail() != null ? Provider.FINNHUB : null);
+        return quoteBoard.latest(symbol);
+    }
+
+    // true once either provider answered; `secondary` may be null for no hedge
+    private boolean race(String symbol, Provider primary, Provider secondary) {
+        CompletionService<Boolean> legs = new ExecutorCompletionService<>(pool);
+        List<Future<Boolean>> started = new ArrayList<>(2);
+        AtomicBoolean settled = new AtomicBoolean();
+        long deadline = System.nanoTime() + primary.timeout().toNanos();
+        try {
+            started.add(legs.submit(() -> fetch(primary, symbol, settled)));
+            Future<Boolean> done = legs.poll(hedgeDelayMillis(primary), TimeUnit.MILLISECONDS);
+            if (done != null && answered(done)) {
+                return true;
+            }
+            if (secondary != null) {
+                LOGGER.fine((done == null ? "Hedging " : "Failing over ") + symbol + " quote to " + secondary.id());
+                started.add(legs.submit(() -> fetch(secondary, symbol, settled)));
+            }
+            for (int pending = started.size() - (done == null ? 0 : 1); pending > 0; pending--) {
+                done = legs.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    return false;
+                }
+                if (answered(done)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (RejectedExecutionException e) {
+            LOGGER.fine("Quote race pool full, answering " + symbol + " from the board");
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            // not interrupted: that would not stop the HTTP call on the bulkhead thread, only fail it back
+            // into the breaker. A leg still queued never runs, one not yet at its provider skips the call
+            settled.set(true);
+            started.forEach(f -> f.cancel(false));
+        }
+    }
+
+    private boolean fetch(Provider provider, String symbol, AtomicBoolean settled) {
+        if (settled.get()) {
+            return false;
+        }
+        long start = System.nanoTime();
+        boolean ok = provider == Provider.FMP
+                ? financialModelingPrepService.fetchStockQuote(symbol) != null
+                : finnhubService.fetchQuote(symbol) != null;
+        if (ok) {
+            latencies.get(provider).record(System.nanoTime() - start);
+        }
+        return ok;
+    }
+
+    private static boolean answered(Future<Boolean> leg) throws InterruptedException {
+        try {
+            return leg.get();
+        } catch (ExecutionException e) {
+            LOGGER.log(Level.WARNING, "Quote fetch failed", e.getCause());
+            return false;
+        }
+    }
+
+    private long hedgeDelayMillis(Provider provider) {
+        long p95 = latencies.get(provider).percentile(0.95);
+        if (p95 < 0) {
+            return DEFAULT_HEDGE_DELAY_MS;
+        }
+        return Math.min(Math.max(TimeUnit.NANOSECONDS.toMillis(p95), MIN_HEDGE_DELAY_MS),
+                provider.timeout().toMillis());
+    }
+
+    // the last `capacity` successful call durations of one provider
+    private static final class LatencyWindow {
+        private final long[] samples;
+        private int next;
+        private int count;
+
+        LatencyWindow(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        // -1 until MIN_SAMPLES calls were timed
+        synchronized long percentile(double p) {
+            if (count < MIN_SAMPLES) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return sorted[Math.min(count - 1, (int) Math.ceil(p * count) - 1)];
+        }
+    }
+}
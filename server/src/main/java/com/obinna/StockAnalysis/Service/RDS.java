@@ -24,7 +24,7 @@ public class RDS {
     public List<Signal> getMlSignals(String ticker, int limit) {
         ticker = ticker.toUpperCase();
 
-        return signalRepository.findTopByTickerOrderBySignalDateDesc(ticker, PageRequest.of(0, limit));
+        return signalRepository.findByTickerOrderBySignalDateDesc(ticker, PageRequest.of(0, limit));
     }
 
     public List<Price> getHistoricalChart(String symbol) {
@@ -0,0 +1,149 @@
+package com.obinna.StockAnalysis.Service;
+
+import com.obinna.StockAnalysis.Repository.MarketDataReadRepository;
+import com.obinna.StockAnalysis.Repository.StockRepository;
+import com.obinna.StockAnalysis.analytics.PriceSeries;
+import com.obinna.StockAnalysis.analytics.ReturnMatrix;
+import com.obinna.StockAnalysis.events.PricesIngestedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Aligned daily return matrices built from stored prices.
+// The universe-wide matrix per window is kept in memory. Ingestion only marks it stale: readers keep the
+// previous matrix until the background refresh swaps in a rebuilt one, so no request pays for the rebuild.
+// The refresh waits for ingestion to go quiet, so a batch sync publishing an event per ticker causes one
+// rebuild after it instead of one a minute throughout; continuous ingestion still refreshes every MAX_STALE.
+// The first build of a window also runs on the analytics pool (the default window at startup), and until it
+// lands universe() has nothing to return.
+@Service
+public class ReturnMatrixService {
+
+    private static final Logger LOGGER = Logger.getLogger(ReturnMatrixService.class.getName());
+
+    private static final int CHUNK_SIZE = 500;
+    private static final long QUIET_NANOS = TimeUnit.MINUTES.toNanos(2);
+    private static final long MAX_STALE_NANOS = TimeUnit.MINUTES.toNanos(30);
+
+    private final MarketDataReadRepository readRepository;
+    private final StockRepository stockRepository;
+    private final ForkJoinPool analyticsPool;
+
+    private final Map<Integer, ReturnMatrix> universe = new ConcurrentHashMap<>();
+    // windows with a first build in flight
+    private final Set<Integer> building = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> stale = ConcurrentHashMap.newKeySet();
+    private volatile long lastIngest = System.nanoTime();
+    // when the oldest unrefreshed ingest happened; 0 while nothing is pending
+    private final AtomicLong pendingSince = new AtomicLong();
+
+    public ReturnMatrixService(MarketDataReadRepository readRepository, StockRepository stockRepository,
+            ForkJoinPool analyticsPool) {
+        this.readRepository = readRepository;
+        this.stockRepository = stockRepository;
+        this.analyticsPool = analyticsPool;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        buildInBackground(CorrelationService.DEFAULT_WINDOW);
+    }
+
+    @EventListener
+    public void onPricesIngested(PricesIngestedEvent event) {
+        // any new bar shifts every window
+        stale.addAll(universe.keySet());
+        long now = System.nanoTime();
+        lastIngest = now;
+        pendingSince.compareAndSet(0, now);
+    }
+
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public void refreshStale() {
+        long now = System.nanoTime();
+        long since = pendingSince.get();
+        if (since == 0 || (now - lastIngest < QUIET_NANOS && now - since < MAX_STALE_NANOS)) {
+            return;
+        }
+        pendingSince.compareAndSet(since, 0);
+        for (Integer window : List.copyOf(stale)) {
+            refresh(window);
+        }
+    }
+
+    // cached matrix, possibly up to one refresh behind the latest ingest; null until the first build is done
+    public ReturnMatrix universe(int window) {
+        ReturnMatrix m = universe.get(window);
+        if (m == null) {
+            buildInBackground(window);
+        }
+        return m;
+    }
+
+    public boolean isReady(int window) {
+        return universe.containsKey(window);
+    }
+
+    private void buildInBackground(int window) {
+        if (!building.add(window)) {
+            return;
+        }
+        analyticsPool.execute(() -> {
+            try {
+                universe.putIfAbsent(window, buildUniverse(window));
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Return matrix (" + window + "d) build failed", e);
+            } finally {
+                building.remove(window);
+            }
+        });
+    }
+
+    // rebuilds now and replaces the cached matrix (nightly jobs that must see today's bars)
+    public ReturnMatrix refresh(int window) {
+        // cleared first so an ingest during the rebuild marks it stale again
+        stale.remove(window);
+        ReturnMatrix m = buildUniverse(window);
+        universe.put(window, m);
+        return m;
+    }
+
+    private ReturnMatrix buildUniverse(int window) {
+        long start = System.nanoTime();
+        List<String> tickers = new ArrayList<>(stockRepository.findAllTickers());
+        // portfolio betas need the market row even if SPY is not a listed stock
+        if (!tickers.contains(FeatureEngine.MARKET_TICKER)) {
+            tickers.add(FeatureEngine.MARKET_TICKER);
+        }
+        ReturnMatrix m = build(tickers, window);
+        LOGGER.info("Return matrix (" + window + "d) built: " + m.size() + " tickers in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return m;
+    }
+
+    public ReturnMatrix build(List<String> tickers, int window) {
+        // calendar days covering `window` trading days plus holidays and a margin
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(window * 7L / 5 + 30);
+        Map<String, PriceSeries> prices = new HashMap<>();
+        for (int i = 0; i < tickers.size(); i += CHUNK_SIZE) {
+            List<String> chunk = tickers.subList(i, Math.min(i + CHUNK_SIZE, tickers.size()));
+            prices.putAll(readRepository.loadSeries(chunk, from, to));
+        }
+        return ReturnMatrix.build(prices, window);
+    }
+}
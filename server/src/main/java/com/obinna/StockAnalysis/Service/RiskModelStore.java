@@ -0,0 +1,74 @@
+package com.obinna.StockAnalysis.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.obinna.StockAnalysis.Repository.RiskModelRepository;
+import com.obinna.StockAnalysis.Repository.RiskModelRepository.StoredModel;
+import com.obinna.StockAnalysis.analytics.IsolationForestModel;
+import com.obinna.StockAnalysis.analytics.RollingFeatureCalculator;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Parsed isolation forests, cached by ticker and re-read only when trained_at moves.
+@Service
+public class RiskModelStore {
+
+    private static final Logger LOGGER = Logger.getLogger(RiskModelStore.class.getName());
+
+    // ~17 bytes per node, so this bounds the cache at roughly 70 MB
+    private static final long MAX_CACHED_NODES = 4_000_000;
+
+    public record LoadedModel(LocalDateTime trainedAt, IsolationForestModel model) {
+    }
+
+    private final RiskModelRepository repository;
+    private final Cache<String, LoadedModel> cache = Caffeine.newBuilder()
+            .maximumWeight(MAX_CACHED_NODES)
+            .weigher((String ticker, LoadedModel m) -> m.model().nodeCount())
+            .build();
+
+    public RiskModelStore(RiskModelRepository repository) {
+        this.repository = repository;
+    }
+
+    public LoadedModel get(String ticker) {
+        return getAll(List.of(ticker)).get(ticker);
+    }
+
+    // tickers without an exported model are absent from the result
+    public Map<String, LoadedModel> getAll(List<String> tickers) {
+        Map<String, LocalDateTime> versions = repository.findTrainedAt(tickers);
+        Map<String, LoadedModel> out = new HashMap<>();
+        List<String> stale = new ArrayList<>();
+        versions.forEach((ticker, trainedAt) -> {
+            LoadedModel cached = cache.getIfPresent(ticker);
+            if (cached != null && cached.trainedAt().equals(trainedAt)) {
+                out.put(ticker, cached);
+            } else {
+                stale.add(ticker);
+            }
+        });
+
+        if (!stale.isEmpty()) {
+            for (StoredModel stored : repository.findModels(stale)) {
+                try {
+                    IsolationForestModel model = IsolationForestModel.read(stored.bytes(),
+                            RollingFeatureCalculator.COLUMN_NAMES);
+                    LoadedModel loaded = new LoadedModel(stored.trainedAt(), model);
+                    cache.put(stored.ticker(), loaded);
+                    out.put(stored.ticker(), loaded);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Unreadable risk model for " + stored.ticker(), e);
+                }
+            }
+        }
+        return out;
+    }
+}
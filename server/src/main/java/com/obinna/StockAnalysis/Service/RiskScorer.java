@@ -0,0 +1,107 @@
+package com.obinna.StockAnalysis.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.obinna.StockAnalysis.Repository.FeatureRepository;
+import com.obinna.StockAnalysis.Repository.FeatureRepository.FeatureRow;
+import com.obinna.StockAnalysis.Service.RiskModelStore.LoadedModel;
+import com.obinna.StockAnalysis.analytics.IsolationForestModel;
+import com.obinna.StockAnalysis.analytics.RiskScores;
+import com.obinna.StockAnalysis.dto.analytics.RiskScoreDTO;
+import com.obinna.StockAnalysis.events.FeaturesUpdatedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// On-demand risk scores from the exported isolation forests (score_risk_with_existing_model in Java).
+// The latest row of each ticker is ranked against its scoring window; results stay cached until the
+// ticker's features change, so repeated lookups never leave memory.
+@Service
+public class RiskScorer {
+
+    // build_signals.TRAINING_WINDOW_DAYS: the window the python job ranks against
+    static final int SCORING_WINDOW_DAYS = 1500;
+
+    private final FeatureRepository featureRepository;
+    private final RiskModelStore modelStore;
+
+    // also expires so a monthly retrain is picked up without a feature update
+    private final Cache<String, RiskScoreDTO> latest = Caffeine.newBuilder()
+            .maximumSize(5_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    public RiskScorer(FeatureRepository featureRepository, RiskModelStore modelStore) {
+        this.featureRepository = featureRepository;
+        this.modelStore = modelStore;
+    }
+
+    @EventListener
+    public void onFeaturesUpdated(FeaturesUpdatedEvent event) {
+        latest.invalidateAll(event.tickers());
+    }
+
+    public RiskScoreDTO scoreLatest(String ticker) {
+        List<RiskScoreDTO> scores = scoreLatest(List.of(ticker));
+        return scores.isEmpty() ? null : scores.get(0);
+    }
+
+    // tickers without a model or with too little history are left out
+    public List<RiskScoreDTO> scoreLatest(List<String> tickers) {
+        Map<String, RiskScoreDTO> found = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String ticker : tickers) {
+            RiskScoreDTO cached = latest.getIfPresent(ticker);
+            if (cached != null) {
+                found.put(ticker, cached);
+            } else {
+                misses.add(ticker);
+            }
+        }
+
+        Map<String, LoadedModel> models = misses.isEmpty() ? Map.of() : modelStore.getAll(misses);
+        Map<String, List<FeatureRow>> windows = models.isEmpty() ? Map.of()
+                : featureRepository.loadFeatures(new ArrayList<>(models.keySet()),
+                        LocalDate.now().minusDays(SCORING_WINDOW_DAYS));
+
+        for (String ticker : misses) {
+            LoadedModel loaded = models.get(ticker);
+            List<FeatureRow> window = windows.get(ticker);
+            if (loaded == null || window == null || window.isEmpty()) {
+                continue;
+            }
+            double[] raw = anomalyScores(loaded.model(), window);
+            Integer[] risk = RiskScores.fromRaw(raw);
+            int last = window.size() - 1;
+            if (risk[last] == null) {
+                continue;
+            }
+            RiskScoreDTO dto = new RiskScoreDTO(ticker, window.get(last).date().toString(), risk[last], raw[last],
+                    loaded.trainedAt().toString());
+            latest.put(ticker, dto);
+            found.put(ticker, dto);
+        }
+        // request order
+        return tickers.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    // risk_score for every row of a ticker's window (null where python would leave NaN)
+    public static Integer[] riskScores(IsolationForestModel model, List<FeatureRow> window) {
+        return RiskScores.fromRaw(anomalyScores(model, window));
+    }
+
+    private static double[] anomalyScores(IsolationForestModel model, List<FeatureRow> window) {
+        double[] raw = new double[window.size()];
+        for (int i = 0; i < raw.length; i++) {
+            raw[i] = model.anomalyScore(window.get(i).values());
+        }
+        return raw;
+    }
+}
@@ -0,0 +1,419 @@
+package com.obinna.StockAnalysis.Service;
+
+import com.obinna.StockAnalysis.Repository.StockRepository;
+import com.obinna.StockAnalysis.dto.financial_modeling_prep.Screener;
+import com.obinna.StockAnalysis.events.StockMetadataUpdatedEvent;
+import com.obinna.StockAnalysis.models.Stock;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+// In-memory copy of `stocks` for the screener. Same filters as StockRepository.screenStocks
+// (substring match on ticker/name, exact sector/industry, market cap range) but answered from
+// n-gram and attribute bitmaps instead of a sequential scan, plus paging and sorting.
+// Rows are addressed by a dense int id so every filter is a BitSet and filters combine with AND.
+// Writes made by this instance arrive as StockMetadataUpdatedEvents; writes made by other instances are picked
+// up by a poll of the table's row count and newest last_metadata_refresh.
+@Service
+public class ScreenerIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(ScreenerIndex.class.getName());
+
+    // grams of length 1..MAX_GRAM are indexed so 1 and 2 character queries still hit the index
+    private static final int MAX_GRAM = 3;
+
+    public enum SortField {
+        MARKET_CAP, TICKER, NAME;
+
+        public static SortField from(String value) {
+            if (value == null) {
+                return MARKET_CAP;
+            }
+            return switch (value.toLowerCase(Locale.ROOT)) {
+                case "ticker", "symbol" -> TICKER;
+                case "name", "companyname" -> NAME;
+                default -> MARKET_CAP;
+            };
+        }
+    }
+
+    public record Query(
+            long minCap,
+            long maxCap,
+            String ticker,
+            String name,
+            String sector,
+            String industry,
+            SortField sort,
+            boolean ascending,
+            int page,
+            int size) {
+    }
+
+    public record Page(List<Screener> content, int total) {
+    }
+
+    private final StockRepository stockRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready = false;
+
+    // columnar rows, id = array position
+    private final Map<String, Integer> idByTicker = new HashMap<>();
+    private String[] tickers = new String[0];
+    private String[] names = new String[0];
+    private String[] tickersLower = new String[0];
+    private String[] namesLower = new String[0];
+    private String[] sectors = new String[0];
+    private String[] industries = new String[0];
+    private long[] caps = new long[0];
+    private boolean[] hasCap = new boolean[0];
+    private int rowCount = 0;
+
+    private final Map<String, BitSet> tickerGrams = new HashMap<>();
+    private final Map<String, BitSet> nameGrams = new HashMap<>();
+    private final Map<String, BitSet> sectorBitmap = new HashMap<>();
+    private final Map<String, BitSet> industryBitmap = new HashMap<>();
+
+    // ids of rows with a market cap, ascending by cap; rebuilt lazily after writes
+    private int[] idsByCap = new int[0];
+    private boolean capOrderDirty = true;
+
+    // what the table looked like at the last load or poll; only touched by load() and poll()
+    private long seenCount = -1;
+    private Instant seenRefresh;
+
+    public ScreenerIndex(StockRepository stockRepository) {
+        this.stockRepository = stockRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        Instant refresh = stockRepository.findLastMetadataRefresh();
+        List<Stock> stocks = stockRepository.findAll();
+        upsertAll(stocks);
+        ready = true;
+        seenCount = stocks.size();
+        seenRefresh = refresh;
+        LOGGER.info("Screener index loaded with " + stocks.size() + " stocks");
+    }
+
+    // catches rows written by other instances: new rows reload the table, newer refresh stamps only those rows
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public synchronized void poll() {
+        if (!ready) {
+            return;
+        }
+        long count = stockRepository.count();
+        Instant refresh = stockRepository.findLastMetadataRefresh();
+        if (count != seenCount) {
+            upsertAll(stockRepository.findAll());
+            LOGGER.info("Screener index reloaded: " + seenCount + " -> " + count + " stocks");
+        } else if (refresh != null && (seenRefresh == null || refresh.isAfter(seenRefresh))) {
+            upsertAll(seenRefresh == null ? stockRepository.findAll()
+                    : stockRepository.findByLastMetadataRefreshAfter(seenRefresh));
+        }
+        seenCount = count;
+        seenRefresh = refresh;
+    }
+
+    private void upsertAll(List<Stock> stocks) {
+        lock.writeLock().lock();
+        try {
+            for (Stock s : stocks) {
+                upsertLocked(s.getTicker(), s.getCompanyName(), s.getSector(), s.getIndustry(), s.getMarketCap());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // fired by PriceIngestionRepository.upsertStock, so this instance's writes show up at once
+    @EventListener
+    public void onStockUpdated(StockMetadataUpdatedEvent event) {
+        lock.writeLock().lock();
+        try {
+            upsertLocked(event.ticker(), event.companyName(), event.sector(), event.industry(), event.marketCap());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Page search(Query query) {
+        acquireReadWithCleanCapOrder();
+        try {
+            BitSet candidates = capRange(query.minCap(), query.maxCap());
+
+            if (query.sector() != null) {
+                and(candidates, sectorBitmap.get(query.sector()));
+            }
+            if (query.industry() != null) {
+                and(candidates, industryBitmap.get(query.industry()));
+            }
+            if (query.ticker() != null && !candidates.isEmpty()) {
+                matchSubstring(candidates, tickerGrams, tickersLower, query.ticker());
+            }
+            if (query.name() != null && !candidates.isEmpty()) {
+                matchSubstring(candidates, nameGrams, namesLower, query.name());
+            }
+
+            int total = candidates.cardinality();
+            int offset = query.size() > 0 ? query.page() * query.size() : 0;
+            int limit = query.size() > 0 ? query.size() : total;
+            if (offset >= total) {
+                return new Page(List.of(), total);
+            }
+
+            List<Screener> content = new ArrayList<>(Math.min(limit, total - offset));
+            if (query.sort() == SortField.MARKET_CAP) {
+                // walk the cap-ordered array and pick members; no sort per request
+                int skipped = 0;
+                for (int k = 0; k < idsByCap.length && content.size() < limit; k++) {
+                    int id = query.ascending() ? idsByCap[k] : idsByCap[idsByCap.length - 1 - k];
+                    if (!candidates.get(id)) {
+                        continue;
+                    }
+                    if (skipped++ < offset) {
+                        continue;
+                    }
+                    content.add(toScreener(id));
+                }
+            } else {
+                Integer[] ids = new Integer[total];
+                int n = 0;
+                for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+                    ids[n++] = id;
+                }
+                String[] keys = query.sort() == SortField.TICKER ? tickers : namesLower;
+                Comparator<Integer> cmp = Comparator.comparing(id -> keys[id], Comparator.nullsLast(Comparator.naturalOrder()));
+                Arrays.sort(ids, query.ascending() ? cmp : cmp.reversed());
+                for (int k = offset; k < total && content.size() < limit; k++) {
+                    content.add(toScreener(ids[k]));
+                }
+            }
+            return new Page(content, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void upsertLocked(String ticker, String name, String sector, String industry, Long marketCap) {
+        if (ticker == null) {
+            return;
+        }
+        Integer existing = idByTicker.get(ticker);
+        int id;
+        if (existing == null) {
+            id = rowCount++;
+            ensureCapacity(rowCount);
+            idByTicker.put(ticker, id);
+            tickers[id] = ticker;
+            tickersLower[id] = ticker.toLowerCase(Locale.ROOT);
+            addGrams(tickerGrams, tickersLower[id], id);
+        } else {
+            id = existing;
+            removeGrams(nameGrams, namesLower[id], id);
+            clearBit(sectorBitmap, sectors[id], id);
+            clearBit(industryBitmap, industries[id], id);
+        }
+
+        names[id] = name;
+        namesLower[id] = name == null ? null : name.toLowerCase(Locale.ROOT);
+        sectors[id] = sector;
+        industries[id] = industry;
+        addGrams(nameGrams, namesLower[id], id);
+        setBit(sectorBitmap, sector, id);
+        setBit(industryBitmap, industry, id);
+
+        boolean capChanged = hasCap[id] != (marketCap != null) || (marketCap != null && caps[id] != marketCap);
+        hasCap[id] = marketCap != null;
+        caps[id] = marketCap == null ? 0L : marketCap;
+        if (capChanged) {
+            capOrderDirty = true;
+        }
+    }
+
+    // takes the read lock with idsByCap up to date; a rebuild happens under the write lock
+    // and is downgraded to a read lock so no writer can dirty it again in between
+    private void acquireReadWithCleanCapOrder() {
+        lock.readLock().lock();
+        if (!capOrderDirty) {
+            return;
+        }
+        lock.readLock().unlock();
+        lock.writeLock().lock();
+        try {
+            if (capOrderDirty) {
+                rebuildCapOrder();
+            }
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebuildCapOrder() {
+        int n = 0;
+        int[] ids = new int[rowCount];
+        for (int id = 0; id < rowCount; id++) {
+            if (hasCap[id]) {
+                ids[n++] = id;
+            }
+        }
+        long[] c = caps;
+        // one sort per burst of writes, not per request
+        idsByCap = Arrays.stream(ids, 0, n).boxed()
+                .sorted(Comparator.comparingLong(id -> c[id]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        capOrderDirty = false;
+    }
+
+    private BitSet capRange(long minCap, long maxCap) {
+        int from = lowerBound(minCap);
+        int to = upperBound(maxCap);
+        BitSet bits = new BitSet(rowCount);
+        for (int k = from; k < to; k++) {
+            bits.set(idsByCap[k]);
+        }
+        return bits;
+    }
+
+    // first position with cap >= value
+    private int lowerBound(long value) {
+        int lo = 0, hi = idsByCap.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (caps[idsByCap[mid]] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // first position with cap > value
+    private int upperBound(long value) {
+        int lo = 0, hi = idsByCap.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (caps[idsByCap[mid]] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // ILIKE %q% semantics: intersect the gram postings, then confirm with contains() to drop false positives
+    private void matchSubstring(BitSet candidates, Map<String, BitSet> grams, String[] values, String rawQuery) {
+        String q = rawQuery.toLowerCase(Locale.ROOT);
+        if (q.isEmpty()) {
+            return;
+        }
+        int n = Math.min(MAX_GRAM, q.length());
+        for (int i = 0; i + n <= q.length() && !candidates.isEmpty(); i++) {
+            and(candidates, grams.get(q.substring(i, i + n)));
+        }
+        if (q.length() <= MAX_GRAM) {
+            return; // the gram itself is the whole query, nothing left to verify
+        }
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+            if (values[id] == null || !values[id].contains(q)) {
+                candidates.clear(id);
+            }
+        }
+    }
+
+    private static void and(BitSet target, BitSet other) {
+        if (other == null) {
+            target.clear();
+        } else {
+            target.and(other);
+        }
+    }
+
+    private static void addGrams(Map<String, BitSet> index, String value, int id) {
+        if (value == null) {
+            return;
+        }
+        for (int n = 1; n <= MAX_GRAM; n++) {
+            for (int i = 0; i + n <= value.length(); i++) {
+                index.computeIfAbsent(value.substring(i, i + n), k -> new BitSet()).set(id);
+            }
+        }
+    }
+
+    private static void removeGrams(Map<String, BitSet> index, String value, int id) {
+        if (value == null) {
+            return;
+        }
+        for (int n = 1; n <= MAX_GRAM; n++) {
+            for (int i = 0; i + n <= value.length(); i++) {
+                clearBit(index, value.substring(i, i + n), id);
+            }
+        }
+    }
+
+    private static void setBit(Map<String, BitSet> index, String key, int id) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new BitSet()).set(id);
+        }
+    }
+
+    private static void clearBit(Map<String, BitSet> index, String key, int id) {
+        if (key == null) {
+            return;
+        }
+        BitSet bits = index.get(key);
+        if (bits != null) {
+            bits.clear(id);
+            if (bits.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= tickers.length) {
+            return;
+        }
+        int cap = Math.max(needed, tickers.length * 2 + 16);
+        tickers = Arrays.copyOf(tickers, cap);
+        names = Arrays.copyOf(names, cap);
+        tickersLower = Arrays.copyOf(tickersLower, cap);
+        namesLower = Arrays.copyOf(namesLower, cap);
+        sectors = Arrays.copyOf(sectors, cap);
+        industries = Arrays.copyOf(industries, cap);
+        caps = Arrays.copyOf(caps, cap);
+        hasCap = Arrays.copyOf(hasCap, cap);
+    }
+
+    private Screener toScreener(int id) {
+        Screener sc = new Screener();
+        sc.setSymbol(tickers[id]);
+        sc.setCompanyName(names[id]);
+        sc.setSector(sectors[id]);
+        sc.setIndustry(industries[id]);
+        sc.setMarketCap(caps[id]);
+        return sc;
+    }
+}
@@ -0,0 +1,163 @@
+package com.obinna.StockAnalysis.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.obinna.StockAnalysis.Repository.FeatureRepository;
+import com.obinna.StockAnalysis.Repository.FeatureRepository.FeatureRow;
+import com.obinna.StockAnalysis.Repository.SignalWriteRepository;
+import com.obinna.StockAnalysis.Repository.SignalWriteRepository.SignalRow;
+import com.obinna.StockAnalysis.Service.RiskModelStore.LoadedModel;
+import com.obinna.StockAnalysis.analytics.SignalCalculator;
+import com.obinna.StockAnalysis.events.FeaturesUpdatedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Builds ml_signals regime labels and drivers_json in-process (build_signals.py without the Lambda fan-out).
+// Runs right after every feature update for the tickers that changed. Risk scores come from the exported
+// isolation forests. Dates the model did not score (no exported model for the ticker) are not written at
+// all: a row would move max(signal_date) past them, and build_signals.py only scores dates after that.
+@Service
+public class SignalBuilder {
+
+    private static final Logger LOGGER = Logger.getLogger(SignalBuilder.class.getName());
+
+    private static final int CHUNK_SIZE = 250;
+    // same fetch window as build_signals.py: min(last signal - BUFFER_DAYS, today - TRAINING_WINDOW_DAYS)
+    private static final int TRAINING_WINDOW_DAYS = 1500;
+    private static final int BUFFER_DAYS = 400;
+
+    private final FeatureRepository featureRepository;
+    private final SignalWriteRepository signalRepository;
+    private final RiskModelStore modelStore;
+    private final ForkJoinPool analyticsPool;
+    private final ObjectMapper objectMapper;
+
+    public SignalBuilder(FeatureRepository featureRepository, SignalWriteRepository signalRepository,
+            RiskModelStore modelStore, ForkJoinPool analyticsPool, ObjectMapper objectMapper) {
+        this.featureRepository = featureRepository;
+        this.signalRepository = signalRepository;
+        this.modelStore = modelStore;
+        this.analyticsPool = analyticsPool;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    public void onFeaturesUpdated(FeaturesUpdatedEvent event) {
+        try {
+            buildSignals(event.tickers());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Signal build failed", e);
+        }
+    }
+
+    // writes signals for feature rows newer than each ticker's last scored signal_date
+    public int buildSignals(List<String> tickers) throws InterruptedException {
+        long start = System.nanoTime();
+        LocalDate firstRunStart = LocalDate.now().minusDays(TRAINING_WINDOW_DAYS);
+
+        int written = 0;
+        for (int i = 0; i < tickers.size(); i += CHUNK_SIZE) {
+            List<String> chunk = tickers.subList(i, Math.min(i + CHUNK_SIZE, tickers.size()));
+            Map<String, LocalDate> lastDates = signalRepository.findLastSignalDates(chunk);
+
+            LocalDate from = chunk.stream()
+                    .map(t -> windowStart(lastDates.get(t), firstRunStart))
+                    .min(LocalDate::compareTo)
+                    .orElse(firstRunStart);
+            Map<String, List<FeatureRow>> features = featureRepository.loadFeatures(chunk, from);
+            Map<String, LoadedModel> models = modelStore.getAll(chunk);
+
+            List<SignalRow> rows = runOnPool(() -> features.entrySet().parallelStream()
+                    .flatMap(e -> compute(e.getValue(), lastDates.get(e.getKey()), firstRunStart,
+                            models.get(e.getKey())).stream())
+                    .toList());
+
+            if (!rows.isEmpty()) {
+                signalRepository.batchUpsert(rows);
+                written += rows.size();
+            }
+        }
+
+        LOGGER.info("Signal build done for " + tickers.size() + " tickers: " + written + " rows in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return written;
+    }
+
+    // fetch window of build_signals_for_ticker; risk ranks depend on it, so it is reproduced per ticker
+    private static LocalDate windowStart(LocalDate lastSignal, LocalDate firstRunStart) {
+        if (lastSignal == null) {
+            return firstRunStart;
+        }
+        LocalDate buffered = lastSignal.minusDays(BUFFER_DAYS);
+        return buffered.isBefore(firstRunStart) ? buffered : firstRunStart;
+    }
+
+    private List<SignalRow> compute(List<FeatureRow> all, LocalDate lastSignal, LocalDate firstRunStart,
+            LoadedModel model) {
+        LocalDate windowStart = windowStart(lastSignal, firstRunStart);
+        int lo = 0;
+        while (lo < all.size() && all.get(lo).date().isBefore(windowStart)) {
+            lo++;
+        }
+        List<FeatureRow> rows = all.subList(lo, all.size());
+
+        int from = 0;
+        if (lastSignal != null) {
+            while (from < rows.size() && !rows.get(from).date().isAfter(lastSignal)) {
+                from++;
+            }
+        }
+        // without a model the dates are left to the Python scorer
+        if (from == rows.size() || model == null) {
+            return List.of();
+        }
+
+        List<List<SignalCalculator.Driver>> drivers = SignalCalculator.drivers(
+                rows.stream().map(FeatureRow::values).toList(), from);
+        Integer[] risk = RiskScorer.riskScores(model.model(), rows);
+
+        List<SignalRow> out = new ArrayList<>(rows.size() - from);
+        for (int i = from; i < rows.size(); i++) {
+            if (risk[i] == null) {
+                continue;
+            }
+            FeatureRow row = rows.get(i);
+            out.add(new SignalRow(
+                    row.ticker(),
+                    row.date(),
+                    SignalCalculator.labelRegime(row.values()),
+                    risk[i],
+                    toJson(drivers.get(i - from))));
+        }
+        return out;
+    }
+
+    private String toJson(List<SignalCalculator.Driver> drivers) {
+        try {
+            return objectMapper.writeValueAsString(Map.of("top_drivers", drivers));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T runOnPool(Callable<T> task) throws InterruptedException {
+        try {
+            return analyticsPool.submit(task).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Signal computation failed", e.getCause());
+        }
+    }
+}
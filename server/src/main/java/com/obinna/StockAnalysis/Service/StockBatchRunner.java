@@ -1,42 +1,57 @@
 package com.obinna.StockAnalysis.Service;
 
-import com.google.common.util.concurrent.RateLimiter;
+import com.obinna.StockAnalysis.profiling.SqlProfile;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
 
 @Component
 public class StockBatchRunner {
-    private final FinancialModelingPrepService fmpService;
+    private static final Logger LOGGER = Logger.getLogger(StockBatchRunner.class.getName());
+
+    // per FMP key: each key in the pool adds its own rate limit, so the batch shards across them
+    private static final int THREADS_PER_KEY = 8;
 
-    // 5 req/sec = 300/min (tune DOWN a bit to be safe, e.g. 4.5)
-    private final RateLimiter limiter = RateLimiter.create(3.0);
+    private final FinancialModelingPrepService fmpService;
+    private final SyncQueue syncQueue;
 
     // reuse pool (don’t create per run)
-    private final ExecutorService pool = Executors.newFixedThreadPool(8);
+    private final ExecutorService pool;
+    private final int threads;
 
     // prevent overlapping runs
     private final AtomicBoolean running = new AtomicBoolean(false);
 
-    public StockBatchRunner(FinancialModelingPrepService fmpService) {
+    public StockBatchRunner(FinancialModelingPrepService fmpService, QuotaManager quotaManager, SyncQueue syncQueue) {
         this.fmpService = fmpService;
+        this.syncQueue = syncQueue;
+        this.threads = THREADS_PER_KEY * quotaManager.keyCount(ProviderGuard.Provider.FMP);
+        this.pool = Executors.newFixedThreadPool(threads);
     }
 
     public void ingestAll(List<String> symbols) throws InterruptedException {
         if (!running.compareAndSet(false, true)) {
-            System.out.println("Batch ingestion already running; skipping.");
+            LOGGER.info("Batch ingestion already running; skipping.");
             return;
         }
 
-        final int maxInFlight = 64; // backpressure cap
+        final int maxInFlight = 8 * threads; // backpressure cap
         final Semaphore inFlight = new Semaphore(maxInFlight);
         final CompletionService<Void> ecs = new ExecutorCompletionService<>(pool);
+        // the workers' writes count towards the caller's request or job
+        final SqlProfile sqlProfile = SqlProfile.current();
 
         int submitted = 0;
         int completed = 0;
@@ -48,10 +63,11 @@ public class StockBatchRunner {
 
                 ecs.submit(() -> {
                     try {
-                        limiter.acquire(); // global rate-limit (NOT per-thread)
-                        fmpService.getHistoricalDailyChart(symbol);
+                        // rate is set by QuotaManager: batch calls run on whatever interactive traffic leaves
+                        SqlProfile.runIn(sqlProfile, () -> QuotaManager.runAs(QuotaManager.Priority.BATCH,
+                                () -> fmpService.syncHistoricalDailyChart(symbol)));
                     } catch (Exception e) {
-                        System.err.println("Failed for " + symbol + ": " + e.getMessage());
+                        LOGGER.warning("Failed for " + symbol + ": " + e.getMessage());
                     } finally {
                         inFlight.release();
                     }
@@ -73,4 +89,52 @@ public class StockBatchRunner {
             running.set(false);
         }
     }
+
+    // works runDate's shared queue until nothing is left to claim; every pool thread claims one ticker
+    // at a time, so instances split the run by how fast they go. Returns the tickers synced here
+    public int drainQueue(LocalDate runDate) throws InterruptedException {
+        if (!running.compareAndSet(false, true)) {
+            LOGGER.info("Batch ingestion already running; skipping.");
+            return 0;
+        }
+
+        final AtomicInteger synced = new AtomicInteger();
+        final SqlProfile sqlProfile = SqlProfile.current();
+        List<Future<?>> workers = new ArrayList<>(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                workers.add(pool.submit(() -> {
+                    String symbol;
+                    while (!Thread.currentThread().isInterrupted() && (symbol = syncQueue.claim(runDate)) != null) {
+                        final String claimed = symbol;
+                        try {
+                            boolean ok = SqlProfile.runIn(sqlProfile, () -> QuotaManager.runAs(QuotaManager.Priority.BATCH,
+                                    () -> fmpService.syncHistoricalDailyChart(claimed)));
+                            if (!ok) {
+                                syncQueue.fail(runDate, claimed, "FMP unavailable");
+                            } else if (syncQueue.complete(runDate, claimed)) {
+                                // a lost lease is counted by whoever holds it now
+                                synced.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            LOGGER.warning("Failed for " + claimed + ": " + e.getMessage());
+                            syncQueue.fail(runDate, claimed, String.valueOf(e.getMessage()));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (ExecutionException e) {
+                    // claim/complete themselves failed (database unreachable); the leases will expire
+                    LOGGER.warning("Sync queue worker stopped: " + e.getCause());
+                }
+            }
+        } finally {
+            workers.forEach(w -> w.cancel(true));
+            running.set(false);
+        }
+        return synced.get();
+    }
 }
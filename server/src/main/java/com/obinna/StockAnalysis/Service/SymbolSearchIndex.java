@@ -0,0 +1,237 @@
+package com.obinna.StockAnalysis.Service;
+
+import com.obinna.StockAnalysis.dto.finnhub.UniversalStockList;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.logging.Logger;
+
+// Autocomplete over the Finnhub US listing (the `allUsStocks` cache).
+// Sorted arrays of symbols and description words are binary searched for prefix ranges,
+// so a suggestion only touches the matching slice instead of all ~30k symbols.
+// The index is rebuilt whenever the cached listing array is replaced (i.e. the cache refreshed). A timer looks
+// at the cache as well, so the listing is re-fetched and the index rebuilt in the background rather than by the
+// first search after the cache expired.
+@Service
+public class SymbolSearchIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(SymbolSearchIndex.class.getName());
+
+    private static final int EXACT_SYMBOL = 1000;
+    private static final int SYMBOL_PREFIX = 800;
+    private static final int WORD_PREFIX = 500;
+    private static final int COMMON_STOCK_BONUS = 50;
+
+    private final FinnhubService finnhubService;
+    private volatile Snapshot snapshot;
+
+    public SymbolSearchIndex(FinnhubService finnhubService) {
+        this.finnhubService = finnhubService;
+    }
+
+    @Scheduled(fixedDelay = 15 * 60_000, initialDelay = 60_000)
+    public void refresh() {
+        current();
+    }
+
+    public List<UniversalStockList> suggest(String query, int limit) {
+        if (query == null || query.isBlank() || limit <= 0) {
+            return List.of();
+        }
+        return current().suggest(query.trim(), limit);
+    }
+
+    // local replacement for Alpha Vantage SYMBOL_SEARCH when all we need is the name
+    public String findName(String symbol) {
+        if (symbol == null) {
+            return null;
+        }
+        UniversalStockList entry = current().exact(symbol.trim().toUpperCase(Locale.ROOT));
+        return entry == null ? null : entry.getDescription();
+    }
+
+    private Snapshot current() {
+        // cache hit after the first call; a new array identity means the cache was refreshed
+        UniversalStockList[] listing = finnhubService.getUniversalStockList();
+        Snapshot snap = snapshot;
+        if (snap != null && snap.source == listing) {
+            return snap;
+        }
+        synchronized (this) {
+            snap = snapshot;
+            if (snap == null || snap.source != listing) {
+                long start = System.nanoTime();
+                snap = new Snapshot(listing == null ? new UniversalStockList[0] : listing);
+                snapshot = snap;
+                LOGGER.info("Symbol index rebuilt: " + snap.entries.length + " symbols in "
+                        + (System.nanoTime() - start) / 1_000_000 + " ms");
+            }
+            return snap;
+        }
+    }
+
+    private static final class Snapshot {
+        final UniversalStockList[] source;
+        final UniversalStockList[] entries;
+
+        // symbols (upper case) sorted, pointing back into entries
+        final String[] symbols;
+        final int[] symbolEntry;
+
+        // every word of every description (lower case) sorted, with the entry and word position
+        final String[] words;
+        final int[] wordEntry;
+        final int[] wordPosition;
+
+        final String[] descriptionLower;
+
+        Snapshot(UniversalStockList[] source) {
+            this.source = source;
+            this.entries = Arrays.stream(source)
+                    .filter(s -> s != null && s.getSymbol() != null)
+                    .toArray(UniversalStockList[]::new);
+
+            int n = entries.length;
+            descriptionLower = new String[n];
+            Integer[] bySymbol = new Integer[n];
+            List<int[]> wordRefs = new ArrayList<>(n * 3);
+            List<String> wordList = new ArrayList<>(n * 3);
+            for (int i = 0; i < n; i++) {
+                bySymbol[i] = i;
+                String desc = entries[i].getDescription();
+                descriptionLower[i] = desc == null ? "" : desc.toLowerCase(Locale.ROOT);
+                String[] tokens = tokenize(descriptionLower[i]);
+                for (int p = 0; p < tokens.length; p++) {
+                    wordList.add(tokens[p]);
+                    wordRefs.add(new int[] { i, p });
+                }
+            }
+
+            Arrays.sort(bySymbol, Comparator.comparing(i -> entries[i].getSymbol().toUpperCase(Locale.ROOT)));
+            symbols = new String[n];
+            symbolEntry = new int[n];
+            for (int k = 0; k < n; k++) {
+                symbolEntry[k] = bySymbol[k];
+                symbols[k] = entries[bySymbol[k]].getSymbol().toUpperCase(Locale.ROOT);
+            }
+
+            int w = wordList.size();
+            Integer[] byWord = new Integer[w];
+            for (int k = 0; k < w; k++) {
+                byWord[k] = k;
+            }
+            Arrays.sort(byWord, Comparator.comparing(wordList::get));
+            words = new String[w];
+            wordEntry = new int[w];
+            wordPosition = new int[w];
+            for (int k = 0; k < w; k++) {
+                int ref = byWord[k];
+                words[k] = wordList.get(ref);
+                wordEntry[k] = wordRefs.get(ref)[0];
+                wordPosition[k] = wordRefs.get(ref)[1];
+            }
+        }
+
+        UniversalStockList exact(String symbolUpper) {
+            int k = Arrays.binarySearch(symbols, symbolUpper);
+            return k >= 0 ? entries[symbolEntry[k]] : null;
+        }
+
+        List<UniversalStockList> suggest(String query, int limit) {
+            String upper = query.toUpperCase(Locale.ROOT);
+            String[] tokens = tokenize(query.toLowerCase(Locale.ROOT));
+
+            // best score per entry, so a symbol hit and a name hit for the same entry don't duplicate
+            Map<Integer, Integer> best = new HashMap<>();
+
+            int from = lowerBound(symbols, upper);
+            int to = lowerBound(symbols, upper + Character.MAX_VALUE);
+            for (int k = from; k < to; k++) {
+                String sym = symbols[k];
+                int score = sym.length() == upper.length()
+                        ? EXACT_SYMBOL
+                        : SYMBOL_PREFIX - Math.min(100, sym.length() - upper.length());
+                best.merge(symbolEntry[k], score + typeBonus(symbolEntry[k]), Math::max);
+            }
+
+            if (tokens.length > 0) {
+                // first token drives the word index; the rest must prefix some other word of the description
+                String first = tokens[0];
+                from = lowerBound(words, first);
+                to = lowerBound(words, first + Character.MAX_VALUE);
+                for (int k = from; k < to; k++) {
+                    int entry = wordEntry[k];
+                    if (!allTokensMatch(descriptionLower[entry], tokens)) {
+                        continue;
+                    }
+                    int score = WORD_PREFIX
+                            - Math.min(100, wordPosition[k] * 20)
+                            - Math.min(100, descriptionLower[entry].length() / 4)
+                            + (words[k].length() == first.length() ? 25 : 0);
+                    best.merge(entry, score + typeBonus(entry), Math::max);
+                }
+            }
+
+            // bounded min-heap keeps only the top `limit`; ties go to the alphabetically first symbol
+            Comparator<Integer> ranking = Comparator
+                    .comparingInt((Integer i) -> best.get(i))
+                    .thenComparing((Integer i) -> entries[i].getSymbol(), Comparator.reverseOrder());
+            PriorityQueue<Integer> top = new PriorityQueue<>(ranking);
+            for (Integer entry : best.keySet()) {
+                top.offer(entry);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            Integer[] ranked = top.toArray(new Integer[0]);
+            Arrays.sort(ranked, ranking.reversed());
+            List<UniversalStockList> result = new ArrayList<>(ranked.length);
+            for (Integer entry : ranked) {
+                result.add(entries[entry]);
+            }
+            return result;
+        }
+
+        private int typeBonus(int entry) {
+            return "Common Stock".equals(entries[entry].getType()) ? COMMON_STOCK_BONUS : 0;
+        }
+
+        private static boolean allTokensMatch(String description, String[] tokens) {
+            for (int t = 1; t < tokens.length; t++) {
+                String tok = tokens[t];
+                if (!description.startsWith(tok) && !description.contains(" " + tok)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int lowerBound(String[] sorted, String key) {
+            int lo = 0, hi = sorted.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid].compareTo(key) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    private static String[] tokenize(String lower) {
+        return Arrays.stream(lower.split("[^\\p{L}\\p{N}]+"))
+                .filter(t -> !t.isEmpty())
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,139 @@
+package com.obinna.StockAnalysis.Service;
+
+import com.obinna.StockAnalysis.Repository.SyncTaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+// The daily sync as a shared per-ticker work queue, so every instance's StockBatchRunner pulls from the
+// same run instead of each one syncing every ticker. Tickers are leased for lease-seconds: a worker that
+// dies mid-ticker only delays it until the lease expires and another claims it; a live one renews its leases
+// every third of lease-seconds, however long it waits on the provider quota. A failed ticker is retried
+// after retry-backoff-seconds, doubled per attempt, until max-attempts claims were spent, then left FAILED
+// for the day.
+// More instances do not mean more provider budget: they share the same API keys, and QuotaManager's buckets
+// are per JVM, so InstanceRegistry gives each live instance an even share of every key's limits. Scale-out
+// speeds up the database and CPU side of the sync; the provider calls stay capped by the plan.
+@Service
+public class SyncQueue {
+
+    private static final Logger LOGGER = Logger.getLogger(SyncQueue.class.getName());
+
+    // finished runs kept for inspection
+    private static final int RETENTION_DAYS = 14;
+
+    private final SyncTaskRepository repository;
+    private final String owner;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Counter lostLeases;
+
+    // tickers this instance holds a lease on, with their run
+    private final Map<String, LocalDate> held = new ConcurrentHashMap<>();
+    // not @Scheduled: the daily sync itself holds the scheduler thread while these leases need renewing
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "sync-lease-renewer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public SyncQueue(SyncTaskRepository repository,
+            @Value("${sync.queue.lease-seconds:300}") long leaseSeconds,
+            @Value("${sync.queue.max-attempts:3}") int maxAttempts,
+            @Value("${sync.queue.retry-backoff-seconds:60}") long retryBackoffSeconds,
+            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        // pid@host: distinct per instance, and readable in sync_tasks.lease_owner
+        this.owner = ManagementFactory.getRuntimeMXBean().getName();
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = Duration.ofSeconds(retryBackoffSeconds);
+        this.lostLeases = Counter.builder("sync.queue.leases.lost").register(meterRegistry);
+        long every = Math.max(lease.toMillis() / 3, 1);
+        renewer.scheduleWithFixedDelay(this::renewLeases, every, every, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renewer.shutdownNow();
+    }
+
+    // true on the one instance that enqueued runDate (the leader); false when it was already enqueued
+    public boolean enqueue(LocalDate runDate, List<String> tickers) {
+        return repository.enqueueRun(runDate, tickers, runDate.minusDays(RETENTION_DAYS));
+    }
+
+    public String claim(LocalDate runDate) {
+        String ticker = repository.claim(runDate, owner, lease, maxAttempts);
+        if (ticker != null) {
+            held.put(ticker, runDate);
+        }
+        return ticker;
+    }
+
+    // false when the lease had been lost, so another instance may have synced the ticker too
+    public boolean complete(LocalDate runDate, String ticker) {
+        held.remove(ticker);
+        return leaseKept(repository.complete(runDate, ticker, owner), ticker);
+    }
+
+    public void fail(LocalDate runDate, String ticker, String error) {
+        held.remove(ticker);
+        leaseKept(repository.fail(runDate, ticker, owner, error, maxAttempts, retryBackoff), ticker);
+    }
+
+    private boolean leaseKept(boolean kept, String ticker) {
+        if (!kept) {
+            lostLeases.increment();
+            LOGGER.warning("Lease on " + ticker + " was lost before it finished; it may have been synced twice");
+        }
+        return kept;
+    }
+
+    private void renewLeases() {
+        Map<LocalDate, List<String>> byRun = new HashMap<>();
+        held.forEach((ticker, runDate) -> byRun.computeIfAbsent(runDate, d -> new ArrayList<>()).add(ticker));
+        byRun.forEach((runDate, tickers) -> {
+            try {
+                repository.renew(runDate, tickers, owner, lease);
+            } catch (RuntimeException e) {
+                // an exception would cancel the renewal loop
+                LOGGER.warning("Lease renewal failed: " + e.getMessage());
+            }
+        });
+    }
+
+    public boolean isDrained(LocalDate runDate) {
+        repository.failExpired(runDate, maxAttempts);
+        return repository.countOpen(runDate, maxAttempts) == 0;
+    }
+
+    // true on the one instance that should run the derived stages for runDate: the first to find it drained
+    public boolean claimDerivedStages(LocalDate runDate) {
+        return repository.claimDerivedStages(runDate, owner, maxAttempts);
+    }
+
+    public Map<SyncTaskRepository.Status, Integer> status(LocalDate runDate) {
+        return repository.countByStatus(runDate);
+    }
+
+    public Duration lease() {
+        return lease;
+    }
+}
@@ -1,12 +1,16 @@
 package com.obinna.StockAnalysis;
 
+import com.obinna.StockAnalysis.config.ProviderTrafficInterceptor;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 
 @SpringBootApplication
 @EnableCaching
@@ -16,8 +20,15 @@ public class StockAnalysisApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(StockAnalysisApplication.class, args);
 	}
+	// socket-level limits so a stalled provider eventually frees the thread;
+	// ProviderGuard's per-provider time limits are what callers actually wait for;
+	// providerTraffic records or replays provider calls when load testing
 	@Bean
-	public RestTemplate restTemplate() {
-		return new RestTemplate();
+	public RestTemplate restTemplate(RestTemplateBuilder builder, ProviderTrafficInterceptor providerTraffic) {
+		return builder
+				.connectTimeout(Duration.ofSeconds(3))
+				.readTimeout(Duration.ofSeconds(20))
+				.additionalInterceptors(providerTraffic)
+				.build();
 	}
 }
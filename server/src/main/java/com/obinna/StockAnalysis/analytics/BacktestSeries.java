@@ -0,0 +1,100 @@
+package com.obinna.StockAnalysis.analytics;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// One ticker's closes with the ml_signals known at each close, as flat arrays for the backtester.
+// Regimes are stored as small codes and risk scores as bytes; a day without a signal row carries the
+// previous one forward (signals are only written for days with features).
+public final class BacktestSeries {
+
+    // regime codes are indexes into this array; unknown labels map to 0
+    public static final String[] REGIMES = { "UNKNOWN", "HIGH_VOLATILITY", "TREND_UP", "TREND_DOWN", "SIDEWAYS" };
+    public static final byte NO_RISK = -1;
+
+    private final String ticker;
+    private final int[] days;
+    private final double[] close;
+    // close[i] / close[i - 1] - 1, 0 for the first bar
+    private final double[] change;
+    private final byte[] regime;
+    private final byte[] risk;
+    private final boolean[] hasSignal;
+
+    public BacktestSeries(PriceSeries prices) {
+        int n = prices.size();
+        this.ticker = prices.ticker();
+        this.days = new int[n];
+        this.close = new double[n];
+        this.change = new double[n];
+        this.regime = new byte[n];
+        this.risk = new byte[n];
+        this.hasSignal = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            days[i] = prices.day(i);
+            close[i] = prices.close(i);
+            change[i] = i == 0 ? 0.0 : close[i] / close[i - 1] - 1.0;
+        }
+        Arrays.fill(risk, NO_RISK);
+    }
+
+    public static int regimeCode(String label) {
+        if (label != null) {
+            for (int i = 1; i < REGIMES.length; i++) {
+                if (REGIMES[i].equals(label)) {
+                    return i;
+                }
+            }
+        }
+        return 0;
+    }
+
+    // signals for dates without a bar are ignored
+    public void setSignal(LocalDate date, String regimeLabel, Integer riskScore) {
+        int i = Arrays.binarySearch(days, (int) date.toEpochDay());
+        if (i < 0) {
+            return;
+        }
+        regime[i] = (byte) regimeCode(regimeLabel);
+        risk[i] = riskScore == null ? NO_RISK : (byte) Math.max(0, Math.min(100, riskScore));
+        hasSignal[i] = true;
+    }
+
+    // call once after all setSignal calls
+    public void carryForward() {
+        for (int i = 1; i < days.length; i++) {
+            if (!hasSignal[i]) {
+                regime[i] = regime[i - 1];
+                risk[i] = risk[i - 1];
+            }
+        }
+    }
+
+    public String ticker() {
+        return ticker;
+    }
+
+    public int size() {
+        return days.length;
+    }
+
+    public LocalDate date(int i) {
+        return LocalDate.ofEpochDay(days[i]);
+    }
+
+    public double close(int i) {
+        return close[i];
+    }
+
+    public double change(int i) {
+        return change[i];
+    }
+
+    public int regime(int i) {
+        return regime[i];
+    }
+
+    public int risk(int i) {
+        return risk[i];
+    }
+}
@@ -0,0 +1,57 @@
+package com.obinna.StockAnalysis.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Long-only signal rule: fully invested unless the last known regime is in `deriskRegimes` or the
+// risk score is at or above `riskThreshold`, in which case exposure drops to `reducedExposure`.
+// `deriskRegimes` is a bit set over BacktestSeries regime codes; a threshold above 100 disables the risk rule.
+public record BacktestStrategy(int deriskRegimes, int riskThreshold, double reducedExposure, double costBps) {
+
+    public static final int RISK_OFF = 101;
+
+    public BacktestStrategy {
+        if (reducedExposure < 0 || reducedExposure > 1) {
+            throw new IllegalArgumentException("reducedExposure must be in [0, 1]");
+        }
+        if (costBps < 0) {
+            throw new IllegalArgumentException("costBps must be >= 0");
+        }
+    }
+
+    public static BacktestStrategy buyAndHold(double costBps) {
+        return new BacktestStrategy(0, RISK_OFF, 1.0, costBps);
+    }
+
+    public static int regimeMask(List<String> labels) {
+        int mask = 0;
+        if (labels != null) {
+            for (String label : labels) {
+                int code = BacktestSeries.regimeCode(label.trim().toUpperCase(Locale.ROOT));
+                if (code == 0 && !"UNKNOWN".equalsIgnoreCase(label.trim())) {
+                    throw new IllegalArgumentException("Unknown regime: " + label);
+                }
+                mask |= 1 << code;
+            }
+        }
+        return mask;
+    }
+
+    public double exposure(int regime, int risk) {
+        if ((deriskRegimes & (1 << regime)) != 0 || risk >= riskThreshold) {
+            return reducedExposure;
+        }
+        return 1.0;
+    }
+
+    public List<String> regimes() {
+        List<String> out = new ArrayList<>();
+        for (int i = 0; i < BacktestSeries.REGIMES.length; i++) {
+            if ((deriskRegimes & (1 << i)) != 0) {
+                out.add(BacktestSeries.REGIMES[i]);
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,178 @@
+package com.obinna.StockAnalysis.analytics;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Daily close-to-close replay of a BacktestStrategy over a BacktestSeries.
+// The signal known at close i sets the exposure held over bar i + 1; rebalancing costs costBps per unit of
+// exposure traded. A run is one pass over the arrays with no allocation besides the returned Stats, so
+// sweeps can run every (strategy, ticker) pair of a large grid on the analytics pool.
+public final class Backtester {
+
+    public static final int TRADING_DAYS = 252;
+    // tickers with fewer bars are left out of sweeps
+    public static final int MIN_BARS = 60;
+
+    // sweep leaves hold at most this many strategies
+    private static final int SWEEP_LEAF = 2;
+
+    private Backtester() {
+    }
+
+    public record Stats(
+            int bars,
+            double totalReturn,
+            double cagr,
+            double volatility,
+            double sharpe,
+            double maxDrawdown,
+            double exposure,
+            int trades) {
+    }
+
+    // averages over the tickers of a sweep; beatRate is the share of tickers where the strategy's
+    // Sharpe beat buy-and-hold
+    public record SweepResult(
+            BacktestStrategy strategy,
+            int tickers,
+            double meanTotalReturn,
+            double meanCagr,
+            double meanSharpe,
+            double meanMaxDrawdown,
+            double meanExposure,
+            double beatRate) {
+    }
+
+    // whole series; equity (may be null) receives the curve starting at 1.0, one value per bar
+    public static Stats run(BacktestSeries s, BacktestStrategy strategy, double[] equity) {
+        return run(s, strategy, 0, s.size() - 1, equity);
+    }
+
+    // bars [from, to]; equity[k] is the value at bar from + k
+    public static Stats run(BacktestSeries s, BacktestStrategy strategy, int from, int to, double[] equity) {
+        double cost = strategy.costBps() / 10_000.0;
+        double value = 1.0;
+        double peak = 1.0;
+        double maxDrawdown = 0.0;
+        // daily returns are small, plain power sums are accurate enough and keep divisions out of the loop
+        double sum = 0.0;
+        double sumSq = 0.0;
+        double exposureSum = 0.0;
+        int trades = 0;
+
+        // entering at the first close
+        double held = strategy.exposure(s.regime(from), s.risk(from));
+        if (held > 0) {
+            value -= value * cost * held;
+            trades++;
+        }
+        if (equity != null) {
+            equity[0] = value;
+        }
+
+        int n = 0;
+        for (int i = from + 1; i <= to; i++) {
+            double r = held * s.change(i);
+            double next = strategy.exposure(s.regime(i), s.risk(i));
+            if (next != held) {
+                r -= cost * Math.abs(next - held);
+                trades++;
+            }
+            exposureSum += held;
+            held = next;
+
+            value *= 1.0 + r;
+            if (value > peak) {
+                peak = value;
+            } else if (value < peak * (1.0 - maxDrawdown)) {
+                maxDrawdown = 1.0 - value / peak;
+            }
+
+            n++;
+            sum += r;
+            sumSq += r * r;
+
+            if (equity != null) {
+                equity[i - from] = value;
+            }
+        }
+
+        double mean = n > 0 ? sum / n : 0.0;
+        double sd = n > 1 ? Math.sqrt(Math.max(0.0, (sumSq - sum * mean) / (n - 1))) : 0.0;
+        double cagr = n > 0 && value > 0 ? Math.pow(value, (double) TRADING_DAYS / n) - 1.0 : -1.0;
+        double sharpe = sd > 0 ? mean / sd * Math.sqrt(TRADING_DAYS) : 0.0;
+        return new Stats(n + 1, value - 1.0, cagr, sd * Math.sqrt(TRADING_DAYS), sharpe, maxDrawdown,
+                n > 0 ? exposureSum / n : 0.0, trades);
+    }
+
+    // every strategy over every series, averaged per strategy (results are in `strategies` order)
+    public static SweepResult[] sweep(List<BacktestSeries> series, BacktestStrategy[] strategies,
+            double costBps, ForkJoinPool pool) {
+        BacktestSeries[] usable = series.stream().filter(s -> s.size() >= MIN_BARS).toArray(BacktestSeries[]::new);
+        double[] baseline = new double[usable.length];
+        BacktestStrategy hold = BacktestStrategy.buyAndHold(costBps);
+        for (int t = 0; t < usable.length; t++) {
+            baseline[t] = run(usable[t], hold, null).sharpe();
+        }
+
+        SweepResult[] out = new SweepResult[strategies.length];
+        pool.invoke(new SweepTask(usable, baseline, strategies, out, 0, strategies.length));
+        return out;
+    }
+
+    private static final class SweepTask extends RecursiveAction {
+        private final BacktestSeries[] series;
+        private final double[] baseline;
+        private final BacktestStrategy[] strategies;
+        private final SweepResult[] out;
+        private final int lo;
+        private final int hi;
+
+        SweepTask(BacktestSeries[] series, double[] baseline, BacktestStrategy[] strategies, SweepResult[] out,
+                int lo, int hi) {
+            this.series = series;
+            this.baseline = baseline;
+            this.strategies = strategies;
+            this.out = out;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= SWEEP_LEAF) {
+                for (int c = lo; c < hi; c++) {
+                    out[c] = evaluate(strategies[c]);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SweepTask(series, baseline, strategies, out, lo, mid),
+                    new SweepTask(series, baseline, strategies, out, mid, hi));
+        }
+
+        private SweepResult evaluate(BacktestStrategy strategy) {
+            double total = 0;
+            double cagr = 0;
+            double sharpe = 0;
+            double drawdown = 0;
+            double exposure = 0;
+            int beat = 0;
+            for (int t = 0; t < series.length; t++) {
+                Stats s = run(series[t], strategy, null);
+                total += s.totalReturn();
+                cagr += s.cagr();
+                sharpe += s.sharpe();
+                drawdown += s.maxDrawdown();
+                exposure += s.exposure();
+                if (s.sharpe() > baseline[t]) {
+                    beat++;
+                }
+            }
+            int n = Math.max(series.length, 1);
+            return new SweepResult(strategy, series.length, total / n, cagr / n, sharpe / n, drawdown / n,
+                    exposure / n, (double) beat / n);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.obinna.StockAnalysis.analytics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Pearson correlations over a ReturnMatrix as dot products of its normalised rows.
+//
+// Work is split into row blocks; each task takes BLOCK rows and sweeps the column blocks from its own onwards,
+// so the BLOCK x T slice of the matrix it reads stays in L2 while the column block streams past, and every
+// pair is computed once. The inner 1x4 micro-kernel (dot4) reads each row value once for four columns.
+// A finished BLOCK x BLOCK tile is offered to the top-k lists of both its rows and its columns, each side
+// under the lock of the row block that holds those lists.
+//
+// The dot products use the Vector API (VectorDotProducts) when the build included it (-Pvector) and the JVM
+// runs with --add-modules jdk.incubator.vector; otherwise they are plain scalar loops.
+public final class CorrelationKernel {
+
+    static final int BLOCK = 64;
+    static final DotProducts DOTS = dotProducts();
+
+    private CorrelationKernel() {
+    }
+
+    // k strongest positive correlates per row (excluding itself), best first
+    public record TopK(int k, int[] peers, float[] correlations, int[] counts) {
+        public int peer(int row, int rank) {
+            return peers[row * k + rank];
+        }
+
+        public float correlation(int row, int rank) {
+            return correlations[row * k + rank];
+        }
+
+        public int count(int row) {
+            return counts[row];
+        }
+    }
+
+    public static TopK topK(ReturnMatrix m, int k, ForkJoinPool pool) {
+        int n = m.size();
+        int[] peers = new int[n * k];
+        float[] corr = new float[n * k];
+        int[] counts = new int[n];
+        int blocks = (n + BLOCK - 1) / BLOCK;
+        Object[] locks = new Object[blocks];
+        for (int b = 0; b < blocks; b++) {
+            locks[b] = new Object();
+        }
+        pool.invoke(new RowBlocks(m, k, 0, blocks, peers, corr, counts, locks));
+        return new TopK(k, peers, corr, counts);
+    }
+
+    // dense correlation matrix of the given rows (row-major, rows.length^2), for heatmaps of small sets
+    public static float[] dense(ReturnMatrix m, int[] rows) {
+        int n = rows.length;
+        int t = m.length();
+        float[] data = m.normalized();
+        float[] out = new float[n * n];
+        for (int i = 0; i < n; i++) {
+            out[i * n + i] = 1f;
+            for (int j = i + 1; j < n; j++) {
+                float c = clamp(DOTS.dot(data, rows[i] * t, rows[j] * t, t));
+                out[i * n + j] = c;
+                out[j * n + i] = c;
+            }
+        }
+        return out;
+    }
+
+    interface DotProducts {
+        float dot(float[] data, int a, int b, int t);
+
+        // row a against rows b, b+t, b+2t, b+3t
+        void dot4(float[] data, int a, int b, int t, float[] out);
+    }
+
+    private static DotProducts dotProducts() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (DotProducts) Class.forName(CorrelationKernel.class.getPackageName() + ".VectorDotProducts")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // built without -Pvector
+            }
+        }
+        return new ScalarDotProducts();
+    }
+
+    static final class ScalarDotProducts implements DotProducts {
+        @Override
+        public float dot(float[] data, int a, int b, int t) {
+            float s = 0;
+            for (int d = 0; d < t; d++) {
+                s += data[a + d] * data[b + d];
+            }
+            return s;
+        }
+
+        @Override
+        public void dot4(float[] data, int a, int b, int t, float[] out) {
+            float r0 = 0;
+            float r1 = 0;
+            float r2 = 0;
+            float r3 = 0;
+            for (int d = 0; d < t; d++) {
+                float x = data[a + d];
+                r0 += x * data[b + d];
+                r1 += x * data[b + t + d];
+                r2 += x * data[b + 2 * t + d];
+                r3 += x * data[b + 3 * t + d];
+            }
+            out[0] = r0;
+            out[1] = r1;
+            out[2] = r2;
+            out[3] = r3;
+        }
+    }
+
+    private static final class RowBlocks extends RecursiveAction {
+        private final ReturnMatrix m;
+        private final int k;
+        private final int fromBlock;
+        private final int toBlock;
+        private final int[] peers;
+        private final float[] corr;
+        private final int[] counts;
+        // one per row block, guarding the top-k lists of its rows
+        private final Object[] locks;
+
+        RowBlocks(ReturnMatrix m, int k, int fromBlock, int toBlock, int[] peers, float[] corr, int[] counts,
+                Object[] locks) {
+            this.m = m;
+            this.k = k;
+            this.fromBlock = fromBlock;
+            this.toBlock = toBlock;
+            this.peers = peers;
+            this.corr = corr;
+            this.counts = counts;
+            this.locks = locks;
+        }
+
+        @Override
+        protected void compute() {
+            if (toBlock - fromBlock > 1) {
+                int mid = (fromBlock + toBlock) >>> 1;
+                invokeAll(new RowBlocks(m, k, fromBlock, mid, peers, corr, counts, locks),
+                        new RowBlocks(m, k, mid, toBlock, peers, corr, counts, locks));
+                return;
+            }
+            rowBlock(fromBlock);
+        }
+
+        private void rowBlock(int block) {
+            int n = m.size();
+            int t = m.length();
+            float[] data = m.normalized();
+            float[] acc = new float[4];
+            float[] tile = new float[BLOCK * BLOCK];
+            int i0 = block * BLOCK;
+            int i1 = Math.min(n, i0 + BLOCK);
+
+            for (int j0 = i0; j0 < n; j0 += BLOCK) {
+                int j1 = Math.min(n, j0 + BLOCK);
+                boolean diagonal = j0 == i0;
+                for (int i = i0; i < i1; i++) {
+                    // on the diagonal tile only the pairs above it
+                    int j = diagonal ? i + 1 : j0;
+                    int row = (i - i0) * BLOCK - j0;
+                    for (; j + 3 < j1; j += 4) {
+                        DOTS.dot4(data, i * t, j * t, t, acc);
+                        for (int q = 0; q < 4; q++) {
+                            tile[row + j + q] = acc[q];
+                        }
+                    }
+                    for (; j < j1; j++) {
+                        tile[row + j] = DOTS.dot(data, i * t, j * t, t);
+                    }
+                }
+
+                synchronized (locks[block]) {
+                    for (int i = i0; i < i1; i++) {
+                        for (int j = diagonal ? i + 1 : j0; j < j1; j++) {
+                            offer(i, j, tile[(i - i0) * BLOCK + j - j0]);
+                        }
+                    }
+                }
+                synchronized (locks[j0 / BLOCK]) {
+                    for (int i = i0; i < i1; i++) {
+                        for (int j = diagonal ? i + 1 : j0; j < j1; j++) {
+                            offer(j, i, tile[(i - i0) * BLOCK + j - j0]);
+                        }
+                    }
+                }
+            }
+        }
+
+        // keeps row i's list sorted descending; k is small so insertion beats a heap
+        private void offer(int i, int j, float c) {
+            if (i == j || Float.isNaN(c)) {
+                return;
+            }
+            c = clamp(c);
+            int base = i * k;
+            int size = counts[i];
+            if (size == k && c <= corr[base + k - 1]) {
+                return;
+            }
+            int pos = size == k ? k - 1 : size;
+            while (pos > 0 && corr[base + pos - 1] < c) {
+                corr[base + pos] = corr[base + pos - 1];
+                peers[base + pos] = peers[base + pos - 1];
+                pos--;
+            }
+            corr[base + pos] = c;
+            peers[base + pos] = j;
+            if (size < k) {
+                counts[i] = size + 1;
+            }
+        }
+    }
+
+    private static float clamp(float c) {
+        return Math.max(-1f, Math.min(1f, c));
+    }
+}
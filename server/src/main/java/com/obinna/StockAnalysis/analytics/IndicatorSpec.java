@@ -0,0 +1,101 @@
+package com.obinna.StockAnalysis.analytics;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Which indicator and with what parameters; also the memo key for built ta4j indicators.
+public record IndicatorSpec(Type type, int period, int fast, int slow, int signal, double k) {
+
+    public static final int MAX_PERIOD = 500;
+
+    public enum Type {
+        SMA(List.of("sma")),
+        EMA(List.of("ema")),
+        MACD(List.of("macd", "signal", "histogram")),
+        BOLLINGER(List.of("middle", "upper", "lower")),
+        ATR(List.of("atr")),
+        RSI(List.of("rsi"));
+
+        private final List<String> lines;
+
+        Type(List<String> lines) {
+            this.lines = lines;
+        }
+
+        public List<String> lines() {
+            return lines;
+        }
+
+        public static Type from(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    // null arguments fall back to the usual defaults (20 SMA/EMA/BB, 14 ATR/RSI, 12/26/9 MACD, 2 sigma)
+    public static IndicatorSpec of(Type type, Integer period, Integer fast, Integer slow, Integer signal, Double k) {
+        int defaultPeriod = switch (type) {
+            case ATR, RSI -> 14;
+            default -> 20;
+        };
+        IndicatorSpec spec = switch (type) {
+            case MACD -> new IndicatorSpec(type, 0, orElse(fast, 12), orElse(slow, 26), orElse(signal, 9), 0);
+            case BOLLINGER -> new IndicatorSpec(type, orElse(period, defaultPeriod), 0, 0, 0, k == null ? 2.0 : k);
+            default -> new IndicatorSpec(type, orElse(period, defaultPeriod), 0, 0, 0, 0);
+        };
+        spec.validate();
+        return spec;
+    }
+
+    private void validate() {
+        if (type == Type.MACD) {
+            checkPeriod(fast);
+            checkPeriod(slow);
+            checkPeriod(signal);
+            if (fast >= slow) {
+                throw new IllegalArgumentException("fast must be shorter than slow");
+            }
+        } else {
+            checkPeriod(period);
+        }
+        if (type == Type.BOLLINGER && !(k > 0 && k <= 10)) {
+            throw new IllegalArgumentException("k must be in (0, 10]");
+        }
+    }
+
+    private static void checkPeriod(int p) {
+        if (p < 1 || p > MAX_PERIOD) {
+            throw new IllegalArgumentException("period must be between 1 and " + MAX_PERIOD);
+        }
+    }
+
+    // leading bars whose value still depends on how much history came before them
+    public int unstableBars() {
+        return switch (type) {
+            case MACD -> slow + signal - 2;
+            default -> period - 1;
+        };
+    }
+
+    public Map<String, Object> params() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        switch (type) {
+            case MACD -> {
+                out.put("fast", fast);
+                out.put("slow", slow);
+                out.put("signal", signal);
+            }
+            case BOLLINGER -> {
+                out.put("period", period);
+                out.put("k", k);
+            }
+            default -> out.put("period", period);
+        }
+        return out;
+    }
+
+    private static int orElse(Integer value, int fallback) {
+        return value == null ? fallback : value;
+    }
+}
@@ -0,0 +1,157 @@
+package com.obinna.StockAnalysis.analytics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Scores an sklearn IsolationForest exported by ml-service/Model_Functions/export_iso_forest.py.
+// All trees live in one set of flat arrays (global node ids, -1 = leaf), and each leaf already holds
+// its path length (depth + c(n_node_samples)), so scoring a row is a few hundred array reads.
+//
+// Matches IsolationForest.decision_function: inputs are compared as float32 like sklearn does,
+// path lengths are accumulated tree by tree in the same order.
+public final class IsolationForestModel {
+
+    private static final int MAGIC = 0x464F5349; // "ISOF" little-endian
+    private static final int VERSION = 1;
+    private static final double EULER_GAMMA = 0.5772156649015329;
+
+    private final int[] roots;
+    private final int[] left;
+    private final int[] right;
+    private final byte[] feature;
+    // split threshold for internal nodes, path length for leaves
+    private final double[] value;
+
+    // model feature i is read from row[columns[i]]
+    private final int[] columns;
+    private final double offset;
+    private final double denominator;
+
+    private IsolationForestModel(int[] roots, int[] left, int[] right, byte[] feature, double[] value,
+            int[] columns, int maxSamples, double offset) {
+        this.roots = roots;
+        this.left = left;
+        this.right = right;
+        this.feature = feature;
+        this.value = value;
+        this.columns = columns;
+        this.offset = offset;
+        this.denominator = roots.length * averagePathLength(maxSamples);
+    }
+
+    // columnNames maps a model feature name to its position in the rows passed to score()
+    public static IsolationForestModel read(byte[] bytes, String[] columnNames) {
+        ByteBuffer buf = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not an isolation forest model");
+        }
+        int version = Short.toUnsignedInt(buf.getShort());
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported model version " + version);
+        }
+
+        int featureCount = Short.toUnsignedInt(buf.getShort());
+        int[] columns = new int[featureCount];
+        for (int i = 0; i < featureCount; i++) {
+            byte[] name = new byte[Short.toUnsignedInt(buf.getShort())];
+            buf.get(name);
+            String feature = new String(name, StandardCharsets.UTF_8);
+            columns[i] = Arrays.asList(columnNames).indexOf(feature);
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("Unknown model feature " + feature);
+            }
+        }
+
+        int maxSamples = buf.getInt();
+        double offset = buf.getDouble();
+        int treeCount = buf.getInt();
+
+        // first pass for the total node count, then decode straight into the flat arrays
+        int[] roots = new int[treeCount];
+        int total = 0;
+        int start = buf.position();
+        for (int t = 0; t < treeCount; t++) {
+            int n = buf.getInt();
+            roots[t] = total;
+            total += n;
+            buf.position(buf.position() + n * (2 + 2 + 1 + 4 + 2));
+        }
+        buf.position(start);
+
+        int[] left = new int[total];
+        int[] right = new int[total];
+        byte[] feature = new byte[total];
+        double[] value = new double[total];
+        int[] depth = new int[total];
+        for (int t = 0; t < treeCount; t++) {
+            int base = roots[t];
+            int n = buf.getInt();
+            for (int i = 0; i < n; i++) {
+                short child = buf.getShort();
+                left[base + i] = child < 0 ? -1 : base + child;
+            }
+            for (int i = 0; i < n; i++) {
+                short child = buf.getShort();
+                right[base + i] = child < 0 ? -1 : base + child;
+            }
+            buf.get(feature, base, n);
+            for (int i = 0; i < n; i++) {
+                value[base + i] = buf.getFloat();
+            }
+            // children always come after their parent, so depths fill in one forward pass
+            for (int i = 0; i < n; i++) {
+                int node = base + i;
+                int samples = Short.toUnsignedInt(buf.getShort());
+                if (left[node] >= 0) {
+                    depth[left[node]] = depth[node] + 1;
+                    depth[right[node]] = depth[node] + 1;
+                } else {
+                    // sklearn: _decision_path_lengths (root = 1) + _average_path_length - 1.0
+                    value[node] = (depth[node] + 1.0) + averagePathLength(samples) - 1.0;
+                }
+            }
+        }
+        return new IsolationForestModel(roots, left, right, feature, value, columns, maxSamples, offset);
+    }
+
+    public int featureCount() {
+        return columns.length;
+    }
+
+    public int nodeCount() {
+        return left.length;
+    }
+
+    // -decision_function(row): higher is more anomalous; NaN when a model feature is not finite
+    public double anomalyScore(double[] row) {
+        for (int column : columns) {
+            if (!Double.isFinite(row[column])) {
+                return Double.NaN;
+            }
+        }
+        double depths = 0.0;
+        for (int root : roots) {
+            int node = root;
+            while (left[node] >= 0) {
+                float x = (float) row[columns[feature[node]]];
+                node = x <= value[node] ? left[node] : right[node];
+            }
+            depths += value[node];
+        }
+        double scoreSamples = -Math.pow(2.0, -(depths / denominator));
+        return -(scoreSamples - offset);
+    }
+
+    // sklearn.ensemble._iforest._average_path_length
+    static double averagePathLength(int n) {
+        if (n <= 1) {
+            return 0.0;
+        }
+        if (n == 2) {
+            return 1.0;
+        }
+        return 2.0 * (Math.log(n - 1.0) + EULER_GAMMA) - 2.0 * (n - 1.0) / n;
+    }
+}
@@ -0,0 +1,133 @@
+package com.obinna.StockAnalysis.analytics;
+
+import java.util.Arrays;
+
+// Risk of a weighted basket over the trailing `window` days of a ReturnMatrix.
+// Nothing k x k is ever formed: the portfolio return series is built first, then each holding's covariance
+// with it is accumulated online in one pass (Welford co-moments). That is everything volatility, beta and
+// the Euler risk decomposition need, so a request is O(window * holdings).
+public final class PortfolioRisk {
+
+    private PortfolioRisk() {
+    }
+
+    // contribution[i] = weight[i] * cov(r_i, r_p) / sigma_p (daily); they sum to the portfolio volatility
+    public record Result(
+            int observations,
+            double dailyVolatility,
+            double beta,
+            double valueAtRisk,
+            double expectedShortfall,
+            double[] assetVolatility,
+            double[] assetBeta,
+            double[] contribution) {
+    }
+
+    // rows/weights describe the holdings; weights are used as given (callers normalise).
+    // marketRow may be -1, in which case betas are NaN. Missing returns count as 0 for that day.
+    public static Result compute(ReturnMatrix m, int[] rows, double[] weights, int marketRow, int window,
+            double confidence) {
+        int t = m.length();
+        int n = Math.min(window, t);
+        int first = t - n;
+        int k = rows.length;
+
+        // simple returns of the portfolio, one per day
+        double[] portfolio = new double[n];
+        for (int a = 0; a < k; a++) {
+            double w = weights[a];
+            for (int d = 0; d < n; d++) {
+                portfolio[d] += w * simpleReturn(m, rows[a], first + d);
+            }
+        }
+
+        double[] market = new double[n];
+        if (marketRow >= 0) {
+            for (int d = 0; d < n; d++) {
+                market[d] = simpleReturn(m, marketRow, first + d);
+            }
+        }
+        Moments p = new Moments();
+        for (int d = 0; d < n; d++) {
+            p.add(portfolio[d], market[d]);
+        }
+        double sigma = Math.sqrt(p.varX());
+        double marketVar = p.varY();
+        boolean hasMarket = marketRow >= 0 && marketVar > 0;
+        double beta = hasMarket ? p.cov() / marketVar : Double.NaN;
+
+        double[] assetVol = new double[k];
+        double[] assetBeta = new double[k];
+        double[] contribution = new double[k];
+        Moments withPortfolio = new Moments();
+        Moments withMarket = new Moments();
+        for (int a = 0; a < k; a++) {
+            withPortfolio.reset();
+            withMarket.reset();
+            for (int d = 0; d < n; d++) {
+                double r = simpleReturn(m, rows[a], first + d);
+                withPortfolio.add(r, portfolio[d]);
+                withMarket.add(r, market[d]);
+            }
+            assetVol[a] = Math.sqrt(withPortfolio.varX());
+            assetBeta[a] = hasMarket ? withMarket.cov() / marketVar : Double.NaN;
+            contribution[a] = sigma > 0 ? weights[a] * withPortfolio.cov() / sigma : 0.0;
+        }
+
+        // historical simulation: the worst (1 - confidence) share of days
+        double[] sorted = portfolio.clone();
+        Arrays.sort(sorted);
+        int tail = Math.max(1, (int) Math.floor((1.0 - confidence) * n));
+        double tailSum = 0.0;
+        for (int i = 0; i < tail; i++) {
+            tailSum += sorted[i];
+        }
+        double var = n == 0 ? Double.NaN : -sorted[tail - 1];
+        double cvar = n == 0 ? Double.NaN : -tailSum / tail;
+
+        return new Result(n, sigma, beta, var, cvar, assetVol, assetBeta, contribution);
+    }
+
+    private static double simpleReturn(ReturnMatrix m, int row, int d) {
+        double r = m.simpleReturnAt(row, d);
+        return Double.isNaN(r) ? 0.0 : r;
+    }
+
+    // running means and co-moments of a pair, updated one observation at a time
+    private static final class Moments {
+        private int n;
+        private double meanX;
+        private double meanY;
+        private double m2X;
+        private double m2Y;
+        private double cXY;
+
+        void reset() {
+            n = 0;
+            meanX = meanY = m2X = m2Y = cXY = 0.0;
+        }
+
+        void add(double x, double y) {
+            n++;
+            double dx = x - meanX;
+            double dy = y - meanY;
+            meanX += dx / n;
+            meanY += dy / n;
+            m2X += dx * (x - meanX);
+            m2Y += dy * (y - meanY);
+            cXY += dx * (y - meanY);
+        }
+
+        double varX() {
+            return n > 1 ? m2X / (n - 1) : 0.0;
+        }
+
+        double varY() {
+            return n > 1 ? m2Y / (n - 1) : 0.0;
+        }
+
+        double cov() {
+            return n > 1 ? cXY / (n - 1) : 0.0;
+        }
+    }
+}
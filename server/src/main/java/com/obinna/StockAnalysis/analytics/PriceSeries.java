@@ -0,0 +1,106 @@
+package com.obinna.StockAnalysis.analytics;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// One ticker's daily bars as parallel primitive arrays, oldest first.
+// Filled row by row straight off a JDBC cursor; dates are stored as epoch days.
+public final class PriceSeries {
+
+    private final String ticker;
+    private int size;
+    private int[] days;
+    private double[] open;
+    private double[] high;
+    private double[] low;
+    private double[] close;
+    private double[] volume;
+
+    public PriceSeries(String ticker) {
+        this(ticker, 256);
+    }
+
+    public PriceSeries(String ticker, int initialCapacity) {
+        this.ticker = ticker;
+        int cap = Math.max(initialCapacity, 16);
+        this.days = new int[cap];
+        this.open = new double[cap];
+        this.high = new double[cap];
+        this.low = new double[cap];
+        this.close = new double[cap];
+        this.volume = new double[cap];
+    }
+
+    public void add(LocalDate date, double o, double h, double l, double c, double v) {
+        if (size == days.length) {
+            int cap = size * 2;
+            days = Arrays.copyOf(days, cap);
+            open = Arrays.copyOf(open, cap);
+            high = Arrays.copyOf(high, cap);
+            low = Arrays.copyOf(low, cap);
+            close = Arrays.copyOf(close, cap);
+            volume = Arrays.copyOf(volume, cap);
+        }
+        days[size] = (int) date.toEpochDay();
+        open[size] = o;
+        high[size] = h;
+        low[size] = l;
+        close[size] = c;
+        volume[size] = v;
+        size++;
+    }
+
+    public String ticker() {
+        return ticker;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int day(int i) {
+        return days[i];
+    }
+
+    public LocalDate date(int i) {
+        return LocalDate.ofEpochDay(days[i]);
+    }
+
+    public double open(int i) {
+        return open[i];
+    }
+
+    public double high(int i) {
+        return high[i];
+    }
+
+    public double low(int i) {
+        return low[i];
+    }
+
+    public double close(int i) {
+        return close[i];
+    }
+
+    public double volume(int i) {
+        return volume[i];
+    }
+
+    // index of the bar on `epochDay`, or -1
+    public int indexOf(int epochDay) {
+        int k = Arrays.binarySearch(days, 0, size, epochDay);
+        return k >= 0 ? k : -1;
+    }
+
+    // log(close[i] / close[i - 1]) on this series' own calendar, NaN for the first bar
+    public double[] logReturns() {
+        double[] out = new double[size];
+        if (size > 0) {
+            out[0] = Double.NaN;
+        }
+        for (int i = 1; i < size; i++) {
+            out[i] = Math.log(close[i] / close[i - 1]);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,171 @@
+package com.obinna.StockAnalysis.analytics;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Daily log returns of many tickers on one shared calendar, row-major (one row per ticker).
+// Rows are also kept z-normalised (mean 0, unit L2 norm, float) so a correlation is a single dot product;
+// that layout is what CorrelationKernel streams through.
+public final class ReturnMatrix {
+
+    // a ticker needs returns on this share of the window's dates to be included
+    static final double MIN_COVERAGE = 0.9;
+
+    private final String[] tickers;
+    private final Map<String, Integer> index;
+    private final LocalDate[] dates;
+    private final int length;
+    // raw log returns, NaN where either close is missing
+    private final double[] returns;
+    // the same as simple returns (portfolio aggregation)
+    private final double[] simpleReturns;
+    // centered / scaled returns, 0 where missing
+    private final float[] normalized;
+
+    private ReturnMatrix(String[] tickers, LocalDate[] dates, double[] returns, float[] normalized) {
+        this.tickers = tickers;
+        this.dates = dates;
+        this.length = dates.length;
+        this.returns = returns;
+        this.simpleReturns = new double[returns.length];
+        for (int i = 0; i < returns.length; i++) {
+            simpleReturns[i] = Math.expm1(returns[i]);
+        }
+        this.normalized = normalized;
+        this.index = new HashMap<>(tickers.length * 2);
+        for (int i = 0; i < tickers.length; i++) {
+            index.put(tickers[i], i);
+        }
+    }
+
+    // last `window` returns on the dates most tickers trade; tickers with gaps beyond MIN_COVERAGE are dropped
+    public static ReturnMatrix build(Map<String, PriceSeries> prices, int window) {
+        // shared calendar: dates present for at least half of the tickers (drops stray holiday prints)
+        TreeMap<Integer, Integer> dayCounts = new TreeMap<>();
+        for (PriceSeries s : prices.values()) {
+            for (int i = 0; i < s.size(); i++) {
+                dayCounts.merge(s.day(i), 1, Integer::sum);
+            }
+        }
+        int quorum = Math.max(1, prices.size() / 2);
+        int[] calendar = dayCounts.entrySet().stream()
+                .filter(e -> e.getValue() >= quorum)
+                .mapToInt(Map.Entry::getKey)
+                .toArray();
+        // window + 1 closes give `window` returns
+        int first = Math.max(0, calendar.length - window - 1);
+        calendar = Arrays.copyOfRange(calendar, first, calendar.length);
+        int t = Math.max(0, calendar.length - 1);
+
+        String[] names = prices.keySet().stream().sorted().toArray(String[]::new);
+        double[] allReturns = new double[names.length * t];
+        int kept = 0;
+        String[] keptNames = new String[names.length];
+        double[] closes = new double[calendar.length];
+        for (String name : names) {
+            PriceSeries s = prices.get(name);
+            Arrays.fill(closes, Double.NaN);
+            for (int c = 0, i = 0; c < calendar.length && i < s.size(); ) {
+                if (s.day(i) < calendar[c]) {
+                    i++;
+                } else if (s.day(i) > calendar[c]) {
+                    c++;
+                } else {
+                    closes[c++] = s.close(i++);
+                }
+            }
+
+            int base = kept * t;
+            int valid = 0;
+            for (int d = 0; d < t; d++) {
+                double r = Math.log(closes[d + 1] / closes[d]);
+                allReturns[base + d] = Double.isFinite(r) ? r : Double.NaN;
+                if (Double.isFinite(r)) {
+                    valid++;
+                }
+            }
+            if (t > 1 && valid >= MIN_COVERAGE * t) {
+                keptNames[kept++] = name;
+            }
+        }
+
+        double[] returns = Arrays.copyOf(allReturns, kept * t);
+        float[] normalized = new float[kept * t];
+        for (int row = 0; row < kept; row++) {
+            normalize(returns, normalized, row * t, t);
+        }
+
+        LocalDate[] dates = new LocalDate[t];
+        for (int d = 0; d < t; d++) {
+            dates[d] = LocalDate.ofEpochDay(calendar[d + 1]);
+        }
+        return new ReturnMatrix(Arrays.copyOf(keptNames, kept), dates, returns, normalized);
+    }
+
+    private static void normalize(double[] returns, float[] out, int offset, int t) {
+        double sum = 0.0;
+        int n = 0;
+        for (int d = 0; d < t; d++) {
+            double r = returns[offset + d];
+            if (!Double.isNaN(r)) {
+                sum += r;
+                n++;
+            }
+        }
+        double mean = sum / n;
+        double ss = 0.0;
+        for (int d = 0; d < t; d++) {
+            double r = returns[offset + d];
+            if (!Double.isNaN(r)) {
+                ss += (r - mean) * (r - mean);
+            }
+        }
+        double scale = ss > 0.0 ? 1.0 / Math.sqrt(ss) : 0.0;
+        for (int d = 0; d < t; d++) {
+            double r = returns[offset + d];
+            out[offset + d] = Double.isNaN(r) ? 0f : (float) ((r - mean) * scale);
+        }
+    }
+
+    public int size() {
+        return tickers.length;
+    }
+
+    // number of returns per row
+    public int length() {
+        return length;
+    }
+
+    public String ticker(int row) {
+        return tickers[row];
+    }
+
+    // -1 when the ticker is not in the matrix
+    public int indexOf(String ticker) {
+        return index.getOrDefault(ticker, -1);
+    }
+
+    public LocalDate date(int d) {
+        return dates[d];
+    }
+
+    public LocalDate lastDate() {
+        return length == 0 ? null : dates[length - 1];
+    }
+
+    public double returnAt(int row, int d) {
+        return returns[row * length + d];
+    }
+
+    // exp(log return) - 1, NaN where missing
+    public double simpleReturnAt(int row, int d) {
+        return simpleReturns[row * length + d];
+    }
+
+    float[] normalized() {
+        return normalized;
+    }
+}
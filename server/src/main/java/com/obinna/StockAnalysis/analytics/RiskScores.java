@@ -0,0 +1,67 @@
+package com.obinna.StockAnalysis.analytics;
+
+import java.util.Arrays;
+
+// Turns raw anomaly scores into the 0..100 risk_score the python job writes:
+// raw.rank(pct=True) * 100 over the ticker's scoring window, clipped and rounded half-even.
+public final class RiskScores {
+
+    // score_risk_with_existing_model returns nothing below this many usable rows
+    public static final int MIN_ROWS = 200;
+
+    private RiskScores() {
+    }
+
+    // risk score per row; null where the raw score is NaN or the window is too short
+    public static Integer[] fromRaw(double[] raw) {
+        Integer[] out = new Integer[raw.length];
+        double[] sorted = Arrays.stream(raw).filter(v -> !Double.isNaN(v)).sorted().toArray();
+        if (sorted.length < MIN_ROWS) {
+            return out;
+        }
+        for (int i = 0; i < raw.length; i++) {
+            if (!Double.isNaN(raw[i])) {
+                out[i] = toRiskScore(percentRank(sorted, raw[i]));
+            }
+        }
+        return out;
+    }
+
+    // pandas rank(method="average", pct=True) of a value that is itself part of `sorted`
+    public static double percentRank(double[] sorted, double value) {
+        int below = lowerBound(sorted, value);
+        int atOrBelow = upperBound(sorted, value);
+        double averageRank = below + (atOrBelow - below + 1) / 2.0;
+        return averageRank / sorted.length;
+    }
+
+    public static int toRiskScore(double percentRank) {
+        return (int) Math.rint(Math.min(100.0, Math.max(0.0, percentRank * 100.0)));
+    }
+
+    private static int lowerBound(double[] sorted, double value) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int upperBound(double[] sorted, double value) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,422 @@
+package com.obinna.StockAnalysis.analytics;
+
+import java.nio.ByteBuffer;
+
+// Java port of feature_etl.compute_features as a streaming calculator.
+// Each bar is pushed once with step(); every rolling statistic is kept as an O(1) accumulator
+// over primitive ring buffers, so a ticker's full history is a single pass with no per-bar allocation.
+//
+// Semantics follow the pandas code:
+//  - rolling(n) needs n non-NaN observations in the window (min_periods = n), std/var use ddof = 1
+//  - rsi_14 is pandas_ta's RMA: ewm(alpha = 1/14, adjust = True, min_periods = 14) of gains/losses
+//  - corr/beta use the SPY log return of the same date (caller does the inner join on date)
+//  - a row is only complete when every column is non-NaN (the .dropna() at the end)
+public final class RollingFeatureCalculator {
+
+    public static final int FEATURE_COUNT = 10;
+
+    public static final int LOG_RETURN_1D = 0;
+    public static final int LOG_RETURN_7D = 1;
+    public static final int LOG_RETURN_14D = 2;
+    public static final int VOL_14D = 3;
+    public static final int VOL_30D = 4;
+    public static final int DRAWDOWN_30D = 5;
+    public static final int RSI_14 = 6;
+    public static final int VOLUME_Z_30D = 7;
+    public static final int CORR_60D = 8;
+    public static final int BETA_60D = 9;
+
+    // `features` column names, indexed by the constants above
+    public static final String[] COLUMN_NAMES = {
+            "log_return_1d", "log_return_7d", "log_return_14d",
+            "vol_14d", "vol_30d",
+            "drawdown_30d", "rsi_14", "volume_z_30d",
+            "corr_60d", "beta_60d" };
+
+    static final int RETURN_LAG = 14;
+    static final int SHORT_WINDOW = 14;
+    static final int LONG_WINDOW = 30;
+    static final int MARKET_WINDOW = 60;
+    static final int RSI_LENGTH = 14;
+    static final double RSI_DECAY = 1.0 - 1.0 / RSI_LENGTH;
+
+    // bump when the serialized layout changes; older checkpoints are then rebuilt from prices
+    static final int STATE_VERSION = 1;
+    public static final int STATE_BYTES = Integer.BYTES
+            + Long.BYTES
+            + Double.BYTES * (RETURN_LAG + 1 + 2 * MARKET_WINDOW + LONG_WINDOW)
+            + RollingMoments.BYTES * 4
+            + RollingCoMoments.BYTES
+            + (Long.BYTES + Double.BYTES) * LONG_WINDOW + Integer.BYTES * 2
+            + Double.BYTES * 3 + Long.BYTES;
+
+    // number of bars pushed so far
+    long steps;
+
+    // last RETURN_LAG + 1 closes for the 1d/7d/14d log returns
+    final double[] closes = new double[RETURN_LAG + 1];
+
+    // last MARKET_WINDOW 1d log returns and SPY log returns (both windows read from these)
+    final double[] returns = new double[MARKET_WINDOW];
+    final double[] spyReturns = new double[MARKET_WINDOW];
+
+    // last LONG_WINDOW volumes
+    final double[] volumes = new double[LONG_WINDOW];
+
+    final RollingMoments vol14 = new RollingMoments();
+    final RollingMoments vol30 = new RollingMoments();
+    final RollingMoments volume30 = new RollingMoments();
+    final RollingMoments spy60 = new RollingMoments();
+    final RollingCoMoments market60 = new RollingCoMoments();
+
+    // monotonic deque of (step, close) for the 30 bar rolling max
+    final long[] maxSteps = new long[LONG_WINDOW];
+    final double[] maxValues = new double[LONG_WINDOW];
+    int maxHead;
+    int maxSize;
+
+    // RMA numerators/denominator (adjust=True weights) and number of non-NaN diffs seen
+    double gainWeighted;
+    double lossWeighted;
+    double rsiWeight;
+    long rsiObservations;
+
+    // push one bar; writes all FEATURE_COUNT columns into out and returns true when none is NaN
+    public boolean step(double close, double volume, double spyLogReturn, double[] out) {
+        double prevClose = steps >= 1 ? closes[slot(steps - 1, closes.length)] : Double.NaN;
+        double close7 = steps >= 7 ? closes[slot(steps - 7, closes.length)] : Double.NaN;
+        double close14 = steps >= 14 ? closes[slot(steps - 14, closes.length)] : Double.NaN;
+        closes[slot(steps, closes.length)] = close;
+
+        double r1 = Math.log(close / prevClose);
+        out[LOG_RETURN_1D] = r1;
+        out[LOG_RETURN_7D] = Math.log(close / close7);
+        out[LOG_RETURN_14D] = Math.log(close / close14);
+
+        // returns window: slide the 14/30/60 accumulators using the values that fall out
+        double r1Out14 = steps >= SHORT_WINDOW ? returns[slot(steps - SHORT_WINDOW, MARKET_WINDOW)] : Double.NaN;
+        double r1Out30 = steps >= LONG_WINDOW ? returns[slot(steps - LONG_WINDOW, MARKET_WINDOW)] : Double.NaN;
+        double r1Out60 = steps >= MARKET_WINDOW ? returns[slot(steps - MARKET_WINDOW, MARKET_WINDOW)] : Double.NaN;
+        double spyOut60 = steps >= MARKET_WINDOW ? spyReturns[slot(steps - MARKET_WINDOW, MARKET_WINDOW)] : Double.NaN;
+        returns[slot(steps, MARKET_WINDOW)] = r1;
+        spyReturns[slot(steps, MARKET_WINDOW)] = spyLogReturn;
+
+        vol14.slide(r1, r1Out14, steps >= SHORT_WINDOW);
+        vol30.slide(r1, r1Out30, steps >= LONG_WINDOW);
+        spy60.slide(spyLogReturn, spyOut60, steps >= MARKET_WINDOW);
+        market60.slide(r1, spyLogReturn, r1Out60, spyOut60, steps >= MARKET_WINDOW);
+
+        long count = steps + 1;
+        out[VOL_14D] = count >= SHORT_WINDOW ? vol14.std() : Double.NaN;
+        out[VOL_30D] = count >= LONG_WINDOW ? vol30.std() : Double.NaN;
+
+        // drawdown vs 30 bar rolling max
+        pushMax(close);
+        out[DRAWDOWN_30D] = count >= LONG_WINDOW && maxSize > 0
+                ? (close - maxValues[maxHead]) / maxValues[maxHead]
+                : Double.NaN;
+
+        // rsi
+        double diff = close - prevClose;
+        if (!Double.isNaN(diff)) {
+            gainWeighted = Math.max(diff, 0.0) + RSI_DECAY * gainWeighted;
+            lossWeighted = Math.max(-diff, 0.0) + RSI_DECAY * lossWeighted;
+            rsiWeight = 1.0 + RSI_DECAY * rsiWeight;
+            rsiObservations++;
+        } else {
+            // adjust=True with ignore_na=False still decays the weights across a missing value
+            gainWeighted *= RSI_DECAY;
+            lossWeighted *= RSI_DECAY;
+            rsiWeight *= RSI_DECAY;
+        }
+        out[RSI_14] = rsiObservations >= RSI_LENGTH
+                ? 100.0 * gainWeighted / (gainWeighted + lossWeighted)
+                : Double.NaN;
+
+        // volume z-score over the 30 bars including this one
+        double volumeOut = steps >= LONG_WINDOW ? volumes[slot(steps - LONG_WINDOW, LONG_WINDOW)] : Double.NaN;
+        volumes[slot(steps, LONG_WINDOW)] = volume;
+        volume30.slide(volume, volumeOut, steps >= LONG_WINDOW);
+        out[VOLUME_Z_30D] = count >= LONG_WINDOW
+                ? (volume - volume30.mean()) / volume30.std()
+                : Double.NaN;
+
+        // market context
+        if (count >= MARKET_WINDOW) {
+            out[CORR_60D] = market60.correlation();
+            out[BETA_60D] = market60.covariance() / spy60.variance();
+        } else {
+            out[CORR_60D] = Double.NaN;
+            out[BETA_60D] = Double.NaN;
+        }
+
+        steps++;
+        for (int i = 0; i < FEATURE_COUNT; i++) {
+            if (Double.isNaN(out[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long steps() {
+        return steps;
+    }
+
+    // checkpoint of everything step() reads, so a restored calculator continues exactly where this one stopped
+    public byte[] toBytes() {
+        ByteBuffer buf = ByteBuffer.allocate(STATE_BYTES);
+        buf.putInt(STATE_VERSION);
+        buf.putLong(steps);
+        putAll(buf, closes);
+        putAll(buf, returns);
+        putAll(buf, spyReturns);
+        putAll(buf, volumes);
+        vol14.writeTo(buf);
+        vol30.writeTo(buf);
+        volume30.writeTo(buf);
+        spy60.writeTo(buf);
+        market60.writeTo(buf);
+        for (long step : maxSteps) {
+            buf.putLong(step);
+        }
+        putAll(buf, maxValues);
+        buf.putInt(maxHead);
+        buf.putInt(maxSize);
+        buf.putDouble(gainWeighted);
+        buf.putDouble(lossWeighted);
+        buf.putDouble(rsiWeight);
+        buf.putLong(rsiObservations);
+        return buf.array();
+    }
+
+    // returns null for a checkpoint written by a different layout version
+    public static RollingFeatureCalculator fromBytes(byte[] state) {
+        if (state == null || state.length != STATE_BYTES) {
+            return null;
+        }
+        ByteBuffer buf = ByteBuffer.wrap(state);
+        if (buf.getInt() != STATE_VERSION) {
+            return null;
+        }
+        RollingFeatureCalculator calc = new RollingFeatureCalculator();
+        calc.steps = buf.getLong();
+        getAll(buf, calc.closes);
+        getAll(buf, calc.returns);
+        getAll(buf, calc.spyReturns);
+        getAll(buf, calc.volumes);
+        calc.vol14.readFrom(buf);
+        calc.vol30.readFrom(buf);
+        calc.volume30.readFrom(buf);
+        calc.spy60.readFrom(buf);
+        calc.market60.readFrom(buf);
+        for (int i = 0; i < LONG_WINDOW; i++) {
+            calc.maxSteps[i] = buf.getLong();
+        }
+        getAll(buf, calc.maxValues);
+        calc.maxHead = buf.getInt();
+        calc.maxSize = buf.getInt();
+        calc.gainWeighted = buf.getDouble();
+        calc.lossWeighted = buf.getDouble();
+        calc.rsiWeight = buf.getDouble();
+        calc.rsiObservations = buf.getLong();
+        return calc;
+    }
+
+    private static void putAll(ByteBuffer buf, double[] values) {
+        for (double v : values) {
+            buf.putDouble(v);
+        }
+    }
+
+    private static void getAll(ByteBuffer buf, double[] values) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = buf.getDouble();
+        }
+    }
+
+    private void pushMax(double close) {
+        // evict the element that left the window
+        if (maxSize > 0 && maxSteps[maxHead] <= steps - LONG_WINDOW) {
+            maxHead = (maxHead + 1) % LONG_WINDOW;
+            maxSize--;
+        }
+        if (Double.isNaN(close)) {
+            return;
+        }
+        // drop smaller values from the tail, they can never be the max again
+        while (maxSize > 0) {
+            int tail = (maxHead + maxSize - 1) % LONG_WINDOW;
+            if (maxValues[tail] > close) {
+                break;
+            }
+            maxSize--;
+        }
+        int tail = (maxHead + maxSize) % LONG_WINDOW;
+        maxSteps[tail] = steps;
+        maxValues[tail] = close;
+        maxSize++;
+    }
+
+    private static int slot(long step, int length) {
+        return (int) (step % length);
+    }
+
+    // Welford mean/variance with removal; NaNs in the window are counted and poison the result,
+    // the same way pandas rolling(min_periods = window) does.
+    static final class RollingMoments {
+        static final int BYTES = Long.BYTES + Double.BYTES * 2 + Integer.BYTES;
+
+        long n;
+        double mean;
+        double m2;
+        int nans;
+
+        void slide(double in, double out, boolean hasOut) {
+            if (hasOut) {
+                remove(out);
+            }
+            add(in);
+        }
+
+        void add(double x) {
+            if (Double.isNaN(x)) {
+                nans++;
+                return;
+            }
+            n++;
+            double d = x - mean;
+            mean += d / n;
+            m2 += d * (x - mean);
+        }
+
+        void remove(double x) {
+            if (Double.isNaN(x)) {
+                nans--;
+                return;
+            }
+            if (n <= 1) {
+                n = 0;
+                mean = 0.0;
+                m2 = 0.0;
+                return;
+            }
+            double oldMean = mean;
+            n--;
+            mean -= (x - mean) / n;
+            m2 -= (x - mean) * (x - oldMean);
+            if (m2 < 0.0) {
+                m2 = 0.0; // rounding after many slides
+            }
+        }
+
+        double mean() {
+            return nans > 0 || n == 0 ? Double.NaN : mean;
+        }
+
+        double variance() {
+            return nans > 0 || n < 2 ? Double.NaN : m2 / (n - 1);
+        }
+
+        double std() {
+            return Math.sqrt(variance());
+        }
+
+        void writeTo(ByteBuffer buf) {
+            buf.putLong(n).putDouble(mean).putDouble(m2).putInt(nans);
+        }
+
+        void readFrom(ByteBuffer buf) {
+            n = buf.getLong();
+            mean = buf.getDouble();
+            m2 = buf.getDouble();
+            nans = buf.getInt();
+        }
+    }
+
+    // Pairwise co-moments for rolling cov/corr; a pair with either side NaN poisons the window.
+    static final class RollingCoMoments {
+        static final int BYTES = Long.BYTES + Double.BYTES * 5 + Integer.BYTES;
+
+        long n;
+        double meanX;
+        double meanY;
+        double m2X;
+        double m2Y;
+        double cXY;
+        int nans;
+
+        void slide(double x, double y, double outX, double outY, boolean hasOut) {
+            if (hasOut) {
+                remove(outX, outY);
+            }
+            add(x, y);
+        }
+
+        void add(double x, double y) {
+            if (Double.isNaN(x) || Double.isNaN(y)) {
+                nans++;
+                return;
+            }
+            n++;
+            double dx = x - meanX;
+            double dy = y - meanY;
+            meanX += dx / n;
+            meanY += dy / n;
+            m2X += dx * (x - meanX);
+            m2Y += dy * (y - meanY);
+            cXY += dx * (y - meanY);
+        }
+
+        void remove(double x, double y) {
+            if (Double.isNaN(x) || Double.isNaN(y)) {
+                nans--;
+                return;
+            }
+            if (n <= 1) {
+                n = 0;
+                meanX = meanY = m2X = m2Y = cXY = 0.0;
+                return;
+            }
+            double oldMeanX = meanX;
+            double oldMeanY = meanY;
+            n--;
+            meanX -= (x - meanX) / n;
+            meanY -= (y - meanY) / n;
+            m2X -= (x - meanX) * (x - oldMeanX);
+            m2Y -= (y - meanY) * (y - oldMeanY);
+            cXY -= (x - meanX) * (y - oldMeanY);
+            if (m2X < 0.0) {
+                m2X = 0.0;
+            }
+            if (m2Y < 0.0) {
+                m2Y = 0.0;
+            }
+        }
+
+        double covariance() {
+            return nans > 0 || n < 2 ? Double.NaN : cXY / (n - 1);
+        }
+
+        double correlation() {
+            if (nans > 0 || n < 2) {
+                return Double.NaN;
+            }
+            return cXY / Math.sqrt(m2X * m2Y);
+        }
+
+        void writeTo(ByteBuffer buf) {
+            buf.putLong(n).putDouble(meanX).putDouble(meanY).putDouble(m2X).putDouble(m2Y).putDouble(cXY).putInt(nans);
+        }
+
+        void readFrom(ByteBuffer buf) {
+            n = buf.getLong();
+            meanX = buf.getDouble();
+            meanY = buf.getDouble();
+            m2X = buf.getDouble();
+            m2Y = buf.getDouble();
+            cXY = buf.getDouble();
+            nans = buf.getInt();
+        }
+    }
+}
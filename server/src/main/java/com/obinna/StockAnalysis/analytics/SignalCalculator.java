@@ -0,0 +1,115 @@
+package com.obinna.StockAnalysis.analytics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.obinna.StockAnalysis.analytics.RollingFeatureCalculator.*;
+
+// Java port of build_signals.label_regime / compute_drivers_for_row.
+// Each driver keeps one SlidingPercentile over the trailing DRIVER_LOOKBACK rows (plus the current row),
+// so a ticker is a single pass instead of re-scanning the window for every row.
+public final class SignalCalculator {
+
+    public static final int DRIVER_LOOKBACK = 252;
+    public static final int TOP_DRIVERS = 3;
+
+    // same order as DRIVER_FEATURES; ties in extremeness keep this order (python's sort is stable)
+    static final int[] DRIVER_COLUMNS = { VOL_30D, VOLUME_Z_30D, DRAWDOWN_30D, CORR_60D, BETA_60D };
+    static final String[] DRIVER_NAMES = { "vol_30d", "volume_z_30d", "drawdown_30d", "corr_60d", "beta_60d" };
+
+    static final double HIGH_VOLATILITY = 0.03;
+    static final double TREND = 0.03;
+
+    private SignalCalculator() {
+    }
+
+    public record Driver(String feature, double value, double pct) {
+    }
+
+    public static String labelRegime(double[] features) {
+        double vol = features[VOL_30D];
+        double r14 = features[LOG_RETURN_14D];
+        if (Double.isNaN(vol) || Double.isNaN(r14)) {
+            return "UNKNOWN";
+        }
+        if (vol >= HIGH_VOLATILITY) {
+            return "HIGH_VOLATILITY";
+        }
+        if (r14 >= TREND) {
+            return "TREND_UP";
+        }
+        if (r14 <= -TREND) {
+            return "TREND_DOWN";
+        }
+        return "SIDEWAYS";
+    }
+
+    // top drivers for every row in [from, rows.size()); rows are one ticker's features, oldest first
+    public static List<List<Driver>> drivers(List<double[]> rows, int from) {
+        int n = rows.size();
+        int d = DRIVER_COLUMNS.length;
+
+        // volume z uses absolute magnitude for the ranking
+        double[][] ranked = new double[d][n];
+        for (int k = 0; k < d; k++) {
+            for (int i = 0; i < n; i++) {
+                double v = rows.get(i)[DRIVER_COLUMNS[k]];
+                ranked[k][i] = DRIVER_COLUMNS[k] == VOLUME_Z_30D ? Math.abs(v) : v;
+            }
+        }
+        SlidingPercentile[] windows = new SlidingPercentile[d];
+        for (int k = 0; k < d; k++) {
+            windows[k] = new SlidingPercentile(ranked[k]);
+        }
+
+        List<List<Driver>> out = new ArrayList<>(Math.max(0, n - from));
+        int lo = Math.max(0, from - DRIVER_LOOKBACK);
+        int hi = lo; // window is [lo, hi)
+        List<Candidate> candidates = new ArrayList<>(d);
+        for (int i = from; i < n; i++) {
+            // window for row i is rows [i - DRIVER_LOOKBACK, i]
+            while (hi <= i) {
+                for (int k = 0; k < d; k++) {
+                    windows[k].add(ranked[k][hi]);
+                }
+                hi++;
+            }
+            while (lo < i - DRIVER_LOOKBACK) {
+                for (int k = 0; k < d; k++) {
+                    windows[k].remove(ranked[k][lo]);
+                }
+                lo++;
+            }
+
+            candidates.clear();
+            for (int k = 0; k < d; k++) {
+                double pct = windows[k].fractionAtOrBelow(ranked[k][i]);
+                if (Double.isNaN(pct)) {
+                    continue;
+                }
+                candidates.add(new Candidate(k, pct, round4(Math.max(pct, 1.0 - pct))));
+            }
+            candidates.sort(Comparator.comparingDouble(Candidate::extreme).reversed());
+
+            List<Driver> top = new ArrayList<>(TOP_DRIVERS);
+            for (int c = 0; c < Math.min(TOP_DRIVERS, candidates.size()); c++) {
+                Candidate cand = candidates.get(c);
+                top.add(new Driver(DRIVER_NAMES[cand.driver()], rows.get(i)[DRIVER_COLUMNS[cand.driver()]],
+                        round4(cand.pct())));
+            }
+            out.add(top);
+        }
+        return out;
+    }
+
+    // python round(x, 4): half-even on the exact binary value
+    static double round4(double value) {
+        return new BigDecimal(value).setScale(4, RoundingMode.HALF_EVEN).doubleValue();
+    }
+
+    private record Candidate(int driver, double pct, double extreme) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.obinna.StockAnalysis.analytics;
+
+import java.util.Arrays;
+
+// Percentile rank of a value within a sliding window, O(log n) per add/remove/query.
+// All values the window will ever see are known up front, so they are coordinate-compressed
+// to ranks and the window is a Fenwick tree of counts over those ranks.
+public final class SlidingPercentile {
+
+    private final double[] sortedValues;
+    private final int[] tree;
+    private int count;
+
+    // NaNs are ignored (never added, never counted)
+    public SlidingPercentile(double[] universe) {
+        this.sortedValues = Arrays.stream(universe).filter(v -> !Double.isNaN(v)).sorted().distinct().toArray();
+        this.tree = new int[sortedValues.length + 1];
+    }
+
+    public void add(double value) {
+        update(value, 1);
+    }
+
+    public void remove(double value) {
+        update(value, -1);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    // share of values in the window that are <= value (rolling_percentile in build_signals.py)
+    public double fractionAtOrBelow(double value) {
+        if (count == 0 || Double.isNaN(value)) {
+            return Double.NaN;
+        }
+        // insertion point of the first element > value = number of distinct values <= value
+        int upper = upperBound(value);
+        int atOrBelow = 0;
+        for (int i = upper; i > 0; i -= i & -i) {
+            atOrBelow += tree[i];
+        }
+        return (double) atOrBelow / count;
+    }
+
+    private void update(double value, int delta) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        int rank = Arrays.binarySearch(sortedValues, value);
+        if (rank < 0) {
+            throw new IllegalArgumentException("value not in universe: " + value);
+        }
+        for (int i = rank + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+        count += delta;
+    }
+
+    private int upperBound(double value) {
+        int lo = 0, hi = sortedValues.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortedValues[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
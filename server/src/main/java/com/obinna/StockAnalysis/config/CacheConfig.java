@@ -1,9 +1,12 @@
 package com.obinna.StockAnalysis.config;
 
+import com.obinna.StockAnalysis.profiling.ProfiledCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,7 +17,7 @@ import java.util.concurrent.TimeUnit;
 @Configuration
 public class CacheConfig {
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(MeterRegistry meterRegistry) {
         // We are using a ConcurrentMapCacheManager, which is a simple in-memory cache.
         // For each cache name, we specify a TTL (Time-To-Live).
         return new ConcurrentMapCacheManager() {
@@ -36,14 +39,6 @@ public class CacheConfig {
                     case "profile":
                         ttl = 720;
                         break;
-                    case "finnhubQuotes":
-                        // Cache for near real-time quotes. Expires after 1 minute.
-                        ttl = 5;
-                        break;
-                    case "historicalChart":
-                        // main stock view for present day view and 1D and 5D views
-                        ttl = 5;
-                        break;
                     case "quotes":
                         // Cache for individual stock quotes. Expires after 15 minutes.
                         // use for other things of the stock not necessarily the price.
@@ -71,16 +66,16 @@ public class CacheConfig {
                         break;
                 }
 
+                // If no TTL is matched, create a cache that does not expire.
+                Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
                 if (ttl > 0) {
-                    return new ConcurrentMapCache(
-                            name,
-                            Caffeine.newBuilder()
-                                    .expireAfterWrite(ttl, TimeUnit.MINUTES)
-                                    .build().asMap(),
-                            true);
+                    builder.expireAfterWrite(ttl, TimeUnit.MINUTES);
                 }
-                // If no TTL is matched, create a cache that does not expire.
-                return super.createConcurrentMapCache(name);
+                // caches are created on first use, after Boot binds the ones it knows about,
+                // so each one registers its own cache.gets / cache.puts / cache.evictions meters
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = builder.build();
+                CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+                return new ProfiledCache(new CaffeineCache(name, cache, true));
             }
         };
     }
@@ -0,0 +1,17 @@
+package com.obinna.StockAnalysis.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class ComputeConfig {
+
+    // CPU-bound analytics (feature/signal builds) run here instead of the common pool,
+    // so a universe-wide build can't starve parallel streams elsewhere in the app.
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool analyticsPool() {
+        return new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,68 @@
+package com.obinna.StockAnalysis.config;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Where a recorded provider response lives on disk, shared by the recorder and the replay server:
+// <root>/<host>/<path segments>/<sorted query>.json, with the API key left out of the name so a tape
+// recorded with one key replays for any other.
+public final class ProviderTape {
+
+    public static final Set<String> PROVIDER_HOSTS = Set.of(
+            "financialmodelingprep.com", "finnhub.io", "www.alphavantage.co");
+
+    private static final Set<String> KEY_PARAMS = Set.of("apikey", "token");
+    private static final int MAX_NAME = 120;
+
+    private ProviderTape() {
+    }
+
+    public static boolean isProvider(URI uri) {
+        return uri.getHost() != null && PROVIDER_HOSTS.contains(uri.getHost());
+    }
+
+    public static Path fileFor(Path root, URI uri) {
+        Path dir = root.resolve(safe(uri.getHost()));
+        for (String segment : uri.getRawPath().split("/")) {
+            if (!segment.isEmpty()) {
+                dir = dir.resolve(safe(segment));
+            }
+        }
+        String query = uri.getRawQuery() == null ? "" : Arrays.stream(uri.getRawQuery().split("&"))
+                .filter(p -> !KEY_PARAMS.contains(p.substring(0, p.indexOf('=') < 0 ? p.length() : p.indexOf('='))))
+                .sorted()
+                .collect(Collectors.joining("&"));
+        String name = query.isEmpty() ? "_" : safe(query);
+        if (name.length() > MAX_NAME) {
+            name = name.substring(0, 60) + "-" + sha256(query).substring(0, 16);
+        }
+        return dir.resolve(name + ".json");
+    }
+
+    // the same request aimed at a replay server: <replayUrl>/<host><path>?<query>
+    public static URI replayUri(String replayUrl, URI uri) {
+        String base = replayUrl.endsWith("/") ? replayUrl.substring(0, replayUrl.length() - 1) : replayUrl;
+        return URI.create(base + "/" + uri.getHost() + uri.getRawPath()
+                + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery()));
+    }
+
+    private static String safe(String part) {
+        return part.replaceAll("[^A-Za-z0-9._=,-]", "_");
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.obinna.StockAnalysis.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.logging.Logger;
+
+// Record/replay for FMP, Finnhub and Alpha Vantage calls so load tests don't spend real quota.
+// providers.record.dir: every successful provider answer is also written to a ProviderTape file there.
+// providers.replay.url: provider calls go to that replay server instead (src/loadtest/java ReplayServer).
+// Both are off unless set; calls to any other host are never touched.
+@Component
+public class ProviderTrafficInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Logger LOGGER = Logger.getLogger(ProviderTrafficInterceptor.class.getName());
+
+    private final Path recordDir;
+    private final String replayUrl;
+
+    public ProviderTrafficInterceptor(@Value("${providers.record.dir:}") String recordDir,
+            @Value("${providers.replay.url:}") String replayUrl) {
+        this.recordDir = recordDir.isBlank() ? null : Path.of(recordDir);
+        this.replayUrl = replayUrl.isBlank() ? null : replayUrl;
+        if (this.replayUrl != null) {
+            LOGGER.warning("Provider calls are replayed from " + replayUrl);
+        } else if (this.recordDir != null) {
+            LOGGER.info("Recording provider responses to " + this.recordDir.toAbsolutePath());
+        }
+    }
+
+    @Override
+    @NonNull
+    public ClientHttpResponse intercept(@NonNull HttpRequest request, @NonNull byte[] body,
+            @NonNull ClientHttpRequestExecution execution) throws IOException {
+        URI uri = request.getURI();
+        if (!ProviderTape.isProvider(uri)) {
+            return execution.execute(request, body);
+        }
+        if (replayUrl != null) {
+            URI replayed = ProviderTape.replayUri(replayUrl, uri);
+            return execution.execute(new HttpRequestWrapper(request) {
+                @Override
+                @NonNull
+                public URI getURI() {
+                    return replayed;
+                }
+            }, body);
+        }
+        ClientHttpResponse response = execution.execute(request, body);
+        if (recordDir == null || !response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        byte[] bytes;
+        try (InputStream in = response.getBody()) {
+            bytes = in.readAllBytes();
+        }
+        record(ProviderTape.fileFor(recordDir, uri), bytes);
+        return new BufferedResponse(response, bytes);
+    }
+
+    // written aside and moved into place so concurrent calls for the same URL never leave a torn file
+    private static void record(Path file, byte[] bytes) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), ".rec", ".tmp");
+            Files.write(tmp, bytes);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warning("Could not record " + file + ": " + e.getMessage());
+        }
+    }
+
+    // the original response with its body already read
+    private static final class BufferedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final byte[] body;
+
+        BufferedResponse(ClientHttpResponse delegate, byte[] body) {
+            this.delegate = delegate;
+            this.body = body;
+        }
+
+        @Override
+        @NonNull
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        @NonNull
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        @NonNull
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        @NonNull
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.obinna.StockAnalysis.config;
+
+import com.obinna.StockAnalysis.Service.ProviderGuard.Provider;
+import com.obinna.StockAnalysis.Service.QuotaManager;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4jBulkheadProvider;
+import org.springframework.cloud.client.circuitbreaker.Customizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+
+@Configuration
+public class ResilienceConfig {
+
+    // opens after half of the last 20 calls failed or ran past the time limit; probes again after 30s.
+    // 4xx answers and calls abandoned by the caller say nothing about the provider's health and are not counted
+    @Bean
+    public Customizer<Resilience4JCircuitBreakerFactory> providerCircuitBreakers() {
+        return factory -> {
+            for (Provider p : Provider.values()) {
+                factory.configure(builder -> builder
+                        .circuitBreakerConfig(CircuitBreakerConfig.custom()
+                                .slidingWindowSize(20)
+                                .minimumNumberOfCalls(10)
+                                .failureRateThreshold(50)
+                                .slowCallDurationThreshold(p.timeout())
+                                .slowCallRateThreshold(50)
+                                .waitDurationInOpenState(Duration.ofSeconds(30))
+                                .permittedNumberOfCallsInHalfOpenState(3)
+                                .ignoreExceptions(HttpClientErrorException.class, InterruptedException.class,
+                                        CancellationException.class)
+                                .build())
+                        .timeLimiterConfig(TimeLimiterConfig.custom()
+                                .timeoutDuration(p.timeout())
+                                .build()), p.id());
+            }
+        };
+    }
+
+    // fixed concurrency per provider; anything past it is rejected straight into the fallback instead of
+    // queueing or holding a request thread. Scales with the key pool
+    @Bean
+    public Customizer<Resilience4jBulkheadProvider> providerBulkheads(QuotaManager quotaManager) {
+        return provider -> {
+            for (Provider p : Provider.values()) {
+                int maxConcurrentCalls = p.maxConcurrentCalls() * quotaManager.keyCount(p);
+                provider.configure(builder -> builder
+                        .bulkheadConfig(BulkheadConfig.custom()
+                                .maxConcurrentCalls(maxConcurrentCalls)
+                                .maxWaitDuration(Duration.ZERO)
+                                .build())
+                        .threadPoolBulkheadConfig(ThreadPoolBulkheadConfig.custom()
+                                .coreThreadPoolSize(maxConcurrentCalls)
+                                .maxThreadPoolSize(maxConcurrentCalls)
+                                .queueCapacity(0)
+                                .build()), p.id());
+            }
+        };
+    }
+}
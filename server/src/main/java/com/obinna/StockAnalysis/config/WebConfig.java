@@ -1,18 +1,30 @@
 package com.obinna.StockAnalysis.config;
 
+import com.obinna.StockAnalysis.profiling.RequestProfilingInterceptor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    // the Next.js front ends; also used for the websocket handshake
+    static final String[] ALLOWED_ORIGINS = { "http://localhost:3000", "https://stock-analysis-teal.vercel.app",
+            "https://*.vercel.app", "https://stock-service-eight.vercel.app" };
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**") // Apply CORS policy to all endpoints under /api
-                .allowedOrigins("http://localhost:3000", "https://stock-analysis-teal.vercel.app",  "https://*.vercel.app", "https://stock-service-eight.vercel.app") // Allow requests from your Next.js app
+                .allowedOrigins(ALLOWED_ORIGINS) // Allow requests from your Next.js app
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS") // Allowed HTTP methods
                 .allowedHeaders("*") // Allowed headers
                 .allowCredentials(true); // Allow credentials
     }
+
+    // JFR events for controller calls; nearly free while no recording is running
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestProfilingInterceptor()).addPathPatterns("/api/**");
+    }
 }
@@ -0,0 +1,24 @@
+package com.obinna.StockAnalysis.config;
+
+import com.obinna.StockAnalysis.realtime.QuoteWebSocketHandler;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final QuoteWebSocketHandler quoteHandler;
+
+    public WebSocketConfig(QuoteWebSocketHandler quoteHandler) {
+        this.quoteHandler = quoteHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(quoteHandler, "/ws/quotes")
+                .setAllowedOriginPatterns(WebConfig.ALLOWED_ORIGINS);
+    }
+}
@@ -3,18 +3,32 @@ package com.obinna.StockAnalysis.controllers;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.obinna.StockAnalysis.Repository.StockRepository;
 import com.obinna.StockAnalysis.Scheduler.MarketDataScheduler;
+import com.obinna.StockAnalysis.Service.CorrelationService;
+import com.obinna.StockAnalysis.Service.FeatureEngine;
+import com.obinna.StockAnalysis.Service.SignalBuilder;
 
 @RestController
 @RequestMapping("/api/admin")
 public class AdminController {
 
   private final MarketDataScheduler scheduler;
+  private final FeatureEngine featureEngine;
+  private final SignalBuilder signalBuilder;
+  private final CorrelationService correlationService;
+  private final StockRepository stockRepository;
 
-  public AdminController(MarketDataScheduler scheduler) {
+  public AdminController(MarketDataScheduler scheduler, FeatureEngine featureEngine, SignalBuilder signalBuilder,
+      CorrelationService correlationService, StockRepository stockRepository) {
     this.scheduler = scheduler;
+    this.featureEngine = featureEngine;
+    this.signalBuilder = signalBuilder;
+    this.correlationService = correlationService;
+    this.stockRepository = stockRepository;
   }
 
   @PostMapping("/run-daily-sync")
@@ -22,5 +36,25 @@ public class AdminController {
     scheduler.scheduleDailySync();
     return ResponseEntity.accepted().build();
   }
-}
 
+  @PostMapping("/build-features")
+  public ResponseEntity<Integer> buildFeaturesNow() throws InterruptedException {
+    int rows = featureEngine.buildFeatures(stockRepository.findAllTickers());
+    return ResponseEntity.ok(rows);
+  }
+
+  @PostMapping("/build-signals")
+  public ResponseEntity<Integer> buildSignalsNow() throws InterruptedException {
+    int rows = signalBuilder.buildSignals(stockRepository.findAllTickers());
+    return ResponseEntity.ok(rows);
+  }
+
+  @PostMapping("/build-correlations")
+  public ResponseEntity<Integer> buildCorrelationsNow(
+      @RequestParam(defaultValue = "" + CorrelationService.DEFAULT_WINDOW) int window) {
+    if (window < CorrelationService.MIN_WINDOW || window > CorrelationService.MAX_WINDOW) {
+      return ResponseEntity.badRequest().build();
+    }
+    return ResponseEntity.ok(correlationService.rebuildPeers(window));
+  }
+}
@@ -0,0 +1,58 @@
+package com.obinna.StockAnalysis.controllers;
+
+import com.obinna.StockAnalysis.Service.BacktestService;
+import com.obinna.StockAnalysis.analytics.BacktestStrategy;
+import com.obinna.StockAnalysis.dto.analytics.BacktestResultDTO;
+import com.obinna.StockAnalysis.dto.analytics.BacktestSweepDTO;
+import com.obinna.StockAnalysis.dto.analytics.BacktestSweepRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/backtest")
+public class BacktestController {
+
+    private final BacktestService backtestService;
+
+    public BacktestController(BacktestService backtestService) {
+        this.backtestService = backtestService;
+    }
+
+    // e.g. /api/backtest/AAPL?derisk=HIGH_VOLATILITY,TREND_DOWN&riskThreshold=80&exposure=0&costBps=5
+    @GetMapping("/{ticker}")
+    public ResponseEntity<BacktestResultDTO> runBacktest(@PathVariable String ticker,
+            @RequestParam(required = false) List<String> derisk,
+            @RequestParam(defaultValue = "" + BacktestStrategy.RISK_OFF) int riskThreshold,
+            @RequestParam(defaultValue = "0") double exposure,
+            @RequestParam(defaultValue = "" + BacktestService.DEFAULT_COST_BPS) double costBps,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        BacktestStrategy strategy;
+        try {
+            strategy = new BacktestStrategy(BacktestStrategy.regimeMask(derisk), riskThreshold, exposure, costBps);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        BacktestResultDTO result = backtestService.run(ticker.trim().toUpperCase(Locale.ROOT), strategy, from, to);
+        if (result == null)
+            return ResponseEntity.notFound().build();
+
+        return ResponseEntity.ok(result);
+    }
+
+    // parameter sweep over a ticker list or the whole universe
+    @PostMapping("/sweep")
+    public ResponseEntity<BacktestSweepDTO> sweep(@RequestBody BacktestSweepRequest request) {
+        try {
+            return ResponseEntity.ok(backtestService.sweep(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
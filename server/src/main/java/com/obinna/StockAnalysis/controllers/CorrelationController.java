@@ -0,0 +1,76 @@
+package com.obinna.StockAnalysis.controllers;
+
+import com.obinna.StockAnalysis.Repository.StockRepository;
+import com.obinna.StockAnalysis.Service.BatchMarketDataService;
+import com.obinna.StockAnalysis.Service.CorrelationService;
+import com.obinna.StockAnalysis.Service.ScreenerIndex;
+import com.obinna.StockAnalysis.dto.analytics.CorrelationMatrixDTO;
+import com.obinna.StockAnalysis.dto.analytics.CorrelationPeerDTO;
+import com.obinna.StockAnalysis.dto.financial_modeling_prep.Screener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/correlations")
+public class CorrelationController {
+
+    private final CorrelationService correlationService;
+    private final StockRepository stockRepository;
+    private final ScreenerIndex screenerIndex;
+
+    public CorrelationController(CorrelationService correlationService, StockRepository stockRepository,
+            ScreenerIndex screenerIndex) {
+        this.correlationService = correlationService;
+        this.stockRepository = stockRepository;
+        this.screenerIndex = screenerIndex;
+    }
+
+    // "moves like": strongest return correlates from the last nightly run
+    @GetMapping("/{ticker}/peers")
+    public ResponseEntity<List<CorrelationPeerDTO>> getPeers(@PathVariable String ticker,
+            @RequestParam(defaultValue = "252") int window,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<CorrelationPeerDTO> peers = correlationService.peers(ticker.trim().toUpperCase(Locale.ROOT), window,
+                Math.max(1, limit));
+        if (peers.isEmpty())
+            return ResponseEntity.notFound().build();
+
+        return ResponseEntity.ok(peers);
+    }
+
+    // heatmap data: ?tickers=AAPL,MSFT,... or ?sector=Technology (the sector's largest caps)
+    @GetMapping("/matrix")
+    public ResponseEntity<CorrelationMatrixDTO> getMatrix(@RequestParam(required = false) List<String> tickers,
+            @RequestParam(required = false) String sector,
+            @RequestParam(defaultValue = "252") int window) {
+        if (window < CorrelationService.MIN_WINDOW || window > CorrelationService.MAX_WINDOW) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<String> symbols = tickers != null
+                ? BatchMarketDataService.normalizeTickers(tickers)
+                : sector != null ? sectorTickers(sector) : List.of();
+        if (symbols.size() < 2 || symbols.size() > CorrelationService.MAX_MATRIX_TICKERS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        CorrelationMatrixDTO matrix = correlationService.matrix(symbols, window);
+        if (matrix == null)
+            return ResponseEntity.notFound().build();
+
+        return ResponseEntity.ok(matrix);
+    }
+
+    private List<String> sectorTickers(String sector) {
+        if (!screenerIndex.isReady()) {
+            return stockRepository.findTickersBySector(sector).stream()
+                    .limit(CorrelationService.MAX_MATRIX_TICKERS)
+                    .toList();
+        }
+        ScreenerIndex.Query query = new ScreenerIndex.Query(0, Long.MAX_VALUE, null, null, sector, null,
+                ScreenerIndex.SortField.MARKET_CAP, false, 0, CorrelationService.MAX_MATRIX_TICKERS);
+        return screenerIndex.search(query).content().stream().map(Screener::getSymbol).toList();
+    }
+}
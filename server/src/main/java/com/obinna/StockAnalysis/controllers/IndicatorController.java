@@ -0,0 +1,47 @@
+package com.obinna.StockAnalysis.controllers;
+
+import com.obinna.StockAnalysis.Service.IndicatorService;
+import com.obinna.StockAnalysis.analytics.IndicatorSpec;
+import com.obinna.StockAnalysis.dto.analytics.IndicatorSeriesDTO;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/indicators")
+public class IndicatorController {
+
+    private final IndicatorService indicatorService;
+
+    public IndicatorController(IndicatorService indicatorService) {
+        this.indicatorService = indicatorService;
+    }
+
+    // e.g. /api/indicators/AAPL?type=MACD&fast=12&slow=26&signal=9&from=2024-01-01
+    // type: SMA, EMA, MACD, BOLLINGER (period, k), ATR, RSI; omitted params use the usual defaults
+    @GetMapping("/{ticker}")
+    public ResponseEntity<IndicatorSeriesDTO> getIndicator(@PathVariable String ticker,
+            @RequestParam String type,
+            @RequestParam(required = false) Integer period,
+            @RequestParam(required = false) Integer fast,
+            @RequestParam(required = false) Integer slow,
+            @RequestParam(required = false) Integer signal,
+            @RequestParam(required = false) Double k,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
+        IndicatorSpec spec;
+        try {
+            spec = IndicatorSpec.of(IndicatorSpec.Type.from(type), period, fast, slow, signal, k);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        IndicatorSeriesDTO result = indicatorService.compute(ticker.trim().toUpperCase(Locale.ROOT), spec, from);
+        if (result == null)
+            return ResponseEntity.notFound().build();
+
+        return ResponseEntity.ok(result);
+    }
+}
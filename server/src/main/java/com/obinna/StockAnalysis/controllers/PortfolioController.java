@@ -0,0 +1,38 @@
+package com.obinna.StockAnalysis.controllers;
+
+import com.obinna.StockAnalysis.Service.PortfolioRiskService;
+import com.obinna.StockAnalysis.dto.analytics.PortfolioRiskDTO;
+import com.obinna.StockAnalysis.dto.analytics.PortfolioRiskRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/portfolio")
+public class PortfolioController {
+
+    private final PortfolioRiskService portfolioRiskService;
+
+    public PortfolioController(PortfolioRiskService portfolioRiskService) {
+        this.portfolioRiskService = portfolioRiskService;
+    }
+
+    // body: {"holdings": [{"ticker": "AAPL", "weight": 0.6}, {"ticker": "MSFT", "weight": 0.4}], "window": 252}
+    @PostMapping("/risk")
+    public ResponseEntity<PortfolioRiskDTO> getRisk(@RequestBody PortfolioRiskRequest request) {
+        // the universe matrix is built in the background after startup
+        if (!portfolioRiskService.isReady())
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+
+        PortfolioRiskDTO risk;
+        try {
+            risk = portfolioRiskService.analyze(request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (risk == null)
+            return ResponseEntity.notFound().build();
+
+        return ResponseEntity.ok(risk);
+    }
+}
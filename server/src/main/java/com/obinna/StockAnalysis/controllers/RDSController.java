@@ -1,16 +1,24 @@
 package com.obinna.StockAnalysis.controllers;
 
+import com.obinna.StockAnalysis.Service.BatchMarketDataService;
 import com.obinna.StockAnalysis.Service.RDS;
+import com.obinna.StockAnalysis.Service.RiskScorer;
+import com.obinna.StockAnalysis.Service.ScreenerIndex;
+import com.obinna.StockAnalysis.dto.analytics.RiskScoreDTO;
 import com.obinna.StockAnalysis.dto.financial_modeling_prep.HistoricalChartDTO;
 import com.obinna.StockAnalysis.dto.financial_modeling_prep.Screener;
 import com.obinna.StockAnalysis.models.Price;
 import com.obinna.StockAnalysis.models.Signal;
 import com.obinna.StockAnalysis.models.Stock;
 import com.obinna.StockAnalysis.Repository.StockRepository;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -18,21 +26,83 @@ import java.util.List;
 public class RDSController {
     private final RDS rds;
     private final StockRepository stockRepository;
+    private final BatchMarketDataService batchMarketDataService;
+    private final ScreenerIndex screenerIndex;
+    private final RiskScorer riskScorer;
 
-    public RDSController(RDS rds, StockRepository stockRepository) {
+    public RDSController(RDS rds, StockRepository stockRepository, BatchMarketDataService batchMarketDataService,
+            ScreenerIndex screenerIndex, RiskScorer riskScorer) {
         this.rds = rds;
         this.stockRepository = stockRepository;
+        this.batchMarketDataService = batchMarketDataService;
+        this.screenerIndex = screenerIndex;
+        this.riskScorer = riskScorer;
     }
 
     @GetMapping("/signals/{ticker}")
     public ResponseEntity<List<Signal>> getMlSignals(@PathVariable String ticker,
             @RequestParam(defaultValue = "180") int limit) {
+        // already limited by the query's page
         List<Signal> mlsignal = rds.getMlSignals(ticker, limit);
 
         if (mlsignal.isEmpty())
             return ResponseEntity.notFound().build();
 
-        return ResponseEntity.ok(mlsignal.subList(0, Math.min(limit, mlsignal.size())));
+        return ResponseEntity.ok(mlsignal);
+    }
+
+    // risk score of the latest feature row, scored in-process with the ticker's exported isolation forest
+    @GetMapping("/risk/{ticker}")
+    public ResponseEntity<RiskScoreDTO> getRiskScore(@PathVariable String ticker) {
+        RiskScoreDTO risk = riskScorer.scoreLatest(ticker.trim().toUpperCase());
+        if (risk == null)
+            return ResponseEntity.notFound().build();
+
+        return ResponseEntity.ok(risk);
+    }
+
+    @GetMapping("/risk")
+    public ResponseEntity<List<RiskScoreDTO>> getRiskScores(@RequestParam List<String> tickers) {
+        List<String> symbols = BatchMarketDataService.normalizeTickers(tickers);
+        if (symbols.isEmpty() || symbols.size() > BatchMarketDataService.MAX_TICKERS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(riskScorer.scoreLatest(symbols));
+    }
+
+    // batch version of /signals/{ticker}: ?tickers=AAPL,MSFT&from=2024-01-01&to=2024-12-31
+    // one query for all tickers, streamed back as {"AAPL": [...], "MSFT": [...]}
+    @GetMapping("/signals")
+    public ResponseEntity<StreamingResponseBody> getMlSignalsBatch(@RequestParam List<String> tickers,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "180") int limit) {
+        List<String> symbols = BatchMarketDataService.normalizeTickers(tickers);
+        if (symbols.isEmpty() || symbols.size() > BatchMarketDataService.MAX_TICKERS || limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : LocalDate.of(1970, 1, 1);
+
+        StreamingResponseBody body = out -> batchMarketDataService.writeSignals(symbols, start, end, limit, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // batch version of /historical-price-full/{symbol}: ?symbols=AAPL,MSFT&from=...&to=...
+    // defaults to the same 5 year window the single-symbol chart uses
+    @GetMapping("/historical-price-full")
+    public ResponseEntity<StreamingResponseBody> getHistoricalDailyChartBatch(@RequestParam List<String> symbols,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<String> tickers = BatchMarketDataService.normalizeTickers(symbols);
+        if (tickers.isEmpty() || tickers.size() > BatchMarketDataService.MAX_TICKERS) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(5);
+
+        StreamingResponseBody body = out -> batchMarketDataService.writePrices(tickers, start, end, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     // gets historical data for the past 5 years to use for 1M, 6M and 1Y views
@@ -46,7 +116,12 @@ public class RDSController {
         }
 
         // 2. Map the Database Entities to the Frontend DTOs
-        List<HistoricalChartDTO> dtoList = prices.stream()
+        return ResponseEntity.ok(toChartDtos(prices));
+    }
+
+    // also measured by the JMH response benchmark
+    static List<HistoricalChartDTO> toChartDtos(List<Price> prices) {
+        return prices.stream()
                 .map(p -> new HistoricalChartDTO(
                         p.getPriceDate().toString(),
                         p.getOpenPrice(),
@@ -55,28 +130,54 @@ public class RDSController {
                         p.getClosePrice(),
                         p.getVolume()))
                 .toList();
-
-        return ResponseEntity.ok(dtoList);
     }
 
+    // served from the in-memory ScreenerIndex; size=0 (default) returns every match like before.
+    // total match count goes in X-Total-Count so the client can page.
     @GetMapping("/stock-screener")
     public ResponseEntity<Screener[]> getStockScreener(
             @RequestParam(defaultValue = "0") Long minMarketCap,
+            @RequestParam(required = false) Long maxMarketCap,
             @RequestParam(required = false) String ticker,
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String sector,
-            @RequestParam(required = false) String industry) {
-        List<Stock> results = stockRepository.screenStocks(minMarketCap, ticker, name, sector, industry);
+            @RequestParam(required = false) String industry,
+            @RequestParam(defaultValue = "marketCap") String sort,
+            @RequestParam(defaultValue = "desc") String dir,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "0") int size) {
+        if (page < 0 || size < 0) {
+            return ResponseEntity.badRequest().build();
+        }
 
-        Screener[] response = results.stream()
-                .map(this::mapStockToScreener) // create this helper
-                .toArray(Screener[]::new);
+        Screener[] response;
+        int total;
+        if (screenerIndex.isReady()) {
+            ScreenerIndex.Page result = screenerIndex.search(new ScreenerIndex.Query(
+                    minMarketCap,
+                    maxMarketCap != null ? maxMarketCap : Long.MAX_VALUE,
+                    ticker, name, sector, industry,
+                    ScreenerIndex.SortField.from(sort),
+                    "asc".equalsIgnoreCase(dir),
+                    page, size));
+            response = result.content().toArray(Screener[]::new);
+            total = result.total();
+        } else {
+            // index still loading at startup; fall back to the database
+            List<Stock> results = stockRepository.screenStocks(minMarketCap, ticker, name, sector, industry);
+            response = results.stream()
+                    .map(this::mapStockToScreener) // create this helper
+                    .toArray(Screener[]::new);
+            total = response.length;
+        }
 
-        if (response.length == 0) {
+        if (total == 0) {
             return ResponseEntity.notFound().build();
         }
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(total))
+                .body(response);
     }
 
     private Screener mapStockToScreener(Stock s) {
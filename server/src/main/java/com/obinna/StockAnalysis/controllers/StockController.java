@@ -5,10 +5,14 @@ import com.obinna.StockAnalysis.StockInfo;
 import com.obinna.StockAnalysis.Service.AlphaVantageService;
 import com.obinna.StockAnalysis.Service.FinancialModelingPrepService;
 import com.obinna.StockAnalysis.Service.FinnhubService;
+import com.obinna.StockAnalysis.Service.IntradayService;
+import com.obinna.StockAnalysis.Service.QuoteResolver;
+import com.obinna.StockAnalysis.Service.SymbolSearchIndex;
 import com.obinna.StockAnalysis.dto.alpha_vantage.IntradayApiResponse;
 import com.obinna.StockAnalysis.dto.alpha_vantage.MarketMoversApiResponse;
 import com.obinna.StockAnalysis.dto.financial_modeling_prep.*;
 import com.obinna.StockAnalysis.dto.finnhub.UniversalStockList;
+import com.obinna.StockAnalysis.realtime.QuoteBoard;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,13 +28,20 @@ public class StockController {
     private final FinnhubService finnhubService;
     private final FinancialModelingPrepService financialModelingPrepService;
     private final StockBatchRunner batchRunner;
+    private final SymbolSearchIndex symbolSearchIndex;
+    private final IntradayService intradayService;
+    private final QuoteResolver quoteResolver;
 
     public StockController(AlphaVantageService alphaVantageService, FinnhubService finnhubService,
-            FinancialModelingPrepService financialModelingPrepService, StockBatchRunner batchRunner) {
+            FinancialModelingPrepService financialModelingPrepService, StockBatchRunner batchRunner,
+            SymbolSearchIndex symbolSearchIndex, IntradayService intradayService, QuoteResolver quoteResolver) {
         this.alphaVantageService = alphaVantageService;
         this.finnhubService = finnhubService;
         this.financialModelingPrepService = financialModelingPrepService;
         this.batchRunner = batchRunner;
+        this.symbolSearchIndex = symbolSearchIndex;
+        this.intradayService = intradayService;
+        this.quoteResolver = quoteResolver;
     }
 
     @PostMapping("/ingest-batch")
@@ -62,6 +73,10 @@ public class StockController {
     @GetMapping("/company-profile/{symbol}")
     public ResponseEntity<CompanyProfile> getCompanyProfile(@PathVariable String symbol) {
         CompanyProfile[] profileArray = financialModelingPrepService.getCompanyProfile(symbol);
+        if (profileArray == null) {
+            // FMP unavailable: the degraded profile from Postgres, kept out of the profile cache
+            profileArray = financialModelingPrepService.getStoredProfile(symbol);
+        }
 
         if (profileArray == null || profileArray.length == 0) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -84,7 +99,7 @@ public class StockController {
     // gets after hours data, ran every 5 min till 8
     @GetMapping("/after-hours/{symbol}")
     public ResponseEntity<IntradayApiResponse> getAfterHours(@PathVariable String symbol) {
-        IntradayApiResponse afterHoursData = alphaVantageService.getAfterHours(symbol);
+        IntradayApiResponse afterHoursData = intradayService.afterHours(symbol);
         if (afterHoursData == null || afterHoursData.getTimeSeries() == null
                 || afterHoursData.getTimeSeries().isEmpty()) {
 
@@ -113,12 +128,18 @@ public class StockController {
         return ResponseEntity.ok(historicalData);
     }
 
-    // get historical data in 5 min intervals for the bast 2 weeks
+    // get historical data in 5 min intervals for the last `days` trading days
     // will be used for current day and past 5 days view and live view
-    // every 5min
+    // every 5min; served from stored bars, ?interval=15 or 60 reads the rolled up tiers
     @GetMapping("/historical-chart/{symbol}")
-    public ResponseEntity<List<HistoricalChart>> getHistoricalChart(@PathVariable String symbol) {
-        List<HistoricalChart> historicalChart = Arrays.asList(financialModelingPrepService.getHistoricalChart(symbol));
+    public ResponseEntity<List<HistoricalChart>> getHistoricalChart(@PathVariable String symbol,
+            @RequestParam(defaultValue = "5") int days, @RequestParam(defaultValue = "5") int interval) {
+        List<HistoricalChart> historicalChart;
+        try {
+            historicalChart = intradayService.chart(symbol, days, interval);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
         if (historicalChart.isEmpty()) {
             // Return an error if no data was fetched
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -129,11 +150,11 @@ public class StockController {
     // used to get market summaries
     @GetMapping("/finnhub/quote/{symbol}")
     public ResponseEntity<FinnhubQuote> getFinnhubQuote(@PathVariable String symbol) {
-        FinnhubQuote quote = finnhubService.getQuote(symbol);
+        QuoteBoard.Entry quote = quoteResolver.resolveQuote(symbol);
         if (quote == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
-        return ResponseEntity.ok(quote);
+        return ResponseEntity.ok(quote.toFinnhubQuote());
     }
 
     // get everything about a single stock in real time
@@ -141,7 +162,8 @@ public class StockController {
     // every 15 min - 30 min
     @GetMapping("/quote/{symbol}")
     public ResponseEntity<StockQuote> getStockQuote(@PathVariable String symbol) {
-        StockQuote stockQuote = financialModelingPrepService.getStockQuote(symbol);
+        QuoteBoard.Entry quote = quoteResolver.resolveDetailedQuote(symbol);
+        StockQuote stockQuote = quote == null ? null : quote.toStockQuote();
         if (stockQuote == null) {
             // Return an error if no data was fetched
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -172,6 +194,13 @@ public class StockController {
         return ResponseEntity.ok(universalStocks);
     }
 
+    // autocomplete over the same listing, ranked server side: ?q=app&limit=10
+    @GetMapping("/search")
+    public ResponseEntity<List<UniversalStockList>> searchSymbols(@RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(symbolSearchIndex.suggest(q, Math.min(limit, 50)));
+    }
+
     // same with this only use if needed other use the top one
     @GetMapping("/market-movers")
     public ResponseEntity<MarketMoversApiResponse> getMarketMovers() {
@@ -0,0 +1,50 @@
+package com.obinna.StockAnalysis.controllers;
+
+import com.obinna.StockAnalysis.realtime.BarAggregator;
+import com.obinna.StockAnalysis.realtime.TradeStreamService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Locale;
+
+// Reads from the streaming trade aggregator; only symbols that traded since startup have data.
+@RestController
+@RequestMapping("/api/stream")
+public class TradeStreamController {
+
+    private final TradeStreamService tradeStreamService;
+
+    public TradeStreamController(TradeStreamService tradeStreamService) {
+        this.tradeStreamService = tradeStreamService;
+    }
+
+    @GetMapping("/{symbol}/last")
+    public ResponseEntity<BarAggregator.LastTrade> getLastTrade(@PathVariable String symbol) {
+        BarAggregator.LastTrade trade = tradeStreamService.lastTrade(symbol.trim().toUpperCase(Locale.ROOT));
+        if (trade == null)
+            return ResponseEntity.notFound().build();
+
+        return ResponseEntity.ok(trade);
+    }
+
+    // interval: 1m or 5m; oldest first, the bar still being built last
+    @GetMapping("/{symbol}/bars")
+    public ResponseEntity<List<BarAggregator.Bar>> getBars(@PathVariable String symbol,
+            @RequestParam(defaultValue = "1m") String interval) {
+        BarAggregator.Interval i = BarAggregator.Interval.from(interval);
+        if (i == null)
+            return ResponseEntity.badRequest().build();
+
+        List<BarAggregator.Bar> bars = tradeStreamService.bars(symbol.trim().toUpperCase(Locale.ROOT), i);
+        if (bars == null)
+            return ResponseEntity.notFound().build();
+
+        return ResponseEntity.ok(bars);
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<TradeStreamService.Status> getStatus() {
+        return ResponseEntity.ok(tradeStreamService.status());
+    }
+}
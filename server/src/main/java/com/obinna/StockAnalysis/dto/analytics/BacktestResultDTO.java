@@ -0,0 +1,23 @@
+package com.obinna.StockAnalysis.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BacktestResultDTO {
+    private String ticker;
+    private List<String> deriskRegimes;
+    private int riskThreshold;
+    private double reducedExposure;
+    private double costBps;
+    // oldest first; both curves start at 1.0 and line up with this list
+    private List<String> dates;
+    private List<Double> equity;
+    private List<Double> benchmarkEquity;
+    private BacktestStatsDTO stats;
+    // buy-and-hold over the same bars
+    private BacktestStatsDTO benchmark;
+}
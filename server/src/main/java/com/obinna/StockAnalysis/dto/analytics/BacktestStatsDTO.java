@@ -0,0 +1,20 @@
+package com.obinna.StockAnalysis.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BacktestStatsDTO {
+    private int bars;
+    private double totalReturn;
+    private double cagr;
+    // annualised, from daily returns
+    private double volatility;
+    // annualised, zero risk-free rate
+    private double sharpe;
+    private double maxDrawdown;
+    // average share of capital invested
+    private double exposure;
+    private int trades;
+}
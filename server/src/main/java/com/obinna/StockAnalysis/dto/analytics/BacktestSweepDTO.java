@@ -0,0 +1,18 @@
+package com.obinna.StockAnalysis.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BacktestSweepDTO {
+    private String from;
+    private String to;
+    private int tickers;
+    private int combinations;
+    private long elapsedMs;
+    // best first
+    private List<BacktestSweepRowDTO> results;
+}
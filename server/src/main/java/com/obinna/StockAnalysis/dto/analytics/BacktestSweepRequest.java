@@ -0,0 +1,24 @@
+package com.obinna.StockAnalysis.dto.analytics;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Parameter grid for a sweep; every combination of the three lists is run over every ticker.
+// Omitted lists fall back to a single default value.
+@Data
+public class BacktestSweepRequest {
+    // null or empty: the whole universe
+    private List<String> tickers;
+    private LocalDate from;
+    private LocalDate to;
+    // each entry is one set of regimes to de-risk in, e.g. [["HIGH_VOLATILITY"], ["HIGH_VOLATILITY", "TREND_DOWN"]]
+    private List<List<String>> deriskRegimes;
+    // 101 disables the risk-score rule
+    private List<Integer> riskThresholds;
+    private List<Double> reducedExposures;
+    private Double costBps;
+    // number of best combinations returned (by mean Sharpe)
+    private Integer top;
+}
@@ -0,0 +1,22 @@
+package com.obinna.StockAnalysis.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// one parameter combination, averaged over the sweep's tickers
+@Data
+@AllArgsConstructor
+public class BacktestSweepRowDTO {
+    private List<String> deriskRegimes;
+    private int riskThreshold;
+    private double reducedExposure;
+    private double meanTotalReturn;
+    private double meanCagr;
+    private double meanSharpe;
+    private double meanMaxDrawdown;
+    private double meanExposure;
+    // share of tickers where the rule's Sharpe beat buy-and-hold
+    private double beatRate;
+}
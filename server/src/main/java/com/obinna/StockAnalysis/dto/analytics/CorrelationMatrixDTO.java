@@ -0,0 +1,16 @@
+package com.obinna.StockAnalysis.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CorrelationMatrixDTO {
+    private int windowDays;
+    private String asOfDate;
+    // row/column order of `matrix`; requested tickers without enough history are left out
+    private List<String> tickers;
+    private float[][] matrix;
+}
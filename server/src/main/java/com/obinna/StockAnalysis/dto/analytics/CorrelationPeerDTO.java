@@ -0,0 +1,11 @@
+package com.obinna.StockAnalysis.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CorrelationPeerDTO {
+    private String peer;
+    private float correlation;
+}
@@ -0,0 +1,19 @@
+package com.obinna.StockAnalysis.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class IndicatorSeriesDTO {
+    private String ticker;
+    private String indicator;
+    private Map<String, Object> params;
+    // oldest first; every list in `values` lines up with this one
+    private List<String> dates;
+    // one entry per output line (e.g. macd/signal/histogram), null while the indicator is warming up
+    private Map<String, List<Double>> values;
+}
@@ -0,0 +1,19 @@
+package com.obinna.StockAnalysis.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PortfolioHoldingRiskDTO {
+    private String ticker;
+    // after scaling to gross exposure 1
+    private double weight;
+    // annualised
+    private double volatility;
+    private Double beta;
+    // annualised share of portfolio volatility; contributions sum to `volatility` of the portfolio
+    private double riskContribution;
+    // riskContribution / portfolio volatility
+    private double riskContributionPct;
+}
@@ -0,0 +1,26 @@
+package com.obinna.StockAnalysis.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PortfolioRiskDTO {
+    private int windowDays;
+    private String asOfDate;
+    private int observations;
+    // annualised
+    private double volatility;
+    private double dailyVolatility;
+    // vs SPY, null when SPY has no prices
+    private Double beta;
+    private double confidence;
+    // one-day historical VaR / CVaR as positive fractions of portfolio value
+    private double valueAtRisk;
+    private double expectedShortfall;
+    private List<PortfolioHoldingRiskDTO> holdings;
+    // requested tickers without enough price history, left out of every figure
+    private List<String> missing;
+}
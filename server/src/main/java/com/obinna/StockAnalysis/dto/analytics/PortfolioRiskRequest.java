@@ -0,0 +1,21 @@
+package com.obinna.StockAnalysis.dto.analytics;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PortfolioRiskRequest {
+    // weights can be dollar amounts or fractions; they are scaled to a gross exposure of 1
+    private List<Holding> holdings;
+    // trading days, at most 252
+    private Integer window;
+    // VaR / CVaR level, e.g. 0.95
+    private Double confidence;
+
+    @Data
+    public static class Holding {
+        private String ticker;
+        private double weight;
+    }
+}
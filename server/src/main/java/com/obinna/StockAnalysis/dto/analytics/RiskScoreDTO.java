@@ -0,0 +1,16 @@
+package com.obinna.StockAnalysis.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class RiskScoreDTO {
+    private String ticker;
+    private String date;
+    // 0..100, same scale as ml_signals.risk_score
+    private Integer riskScore;
+    // -decision_function of the isolation forest
+    private Double anomalyScore;
+    private String modelTrainedAt;
+}
@@ -0,0 +1,7 @@
+package com.obinna.StockAnalysis.events;
+
+import java.util.List;
+
+// Published after a feature build/update finished for these tickers.
+public record FeaturesUpdatedEvent(List<String> tickers) {
+}
@@ -0,0 +1,9 @@
+package com.obinna.StockAnalysis.events;
+
+import java.time.LocalDate;
+
+// Published after daily bars for a ticker were written to `prices`.
+public record PricesIngestedEvent(
+        String ticker,
+        LocalDate latestDate) {
+}
@@ -0,0 +1,10 @@
+package com.obinna.StockAnalysis.events;
+
+// Published after a row in `stocks` is inserted/updated so in-memory views can follow along.
+public record StockMetadataUpdatedEvent(
+        String ticker,
+        String companyName,
+        String sector,
+        String industry,
+        Long marketCap) {
+}
@@ -1,31 +1,48 @@
 package com.obinna.StockAnalysis.models;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
 import jakarta.persistence.Table;
 import lombok.Data;
 
+import java.time.LocalDate;
+
 @Entity
 @Data
 @Table(name = "features")
+@IdClass(FeatureId.class)
 public class Feature {
     @Id
+    @Column(name = "ticker")
     private String ticker;
 
     @Id
-    private String feature_date;
+    @Column(name = "feature_date")
+    private LocalDate featureDate;
 
-    private Double log_return_1d;
-    private Double log_return_7d;
-    private Double log_return_14d;
+    @Column(name = "log_return_1d")
+    private Double logReturn1d;
+    @Column(name = "log_return_7d")
+    private Double logReturn7d;
+    @Column(name = "log_return_14d")
+    private Double logReturn14d;
 
-    private Double vol_14d;
-    private Double vol_30d;
+    @Column(name = "vol_14d")
+    private Double vol14d;
+    @Column(name = "vol_30d")
+    private Double vol30d;
 
-    private Double drawdown_30d;
-    private Double rsi_14;
-    private Double volume_z_30d;
+    @Column(name = "drawdown_30d")
+    private Double drawdown30d;
+    @Column(name = "rsi_14")
+    private Double rsi14;
+    @Column(name = "volume_z_30d")
+    private Double volumeZ30d;
 
-    private Double corr_60d;
-    private Double beta_60d;
+    @Column(name = "corr_60d")
+    private Double corr60d;
+    @Column(name = "beta_60d")
+    private Double beta60d;
 }
@@ -0,0 +1,11 @@
+package com.obinna.StockAnalysis.models;
+
+import lombok.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data @NoArgsConstructor @AllArgsConstructor
+public class FeatureId implements Serializable {
+    private String ticker;
+    private LocalDate featureDate;
+}
@@ -0,0 +1,24 @@
+package com.obinna.StockAnalysis.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.obinna.StockAnalysis.BatchWrite")
+@Label("JDBC Batch Write")
+@Category({ "Stock Analysis", "Database" })
+@StackTrace(false)
+public class BatchWriteEvent extends Event {
+
+    @Label("Table")
+    public String table;
+
+    @Label("Rows")
+    public int rows;
+
+    public BatchWriteEvent(String table) {
+        this.table = table;
+    }
+}
@@ -0,0 +1,21 @@
+package com.obinna.StockAnalysis.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// a cache miss through to the put of the loaded value
+@Name("com.obinna.StockAnalysis.CacheLoad")
+@Label("Cache Load")
+@Category({ "Stock Analysis", "Cache" })
+@StackTrace(false)
+public class CacheLoadEvent extends Event {
+
+    @Label("Cache")
+    public String cache;
+
+    @Label("Key")
+    public String key;
+}
@@ -0,0 +1,123 @@
+package com.obinna.StockAnalysis.profiling;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+// The flight recording FlightRecordingEndpoint controls.
+// It runs with the JDK's "default" settings (the low-overhead profile meant for production, around 1% CPU)
+// minus the events that would copy secrets, plus this app's events, keeping the last max-age minutes in a
+// bounded on-disk ring. By default it starts with the application, so a slow stretch can be dumped and
+// explained after the fact.
+@Component
+public class FlightRecordings {
+
+    private static final Logger LOGGER = Logger.getLogger(FlightRecordings.class.getName());
+
+    private static final List<Class<? extends Event>> APP_EVENTS = List.of(
+            ProviderCallEvent.class,
+            CacheLoadEvent.class,
+            BatchWriteEvent.class,
+            IngestionStageEvent.class,
+            RequestEvent.class);
+
+    // JDK events that copy the environment, system properties or command lines into the file;
+    // prod reads RDS_PASSWORD and the provider keys from the environment
+    private static final List<String> SENSITIVE_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable",
+            "jdk.InitialSystemProperty",
+            "jdk.JVMInformation",
+            "jdk.SystemProcess");
+
+    public record Status(boolean running, Instant startedAt, Duration maxAge, long maxSizeBytes) {
+    }
+
+    private final boolean startOnBoot;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+
+    private Recording recording; // guarded by this
+
+    public FlightRecordings(@Value("${profiling.jfr.continuous:true}") boolean startOnBoot,
+            @Value("${profiling.jfr.max-age-minutes:60}") long maxAgeMinutes,
+            @Value("${profiling.jfr.max-size-mb:100}") long maxSizeMb) {
+        this.startOnBoot = startOnBoot;
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startContinuous() {
+        if (startOnBoot) {
+            try {
+                start();
+            } catch (IOException | ParseException e) {
+                LOGGER.warning("Could not start the continuous flight recording: " + e.getMessage());
+            }
+        }
+    }
+
+    // no-op when already running
+    public synchronized Status start() throws IOException, ParseException {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            SENSITIVE_EVENTS.forEach(event -> settings.put(event + "#enabled", "false"));
+            Recording r = new Recording(settings);
+            APP_EVENTS.forEach(r::enable);
+            r.setName("stock-analysis");
+            r.setToDisk(true);
+            r.setMaxAge(maxAge);
+            r.setMaxSize(maxSizeBytes);
+            r.start();
+            close();
+            recording = r;
+            LOGGER.info("Flight recording started, keeping the last " + maxAge.toMinutes() + " minutes");
+        }
+        return status();
+    }
+
+    public synchronized Status stop() {
+        close();
+        return status();
+    }
+
+    public synchronized Status status() {
+        boolean running = recording != null && recording.getState() == RecordingState.RUNNING;
+        return new Status(running, running ? recording.getStartTime() : null, maxAge, maxSizeBytes);
+    }
+
+    // everything recorded so far as a .jfr file the caller must delete; null when nothing is recording
+    public synchronized Path dump() throws IOException {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            return null;
+        }
+        Path file = Files.createTempFile("stock-analysis-", ".jfr");
+        recording.dump(file);
+        return file;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.obinna.StockAnalysis.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.obinna.StockAnalysis.IngestionStage")
+@Label("Ingestion Stage")
+@Category({ "Stock Analysis", "Ingestion" })
+@StackTrace(false)
+public class IngestionStageEvent extends Event {
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("Symbol")
+    @Description("Null for stages that cover the whole universe")
+    public String symbol;
+
+    @Label("Rows")
+    @Description("Rows written, or tickers processed for universe-wide stages")
+    public int rows;
+
+    public IngestionStageEvent(String stage, String symbol) {
+        this.stage = stage;
+        this.symbol = symbol;
+    }
+}
@@ -0,0 +1,129 @@
+package com.obinna.StockAnalysis.profiling;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.NonNull;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+// Emits a CacheLoadEvent for every miss. @Cacheable looks the key up, runs the method on a miss and puts the
+// result on the same thread, so the event starts at the missed lookup and is committed by the put.
+public class ProfiledCache implements Cache {
+
+    private static final ThreadLocal<CacheLoadEvent> PENDING = new ThreadLocal<>();
+
+    private final Cache delegate;
+
+    public ProfiledCache(Cache delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    @NonNull
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(@NonNull Object key) {
+        ValueWrapper value = delegate.get(key);
+        if (value == null) {
+            begin(key);
+        }
+        return value;
+    }
+
+    @Override
+    public <T> T get(@NonNull Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    // @Cacheable(sync = true) loads through here
+    @Override
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        return delegate.get(key, () -> {
+            CacheLoadEvent event = start(key);
+            try {
+                return valueLoader.call();
+            } finally {
+                event.commit();
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(@NonNull Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    @NonNull
+    public <T> CompletableFuture<T> retrieve(@NonNull Object key, @NonNull Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, valueLoader);
+    }
+
+    @Override
+    public void put(@NonNull Object key, Object value) {
+        delegate.put(key, value);
+        finish(key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(@NonNull Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        finish(key);
+        return existing;
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(@NonNull Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    private CacheLoadEvent start(Object key) {
+        CacheLoadEvent event = new CacheLoadEvent();
+        event.cache = delegate.getName();
+        event.key = String.valueOf(key);
+        event.begin();
+        return event;
+    }
+
+    private void begin(Object key) {
+        CacheLoadEvent event = start(key);
+        if (event.isEnabled()) {
+            PENDING.set(event);
+        }
+    }
+
+    // a put without a preceding miss on this thread (or for another key) is not a load
+    private void finish(Object key) {
+        CacheLoadEvent event = PENDING.get();
+        if (event != null && Objects.equals(event.key, String.valueOf(key)) && event.cache.equals(getName())) {
+            PENDING.remove();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.obinna.StockAnalysis.profiling;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Counts statements, rows read and time spent in JDBC against the current SqlProfile.
+// Connections and statements are JDK proxies over the pool's objects; with no profile current (startup,
+// unprofiled threads) a call costs one ThreadLocal read on top of the real one. Result sets of profiled
+// statements are wrapped in a ProfiledResultSet. Only installed when profiling.sql.enabled is set.
+// Rows are counted as result sets are read, so a query whose rows the caller never reads doesn't show them.
+public class ProfiledDataSource extends DelegatingDataSource {
+
+    private static final Pattern LITERALS = Pattern.compile("'(?:[^']|'')*'|\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_CACHED_SQL = 2048;
+    private static final Map<String, String> NORMALIZED = new ConcurrentHashMap<>();
+
+    public ProfiledDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    @NonNull
+    public Connection getConnection() throws SQLException {
+        return connection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    @NonNull
+    public Connection getConnection(@NonNull String username, @NonNull String password) throws SQLException {
+        return connection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private static Connection connection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(ProfiledDataSource.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    if (isIdentityMethod(method)) {
+                        return identity(proxy, method, args);
+                    }
+                    Object result = invoke(target, method, args);
+                    if (result instanceof Statement statement && method.getReturnType().isInterface()
+                            && Statement.class.isAssignableFrom(method.getReturnType())) {
+                        // prepareStatement/prepareCall carry their SQL; createStatement gets it per execute
+                        String sql = args != null && args.length > 0 && args[0] instanceof String s ? normalize(s) : null;
+                        return statement(statement, method.getReturnType(), sql);
+                    }
+                    return result;
+                });
+    }
+
+    private static Object statement(Statement target, Class<?> type, String preparedSql) {
+        InvocationHandler handler = new InvocationHandler() {
+            private SqlProfile.Query last;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (isIdentityMethod(method)) {
+                    return identity(proxy, method, args);
+                }
+                String name = method.getName();
+                SqlProfile profile = SqlProfile.current();
+                if (profile != null && name.startsWith("execute")) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String s ? normalize(s) : preparedSql;
+                    long start = System.nanoTime();
+                    Object result = ProfiledDataSource.invoke(target, method, args);
+                    last = profile.executed(sql != null ? sql : "<batch>", System.nanoTime() - start);
+                    return result instanceof ResultSet rs ? resultSet(rs, profile, last) : result;
+                }
+                Object result = ProfiledDataSource.invoke(target, method, args);
+                if (profile != null && last != null && result instanceof ResultSet rs && name.equals("getResultSet")) {
+                    return resultSet(rs, profile, last);
+                }
+                return result;
+            }
+        };
+        return Proxy.newProxyInstance(ProfiledDataSource.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private static ResultSet resultSet(ResultSet target, SqlProfile profile, SqlProfile.Query query) {
+        return new ProfiledResultSet(target, profile, query);
+    }
+
+    // Hibernate keys its statement registry on these; a proxy is only ever equal to itself
+    private static boolean isIdentityMethod(Method method) {
+        return method.getDeclaringClass() == Object.class
+                && (method.getName().equals("equals") || method.getName().equals("hashCode"));
+    }
+
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return method.getName().equals("equals") ? proxy == args[0] : System.identityHashCode(proxy);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // literals become ? so statements built by concatenation still group together
+    static String normalize(String sql) {
+        String normalized = NORMALIZED.get(sql);
+        if (normalized == null) {
+            normalized = LITERALS.matcher(WHITESPACE.matcher(sql.strip()).replaceAll(" ")).replaceAll("?");
+            if (NORMALIZED.size() < MAX_CACHED_SQL) {
+                NORMALIZED.put(sql, normalized);
+            }
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,30 @@
+package com.obinna.StockAnalysis.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// one attempt of a ProviderGuard call, from taking quota to the answer or the fallback decision
+@Name("com.obinna.StockAnalysis.ProviderCall")
+@Label("Provider Call")
+@Category({ "Stock Analysis", "Providers" })
+@StackTrace(false)
+public class ProviderCallEvent extends Event {
+
+    @Label("Provider")
+    public String provider;
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Symbol")
+    @Description("Symbol, or whatever else the call is keyed by")
+    public String symbol;
+
+    @Label("Status")
+    @Description("HTTP status, or why the fallback answered")
+    public String status;
+}
@@ -0,0 +1,30 @@
+package com.obinna.StockAnalysis.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// a controller method, from the handler mapping to the response being written
+@Name("com.obinna.StockAnalysis.Request")
+@Label("Controller Request")
+@Category({ "Stock Analysis", "Web" })
+@StackTrace(false)
+public class RequestEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Handler")
+    public String handler;
+
+    @Label("Symbol")
+    public String symbol;
+
+    @Label("Status")
+    public int status;
+}
@@ -0,0 +1,84 @@
+package com.obinna.StockAnalysis.profiling;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// The JDBC work of one HTTP request or scheduled job. ProfiledDataSource adds to whichever profile is
+// current on the calling thread; SqlProfilingObservationHandler opens one per request/job and hands it
+// to SqlProfiler when it ends. Thread-safe, so a job can share its profile with its workers via runIn.
+public final class SqlProfile {
+
+    private static final ThreadLocal<SqlProfile> CURRENT = new ThreadLocal<>();
+
+    // per distinct statement text
+    public static final class Query {
+        final LongAdder executions = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAccumulator maxRows = new LongAccumulator(Math::max, 0);
+    }
+
+    final LongAdder statements = new LongAdder();
+    final LongAdder rows = new LongAdder();
+    final LongAdder nanos = new LongAdder();
+    final Map<String, Query> queries = new ConcurrentHashMap<>();
+
+    // size of the collection the controller returned; -1 when the body was not a collection
+    volatile int responseItems = -1;
+
+    public static SqlProfile current() {
+        return CURRENT.get();
+    }
+
+    // makes profile current on this thread; returns the one it replaced, for exit
+    static SqlProfile enter(SqlProfile profile) {
+        SqlProfile previous = CURRENT.get();
+        CURRENT.set(profile);
+        return previous;
+    }
+
+    static void exit(SqlProfile previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    // runs work on this thread as part of profile (null = no profile)
+    public static <T> T runIn(SqlProfile profile, Callable<T> work) throws Exception {
+        SqlProfile previous = enter(profile);
+        try {
+            return work.call();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    Query executed(String sql, long elapsedNanos) {
+        statements.increment();
+        nanos.add(elapsedNanos);
+        Query query = queries.computeIfAbsent(sql, s -> new Query());
+        query.executions.increment();
+        query.nanos.add(elapsedNanos);
+        return query;
+    }
+
+    // one result set fully read (or closed early) after `count` rows
+    void fetched(Query query, long count) {
+        rows.add(count);
+        query.rows.add(count);
+        query.maxRows.accumulate(count);
+    }
+
+    public void responseItems(int count) {
+        responseItems = count;
+    }
+
+    public long statementCount() {
+        return statements.sum();
+    }
+}
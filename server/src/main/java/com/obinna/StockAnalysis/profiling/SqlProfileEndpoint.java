@@ -0,0 +1,34 @@
+package com.obinna.StockAnalysis.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// /actuator/sqlprofile: endpoints and jobs by DB time, with their N+1 and over-fetch findings;
+// DELETE starts the totals over
+@Component
+@ConditionalOnProperty(name = "profiling.sql.enabled", havingValue = "true")
+@Endpoint(id = "sqlprofile")
+public class SqlProfileEndpoint {
+
+    private final SqlProfiler sqlProfiler;
+
+    public SqlProfileEndpoint(SqlProfiler sqlProfiler) {
+        this.sqlProfiler = sqlProfiler;
+    }
+
+    @ReadOperation
+    public List<SqlProfiler.Offender> offenders(@Nullable Integer limit) {
+        return sqlProfiler.topOffenders(limit != null ? limit : 20);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        sqlProfiler.reset();
+    }
+}
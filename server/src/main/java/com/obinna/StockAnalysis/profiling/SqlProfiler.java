@@ -0,0 +1,122 @@
+package com.obinna.StockAnalysis.profiling;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+// Totals of finished SqlProfiles per endpoint / job, and for HTTP requests the patterns worth fixing:
+// - N+1: one statement text run n-plus-one-threshold or more times in a single request
+// - over-fetch: a single query read clearly more rows than the collection the controller returned
+//   (e.g. fetching a year of signals to answer with 180 of them)
+// Jobs are only totalled: the nightly sync runs the same per-ticker upserts thousands of times by design.
+// Each distinct finding is logged once; the sqlprofile actuator endpoint reports the worst offenders.
+@Component
+@ConditionalOnProperty(name = "profiling.sql.enabled", havingValue = "true")
+public class SqlProfiler {
+
+    private static final Logger LOGGER = Logger.getLogger(SqlProfiler.class.getName());
+
+    // a query is over-fetching when it read this many times the response size, and at least MIN_EXCESS_ROWS more
+    private static final double OVERFETCH_FACTOR = 1.5;
+    private static final int MIN_EXCESS_ROWS = 20;
+    private static final int EXAMPLES_PER_NAME = 5;
+
+    public record Finding(String kind, String sql, long executions, long rows, int responseItems) {
+    }
+
+    public record Offender(String name, long invocations, long statements, long rows, double dbMillis,
+            double dbMillisPerInvocation, double statementsPerInvocation, long maxStatements,
+            long nPlusOne, long overFetch, List<Finding> examples) {
+    }
+
+    private static final class Totals {
+        final LongAdder invocations = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        final LongAdder nPlusOne = new LongAdder();
+        final LongAdder overFetch = new LongAdder();
+        final Map<String, Finding> examples = new ConcurrentHashMap<>();
+    }
+
+    private final int nPlusOneThreshold;
+    private final Map<String, Totals> totals = new ConcurrentHashMap<>();
+    private final Set<String> logged = ConcurrentHashMap.newKeySet();
+
+    public SqlProfiler(@Value("${profiling.sql.n-plus-one-threshold:10}") int nPlusOneThreshold) {
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    // `request`: the profile covers an HTTP request rather than a scheduled job
+    public void finish(String name, SqlProfile profile, boolean request) {
+        Totals t = totals.computeIfAbsent(name, n -> new Totals());
+        long statements = profile.statements.sum();
+        t.invocations.increment();
+        t.statements.add(statements);
+        t.rows.add(profile.rows.sum());
+        t.nanos.add(profile.nanos.sum());
+        t.maxStatements.accumulate(statements);
+        if (!request) {
+            return;
+        }
+
+        int items = profile.responseItems;
+        profile.queries.forEach((sql, q) -> {
+            long executions = q.executions.sum();
+            if (executions >= nPlusOneThreshold) {
+                t.nPlusOne.increment();
+                report(name, t, new Finding("N+1", sql, executions, q.rows.sum(), items));
+            }
+            long maxRows = q.maxRows.get();
+            if (items >= 0 && maxRows > items * OVERFETCH_FACTOR && maxRows - items >= MIN_EXCESS_ROWS) {
+                t.overFetch.increment();
+                report(name, t, new Finding("over-fetch", sql, executions, maxRows, items));
+            }
+        });
+    }
+
+    private void report(String name, Totals t, Finding finding) {
+        String key = finding.kind() + " " + finding.sql();
+        if (t.examples.size() < EXAMPLES_PER_NAME) {
+            t.examples.put(key, finding);
+        }
+        if (logged.add(name + " " + key)) {
+            LOGGER.warning(switch (finding.kind()) {
+                case "N+1" -> name + ": " + finding.executions() + " executions of " + finding.sql();
+                default -> name + ": read " + finding.rows() + " rows to return " + finding.responseItems()
+                        + " items: " + finding.sql();
+            });
+        }
+    }
+
+    // by total DB time
+    public List<Offender> topOffenders(int limit) {
+        List<Offender> offenders = new ArrayList<>(totals.size());
+        totals.forEach((name, t) -> {
+            long invocations = Math.max(1, t.invocations.sum());
+            double millis = t.nanos.sum() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+            offenders.add(new Offender(name, t.invocations.sum(), t.statements.sum(), t.rows.sum(), millis,
+                    millis / invocations, t.statements.sum() / (double) invocations, t.maxStatements.get(),
+                    t.nPlusOne.sum(), t.overFetch.sum(), List.copyOf(t.examples.values())));
+        });
+        offenders.sort(Comparator.comparingDouble(Offender::dbMillis).reversed());
+        return offenders.subList(0, Math.min(limit, offenders.size()));
+    }
+
+    public void reset() {
+        totals.clear();
+        logged.clear();
+    }
+}
@@ -0,0 +1,68 @@
+package com.obinna.StockAnalysis.profiling;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.scheduling.support.ScheduledTaskObservationContext;
+import org.springframework.stereotype.Component;
+
+// One SqlProfile per HTTP request and per @Scheduled run, riding on the observations Spring already
+// opens for both (http.server.requests, tasks.scheduled.execution). The profile is current on a thread
+// only while the observation's scope is open there, so pooled threads never carry one over.
+@Component
+@ConditionalOnProperty(name = "profiling.sql.enabled", havingValue = "true")
+public class SqlProfilingObservationHandler implements ObservationHandler<Observation.Context> {
+
+    private static final String PREVIOUS = SqlProfilingObservationHandler.class.getName() + ".previous";
+
+    private final SqlProfiler sqlProfiler;
+
+    public SqlProfilingObservationHandler(SqlProfiler sqlProfiler) {
+        this.sqlProfiler = sqlProfiler;
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof ServerRequestObservationContext || context instanceof ScheduledTaskObservationContext;
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        context.put(SqlProfile.class, new SqlProfile());
+    }
+
+    @Override
+    public void onScopeOpened(Observation.Context context) {
+        SqlProfile profile = context.get(SqlProfile.class);
+        if (profile != null) {
+            SqlProfile previous = SqlProfile.enter(profile);
+            if (previous != null) {
+                context.put(PREVIOUS, previous);
+            }
+        }
+    }
+
+    @Override
+    public void onScopeClosed(Observation.Context context) {
+        if (context.get(SqlProfile.class) != null) {
+            SqlProfile.exit((SqlProfile) context.remove(PREVIOUS));
+        }
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        SqlProfile profile = context.get(SqlProfile.class);
+        if (profile == null || profile.statementCount() == 0) {
+            return;
+        }
+        String name = switch (context) {
+            case ServerRequestObservationContext http -> http.getCarrier().getMethod() + " "
+                    + (http.getPathPattern() != null ? http.getPathPattern() : "UNMAPPED");
+            case ScheduledTaskObservationContext task -> "@Scheduled "
+                    + task.getTargetClass().getSimpleName() + "." + task.getMethod().getName();
+            default -> context.getName();
+        };
+        sqlProfiler.finish(name, profile, context instanceof ServerRequestObservationContext);
+    }
+}
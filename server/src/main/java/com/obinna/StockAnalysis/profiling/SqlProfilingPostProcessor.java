@@ -0,0 +1,23 @@
+package com.obinna.StockAnalysis.profiling;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// wraps the DataSource in a ProfiledDataSource before JPA and JdbcTemplate are built on it.
+// Opt-in: profiling.sql.enabled=true turns on this and the rest of the SQL profiling beans
+@Component
+@ConditionalOnProperty(name = "profiling.sql.enabled", havingValue = "true")
+public class SqlProfilingPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProfiledDataSource)) {
+            return new ProfiledDataSource(dataSource);
+        }
+        return bean;
+    }
+}
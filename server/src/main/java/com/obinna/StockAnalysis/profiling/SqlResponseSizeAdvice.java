@@ -0,0 +1,42 @@
+package com.obinna.StockAnalysis.profiling;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+
+// tells the request's SqlProfile how many items the response carries, for over-fetch detection
+@ControllerAdvice
+@ConditionalOnProperty(name = "profiling.sql.enabled", havingValue = "true")
+public class SqlResponseSizeAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType,
+            @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, @NonNull MethodParameter returnType,
+            @NonNull MediaType selectedContentType,
+            @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            @NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response) {
+        SqlProfile profile = SqlProfile.current();
+        if (profile != null && body != null) {
+            if (body instanceof Collection<?> items) {
+                profile.responseItems(items.size());
+            } else if (body.getClass().isArray() && !body.getClass().getComponentType().isPrimitive()) {
+                profile.responseItems(Array.getLength(body));
+            }
+        }
+        return body;
+    }
+}
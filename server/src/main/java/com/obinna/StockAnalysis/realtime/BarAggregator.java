@@ -0,0 +1,206 @@
+package com.obinna.StockAnalysis.realtime;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Last trade and rolling 1m / 5m OHLCV bars per symbol, fed by the ring buffer's consumer thread.
+// All state per symbol is allocated when the symbol first trades; after that a trade only writes primitive
+// fields. Readers (HTTP threads) take consistent snapshots through a per-symbol sequence lock: the single
+// writer makes the version odd while it updates, readers retry when the version moved under them.
+public final class BarAggregator implements TradeRingBuffer.TradeHandler {
+
+    public enum Interval {
+        ONE_MINUTE("1m", 60_000L),
+        FIVE_MINUTES("5m", 300_000L);
+
+        private final String label;
+        private final long millis;
+
+        Interval(String label, long millis) {
+            this.label = label;
+            this.millis = millis;
+        }
+
+        public String label() {
+            return label;
+        }
+
+        // null for anything but 1m / 5m
+        public static Interval from(String label) {
+            for (Interval i : values()) {
+                if (i.label.equalsIgnoreCase(label)) {
+                    return i;
+                }
+            }
+            return null;
+        }
+    }
+
+    public record LastTrade(String symbol, double price, double volume, long timestamp, long trades) {
+    }
+
+    // `complete` is false for the bar still being built
+    public record Bar(long start, double open, double high, double low, double close, double volume,
+            boolean complete) {
+    }
+
+    // completed bars kept per symbol and interval
+    public static final int HISTORY = 120;
+
+    private final SymbolTable symbols;
+    private final SymbolState[] states;
+    private long lateTrades;
+
+    public BarAggregator(SymbolTable symbols) {
+        this.symbols = symbols;
+        this.states = new SymbolState[symbols.capacity()];
+    }
+
+    @Override
+    public void onTrade(int symbol, double price, double volume, long timestamp) {
+        SymbolState s = states[symbol];
+        if (s == null) {
+            s = new SymbolState();
+            states[symbol] = s;
+        }
+        int v = s.version.getPlain();
+        s.version.setRelease(v + 1);
+        VarHandle.storeStoreFence();
+
+        s.lastPrice = price;
+        s.lastVolume = volume;
+        s.lastTimestamp = Math.max(s.lastTimestamp, timestamp);
+        s.trades++;
+        for (Rolling r : s.rolling) {
+            if (!r.add(price, volume, timestamp)) {
+                lateTrades++;
+            }
+        }
+
+        s.version.setRelease(v + 2);
+    }
+
+    // null when the symbol has not traded since startup
+    public LastTrade lastTrade(String symbol) {
+        int id = symbols.lookup(symbol);
+        SymbolState s = id < 0 ? null : states[id];
+        if (s == null) {
+            return null;
+        }
+        while (true) {
+            int v = s.version.getAcquire();
+            if ((v & 1) == 0) {
+                LastTrade out = new LastTrade(symbol, s.lastPrice, s.lastVolume, s.lastTimestamp, s.trades);
+                VarHandle.loadLoadFence();
+                if (s.version.getPlain() == v) {
+                    return out;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    // oldest first, the bar in progress last; null when the symbol has not traded since startup
+    public List<Bar> bars(String symbol, Interval interval) {
+        int id = symbols.lookup(symbol);
+        SymbolState s = id < 0 ? null : states[id];
+        if (s == null) {
+            return null;
+        }
+        Rolling r = s.rolling[interval.ordinal()];
+        while (true) {
+            int v = s.version.getAcquire();
+            if ((v & 1) == 0) {
+                List<Bar> out = r.snapshot();
+                VarHandle.loadLoadFence();
+                if (s.version.getPlain() == v) {
+                    return out;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    // trades older than a symbol's current bar (counted on the consumer thread, read approximately)
+    public long lateTrades() {
+        return lateTrades;
+    }
+
+    private static final class SymbolState {
+        final AtomicInteger version = new AtomicInteger();
+        double lastPrice;
+        double lastVolume;
+        long lastTimestamp;
+        long trades;
+        // indexed by Interval.ordinal()
+        final Rolling[] rolling = {
+                new Rolling(Interval.ONE_MINUTE.millis),
+                new Rolling(Interval.FIVE_MINUTES.millis) };
+    }
+
+    // current bar plus a ring of the last HISTORY completed ones
+    private static final class Rolling {
+        final long width;
+        long start = Long.MIN_VALUE;
+        double open;
+        double high;
+        double low;
+        double close;
+        double volume;
+
+        final long[] starts = new long[HISTORY];
+        final double[] opens = new double[HISTORY];
+        final double[] highs = new double[HISTORY];
+        final double[] lows = new double[HISTORY];
+        final double[] closes = new double[HISTORY];
+        final double[] volumes = new double[HISTORY];
+        int count;
+        int next;
+
+        Rolling(long width) {
+            this.width = width;
+        }
+
+        // false for a trade older than the current bar
+        boolean add(double price, double qty, long timestamp) {
+            long bucket = timestamp - Math.floorMod(timestamp, width);
+            if (bucket < start) {
+                return false;
+            }
+            if (bucket > start) {
+                if (start != Long.MIN_VALUE) {
+                    starts[next] = start;
+                    opens[next] = open;
+                    highs[next] = high;
+                    lows[next] = low;
+                    closes[next] = close;
+                    volumes[next] = volume;
+                    next = (next + 1) % HISTORY;
+                    count = Math.min(count + 1, HISTORY);
+                }
+                start = bucket;
+                open = high = low = price;
+                volume = 0.0;
+            }
+            high = Math.max(high, price);
+            low = Math.min(low, price);
+            close = price;
+            volume += qty;
+            return true;
+        }
+
+        List<Bar> snapshot() {
+            List<Bar> out = new ArrayList<>(count + 1);
+            for (int k = 0; k < count; k++) {
+                int i = Math.floorMod(next - count + k, HISTORY);
+                out.add(new Bar(starts[i], opens[i], highs[i], lows[i], closes[i], volumes[i], true));
+            }
+            if (start != Long.MIN_VALUE) {
+                out.add(new Bar(start, open, high, low, close, volume, false));
+            }
+            return out;
+        }
+    }
+}
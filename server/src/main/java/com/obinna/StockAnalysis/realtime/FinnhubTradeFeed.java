@@ -0,0 +1,207 @@
+package com.obinna.StockAnalysis.realtime;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Finnhub's trade websocket (wss://ws.finnhub.io): subscribes to a fixed symbol list and publishes every
+// {"type":"trade","data":[{"s":..,"p":..,"v":..,"t":..}]} entry into the ring.
+// Frames are collected into one reused char buffer and read with Jackson's streaming parser; symbols are
+// matched on the parser's char buffer, so trades for known symbols create no per-trade objects.
+// The connection is re-opened with capped exponential backoff whenever it closes or fails.
+public final class FinnhubTradeFeed implements TradeFeed {
+
+    private static final Logger LOGGER = Logger.getLogger(FinnhubTradeFeed.class.getName());
+
+    private static final String URL = "wss://ws.finnhub.io?token=";
+    private static final long MAX_BACKOFF_SECONDS = 60;
+
+    private final String apiKey;
+    private final List<String> subscriptions;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final ScheduledExecutorService reconnects = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "finnhub-trades-reconnect");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile boolean running;
+    private volatile WebSocket socket;
+    private long backoffSeconds = 1;
+
+    private SymbolTable symbols;
+    private TradeRingBuffer ring;
+    private char[] frame = new char[8192];
+    private int frameLength;
+
+    public FinnhubTradeFeed(String apiKey, List<String> subscriptions) {
+        this.apiKey = apiKey;
+        this.subscriptions = subscriptions;
+    }
+
+    @Override
+    public String name() {
+        return "finnhub";
+    }
+
+    @Override
+    public void start(SymbolTable symbols, TradeRingBuffer ring) {
+        this.symbols = symbols;
+        this.ring = ring;
+        for (String s : subscriptions) {
+            symbols.intern(s);
+        }
+        running = true;
+        connect();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        reconnects.shutdownNow();
+        WebSocket ws = socket;
+        if (ws != null) {
+            ws.abort();
+        }
+    }
+
+    private void connect() {
+        if (!running) {
+            return;
+        }
+        client.newWebSocketBuilder()
+                .buildAsync(URI.create(URL + apiKey), new Listener())
+                .whenComplete((ws, error) -> {
+                    if (error != null) {
+                        LOGGER.log(Level.WARNING, "Finnhub trade socket failed to connect", error);
+                        scheduleReconnect();
+                        return;
+                    }
+                    socket = ws;
+                    backoffSeconds = 1;
+                    for (String s : subscriptions) {
+                        ws.sendText("{\"type\":\"subscribe\",\"symbol\":\"" + s + "\"}", true);
+                    }
+                    LOGGER.info("Finnhub trade socket connected, " + subscriptions.size() + " symbols");
+                });
+    }
+
+    private void scheduleReconnect() {
+        if (!running) {
+            return;
+        }
+        long delay = backoffSeconds;
+        backoffSeconds = Math.min(backoffSeconds * 2, MAX_BACKOFF_SECONDS);
+        reconnects.schedule(this::connect, delay, TimeUnit.SECONDS);
+    }
+
+    // the JDK delivers one frame at a time and only asks for the next after request(1)
+    private final class Listener implements WebSocket.Listener {
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            webSocket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            int needed = frameLength + data.length();
+            if (needed > frame.length) {
+                frame = Arrays.copyOf(frame, Math.max(needed, frame.length * 2));
+            }
+            for (int i = 0; i < data.length(); i++) {
+                frame[frameLength++] = data.charAt(i);
+            }
+            if (last) {
+                try {
+                    publish(frame, frameLength);
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.log(Level.FINE, "Unreadable Finnhub trade message", e);
+                }
+                frameLength = 0;
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            LOGGER.warning("Finnhub trade socket closed (" + statusCode + " " + reason + ")");
+            scheduleReconnect();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            LOGGER.log(Level.WARNING, "Finnhub trade socket error", error);
+            scheduleReconnect();
+        }
+    }
+
+    private void publish(char[] chars, int length) throws IOException {
+        try (JsonParser p = jsonFactory.createParser(chars, 0, length)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (p.nextToken() == JsonToken.START_OBJECT) {
+                        readTrade(p);
+                    }
+                } else {
+                    // "type": "trade" / "ping"; only trade messages carry data
+                    p.skipChildren();
+                }
+            }
+        }
+    }
+
+    private void readTrade(JsonParser p) throws IOException {
+        int symbol = -1;
+        double price = Double.NaN;
+        double volume = 0.0;
+        long timestamp = 0L;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            // field names are interned by Jackson, so this switch does not allocate
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "s" -> {
+                    symbol = symbols.lookup(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                    if (symbol < 0) {
+                        symbol = symbols.intern(p.getText());
+                    }
+                }
+                case "p" -> price = p.getDoubleValue();
+                case "v" -> volume = p.getDoubleValue();
+                case "t" -> timestamp = p.getLongValue();
+                default -> {
+                    if (value.isStructStart()) {
+                        p.skipChildren();
+                    }
+                }
+            }
+        }
+        if (symbol >= 0 && Double.isFinite(price)) {
+            ring.offer(symbol, price, volume, timestamp);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.obinna.StockAnalysis.realtime;
+
+import com.obinna.StockAnalysis.dto.alpha_vantage.AlphaVantageGlobalQuote;
+import com.obinna.StockAnalysis.dto.financial_modeling_prep.FinnhubQuote;
+import com.obinna.StockAnalysis.dto.financial_modeling_prep.StockQuote;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+// Latest quote per symbol, whichever provider it came from.
+// Every provider response is published here and every quote-style endpoint reads from here first, so a
+// symbol is fetched upstream once per freshness window instead of once per endpoint. Entries are immutable
+// and swapped into a slot indexed by the symbol's interned id: readers do a single volatile read and never
+// wait, writers CAS and only retry when another writer raced them on the same symbol.
+@Component
+public class QuoteBoard {
+
+    public enum Source {
+        FINNHUB,
+        FMP,
+        ALPHA_VANTAGE
+    }
+
+    // NaN for anything the provider did not send. `detail` is the last full FMP payload for the symbol
+    // (name, market cap, averages...), kept when another provider publishes a newer price.
+    public record Entry(
+            String symbol,
+            Source source,
+            double price,
+            double change,
+            double changePercent,
+            double open,
+            double high,
+            double low,
+            double previousClose,
+            double volume,
+            StockQuote detail,
+            long updatedAt,
+            long version) {
+
+        public FinnhubQuote toFinnhubQuote() {
+            FinnhubQuote q = new FinnhubQuote();
+            q.setCurrentPrice(price);
+            q.setChange(orZero(change));
+            q.setPercentChange(orZero(changePercent));
+            q.setHighPriceOfDay(orZero(high));
+            q.setLowPriceOfDay(orZero(low));
+            q.setOpenPriceOfDay(orZero(open));
+            q.setPreviousClosePrice(orZero(previousClose));
+            return q;
+        }
+
+        // the FMP payload with this entry's prices laid over it; null when FMP never answered for the symbol
+        public StockQuote toStockQuote() {
+            if (detail == null || source == Source.FMP) {
+                return detail;
+            }
+            StockQuote q = copy(detail);
+            q.setPrice(format(price));
+            setIfKnown(change, q::setChange);
+            setIfKnown(changePercent, q::setChangePercentage);
+            setIfKnown(open, q::setOpen);
+            setIfKnown(high, q::setDayHigh);
+            setIfKnown(low, q::setDayLow);
+            setIfKnown(previousClose, q::setPreviousClose);
+            setIfKnown(volume, q::setVolume);
+            q.setTimestamp(Long.toString(updatedAt / 1000));
+            return q;
+        }
+    }
+
+    private final SymbolTable symbols;
+    private final AtomicReferenceArray<Entry> entries;
+    private final long maxAgeMillis;
+
+    public QuoteBoard(@Value("${quotes.board.max-symbols:32768}") int maxSymbols,
+            @Value("${quotes.board.max-age-seconds:15}") long maxAgeSeconds) {
+        this.symbols = new SymbolTable(maxSymbols);
+        this.entries = new AtomicReferenceArray<>(maxSymbols);
+        this.maxAgeMillis = maxAgeSeconds * 1000;
+    }
+
+    public Entry publish(String symbol, FinnhubQuote q) {
+        return publish(new Entry(key(symbol), Source.FINNHUB, q.getCurrentPrice(), q.getChange(),
+                q.getPercentChange(), q.getOpenPriceOfDay(), q.getHighPriceOfDay(), q.getLowPriceOfDay(),
+                q.getPreviousClosePrice(), Double.NaN, null, System.currentTimeMillis(), 0));
+    }
+
+    public Entry publish(String symbol, StockQuote q) {
+        return publish(new Entry(key(symbol), Source.FMP, parse(q.getPrice()), parse(q.getChange()),
+                parse(q.getChangePercentage()), parse(q.getOpen()), parse(q.getDayHigh()), parse(q.getDayLow()),
+                parse(q.getPreviousClose()), parse(q.getVolume()), q, System.currentTimeMillis(), 0));
+    }
+
+    public Entry publish(String symbol, AlphaVantageGlobalQuote q) {
+        return publish(new Entry(key(symbol), Source.ALPHA_VANTAGE, parse(q.getPrice()), parse(q.getChange()),
+                parse(q.getChangePercentage()), parse(q.getOpen()), parse(q.getHigh()), parse(q.getLow()),
+                parse(q.getPreviousClose()), parse(q.getVolume()), null, System.currentTimeMillis(), 0));
+    }
+
+    // null when the update has no usable price or the board is full
+    private Entry publish(Entry update) {
+        if (!(update.price > 0)) {
+            return null;
+        }
+        int id = symbols.intern(update.symbol);
+        if (id < 0) {
+            return null;
+        }
+        return entries.accumulateAndGet(id, update, QuoteBoard::merge);
+    }
+
+    // the older of two racing updates loses; the FMP detail survives updates from other providers
+    static Entry merge(Entry current, Entry update) {
+        if (current == null) {
+            return new Entry(update.symbol, update.source, update.price, update.change, update.changePercent,
+                    update.open, update.high, update.low, update.previousClose, update.volume, update.detail,
+                    update.updatedAt, 1);
+        }
+        if (update.updatedAt < current.updatedAt) {
+            return current;
+        }
+        return new Entry(update.symbol, update.source, update.price, update.change, update.changePercent,
+                update.open, update.high, update.low, update.previousClose, update.volume,
+                update.detail != null ? update.detail : current.detail, update.updatedAt, current.version + 1);
+    }
+
+    // newest entry if it is within the board's freshness bound, else null
+    public Entry fresh(String symbol) {
+        return fresh(symbol, maxAgeMillis);
+    }
+
+    public Entry fresh(String symbol, long maxAgeMillis) {
+        Entry e = latest(symbol);
+        return e != null && System.currentTimeMillis() - e.updatedAt <= maxAgeMillis ? e : null;
+    }
+
+    // newest entry regardless of age, or null
+    public Entry latest(String symbol) {
+        int id = symbols.lookup(key(symbol));
+        return id < 0 ? null : entries.get(id);
+    }
+
+    public int size() {
+        return symbols.size();
+    }
+
+    private static String key(String symbol) {
+        return symbol.trim().toUpperCase(Locale.ROOT);
+    }
+
+    // providers send numbers as strings ("189.84", "1.2345%", "None"); anything unreadable is NaN
+    static double parse(String value) {
+        if (value == null || value.isBlank()) {
+            return Double.NaN;
+        }
+        String s = value.trim();
+        if (s.endsWith("%")) {
+            s = s.substring(0, s.length() - 1);
+        }
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    static String format(double value) {
+        return Double.isFinite(value) ? BigDecimal.valueOf(value).toPlainString() : null;
+    }
+
+    private static double orZero(double value) {
+        return Double.isNaN(value) ? 0.0 : value;
+    }
+
+    private static void setIfKnown(double value, Consumer<String> setter) {
+        if (Double.isFinite(value)) {
+            setter.accept(format(value));
+        }
+    }
+
+    private static StockQuote copy(StockQuote s) {
+        StockQuote q = new StockQuote();
+        q.setSymbol(s.getSymbol());
+        q.setName(s.getName());
+        q.setPrice(s.getPrice());
+        q.setChange(s.getChange());
+        q.setChangePercentage(s.getChangePercentage());
+        q.setDayLow(s.getDayLow());
+        q.setDayHigh(s.getDayHigh());
+        q.setYearHigh(s.getYearHigh());
+        q.setYearLow(s.getYearLow());
+        q.setMarketCap(s.getMarketCap());
+        q.setPriceAvg50(s.getPriceAvg50());
+        q.setPriceAvg200(s.getPriceAvg200());
+        q.setExchange(s.getExchange());
+        q.setVolume(s.getVolume());
+        q.setAvgVolume(s.getAvgVolume());
+        q.setOpen(s.getOpen());
+        q.setPreviousClose(s.getPreviousClose());
+        q.setEps(s.getEps());
+        q.setPe(s.getPe());
+        q.setEarningsAnnouncement(s.getEarningsAnnouncement());
+        q.setSharesOutstanding(s.getSharesOutstanding());
+        q.setTimestamp(s.getTimestamp());
+        return q;
+    }
+}
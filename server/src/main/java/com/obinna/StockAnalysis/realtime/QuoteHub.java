@@ -0,0 +1,142 @@
+package com.obinna.StockAnalysis.realtime;
+
+import com.obinna.StockAnalysis.Service.FinnhubService;
+import com.obinna.StockAnalysis.Service.ProviderGuard.Provider;
+import com.obinna.StockAnalysis.Service.QuotaManager;
+import com.obinna.StockAnalysis.dto.financial_modeling_prep.FinnhubQuote;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Upstream fan-in for live quotes.
+// Exactly one refresh loop runs per subscribed symbol, however many clients watch it; each poll result is
+// handed to every subscriber, and the loop is cancelled when the last one leaves. Upstream calls therefore
+// scale with distinct symbols, not with open browser tabs.
+// Polls run in the BATCH lane, so they never eat into the reserve kept for interactive quote requests, and
+// the number of symbols is capped at what that lane can poll every refresh-seconds on the Finnhub budget.
+@Component
+public class QuoteHub {
+
+    private static final Logger LOGGER = Logger.getLogger(QuoteHub.class.getName());
+
+    // receives updates on a hub thread; implementations must not block
+    public interface Subscriber {
+        void onQuote(QuoteUpdate update);
+    }
+
+    private final FinnhubService finnhubService;
+    private final QuotaManager quotaManager;
+    private final long refreshSeconds;
+    private final int maxSymbols;
+
+    private final Map<String, Feed> feeds = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, r -> {
+        Thread t = new Thread(r, "quote-hub");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public QuoteHub(FinnhubService finnhubService, QuotaManager quotaManager,
+            @Value("${quotes.refresh-seconds:15}") long refreshSeconds,
+            @Value("${quotes.max-symbols:100}") int maxSymbols) {
+        this.finnhubService = finnhubService;
+        this.quotaManager = quotaManager;
+        this.refreshSeconds = refreshSeconds;
+        this.maxSymbols = maxSymbols;
+    }
+
+    // re-read on every new symbol: the budget shrinks as instances are added
+    private int symbolCap() {
+        int affordable = (int) (quotaManager.batchCallsPerMinute(Provider.FINNHUB) * refreshSeconds / 60);
+        return Math.min(maxSymbols, affordable);
+    }
+
+    // false when the hub is already polling its maximum number of distinct symbols
+    public boolean subscribe(String symbol, Subscriber subscriber) {
+        boolean[] accepted = { true };
+        Feed feed = feeds.compute(symbol, (s, existing) -> {
+            if (existing == null) {
+                if (feeds.size() >= symbolCap()) {
+                    accepted[0] = false;
+                    return null;
+                }
+                existing = new Feed(s);
+                existing.loop = scheduler.scheduleWithFixedDelay(existing::refresh, 0, refreshSeconds,
+                        TimeUnit.SECONDS);
+            }
+            existing.subscribers.add(subscriber);
+            return existing;
+        });
+        if (!accepted[0]) {
+            return false;
+        }
+        // late joiners get the current quote right away instead of waiting for the next poll
+        QuoteUpdate last = feed.last;
+        if (last != null) {
+            subscriber.onQuote(last);
+        }
+        return true;
+    }
+
+    public void unsubscribe(String symbol, Subscriber subscriber) {
+        feeds.computeIfPresent(symbol, (s, feed) -> {
+            feed.subscribers.remove(subscriber);
+            if (feed.subscribers.isEmpty()) {
+                feed.loop.cancel(false);
+                return null;
+            }
+            return feed;
+        });
+    }
+
+    public int activeSymbols() {
+        return feeds.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private final class Feed {
+        final String symbol;
+        final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        volatile ScheduledFuture<?> loop;
+        volatile QuoteUpdate last;
+
+        Feed(String symbol) {
+            this.symbol = symbol;
+        }
+
+        void refresh() {
+            try {
+                FinnhubQuote quote = QuotaManager.runAs(QuotaManager.Priority.BATCH,
+                        () -> finnhubService.fetchQuote(symbol));
+                if (quote == null) {
+                    return;
+                }
+                QuoteUpdate update = QuoteUpdate.of(symbol, quote, System.currentTimeMillis());
+                if (update.samePrices(last)) {
+                    return;
+                }
+                last = update;
+                for (Subscriber s : subscribers) {
+                    s.onQuote(update);
+                }
+            } catch (Exception e) {
+                // an exception would cancel the scheduled loop
+                LOGGER.log(Level.WARNING, "Quote refresh failed for " + symbol, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.obinna.StockAnalysis.realtime;
+
+import com.obinna.StockAnalysis.dto.financial_modeling_prep.FinnhubQuote;
+
+// Wire format of one pushed quote; `type` lets clients tell quotes from control messages.
+public record QuoteUpdate(
+        String type,
+        String symbol,
+        double price,
+        double change,
+        double percentChange,
+        double high,
+        double low,
+        double open,
+        double previousClose,
+        long timestamp) {
+
+    static QuoteUpdate of(String symbol, FinnhubQuote q, long timestamp) {
+        return new QuoteUpdate("quote", symbol, q.getCurrentPrice(), q.getChange(), q.getPercentChange(),
+                q.getHighPriceOfDay(), q.getLowPriceOfDay(), q.getOpenPriceOfDay(), q.getPreviousClosePrice(),
+                timestamp);
+    }
+
+    public FinnhubQuote toFinnhubQuote() {
+        FinnhubQuote q = new FinnhubQuote();
+        q.setCurrentPrice(price);
+        q.setChange(change);
+        q.setPercentChange(percentChange);
+        q.setHighPriceOfDay(high);
+        q.setLowPriceOfDay(low);
+        q.setOpenPriceOfDay(open);
+        q.setPreviousClosePrice(previousClose);
+        return q;
+    }
+
+    // same prices as `other`; unchanged polls are not pushed
+    boolean samePrices(QuoteUpdate other) {
+        return other != null
+                && price == other.price
+                && high == other.high
+                && low == other.low
+                && open == other.open
+                && previousClose == other.previousClose;
+    }
+}
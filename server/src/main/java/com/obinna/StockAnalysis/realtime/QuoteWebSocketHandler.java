@@ -0,0 +1,175 @@
+package com.obinna.StockAnalysis.realtime;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.obinna.StockAnalysis.Service.BatchMarketDataService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// /ws/quotes: clients send {"action": "subscribe" | "unsubscribe", "symbols": ["AAPL", ...]} and receive
+// QuoteUpdate messages for the symbols they hold.
+//
+// Every connection keeps at most one pending update per symbol: a newer quote replaces an unsent one, so a
+// slow consumer gets the latest price rather than a growing backlog. Sends run on a virtual thread per
+// connection, never on the hub's poll threads, and the session decorator bounds the socket buffer and send
+// time; a client over either limit is disconnected.
+@Component
+public class QuoteWebSocketHandler extends TextWebSocketHandler {
+
+    private static final Logger LOGGER = Logger.getLogger(QuoteWebSocketHandler.class.getName());
+
+    static final int MAX_SYMBOLS_PER_CONNECTION = 50;
+    private static final int SEND_TIME_LIMIT_MS = 10_000;
+    private static final int BUFFER_SIZE_LIMIT = 64 * 1024;
+
+    private final QuoteHub hub;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+
+    public QuoteWebSocketHandler(QuoteHub hub, ObjectMapper objectMapper) {
+        this.hub = hub;
+        this.objectMapper = objectMapper;
+    }
+
+    record Command(String action, List<String> symbols) {
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        connections.put(session.getId(), new Connection(
+                new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, BUFFER_SIZE_LIMIT)));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        Connection connection = connections.get(session.getId());
+        if (connection == null) {
+            return;
+        }
+        Command command;
+        try {
+            command = objectMapper.readValue(message.getPayload(), Command.class);
+        } catch (JsonProcessingException e) {
+            connection.sendError("Malformed message");
+            return;
+        }
+        List<String> symbols = command.symbols() == null ? List.of()
+                : BatchMarketDataService.normalizeTickers(command.symbols());
+
+        if ("subscribe".equalsIgnoreCase(command.action())) {
+            for (String symbol : symbols) {
+                if (connection.symbols.contains(symbol)) {
+                    continue;
+                }
+                if (connection.symbols.size() >= MAX_SYMBOLS_PER_CONNECTION) {
+                    connection.sendError("At most " + MAX_SYMBOLS_PER_CONNECTION + " symbols per connection");
+                    break;
+                }
+                connection.symbols.add(symbol);
+                if (!hub.subscribe(symbol, connection)) {
+                    connection.symbols.remove(symbol);
+                    connection.sendError("Live quotes are at capacity; " + symbol + " not subscribed");
+                }
+            }
+        } else if ("unsubscribe".equalsIgnoreCase(command.action())) {
+            for (String symbol : symbols) {
+                if (connection.symbols.remove(symbol)) {
+                    hub.unsubscribe(symbol, connection);
+                    connection.pending.remove(symbol);
+                }
+            }
+        } else {
+            connection.sendError("Unknown action: " + command.action());
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Connection connection = connections.remove(session.getId());
+        if (connection != null) {
+            for (String symbol : connection.symbols) {
+                hub.unsubscribe(symbol, connection);
+            }
+            connection.symbols.clear();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+    }
+
+    private final class Connection implements QuoteHub.Subscriber {
+        final WebSocketSession session;
+        final Set<String> symbols = ConcurrentHashMap.newKeySet();
+        // conflation buffer: latest unsent update per symbol
+        final Map<String, QuoteUpdate> pending = new ConcurrentHashMap<>();
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Connection(WebSocketSession session) {
+            this.session = session;
+        }
+
+        @Override
+        public void onQuote(QuoteUpdate update) {
+            pending.put(update.symbol(), update);
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                for (String symbol : pending.keySet()) {
+                    QuoteUpdate update = pending.remove(symbol);
+                    if (update != null && !send(update)) {
+                        return;
+                    }
+                }
+                draining.set(false);
+                // an update may have arrived between the last remove and the reset
+            } while (!pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        void sendError(String message) {
+            send(Map.of("type", "error", "message", message));
+        }
+
+        // false when the session is gone or over its limits (it is closed in that case)
+        private boolean send(Object payload) {
+            if (!session.isOpen()) {
+                return false;
+            }
+            try {
+                session.sendMessage(new TextMessage(objectMapper.writeValueAsString(payload)));
+                return true;
+            } catch (IOException | RuntimeException e) {
+                // includes SessionLimitExceededException for slow consumers
+                LOGGER.log(Level.FINE, "Dropping quote connection " + session.getId(), e);
+                try {
+                    session.close(CloseStatus.SESSION_NOT_RELIABLE);
+                } catch (IOException ignored) {
+                    // already closing
+                }
+                return false;
+            }
+        }
+    }
+}
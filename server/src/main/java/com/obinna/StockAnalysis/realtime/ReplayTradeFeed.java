@@ -0,0 +1,126 @@
+package com.obinna.StockAnalysis.realtime;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+// Local stand-in for a live feed: replays a recorded trade file in a loop.
+// Lines are `symbol,price,volume,epochMillis` (a header line is skipped), oldest first. The file is parsed
+// once into primitive arrays; each pass re-times the trades to now, keeping their original spacing divided
+// by `speed`, so the aggregator sees what looks like a live market.
+public final class ReplayTradeFeed implements TradeFeed {
+
+    private static final Logger LOGGER = Logger.getLogger(ReplayTradeFeed.class.getName());
+
+    private final Path file;
+    private final double speed;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public ReplayTradeFeed(Path file, double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("speed must be > 0");
+        }
+        this.file = file;
+        this.speed = speed;
+    }
+
+    @Override
+    public String name() {
+        return "replay";
+    }
+
+    @Override
+    public void start(SymbolTable symbols, TradeRingBuffer ring) {
+        Recording recording = load(file, symbols);
+        LOGGER.info("Replaying " + recording.size + " trades from " + file + " at " + speed + "x");
+        running = true;
+        thread = new Thread(() -> replay(recording, ring), "trade-replay");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void replay(Recording r, TradeRingBuffer ring) {
+        if (r.size == 0) {
+            return;
+        }
+        while (running) {
+            long wallStart = System.currentTimeMillis();
+            long first = r.timestamps[0];
+            for (int i = 0; i < r.size && running; i++) {
+                long offset = (long) ((r.timestamps[i] - first) / speed);
+                long due = wallStart + offset;
+                long wait = due - System.currentTimeMillis();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait * 1_000_000L);
+                }
+                ring.offer(r.symbols[i], r.prices[i], r.volumes[i], due);
+            }
+        }
+    }
+
+    static Recording load(Path file, SymbolTable symbols) {
+        Recording r = new Recording();
+        try (BufferedReader in = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length < 4 || parts[0].isBlank()) {
+                    continue;
+                }
+                try {
+                    double price = Double.parseDouble(parts[1].trim());
+                    double volume = Double.parseDouble(parts[2].trim());
+                    long timestamp = Long.parseLong(parts[3].trim());
+                    int symbol = symbols.intern(parts[0].trim().toUpperCase(Locale.ROOT));
+                    if (symbol >= 0) {
+                        r.add(symbol, price, volume, timestamp);
+                    }
+                } catch (NumberFormatException e) {
+                    // header or malformed line
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read trade replay file " + file, e);
+        }
+        return r;
+    }
+
+    static final class Recording {
+        int size;
+        int[] symbols = new int[1024];
+        double[] prices = new double[1024];
+        double[] volumes = new double[1024];
+        long[] timestamps = new long[1024];
+
+        void add(int symbol, double price, double volume, long timestamp) {
+            if (size == symbols.length) {
+                int cap = size * 2;
+                symbols = Arrays.copyOf(symbols, cap);
+                prices = Arrays.copyOf(prices, cap);
+                volumes = Arrays.copyOf(volumes, cap);
+                timestamps = Arrays.copyOf(timestamps, cap);
+            }
+            symbols[size] = symbol;
+            prices[size] = price;
+            volumes[size] = volume;
+            timestamps[size] = timestamp;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.obinna.StockAnalysis.realtime;
+
+// Interns symbols to dense int ids so the trade path can index primitive arrays instead of hashing Strings.
+// Lookups are lock-free over an immutable open-addressing table; interning a new symbol (rare) copies the
+// table under a lock and republishes it. Lookups can take the raw chars of a parsed message, so a trade
+// whose symbol is already known costs no String allocation.
+public final class SymbolTable {
+
+    private final int capacity;
+    private volatile Table table;
+
+    public SymbolTable(int capacity) {
+        this.capacity = capacity;
+        int slots = Integer.highestOneBit(Math.max(capacity, 8) * 2 - 1) << 1;
+        this.table = new Table(new String[capacity], 0, new int[slots]);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return table.size;
+    }
+
+    // -1 when not interned
+    public int lookup(String symbol) {
+        Table t = table;
+        int mask = t.slots.length - 1;
+        for (int i = hash(symbol) & mask; ; i = (i + 1) & mask) {
+            int id = t.slots[i] - 1;
+            if (id < 0) {
+                return -1;
+            }
+            if (t.names[id].equals(symbol)) {
+                return id;
+            }
+        }
+    }
+
+    // -1 when not interned
+    public int lookup(char[] chars, int offset, int length) {
+        Table t = table;
+        int mask = t.slots.length - 1;
+        for (int i = hash(chars, offset, length) & mask; ; i = (i + 1) & mask) {
+            int id = t.slots[i] - 1;
+            if (id < 0) {
+                return -1;
+            }
+            if (equals(t.names[id], chars, offset, length)) {
+                return id;
+            }
+        }
+    }
+
+    // id of the symbol, interning it if needed; -1 when the table is full
+    public int intern(String symbol) {
+        int id = lookup(symbol);
+        if (id >= 0) {
+            return id;
+        }
+        synchronized (this) {
+            Table t = table;
+            id = lookup(symbol);
+            if (id >= 0) {
+                return id;
+            }
+            if (t.size == capacity) {
+                return -1;
+            }
+            String[] names = t.names.clone();
+            int[] slots = t.slots.clone();
+            id = t.size;
+            names[id] = symbol;
+            int mask = slots.length - 1;
+            int i = hash(symbol) & mask;
+            while (slots[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            slots[i] = id + 1;
+            table = new Table(names, id + 1, slots);
+            return id;
+        }
+    }
+
+    public String name(int id) {
+        return table.names[id];
+    }
+
+    private static int hash(CharSequence s) {
+        int h = 0;
+        for (int i = 0; i < s.length(); i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static int hash(char[] chars, int offset, int length) {
+        int h = 0;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + chars[offset + i];
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean equals(String name, char[] chars, int offset, int length) {
+        if (name.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (name.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // slots hold id + 1, 0 = empty
+    private record Table(String[] names, int size, int[] slots) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.obinna.StockAnalysis.realtime;
+
+// A source of trades. Implementations publish from a single thread at a time (the ring buffer has one
+// producer) and resolve symbols through the shared SymbolTable.
+public interface TradeFeed {
+
+    void start(SymbolTable symbols, TradeRingBuffer ring);
+
+    void stop();
+
+    String name();
+}
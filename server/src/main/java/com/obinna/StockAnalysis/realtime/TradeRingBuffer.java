@@ -0,0 +1,91 @@
+package com.obinna.StockAnalysis.realtime;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Preallocated single-producer / single-consumer queue of trades.
+// Trades are stored field by field in parallel primitive arrays, so publishing one allocates nothing. The
+// producer (the feed's receive thread) and the consumer (the aggregator thread) only share the two cursors,
+// published with release stores. When the consumer falls a full ring behind, new trades are dropped and
+// counted rather than blocking the feed.
+public final class TradeRingBuffer {
+
+    @FunctionalInterface
+    public interface TradeHandler {
+        void onTrade(int symbol, double price, double volume, long timestamp);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final int[] symbols;
+    private final double[] prices;
+    private final double[] volumes;
+    private final long[] timestamps;
+
+    // next slot the consumer reads / the producer writes
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    // producer-local copy of head, refreshed only when the ring looks full
+    private long cachedHead;
+
+    public TradeRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.symbols = new int[capacity];
+        this.prices = new double[capacity];
+        this.volumes = new double[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    // producer thread only; false (and counted) when the ring is full
+    public boolean offer(int symbol, double price, double volume, long timestamp) {
+        long t = tail.getPlain();
+        if (t - cachedHead >= capacity) {
+            cachedHead = head.getAcquire();
+            if (t - cachedHead >= capacity) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        }
+        int i = (int) t & mask;
+        symbols[i] = symbol;
+        prices[i] = price;
+        volumes[i] = volume;
+        timestamps[i] = timestamp;
+        tail.setRelease(t + 1);
+        return true;
+    }
+
+    // consumer thread only; hands up to `limit` trades to the handler in order and returns how many
+    public int drain(TradeHandler handler, int limit) {
+        long h = head.getPlain();
+        int n = (int) Math.min(tail.getAcquire() - h, limit);
+        for (int k = 0; k < n; k++) {
+            int i = (int) (h + k) & mask;
+            handler.onTrade(symbols[i], prices[i], volumes[i], timestamps[i]);
+        }
+        if (n > 0) {
+            head.setRelease(h + n);
+        }
+        return n;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long published() {
+        return tail.get();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public int backlog() {
+        return (int) (tail.get() - head.get());
+    }
+}
@@ -0,0 +1,107 @@
+package com.obinna.StockAnalysis.realtime;
+
+import com.obinna.StockAnalysis.Service.BatchMarketDataService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Streaming trade ingest: feed -> TradeRingBuffer -> one consumer thread -> BarAggregator.
+// trades.source picks the feed: "finnhub" (live websocket, trades.symbols), "replay" (trades.replay-file)
+// or "none" (default; nothing is started).
+@Component
+public class TradeStreamService {
+
+    private static final Logger LOGGER = Logger.getLogger(TradeStreamService.class.getName());
+
+    private static final int DRAIN_BATCH = 4096;
+    private static final long IDLE_PARK_NANOS = 100_000;
+
+    public record Status(String source, int symbols, long published, long dropped, int backlog, long lateTrades) {
+    }
+
+    private final String source;
+    private final SymbolTable symbols;
+    private final TradeRingBuffer ring;
+    private final BarAggregator aggregator;
+    private final TradeFeed feed;
+
+    private volatile boolean running;
+    private Thread consumer;
+
+    public TradeStreamService(@Value("${trades.source:none}") String source,
+            @Value("${trades.symbols:}") String subscriptions,
+            @Value("${trades.replay-file:}") String replayFile,
+            @Value("${trades.replay-speed:1}") double replaySpeed,
+            @Value("${trades.ring-capacity:65536}") int ringCapacity,
+            @Value("${trades.max-symbols:4096}") int maxSymbols,
+            @Value("${finnhub.api.key}") String apiKey) {
+        this.source = source.trim().toLowerCase(Locale.ROOT);
+        this.symbols = new SymbolTable(maxSymbols);
+        this.ring = new TradeRingBuffer(ringCapacity);
+        this.aggregator = new BarAggregator(symbols);
+        this.feed = switch (this.source) {
+            case "finnhub" -> new FinnhubTradeFeed(apiKey,
+                    BatchMarketDataService.normalizeTickers(Arrays.asList(subscriptions.split(","))));
+            case "replay" -> new ReplayTradeFeed(Path.of(replayFile), replaySpeed);
+            default -> null;
+        };
+    }
+
+    @PostConstruct
+    void start() {
+        if (feed == null) {
+            return;
+        }
+        running = true;
+        consumer = new Thread(this::consume, "trade-aggregator");
+        consumer.setDaemon(true);
+        consumer.start();
+        try {
+            feed.start(symbols, ring);
+        } catch (RuntimeException e) {
+            // a bad feed config should not keep the rest of the app from starting
+            LOGGER.log(Level.SEVERE, "Trade feed " + feed.name() + " failed to start", e);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (feed != null) {
+            feed.stop();
+        }
+        if (consumer != null) {
+            consumer.interrupt();
+        }
+    }
+
+    private void consume() {
+        while (running) {
+            if (ring.drain(aggregator, DRAIN_BATCH) == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    public BarAggregator.LastTrade lastTrade(String symbol) {
+        return aggregator.lastTrade(symbol);
+    }
+
+    public List<BarAggregator.Bar> bars(String symbol, BarAggregator.Interval interval) {
+        return aggregator.bars(symbol, interval);
+    }
+
+    public Status status() {
+        return new Status(feed == null ? "none" : feed.name(), symbols.size(), ring.published(), ring.dropped(),
+                ring.backlog(), aggregator.lateTrades());
+    }
+}
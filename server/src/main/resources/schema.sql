@@ -18,6 +18,8 @@ CREATE TABLE prices (
     low_price DECIMAL(12,4),
     close_price DECIMAL(12,4),
     volume BIGINT,
+    -- when the row was first stored; lets FeatureEngine spot bars backfilled behind a feature checkpoint
+    ingested_at TIMESTAMP NOT NULL DEFAULT now(),
     PRIMARY KEY (ticker, price_date),
     FOREIGN KEY (ticker) REFERENCES stocks(ticker)
 );
@@ -45,6 +47,15 @@ CREATE TABLE features (
     FOREIGN KEY (ticker) REFERENCES stocks(ticker)
 );
 
+-- serialized RollingFeatureCalculator per ticker, so daily updates only step the new bars
+CREATE TABLE feature_state (
+    ticker VARCHAR(10) PRIMARY KEY,
+    as_of_date DATE NOT NULL,
+    state BYTEA NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT now(),
+    FOREIGN KEY (ticker) REFERENCES stocks(ticker)
+);
+
 
 -- Create ml_signals table for intelligence output
 CREATE TABLE ml_signals (
@@ -59,9 +70,75 @@ CREATE TABLE ml_signals (
     FOREIGN KEY (ticker) REFERENCES stocks(ticker)
 );
 
+-- per-ticker IsolationForest in the portable binary format (ml-service/Model_Functions/export_iso_forest.py)
+CREATE TABLE iso_forest_models (
+    ticker VARCHAR(10) PRIMARY KEY,
+    trained_at TIMESTAMP NOT NULL,
+    model_bytes BYTEA NOT NULL,
+    FOREIGN KEY (ticker) REFERENCES stocks(ticker)
+);
+
+-- strongest return correlates per ticker (CorrelationService), rank 0 = most correlated
+CREATE TABLE correlation_peers (
+    ticker VARCHAR(10) NOT NULL,
+    window_days SMALLINT NOT NULL,
+    peer_rank SMALLINT NOT NULL,
+    peer VARCHAR(10) NOT NULL,
+    correlation REAL NOT NULL,
+    as_of_date DATE NOT NULL,
+    PRIMARY KEY (ticker, window_days, peer_rank),
+    FOREIGN KEY (ticker) REFERENCES stocks(ticker)
+);
+
+
+-- intraday OHLCV bars (IntradayService): interval_minutes 5 as fetched, 15 / 60 rolled up from the 5m bars.
+-- bar_time is the bar start in exchange time (America/New_York); each tier has its own retention
+CREATE TABLE intraday_prices (
+    ticker VARCHAR(10) NOT NULL,
+    interval_minutes SMALLINT NOT NULL,
+    bar_time TIMESTAMP NOT NULL,
+    open_price DECIMAL(12,4),
+    high_price DECIMAL(12,4),
+    low_price DECIMAL(12,4),
+    close_price DECIMAL(12,4),
+    volume BIGINT,
+    PRIMARY KEY (ticker, interval_minutes, bar_time),
+    FOREIGN KEY (ticker) REFERENCES stocks(ticker)
+);
+
+-- daily sync work queue (SyncQueue): one row per ticker per run, claimed by any instance's workers
+-- with FOR UPDATE SKIP LOCKED; a RUNNING row whose lease_until passed is claimable again, a failed one
+-- only after not_before
+CREATE TABLE sync_tasks (
+    run_date DATE NOT NULL,
+    ticker VARCHAR(10) NOT NULL,
+    status VARCHAR(10) NOT NULL DEFAULT 'PENDING', -- PENDING, RUNNING, DONE, FAILED
+    attempts SMALLINT NOT NULL DEFAULT 0,
+    lease_owner VARCHAR(255),
+    lease_until TIMESTAMP,
+    last_error TEXT,
+    not_before TIMESTAMP NOT NULL DEFAULT now(),
+    updated_at TIMESTAMP NOT NULL DEFAULT now(),
+    PRIMARY KEY (run_date, ticker)
+);
+
+-- one heartbeat row per running instance (InstanceRegistry); provider budgets are split over the live ones
+CREATE TABLE app_instances (
+    instance_id VARCHAR(255) PRIMARY KEY,
+    seen_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+-- one row per sync run whose derived stages (features, correlations) were taken by an instance
+CREATE TABLE sync_runs (
+    run_date DATE PRIMARY KEY,
+    derived_by VARCHAR(255) NOT NULL,
+    derived_at TIMESTAMP NOT NULL DEFAULT now()
+);
 
 -- Index for faster lookup when fetching historical windows for ML
 CREATE INDEX IF NOT EXISTS idx_prices_ticker_date ON prices (ticker, price_date);
+CREATE INDEX IF NOT EXISTS idx_prices_ticker_ingested ON prices (ticker, ingested_at);
 CREATE INDEX IF NOT EXISTS idx_features_ticker_date ON features (ticker, feature_date);
 CREATE INDEX IF NOT EXISTS idx_signals_ticker_date ON ml_signals (ticker, signal_date);
+CREATE INDEX IF NOT EXISTS idx_sync_tasks_claimable ON sync_tasks (run_date, status, ticker);
 
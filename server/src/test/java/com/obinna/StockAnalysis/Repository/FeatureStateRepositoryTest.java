@@ -0,0 +1,146 @@
+package com.obinna.StockAnalysis.Repository;
+
+import com.obinna.StockAnalysis.Repository.FeatureStateRepository.FeatureState;
+import com.obinna.StockAnalysis.analytics.RollingFeatureCalculator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Checkpoint save/restore through FeatureStateRepository: the bytes batchUpsert binds are what findByTickers
+// hands back, and a calculator restored from them continues exactly like one that never stopped.
+class FeatureStateRepositoryTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2024, 3, 28);
+
+    private JdbcTemplate jdbcTemplate;
+    private FeatureStateRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        repository = new FeatureStateRepository(jdbcTemplate);
+    }
+
+    @Test
+    void checkpointSurvivesSaveAndRestore() throws SQLException {
+        RollingFeatureCalculator uninterrupted = new RollingFeatureCalculator();
+        RollingFeatureCalculator saved = new RollingFeatureCalculator();
+        double[] expected = new double[RollingFeatureCalculator.FEATURE_COUNT];
+        double[] actual = new double[RollingFeatureCalculator.FEATURE_COUNT];
+        for (int t = 0; t < 80; t++) {
+            uninterrupted.step(close(t), volume(t), spyReturn(t), expected);
+            saved.step(close(t), volume(t), spyReturn(t), actual);
+        }
+
+        byte[] written = save(new FeatureState("AAPL", AS_OF, saved.toBytes()));
+        Map<String, FeatureState> found = load("AAPL", AS_OF, written);
+
+        FeatureState state = found.get("AAPL");
+        assertEquals(AS_OF, state.asOfDate());
+        RollingFeatureCalculator restored = RollingFeatureCalculator.fromBytes(state.state());
+        assertEquals(80, restored.steps());
+        for (int t = 80; t < 120; t++) {
+            boolean a = uninterrupted.step(close(t), volume(t), spyReturn(t), expected);
+            boolean b = restored.step(close(t), volume(t), spyReturn(t), actual);
+            assertTrue(a);
+            assertEquals(a, b);
+            assertArrayEquals(expected, actual, "bar " + t);
+        }
+    }
+
+    @Test
+    void upsertBindsTickerDateAndState() throws SQLException {
+        byte[] state = new RollingFeatureCalculator().toBytes();
+        PreparedStatement ps = bind(new FeatureState("MSFT", AS_OF, state));
+
+        verify(ps).setString(1, "MSFT");
+        verify(ps).setDate(2, Date.valueOf(AS_OF));
+        verify(ps).setBytes(3, state);
+    }
+
+    // runs batchUpsert and returns the bytes it bound for the state column
+    private byte[] save(FeatureState state) throws SQLException {
+        PreparedStatement ps = bind(state);
+        ArgumentCaptor<byte[]> bytes = ArgumentCaptor.forClass(byte[].class);
+        verify(ps).setBytes(eq(3), bytes.capture());
+        return bytes.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private PreparedStatement bind(FeatureState state) throws SQLException {
+        repository.batchUpsert(List.of(state));
+
+        ArgumentCaptor<List<FeatureState>> rows = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<FeatureState>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), anyInt(), setter.capture());
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, rows.getValue().get(0));
+        return ps;
+    }
+
+    // findByTickers over a result set holding one stored row
+    private Map<String, FeatureState> load(String ticker, LocalDate asOf, byte[] state) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("ticker")).thenReturn(ticker);
+        when(rs.getDate("as_of_date")).thenReturn(Date.valueOf(asOf));
+        when(rs.getBytes("state")).thenReturn(state);
+
+        Connection con = mock(Connection.class);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        when(con.prepareStatement(anyString())).thenReturn(ps);
+        when(con.createArrayOf(eq("varchar"), any())).thenReturn(mock(Array.class));
+
+        doAnswer(inv -> {
+            PreparedStatementCreator creator = inv.getArgument(0);
+            creator.createPreparedStatement(con);
+            ((RowCallbackHandler) inv.getArgument(1)).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        Map<String, FeatureState> found = repository.findByTickers(List.of(ticker));
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(con).prepareStatement(sql.capture());
+        assertTrue(sql.getValue().contains("FROM feature_state"));
+        return found;
+    }
+
+    private static double close(int t) {
+        return 100.0 * Math.exp(0.02 * Math.sin(0.3 * t) + 0.001 * t);
+    }
+
+    private static double volume(int t) {
+        return 5e5 + 1e5 * Math.cos(0.4 * t);
+    }
+
+    private static double spyReturn(int t) {
+        return t == 0 ? Double.NaN : 0.007 * Math.sin(0.55 * t);
+    }
+}
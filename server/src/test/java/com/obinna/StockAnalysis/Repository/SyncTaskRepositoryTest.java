@@ -0,0 +1,159 @@
+package com.obinna.StockAnalysis.Repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// The claim/renew/complete/fail statements behind SyncQueue: what each one binds, and the parts of the SQL
+// the queue's guarantees rest on (skip-locked claims, backoff before a retry, lease ownership on every write).
+class SyncTaskRepositoryTest {
+
+    private static final LocalDate RUN = LocalDate.of(2024, 3, 28);
+    private static final String OWNER = "host-1:4242";
+
+    private JdbcTemplate jdbcTemplate;
+    private SyncTaskRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        repository = new SyncTaskRepository(jdbcTemplate);
+    }
+
+    @Test
+    void claimLeasesOneRowSkippingLockedAndBackingOff() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true);
+        when(rs.getString(1)).thenReturn("AAPL");
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), any(), any(), any(), any()))
+                .thenAnswer(inv -> ((ResultSetExtractor<?>) inv.getArgument(1)).extractData(rs));
+
+        assertEquals("AAPL", repository.claim(RUN, OWNER, Duration.ofMinutes(5), 3));
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), any(ResultSetExtractor.class),
+                eq(OWNER), eq(300.0), eq(Date.valueOf(RUN)), eq(3));
+        String claim = sql.getValue();
+        assertTrue(claim.contains("FOR UPDATE SKIP LOCKED"));
+        assertTrue(claim.contains("LIMIT 1"));
+        assertTrue(claim.contains("attempts < ?"));
+        assertTrue(claim.contains("attempts = attempts + 1"));
+        // pending rows wait out their backoff; running ones are only taken over once the lease expired
+        assertTrue(claim.contains("status = 'PENDING' AND not_before <= now()"));
+        assertTrue(claim.contains("status = 'RUNNING' AND lease_until < now()"));
+    }
+
+    @Test
+    void claimReturnsNullWhenNothingIsClaimable() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(false);
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), any(), any(), any(), any()))
+                .thenAnswer(inv -> ((ResultSetExtractor<?>) inv.getArgument(1)).extractData(rs));
+
+        assertNull(repository.claim(RUN, OWNER, Duration.ofMinutes(5), 3));
+    }
+
+    @Test
+    void failBacksOffExponentiallyUntilAttemptsRunOut() {
+        when(jdbcTemplate.update(anyString(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        assertTrue(repository.fail(RUN, "AAPL", OWNER, "timeout", 3, Duration.ofSeconds(30)));
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).update(sql.capture(), eq(3), eq(30.0), eq("timeout"), eq(Date.valueOf(RUN)),
+                eq("AAPL"), eq(OWNER));
+        String fail = sql.getValue();
+        assertTrue(fail.contains("CASE WHEN attempts >= ? THEN 'FAILED' ELSE 'PENDING' END"));
+        assertTrue(fail.contains("make_interval(secs => ? * power(2, attempts - 1))"));
+        assertTrue(fail.contains("lease_owner = NULL"));
+        assertOwned(fail);
+    }
+
+    @Test
+    void failReportsALostLease() {
+        when(jdbcTemplate.update(anyString(), any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        assertFalse(repository.fail(RUN, "AAPL", OWNER, "timeout", 3, Duration.ofSeconds(30)));
+    }
+
+    @Test
+    void completeOnlyTouchesTheOwnersLease() {
+        when(jdbcTemplate.update(anyString(), any(), any(), any())).thenReturn(1, 0);
+
+        assertTrue(repository.complete(RUN, "AAPL", OWNER));
+        assertFalse(repository.complete(RUN, "AAPL", OWNER));
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(2)).update(sql.capture(), eq(Date.valueOf(RUN)), eq("AAPL"), eq(OWNER));
+        assertTrue(sql.getValue().contains("SET status = 'DONE'"));
+        assertOwned(sql.getValue());
+    }
+
+    @Test
+    void renewExtendsOnlyLeasesStillHeld() throws SQLException {
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class))).thenReturn(2);
+
+        assertEquals(2, repository.renew(RUN, List.of("AAPL", "MSFT"), OWNER, Duration.ofMinutes(5)));
+
+        ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).update(creator.capture());
+
+        Connection con = mock(Connection.class);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        Array tickers = mock(Array.class);
+        when(con.prepareStatement(anyString())).thenReturn(ps);
+        when(con.createArrayOf(eq("varchar"), any())).thenReturn(tickers);
+        creator.getValue().createPreparedStatement(con);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(con).prepareStatement(sql.capture());
+        assertTrue(sql.getValue().contains("ticker = ANY(?)"));
+        assertOwned(sql.getValue());
+
+        ArgumentCaptor<Object[]> elements = ArgumentCaptor.forClass(Object[].class);
+        verify(con).createArrayOf(eq("varchar"), elements.capture());
+        assertArrayEquals(new Object[] {"AAPL", "MSFT"}, elements.getValue());
+        verify(ps).setDouble(1, 300.0);
+        verify(ps).setDate(2, Date.valueOf(RUN));
+        verify(ps).setArray(3, tickers);
+        verify(ps).setString(4, OWNER);
+    }
+
+    @Test
+    void countOpenIsZeroWithoutRows() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(), any())).thenReturn(null);
+
+        assertEquals(0, repository.countOpen(RUN, 3));
+    }
+
+    // a write that lost its lease (expired and re-claimed elsewhere) must match no row
+    private static void assertOwned(String sql) {
+        assertTrue(sql.contains("lease_owner = ? AND status = 'RUNNING'"), sql);
+    }
+}
@@ -0,0 +1,78 @@
+package com.obinna.StockAnalysis.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Parity with IsolationForest.decision_function on a small forest in the iso_forest_models format.
+// MODEL is what export_iso_forest.to_portable_bytes writes for three hand-built trees (max_samples 8,
+// offset_ -0.5) over RISK_FEATURES in reverse order, so the feature name -> column mapping is exercised.
+// Expected scores follow sklearn's score_samples: X cast to float32 and compared with the float64
+// thresholds, leaf depth + _average_path_length(n_node_samples), 2 ** (-depths / (n_trees * c(max_samples))).
+class IsolationForestModelTest {
+
+    private static final byte[] MODEL = Base64.getDecoder().decode(
+            "SVNPRgEACgAIAGJldGFfNjBkCABjb3JyXzYwZAwAdm9sdW1lX3pfMzBkBgByc2lfMTQMAGRyYXdkb3duXzMwZAcAdm9sXzMwZAcA"
+                    + "dm9sXzE0ZA4AbG9nX3JldHVybl8xNGQNAGxvZ19yZXR1cm5fN2QNAGxvZ19yZXR1cm5fMWQIAAAAAAAAAAAA4L8DAAAABQAA"
+                    + "AAEA//8DAP////8CAP//BAD/////Bf8A//8K16M8AAAAAAAAoD8AAAAAAAAAAAgAAwAFAAEABAADAAAAAQD/////AgD/////Av//"
+                    + "zMzMPQAAAAAAAAAACAAGAAIABQAAAAEAAwD///////8CAAQA////////AwH///8AAF5CmZmZPgAAAAAAAAAAAAAAAAgABQADAAIA"
+                    + "AwA=");
+
+    private static final double TOLERANCE = 1e-12;
+
+    // rows in RollingFeatureCalculator column order
+    private static final double[] CALM = { 0.001, 0.002, 0.003, 0.01, 0.015, -0.01, 50.0, 0.05, 0.5, 1.0 };
+    private static final double[] STRESS = { -0.05, -0.08, -0.1, 0.04, 0.045, -0.2, 25.0, 3.2, 0.9, 1.8 };
+    // every split feature sits exactly on its threshold; volume_z_30d = 0.1 rounds up in float32 and goes right
+    private static final double[] EDGE = { 0.0, 0.0, 0.0, 0.01, 0.02, 0.0, 55.5, 0.1, 0.3, 1.25 };
+
+    @Test
+    void matchesDecisionFunction() {
+        IsolationForestModel model = IsolationForestModel.read(MODEL, RollingFeatureCalculator.COLUMN_NAMES);
+        assertEquals(10, model.featureCount());
+        assertEquals(13, model.nodeCount());
+
+        // -decision_function(X)
+        assertEquals(0.027629154049961246, model.anomalyScore(CALM), TOLERANCE);
+        assertEquals(0.029941146773718064, model.anomalyScore(STRESS), TOLERANCE);
+        assertEquals(0.09467781007763354, model.anomalyScore(EDGE), TOLERANCE);
+    }
+
+    @Test
+    void nonFiniteFeatureHasNoScore() {
+        IsolationForestModel model = IsolationForestModel.read(MODEL, RollingFeatureCalculator.COLUMN_NAMES);
+        double[] row = CALM.clone();
+        row[RollingFeatureCalculator.CORR_60D] = Double.NaN;
+        assertTrue(Double.isNaN(model.anomalyScore(row)));
+        row[RollingFeatureCalculator.CORR_60D] = Double.POSITIVE_INFINITY;
+        assertTrue(Double.isNaN(model.anomalyScore(row)));
+    }
+
+    @Test
+    void averagePathLengthMatchesSklearn() {
+        assertEquals(0.0, IsolationForestModel.averagePathLength(1));
+        assertEquals(1.0, IsolationForestModel.averagePathLength(2));
+        assertEquals(3.2962516279136924, IsolationForestModel.averagePathLength(8), TOLERANCE);
+        assertEquals(10.244770920119917, IsolationForestModel.averagePathLength(256), TOLERANCE);
+    }
+
+    @Test
+    void rejectsForeignBytes() {
+        String[] columns = RollingFeatureCalculator.COLUMN_NAMES;
+        byte[] wrongMagic = MODEL.clone();
+        wrongMagic[0] = 'X';
+        assertThrows(IllegalArgumentException.class, () -> IsolationForestModel.read(wrongMagic, columns));
+
+        byte[] wrongVersion = MODEL.clone();
+        wrongVersion[4] = 2;
+        assertThrows(IllegalArgumentException.class, () -> IsolationForestModel.read(wrongVersion, columns));
+
+        String[] renamed = columns.clone();
+        renamed[RollingFeatureCalculator.BETA_60D] = "beta_90d";
+        assertThrows(IllegalArgumentException.class, () -> IsolationForestModel.read(MODEL, renamed));
+    }
+}
@@ -0,0 +1,100 @@
+package com.obinna.StockAnalysis.analytics;
+
+import com.obinna.StockAnalysis.analytics.SignalCalculator.Driver;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.obinna.StockAnalysis.analytics.RollingFeatureCalculator.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Parity with build_signals.label_regime / compute_drivers_for_row. The synthetic feature rows are rounded so
+// the windows hold ties, and every 41st row has no corr_60d; the expected labels and drivers come from running
+// the Python functions over the same rows.
+class SignalCalculatorTest {
+
+    private static final int ROWS = 300;
+
+    private static final List<double[]> FEATURES = new ArrayList<>();
+
+    static {
+        for (int t = 0; t < ROWS; t++) {
+            double[] row = new double[FEATURE_COUNT];
+            row[LOG_RETURN_14D] = round(0.05 * Math.sin(0.11 * t), 3);
+            row[VOL_30D] = round(0.02 + 0.012 * Math.sin(0.07 * t) + 0.004 * Math.cos(0.53 * t), 3);
+            row[VOLUME_Z_30D] = round(2.5 * Math.sin(0.37 * t + 1.0), 1);
+            row[DRAWDOWN_30D] = round(-0.06 * (1 + Math.sin(0.05 * t)) / 2 - 0.01 * Math.cos(0.8 * t), 3);
+            row[CORR_60D] = t % 41 == 7 ? Double.NaN : round(0.6 + 0.3 * Math.sin(0.021 * t), 2);
+            row[BETA_60D] = round(1.1 + 0.4 * Math.cos(0.017 * t) + 0.05 * Math.sin(1.7 * t), 2);
+            FEATURES.add(row);
+        }
+    }
+
+    @Test
+    void labelsMatchBuildSignals() {
+        assertEquals("TREND_UP", SignalCalculator.labelRegime(FEATURES.get(7)));
+        assertEquals("TREND_DOWN", SignalCalculator.labelRegime(FEATURES.get(48)));
+        assertEquals("HIGH_VOLATILITY", SignalCalculator.labelRegime(FEATURES.get(120)));
+        assertEquals("SIDEWAYS", SignalCalculator.labelRegime(FEATURES.get(252)));
+
+        double[] missing = new double[FEATURE_COUNT];
+        missing[VOL_30D] = Double.NaN;
+        assertEquals("UNKNOWN", SignalCalculator.labelRegime(missing));
+    }
+
+    @Test
+    void driversMatchBuildSignals() {
+        List<List<Driver>> all = SignalCalculator.drivers(FEATURES, 0);
+        assertEquals(ROWS, all.size());
+
+        // row 7 has no corr_60d, so it is not ranked at all
+        assertDrivers(all.get(7), "drawdown_30d", 0.125, "vol_30d", 0.625, "volume_z_30d", 0.375);
+        // volume_z_30d and beta_60d tie on extremeness: DRIVER_FEATURES order wins
+        assertDrivers(all.get(48), "volume_z_30d", 0.102, "beta_60d", 0.102, "vol_30d", 0.2041);
+        assertDrivers(all.get(120), "volume_z_30d", 1.0, "beta_60d", 0.0413, "vol_30d", 0.9174);
+        // the window reaches its full 253 rows (252 back plus the current one)
+        assertDrivers(all.get(251), "vol_30d", 0.1786, "corr_60d", 0.2236, "volume_z_30d", 0.2381);
+        assertDrivers(all.get(252), "volume_z_30d", 0.0079, "vol_30d", 0.1304, "corr_60d", 0.2267);
+        assertDrivers(all.get(253), "vol_30d", 0.083, "volume_z_30d", 0.2451, "beta_60d", 0.5455);
+        assertDrivers(all.get(290), "volume_z_30d", 1.0, "drawdown_30d", 0.0356, "beta_60d", 0.8379);
+        assertDrivers(all.get(299), "volume_z_30d", 1.0, "drawdown_30d", 0.1186, "vol_30d", 0.8775);
+
+        // the shown value is the raw feature, not the absolute value used for ranking
+        assertEquals(-2.5, all.get(299).get(0).value());
+    }
+
+    @Test
+    void startingMidSeriesSeesTheSameWindows() {
+        List<List<Driver>> all = SignalCalculator.drivers(FEATURES, 0);
+        List<List<Driver>> tail = SignalCalculator.drivers(FEATURES, 260);
+        assertEquals(ROWS - 260, tail.size());
+        for (int i = 260; i < ROWS; i++) {
+            assertEquals(all.get(i), tail.get(i - 260), "row " + i);
+        }
+    }
+
+    @Test
+    void round4IsHalfEvenOnTheBinaryValue() {
+        // 0.00005 is stored slightly above the tie, 0.00015 slightly below
+        assertEquals(0.0001, SignalCalculator.round4(0.00005));
+        assertEquals(0.0001, SignalCalculator.round4(0.00015));
+        assertEquals(0.1235, SignalCalculator.round4(0.12345));
+        assertEquals(0.6667, SignalCalculator.round4(2.0 / 3.0));
+    }
+
+    private static void assertDrivers(List<Driver> drivers, Object... expected) {
+        assertEquals(expected.length / 2, drivers.size());
+        for (int i = 0; i < drivers.size(); i++) {
+            assertEquals(expected[2 * i], drivers.get(i).feature(), "driver " + i);
+            assertEquals((double) expected[2 * i + 1], drivers.get(i).pct(), "pct of driver " + i);
+        }
+    }
+
+    // python round(x, n)
+    private static double round(double value, int places) {
+        return new BigDecimal(value).setScale(places, RoundingMode.HALF_EVEN).doubleValue();
+    }
+}
@@ -0,0 +1,86 @@
+package com.obinna.StockAnalysis.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// fractionAtOrBelow against build_signals.rolling_percentile: (w <= current).mean() over the non-NaN window.
+class SlidingPercentileTest {
+
+    @Test
+    void matchesRollingPercentileWithTies() {
+        double[] window = { 3.0, 1.0, 2.0, 2.0, Double.NaN, 5.0, 2.0 };
+        SlidingPercentile p = new SlidingPercentile(window);
+        for (double v : window) {
+            p.add(v);
+        }
+
+        // rolling_percentile(np.array([3, 1, 2, 2, nan, 5, 2]), x) for the x below
+        assertEquals(6, p.size());
+        assertEquals(0.0, p.fractionAtOrBelow(0.5));
+        assertEquals(1.0 / 6, p.fractionAtOrBelow(1.0));
+        assertEquals(4.0 / 6, p.fractionAtOrBelow(2.0));
+        assertEquals(4.0 / 6, p.fractionAtOrBelow(2.5));
+        assertEquals(5.0 / 6, p.fractionAtOrBelow(3.0));
+        assertEquals(1.0, p.fractionAtOrBelow(9.0));
+        assertTrue(Double.isNaN(p.fractionAtOrBelow(Double.NaN)));
+    }
+
+    @Test
+    void slidingWindowMatchesRescan() {
+        Random random = new Random(42);
+        double[] values = new double[500];
+        for (int i = 0; i < values.length; i++) {
+            // few distinct values so most queries land on ties
+            values[i] = i % 37 == 0 ? Double.NaN : random.nextInt(40) / 4.0;
+        }
+        int lookback = 60;
+        SlidingPercentile p = new SlidingPercentile(values);
+        for (int i = 0; i < values.length; i++) {
+            p.add(values[i]);
+            if (i > lookback) {
+                p.remove(values[i - lookback - 1]);
+            }
+            // window is [i - lookback, i], as in compute_drivers_for_row
+            double expected = rescan(values, Math.max(0, i - lookback), i, values[i]);
+            assertEquals(expected, p.fractionAtOrBelow(values[i]), "row " + i);
+        }
+    }
+
+    @Test
+    void emptyWindowHasNoRank() {
+        SlidingPercentile p = new SlidingPercentile(new double[] { 1.0, 2.0 });
+        assertTrue(Double.isNaN(p.fractionAtOrBelow(1.0)));
+        p.add(1.0);
+        p.remove(1.0);
+        assertEquals(0, p.size());
+        assertTrue(Double.isNaN(p.fractionAtOrBelow(1.0)));
+    }
+
+    @Test
+    void rejectsValuesOutsideTheUniverse() {
+        SlidingPercentile p = new SlidingPercentile(new double[] { 1.0, 2.0 });
+        assertThrows(IllegalArgumentException.class, () -> p.add(1.5));
+    }
+
+    private static double rescan(double[] values, int from, int to, double current) {
+        if (Double.isNaN(current)) {
+            return Double.NaN;
+        }
+        int n = 0;
+        int atOrBelow = 0;
+        for (int i = from; i <= to; i++) {
+            if (!Double.isNaN(values[i])) {
+                n++;
+                if (values[i] <= current) {
+                    atOrBelow++;
+                }
+            }
+        }
+        return n == 0 ? Double.NaN : (double) atOrBelow / n;
+    }
+}
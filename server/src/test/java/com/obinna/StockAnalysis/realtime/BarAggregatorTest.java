@@ -0,0 +1,105 @@
+package com.obinna.StockAnalysis.realtime;
+
+import com.obinna.StockAnalysis.realtime.BarAggregator.Bar;
+import com.obinna.StockAnalysis.realtime.BarAggregator.Interval;
+import com.obinna.StockAnalysis.realtime.BarAggregator.LastTrade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BarAggregatorTest {
+
+    // 2024-01-02 14:30:00 UTC, on a 5 minute boundary
+    private static final long T0 = 1_704_205_800_000L;
+
+    private SymbolTable symbols;
+    private BarAggregator aggregator;
+    private int aapl;
+
+    @BeforeEach
+    void setUp() {
+        symbols = new SymbolTable(16);
+        aggregator = new BarAggregator(symbols);
+        aapl = symbols.intern("AAPL");
+    }
+
+    @Test
+    void rollsOverAtTheBucketBoundary() {
+        aggregator.onTrade(aapl, 10.0, 100, T0);
+        aggregator.onTrade(aapl, 12.0, 50, T0 + 30_000);
+        aggregator.onTrade(aapl, 9.0, 25, T0 + 59_999);
+        assertEquals(List.of(new Bar(T0, 10.0, 12.0, 9.0, 9.0, 175, false)),
+                aggregator.bars("AAPL", Interval.ONE_MINUTE));
+
+        aggregator.onTrade(aapl, 11.0, 10, T0 + 60_000);
+        assertEquals(List.of(
+                new Bar(T0, 10.0, 12.0, 9.0, 9.0, 175, true),
+                new Bar(T0 + 60_000, 11.0, 11.0, 11.0, 11.0, 10, false)),
+                aggregator.bars("AAPL", Interval.ONE_MINUTE));
+
+        // still inside the first 5 minute bar
+        assertEquals(List.of(new Bar(T0, 10.0, 12.0, 9.0, 11.0, 185, false)),
+                aggregator.bars("AAPL", Interval.FIVE_MINUTES));
+    }
+
+    @Test
+    void skippedMinutesLeaveNoEmptyBars() {
+        aggregator.onTrade(aapl, 10.0, 1, T0);
+        aggregator.onTrade(aapl, 11.0, 1, T0 + 7 * 60_000 + 5);
+        List<Bar> bars = aggregator.bars("AAPL", Interval.ONE_MINUTE);
+        assertEquals(2, bars.size());
+        assertEquals(T0 + 7 * 60_000, bars.get(1).start());
+        assertEquals(List.of(
+                new Bar(T0, 10.0, 10.0, 10.0, 10.0, 1, true),
+                new Bar(T0 + 300_000, 11.0, 11.0, 11.0, 11.0, 1, false)),
+                aggregator.bars("AAPL", Interval.FIVE_MINUTES));
+    }
+
+    @Test
+    void lateTradeIsDroppedOnlyWhereItsBarHasClosed() {
+        aggregator.onTrade(aapl, 10.0, 1, T0 + 61_000);
+        // belongs to the minute before the current 1m bar, but to the current 5m bar
+        aggregator.onTrade(aapl, 20.0, 5, T0 + 10_000);
+
+        assertEquals(1, aggregator.lateTrades());
+        assertEquals(List.of(new Bar(T0 + 60_000, 10.0, 10.0, 10.0, 10.0, 1, false)),
+                aggregator.bars("AAPL", Interval.ONE_MINUTE));
+        assertEquals(List.of(new Bar(T0, 10.0, 20.0, 10.0, 20.0, 6, false)),
+                aggregator.bars("AAPL", Interval.FIVE_MINUTES));
+
+        // the last trade is still the latest by time, but every trade is counted
+        LastTrade last = aggregator.lastTrade("AAPL");
+        assertEquals(T0 + 61_000, last.timestamp());
+        assertEquals(2, last.trades());
+    }
+
+    @Test
+    void keepsTheLastHistoryCompletedBars() {
+        int minutes = BarAggregator.HISTORY + 10;
+        for (int m = 0; m <= minutes; m++) {
+            aggregator.onTrade(aapl, 100.0 + m, 1, T0 + m * 60_000L);
+        }
+        List<Bar> bars = aggregator.bars("AAPL", Interval.ONE_MINUTE);
+        assertEquals(BarAggregator.HISTORY + 1, bars.size());
+        // oldest kept bar first, the one in progress last
+        assertEquals(T0 + (minutes - BarAggregator.HISTORY) * 60_000L, bars.get(0).start());
+        assertEquals(100.0 + minutes, bars.get(bars.size() - 1).close());
+        for (int i = 1; i < bars.size(); i++) {
+            assertEquals(bars.get(i - 1).start() + 60_000, bars.get(i).start());
+        }
+    }
+
+    @Test
+    void unknownOrSilentSymbolsHaveNothing() {
+        symbols.intern("MSFT");
+        assertNull(aggregator.lastTrade("MSFT"));
+        assertNull(aggregator.bars("MSFT", Interval.ONE_MINUTE));
+        assertNull(aggregator.lastTrade("TSLA"));
+        assertEquals(Interval.FIVE_MINUTES, Interval.from("5M"));
+        assertNull(Interval.from("15m"));
+    }
+}
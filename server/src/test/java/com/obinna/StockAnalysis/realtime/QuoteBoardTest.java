@@ -0,0 +1,111 @@
+package com.obinna.StockAnalysis.realtime;
+
+import com.obinna.StockAnalysis.dto.financial_modeling_prep.FinnhubQuote;
+import com.obinna.StockAnalysis.dto.financial_modeling_prep.StockQuote;
+import com.obinna.StockAnalysis.realtime.QuoteBoard.Entry;
+import com.obinna.StockAnalysis.realtime.QuoteBoard.Source;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuoteBoardTest {
+
+    @Test
+    void firstEntryStartsAtVersionOne() {
+        Entry merged = QuoteBoard.merge(null, finnhub(100.0, 1_000));
+        assertEquals(1, merged.version());
+        assertEquals(100.0, merged.price());
+    }
+
+    @Test
+    void newerUpdateReplacesAndBumpsVersion() {
+        Entry current = QuoteBoard.merge(null, finnhub(100.0, 1_000));
+        Entry merged = QuoteBoard.merge(current, finnhub(101.0, 2_000));
+        assertEquals(101.0, merged.price());
+        assertEquals(2_000, merged.updatedAt());
+        assertEquals(2, merged.version());
+    }
+
+    @Test
+    void olderUpdateLosesTheRace() {
+        Entry current = QuoteBoard.merge(null, finnhub(101.0, 2_000));
+        assertSame(current, QuoteBoard.merge(current, finnhub(100.0, 1_000)));
+    }
+
+    @Test
+    void sameTimestampTakesTheLaterPublish() {
+        Entry current = QuoteBoard.merge(null, finnhub(100.0, 1_000));
+        Entry merged = QuoteBoard.merge(current, finnhub(100.5, 1_000));
+        assertEquals(100.5, merged.price());
+        assertEquals(2, merged.version());
+    }
+
+    @Test
+    void fmpDetailSurvivesOtherProviders() {
+        StockQuote detail = stockQuote("AAPL", "190.10");
+        Entry current = QuoteBoard.merge(null, new Entry("AAPL", Source.FMP, 190.10, Double.NaN, Double.NaN,
+                Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, detail, 1_000, 0));
+        Entry merged = QuoteBoard.merge(current, finnhub(191.25, 2_000));
+
+        assertEquals(Source.FINNHUB, merged.source());
+        assertSame(detail, merged.detail());
+        // FMP fields with the newer price laid over them; the stored payload is left alone
+        StockQuote overlaid = merged.toStockQuote();
+        assertEquals("191.25", overlaid.getPrice());
+        assertEquals("Apple Inc.", overlaid.getName());
+        assertEquals("2", overlaid.getTimestamp());
+        assertEquals("190.10", detail.getPrice());
+    }
+
+    @Test
+    void publishNormalisesSymbolsAndSkipsUnusablePrices() {
+        QuoteBoard board = new QuoteBoard(4, 15);
+        FinnhubQuote q = new FinnhubQuote();
+        q.setCurrentPrice(50.0);
+        assertNotNull(board.publish(" msft ", q));
+        assertEquals(50.0, board.latest("MSFT").price());
+        assertNotNull(board.fresh("msft"));
+
+        FinnhubQuote empty = new FinnhubQuote();
+        assertNull(board.publish("TSLA", empty));
+        assertNull(board.latest("TSLA"));
+        assertEquals(1, board.size());
+    }
+
+    @Test
+    void fullBoardRefusesNewSymbols() {
+        QuoteBoard board = new QuoteBoard(2, 15);
+        FinnhubQuote q = new FinnhubQuote();
+        q.setCurrentPrice(10.0);
+        assertNotNull(board.publish("A", q));
+        assertNotNull(board.publish("B", q));
+        assertNull(board.publish("C", q));
+        // known symbols still update
+        assertEquals(2, board.publish("A", q).version());
+    }
+
+    @Test
+    void parsesProviderNumbers() {
+        assertEquals(189.84, QuoteBoard.parse("189.84"));
+        assertEquals(1.2345, QuoteBoard.parse(" 1.2345% "));
+        assertTrue(Double.isNaN(QuoteBoard.parse("None")));
+        assertTrue(Double.isNaN(QuoteBoard.parse(null)));
+    }
+
+    private static Entry finnhub(double price, long updatedAt) {
+        return new Entry("AAPL", Source.FINNHUB, price, Double.NaN, Double.NaN, Double.NaN, Double.NaN,
+                Double.NaN, Double.NaN, Double.NaN, null, updatedAt, 0);
+    }
+
+    private static StockQuote stockQuote(String symbol, String price) {
+        StockQuote q = new StockQuote();
+        q.setSymbol(symbol);
+        q.setName("Apple Inc.");
+        q.setPrice(price);
+        return q;
+    }
+}
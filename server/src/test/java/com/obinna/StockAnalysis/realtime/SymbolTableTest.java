@@ -0,0 +1,53 @@
+package com.obinna.StockAnalysis.realtime;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SymbolTableTest {
+
+    @Test
+    void internsDenseIdsUpToCapacity() {
+        SymbolTable table = new SymbolTable(100);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, table.intern("SYM" + i));
+        }
+        assertEquals(100, table.size());
+
+        // full: new symbols are refused, known ones still resolve
+        assertEquals(-1, table.intern("LATE"));
+        assertEquals(-1, table.lookup("LATE"));
+        assertEquals(42, table.intern("SYM42"));
+        assertEquals(100, table.size());
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, table.lookup("SYM" + i));
+            assertEquals("SYM" + i, table.name(i));
+        }
+    }
+
+    @Test
+    void charLookupMatchesStringLookup() {
+        SymbolTable table = new SymbolTable(8);
+        table.intern("AAPL");
+        table.intern("MSFT");
+        table.intern("BRK.B");
+
+        char[] message = "{\"s\":\"MSFT\",\"p\":1}".toCharArray();
+        assertEquals(table.lookup("MSFT"), table.lookup(message, 6, 4));
+        // a prefix or a longer run of the same chars is a different symbol
+        assertEquals(-1, table.lookup(message, 6, 3));
+        assertEquals(-1, table.lookup("MSFTX".toCharArray(), 0, 5));
+        assertEquals(2, table.lookup("xBRK.B".toCharArray(), 1, 5));
+    }
+
+    @Test
+    void smallCapacityStillHasFreeSlots() {
+        // the slot array is sized above capacity, so a full table's probes always end
+        SymbolTable table = new SymbolTable(1);
+        assertEquals(0, table.intern("A"));
+        assertEquals(-1, table.intern("B"));
+        assertEquals(-1, table.lookup("B"));
+        assertEquals(-1, table.lookup("C".toCharArray(), 0, 1));
+    }
+}
@@ -0,0 +1,105 @@
+package com.obinna.StockAnalysis.realtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TradeRingBufferTest {
+
+    private record Trade(int symbol, double price, double volume, long timestamp) {
+    }
+
+    @Test
+    void keepsOrderAcrossWrapAround() {
+        TradeRingBuffer ring = new TradeRingBuffer(8);
+        List<Trade> seen = new ArrayList<>();
+        long next = 0;
+        // 5 in, 3 out: the cursors pass the end of the arrays many times over
+        for (int round = 0; round < 40; round++) {
+            for (int k = 0; k < 5 && ring.backlog() < ring.capacity(); k++, next++) {
+                assertTrue(ring.offer((int) next % 3, 100.0 + next, next, 1_000L * next));
+            }
+            ring.drain((s, p, v, t) -> seen.add(new Trade(s, p, v, t)), 3);
+        }
+        ring.drain((s, p, v, t) -> seen.add(new Trade(s, p, v, t)), Integer.MAX_VALUE);
+
+        assertEquals(next, seen.size());
+        for (int i = 0; i < seen.size(); i++) {
+            assertEquals(new Trade(i % 3, 100.0 + i, i, 1_000L * i), seen.get(i));
+        }
+        assertEquals(next, ring.published());
+        assertEquals(0, ring.dropped());
+        assertEquals(0, ring.backlog());
+    }
+
+    @Test
+    void dropsNewTradesWhenFull() {
+        TradeRingBuffer ring = new TradeRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i, i, 1, i));
+        }
+        assertFalse(ring.offer(4, 4, 1, 4));
+        assertFalse(ring.offer(5, 5, 1, 5));
+        assertEquals(2, ring.dropped());
+        assertEquals(4, ring.backlog());
+
+        // the oldest trades are kept, not overwritten
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, ring.drain((s, p, v, t) -> drained.add(s), 2));
+        assertEquals(List.of(0, 1), drained);
+
+        assertTrue(ring.offer(6, 6, 1, 6));
+        assertTrue(ring.offer(7, 7, 1, 7));
+        assertFalse(ring.offer(8, 8, 1, 8));
+        ring.drain((s, p, v, t) -> drained.add(s), 10);
+        assertEquals(List.of(0, 1, 2, 3, 6, 7), drained);
+        assertEquals(3, ring.dropped());
+    }
+
+    @Test
+    void drainOnEmptyRingHandsNothing() {
+        TradeRingBuffer ring = new TradeRingBuffer(2);
+        assertEquals(0, ring.drain((s, p, v, t) -> {
+            throw new AssertionError("no trade expected");
+        }, 10));
+    }
+
+    @Test
+    void capacityMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new TradeRingBuffer(6));
+        assertThrows(IllegalArgumentException.class, () -> new TradeRingBuffer(0));
+    }
+
+    @Test
+    void producerAndConsumerThreadsSeeEveryAcceptedTradeInOrder() throws InterruptedException {
+        TradeRingBuffer ring = new TradeRingBuffer(64);
+        int total = 200_000;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                ring.offer(i & 0xFF, i, 1.0, i);
+            }
+        });
+        AtomicLong last = new AtomicLong(-1);
+        AtomicLong received = new AtomicLong();
+        producer.start();
+        while (producer.isAlive() || ring.backlog() > 0) {
+            ring.drain((s, p, v, t) -> {
+                // dropped trades leave gaps, but what arrives is whole and in order
+                assertTrue(t > last.get());
+                assertEquals(t, (long) p);
+                assertEquals(t & 0xFF, s);
+                last.set(t);
+                received.incrementAndGet();
+            }, 16);
+        }
+        producer.join();
+        assertEquals(total, received.get() + ring.dropped());
+    }
+}
@@ -0,0 +1,61 @@
+package com.obinna.StockAnalysis.analytics;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Vector API dot products for CorrelationKernel; only compiled with -Pvector.
+// dot4 loads the row vector once and feeds four FMA accumulators.
+final class VectorDotProducts implements CorrelationKernel.DotProducts {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public float dot(float[] data, int a, int b, int t) {
+        FloatVector sum = FloatVector.zero(SPECIES);
+        int bound = SPECIES.loopBound(t);
+        int d = 0;
+        for (; d < bound; d += SPECIES.length()) {
+            FloatVector x = FloatVector.fromArray(SPECIES, data, a + d);
+            FloatVector y = FloatVector.fromArray(SPECIES, data, b + d);
+            sum = x.fma(y, sum);
+        }
+        float s = sum.reduceLanes(VectorOperators.ADD);
+        for (; d < t; d++) {
+            s += data[a + d] * data[b + d];
+        }
+        return s;
+    }
+
+    @Override
+    public void dot4(float[] data, int a, int b, int t, float[] out) {
+        FloatVector s0 = FloatVector.zero(SPECIES);
+        FloatVector s1 = FloatVector.zero(SPECIES);
+        FloatVector s2 = FloatVector.zero(SPECIES);
+        FloatVector s3 = FloatVector.zero(SPECIES);
+        int bound = SPECIES.loopBound(t);
+        int d = 0;
+        for (; d < bound; d += SPECIES.length()) {
+            FloatVector x = FloatVector.fromArray(SPECIES, data, a + d);
+            s0 = x.fma(FloatVector.fromArray(SPECIES, data, b + d), s0);
+            s1 = x.fma(FloatVector.fromArray(SPECIES, data, b + t + d), s1);
+            s2 = x.fma(FloatVector.fromArray(SPECIES, data, b + 2 * t + d), s2);
+            s3 = x.fma(FloatVector.fromArray(SPECIES, data, b + 3 * t + d), s3);
+        }
+        float r0 = s0.reduceLanes(VectorOperators.ADD);
+        float r1 = s1.reduceLanes(VectorOperators.ADD);
+        float r2 = s2.reduceLanes(VectorOperators.ADD);
+        float r3 = s3.reduceLanes(VectorOperators.ADD);
+        for (; d < t; d++) {
+            float x = data[a + d];
+            r0 += x * data[b + d];
+            r1 += x * data[b + t + d];
+            r2 += x * data[b + 2 * t + d];
+            r3 += x * data[b + 3 * t + d];
+        }
+        out[0] = r0;
+        out[1] = r1;
+        out[2] = r2;
+        out[3] = r3;
+    }
+}